@@ -0,0 +1,33 @@
+package ar.edu.huergo.clickservice.buscadorservicios;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Levanta la aplicación completa (H2 en memoria, datos iniciales) para los benchmarks que
+ * necesitan beans reales, con el logging de SQL y de seguridad apagado para no distorsionar las
+ * mediciones.
+ */
+public final class ContextoBenchmark {
+
+    private ContextoBenchmark() {
+    }
+
+    public static ConfigurableApplicationContext iniciar(String... propiedadesExtra) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.ar.edu.huergo.clickservice=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.springframework.web.filter=WARN"));
+        for (String propiedad : propiedadesExtra) {
+            args.add("--" + propiedad);
+        }
+        return SpringApplication.run(ClickServiceApplication.class, args.toArray(String[]::new));
+    }
+}
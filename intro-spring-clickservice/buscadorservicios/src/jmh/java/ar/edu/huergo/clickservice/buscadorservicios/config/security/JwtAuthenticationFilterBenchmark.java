@@ -0,0 +1,103 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import ar.edu.huergo.clickservice.buscadorservicios.ContextoBenchmark;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.AuditoriaService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.JwtAuthenticationCache;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.JwtTokenService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.RevocacionTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Compara el costo por request de los modos de autenticación de {@link JwtAuthenticationFilter}:
+ * - baseDeDatos: verifica el token y carga el usuario desde H2 en cada request.
+ * - stateless: construye las authorities desde el claim "roles", sin base de datos.
+ * - conCache: modo base de datos con la cache de tokens verificados (caso de requests repetidos).
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final FilterChain CADENA_VACIA = (request, response) -> { };
+
+    private ConfigurableApplicationContext contexto;
+    private JwtAuthenticationFilter filtroBaseDeDatos;
+    private JwtAuthenticationFilter filtroStateless;
+    private JwtAuthenticationFilter filtroConCache;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        JwtTokenService jwtTokenService = contexto.getBean(JwtTokenService.class);
+        UserDetailsService userDetailsService = contexto.getBean(UserDetailsService.class);
+        RevocacionTokenService revocacionTokenService = contexto.getBean(RevocacionTokenService.class);
+        AuditoriaService auditoriaService = contexto.getBean(AuditoriaService.class);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtAuthenticationCache sinCache = new JwtAuthenticationCache(false, 1, registry);
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(true, 1000, registry);
+        filtroBaseDeDatos = new JwtAuthenticationFilter(jwtTokenService, userDetailsService, sinCache,
+                revocacionTokenService, auditoriaService, false);
+        filtroStateless = new JwtAuthenticationFilter(jwtTokenService, userDetailsService, sinCache,
+                revocacionTokenService, auditoriaService, true);
+        filtroConCache = new JwtAuthenticationFilter(jwtTokenService, userDetailsService, cache,
+                revocacionTokenService, auditoriaService, false);
+
+        UserDetails admin = userDetailsService.loadUserByUsername("admin@clickservice.edu.ar");
+        String token = jwtTokenService.generarToken(admin,
+                admin.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        request = new MockHttpServletRequest("GET", "/api/servicios");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Authentication baseDeDatos() throws Exception {
+        return filtrar(filtroBaseDeDatos);
+    }
+
+    @Benchmark
+    public Authentication stateless() throws Exception {
+        return filtrar(filtroStateless);
+    }
+
+    @Benchmark
+    public Authentication conCache() throws Exception {
+        return filtrar(filtroConCache);
+    }
+
+    private Authentication filtrar(JwtAuthenticationFilter filtro) throws Exception {
+        filtro.doFilter(request, new MockHttpServletResponse(), CADENA_VACIA);
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacion;
+    }
+}
@@ -0,0 +1,84 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.FilterChainProxy;
+
+import ar.edu.huergo.clickservice.buscadorservicios.ContextoBenchmark;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.JwtTokenService;
+import jakarta.servlet.FilterChain;
+
+/**
+ * Mide el costo de la cadena de seguridad completa (FilterChainProxy) según el tipo de request:
+ * - publico: página web pública, atendida por la cadena sin sesión ni autenticación.
+ * - apiConJwt: request a la API con un token válido (cadena JWT stateless, con cache de tokens).
+ * - webAnonimo: página web privada sin sesión (cadena con sesiones, termina en redirect al login).
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=SecurityFilterChainBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SecurityFilterChainBenchmark {
+
+    private static final FilterChain CADENA_VACIA = (request, response) -> { };
+
+    private ConfigurableApplicationContext contexto;
+    private FilterChainProxy filterChainProxy;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        filterChainProxy = contexto.getBean(FilterChainProxy.class);
+
+        JwtTokenService jwtTokenService = contexto.getBean(JwtTokenService.class);
+        UserDetails cliente = contexto.getBean(UserDetailsService.class)
+                .loadUserByUsername("cliente@clickservice.edu.ar");
+        authorization = "Bearer " + jwtTokenService.generarToken(cliente,
+                cliente.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int publico() throws Exception {
+        return filtrar(new MockHttpServletRequest("GET", "/web/acerca"));
+    }
+
+    @Benchmark
+    public int apiConJwt() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/servicios");
+        request.addHeader("Authorization", authorization);
+        return filtrar(request);
+    }
+
+    @Benchmark
+    public int webAnonimo() throws Exception {
+        return filtrar(new MockHttpServletRequest("GET", "/web/dashboard"));
+    }
+
+    private int filtrar(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChainProxy.doFilter(request, response, CADENA_VACIA);
+        return response.getStatus();
+    }
+}
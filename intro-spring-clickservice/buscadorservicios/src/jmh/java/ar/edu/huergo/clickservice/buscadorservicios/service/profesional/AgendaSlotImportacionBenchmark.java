@@ -0,0 +1,128 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import ar.edu.huergo.clickservice.buscadorservicios.ContextoBenchmark;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ResultadoImportacionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.UsuarioRepository;
+
+/**
+ * Bloques de agenda guardados por segundo al cargar la agenda de un profesional, de a 500 bloques de
+ * una hora seguidos (sin superposiciones), sobre la aplicación completa con H2 en memoria. Después de
+ * cada invocación (fuera de la medición) se borran los bloques creados, así todas cargan la misma
+ * agenda vacía:
+ * - unoPorUno: un {@link AgendaSlotService#crearAgendaSlot} por bloque, como hace hoy el cliente con
+ *   un POST por bloque (cada uno con su transacción y su insert).
+ * - importacion: los 500 con {@link AgendaSlotService#importarAgendaSlots} (una transacción, inserts en
+ *   lotes JDBC).
+ *
+ * El resultado ya está en bloques por segundo (una operación es un bloque).
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=AgendaSlotImportacionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AgendaSlotImportacionBenchmark {
+
+    private static final int BLOQUES = 500;
+
+    private ConfigurableApplicationContext contexto;
+    private AgendaSlotService agendaSlotService;
+    private AgendaSlotRepository agendaSlotRepository;
+    private IndiceAgendas indiceAgendas;
+    private IndiceDisponibilidad indiceDisponibilidad;
+    private Long profesionalId;
+    private LocalDateTime primerInicio;
+    private final List<Long> creados = new ArrayList<>(BLOQUES);
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = ContextoBenchmark.iniciar();
+        agendaSlotService = contexto.getBean(AgendaSlotService.class);
+        agendaSlotRepository = contexto.getBean(AgendaSlotRepository.class);
+        indiceAgendas = contexto.getBean(IndiceAgendas.class);
+        indiceDisponibilidad = contexto.getBean(IndiceDisponibilidad.class);
+
+        Profesional profesional = new Profesional();
+        profesional.setUsuario(contexto.getBean(UsuarioRepository.class)
+                .findByUsername("profesional@clickservice.edu.ar").orElseThrow());
+        profesional.setNombreCompleto("Profesional Benchmark");
+        profesional.setTelefono("+54 9 11 5000-0000");
+        profesional.setServicios(new HashSet<>());
+        profesionalId = contexto.getBean(ProfesionalRepository.class).save(profesional).getId();
+        primerInicio = LocalDate.now().plusDays(1).atStartOfDay();
+    }
+
+    @TearDown(Level.Invocation)
+    public void borrarCreados() {
+        agendaSlotRepository.deleteAllByIdInBatch(creados);
+        for (Long id : creados) {
+            indiceAgendas.actualizarBloque(id, null);
+            indiceDisponibilidad.actualizarFranja(id, null);
+        }
+        creados.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOQUES)
+    public List<Long> unoPorUno() {
+        for (AgendaSlot agendaSlot : bloques()) {
+            creados.add(agendaSlotService.crearAgendaSlot(agendaSlot).getId());
+        }
+        return creados;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOQUES)
+    public List<ResultadoImportacionAgendaSlotDTO> importacion() {
+        List<ResultadoImportacionAgendaSlotDTO> resultados = agendaSlotService.importarAgendaSlots(bloques());
+        for (ResultadoImportacionAgendaSlotDTO resultado : resultados) {
+            if (resultado.error() != null) {
+                throw new IllegalStateException(resultado.error());
+            }
+            creados.add(resultado.agendaSlotId());
+        }
+        return resultados;
+    }
+
+    private List<AgendaSlot> bloques() {
+        List<AgendaSlot> bloques = new ArrayList<>(BLOQUES);
+        for (int i = 0; i < BLOQUES; i++) {
+            Profesional referencia = new Profesional();
+            referencia.setId(profesionalId);
+            AgendaSlot agendaSlot = new AgendaSlot();
+            agendaSlot.setProfesional(referencia);
+            agendaSlot.setFechaInicio(primerInicio.plusHours(i));
+            agendaSlot.setFechaFin(primerInicio.plusHours(i + 1));
+            bloques.add(agendaSlot);
+        }
+        return bloques;
+    }
+}
@@ -0,0 +1,151 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TramoAgendaDTO;
+
+/**
+ * Costo de controlar superposiciones y consultar la agenda de un profesional en {@link IndiceAgendas}
+ * frente a recorrer todos sus bloques (lo que hace una consulta por rango sin índice), con 200
+ * profesionales de 365 y 1.460 días de agenda, de a 6 bloques de una hora por día.
+ *
+ * <ul>
+ *   <li>{@code haySuperposicion} / {@code haySuperposicionRecorriendo}: el control de un alta.</li>
+ *   <li>{@code conflictosDelDia}: los bloques de un día.</li>
+ *   <li>{@code libreOcupadoSemana}: tramos libres y ocupados de una semana.</li>
+ *   <li>{@code estaLibreConMascaras} / {@code estaLibreConTramos}: si un rango de dos horas está libre,
+ *       con las máscaras diarias o con el barrido de libre/ocupado.</li>
+ *   <li>{@code mayorHuecoLibreDelDia}: la racha libre más larga de un día con las máscaras.</li>
+ *   <li>{@code moverBloque}: un bloque cambia de horario.</li>
+ * </ul>
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=IndiceAgendasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceAgendasBenchmark {
+
+    private static final int PROFESIONALES = 200;
+    private static final int BLOQUES_POR_DIA = 6;
+    private static final LocalDate PRIMER_DIA = LocalDate.of(2030, 1, 1);
+
+    @Param({"365", "1460"})
+    private int dias;
+
+    private IndiceAgendas indice;
+    private List<List<BloqueAgendaDTO>> bloquesPorProfesional;
+    private LocalDateTime[] consultas;
+    private List<BloqueAgendaDTO> movimientos;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SplittableRandom random = new SplittableRandom(5);
+        indice = new IndiceAgendas(null, null, null);
+        bloquesPorProfesional = new ArrayList<>(PROFESIONALES);
+        List<BloqueAgendaDTO> todos = new ArrayList<>();
+        long slotId = 1;
+        for (long id = 1; id <= PROFESIONALES; id++) {
+            List<BloqueAgendaDTO> bloques = new ArrayList<>(dias * BLOQUES_POR_DIA);
+            for (int dia = 0; dia < dias; dia++) {
+                for (int b = 0; b < BLOQUES_POR_DIA; b++) {
+                    LocalDateTime inicio = PRIMER_DIA.plusDays(dia).atTime(8 + 2 * b, 0);
+                    bloques.add(new BloqueAgendaDTO(slotId++, id, inicio, inicio.plusHours(1), random.nextBoolean()));
+                }
+            }
+            bloquesPorProfesional.add(bloques);
+            todos.addAll(bloques);
+        }
+        indice.cargar(todos);
+
+        // Consultas y movimientos pregenerados para no medir el generador de números al azar
+        consultas = new LocalDateTime[4096];
+        movimientos = new ArrayList<>(4096);
+        for (int i = 0; i < 4096; i++) {
+            consultas[i] = PRIMER_DIA.plusDays(random.nextInt(dias)).atTime(7 + random.nextInt(12), 30);
+            BloqueAgendaDTO anterior = todos.get(random.nextInt(todos.size()));
+            LocalDateTime inicio = anterior.fechaInicio().withHour(9 + 2 * random.nextInt(BLOQUES_POR_DIA));
+            movimientos.add(new BloqueAgendaDTO(anterior.agendaSlotId(), anterior.profesionalId(), inicio,
+                    inicio.plusHours(1), anterior.disponible()));
+        }
+    }
+
+    @Benchmark
+    public boolean haySuperposicion() {
+        int i = siguiente++ & 4095;
+        LocalDateTime inicio = consultas[i];
+        return indice.haySuperposicion(1L + (i % PROFESIONALES), inicio, inicio.plusMinutes(45), null);
+    }
+
+    @Benchmark
+    public boolean haySuperposicionRecorriendo() {
+        int i = siguiente++ & 4095;
+        LocalDateTime inicio = consultas[i];
+        LocalDateTime fin = inicio.plusMinutes(45);
+        for (BloqueAgendaDTO bloque : bloquesPorProfesional.get(i % PROFESIONALES)) {
+            if (bloque.fechaInicio().isBefore(fin) && bloque.fechaFin().isAfter(inicio)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public List<BloqueAgendaDTO> conflictosDelDia() {
+        int i = siguiente++ & 4095;
+        LocalDateTime dia = consultas[i].toLocalDate().atStartOfDay();
+        return indice.superpuestos(1L + (i % PROFESIONALES), dia, dia.plusDays(1));
+    }
+
+    @Benchmark
+    public List<TramoAgendaDTO> libreOcupadoSemana() {
+        int i = siguiente++ & 4095;
+        LocalDateTime dia = consultas[i].toLocalDate().atStartOfDay();
+        return indice.libreOcupado(1L + (i % PROFESIONALES), dia, dia.plusDays(7));
+    }
+
+    @Benchmark
+    public boolean estaLibreConMascaras() {
+        int i = siguiente++ & 4095;
+        LocalDateTime inicio = consultas[i];
+        return indice.estaLibre(1L + (i % PROFESIONALES), inicio, inicio.plusHours(2));
+    }
+
+    @Benchmark
+    public boolean estaLibreConTramos() {
+        int i = siguiente++ & 4095;
+        LocalDateTime inicio = consultas[i];
+        return indice.libreOcupado(1L + (i % PROFESIONALES), inicio, inicio.plusHours(2)).stream()
+                .allMatch(tramo -> tramo.estado() == TramoAgendaDTO.Estado.LIBRE);
+    }
+
+    @Benchmark
+    public Duration mayorHuecoLibreDelDia() {
+        int i = siguiente++ & 4095;
+        return indice.mayorHuecoLibre(1L + (i % PROFESIONALES), consultas[i].toLocalDate());
+    }
+
+    @Benchmark
+    public void moverBloque() {
+        BloqueAgendaDTO bloque = movimientos.get(siguiente++ & 4095);
+        indice.actualizarBloque(bloque.agendaSlotId(), bloque);
+    }
+}
@@ -0,0 +1,111 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FranjaLibreDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ServicioProfesionalDTO;
+
+/**
+ * Costo de buscar disponibilidad y de actualizar un bloque en {@link IndiceDisponibilidad}, con
+ * 10.000 y 50.000 profesionales repartidos en 20 servicios (cada uno ofrece entre 1 y 3), cada uno
+ * con dos bloques libres por día durante 30 días.
+ *
+ * <ul>
+ *   <li>{@code tarde}: los primeros 20 libres del servicio un día entre las 14 y las 18.</li>
+ *   <li>{@code tardeDosHoras}: lo mismo pero con huecos de al menos dos horas.</li>
+ *   <li>{@code proximasFechas}: el próximo día con disponibilidad de todos los servicios.</li>
+ *   <li>{@code actualizarFranja}: un bloque al azar cambia de horario.</li>
+ * </ul>
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=IndiceDisponibilidadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceDisponibilidadBenchmark {
+
+    private static final int SERVICIOS = 20;
+    private static final int DIAS = 30;
+    private static final LocalDate PRIMER_DIA = LocalDate.of(2030, 1, 1);
+    private static final LocalDateTime AHORA = PRIMER_DIA.minusDays(1).atStartOfDay();
+
+    @Param({"10000", "50000"})
+    private int profesionales;
+
+    private IndiceDisponibilidad indice;
+    private List<FranjaLibreDTO> actualizaciones;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SplittableRandom random = new SplittableRandom(3);
+        indice = new IndiceDisponibilidad(null, null);
+        List<ServicioProfesionalDTO> servicios = new ArrayList<>();
+        List<FranjaLibreDTO> franjas = new ArrayList<>();
+        long slotId = 1;
+        for (long id = 1; id <= profesionales; id++) {
+            int cantidadServicios = 1 + random.nextInt(3);
+            for (int s = 0; s < cantidadServicios; s++) {
+                servicios.add(new ServicioProfesionalDTO(id, 1L + random.nextInt(SERVICIOS)));
+            }
+            for (int dia = 0; dia < DIAS; dia++) {
+                franjas.add(franja(random, slotId++, id, PRIMER_DIA.plusDays(dia)));
+                franjas.add(franja(random, slotId++, id, PRIMER_DIA.plusDays(dia)));
+            }
+        }
+        indice.cargar(servicios, franjas);
+
+        // Actualizaciones pregeneradas para no medir el generador de números al azar
+        actualizaciones = new ArrayList<>(4096);
+        for (int i = 0; i < 4096; i++) {
+            FranjaLibreDTO anterior = franjas.get(random.nextInt(franjas.size()));
+            actualizaciones.add(franja(random, anterior.agendaSlotId(), anterior.profesionalId(),
+                    PRIMER_DIA.plusDays(random.nextInt(DIAS))));
+        }
+    }
+
+    @Benchmark
+    public List<IndiceDisponibilidad.ProfesionalLibre> tarde() {
+        LocalDate dia = PRIMER_DIA.plusDays(10);
+        return indice.buscar(7L, dia.atTime(14, 0), dia.atTime(18, 0), Duration.ZERO, 20, AHORA);
+    }
+
+    @Benchmark
+    public List<IndiceDisponibilidad.ProfesionalLibre> tardeDosHoras() {
+        LocalDate dia = PRIMER_DIA.plusDays(10);
+        return indice.buscar(7L, dia.atTime(14, 0), dia.atTime(18, 0), Duration.ofHours(2), 20, AHORA);
+    }
+
+    @Benchmark
+    public Map<Long, LocalDate> proximasFechas() {
+        return indice.proximasFechas(AHORA);
+    }
+
+    @Benchmark
+    public void actualizarFranja() {
+        FranjaLibreDTO franja = actualizaciones.get(siguiente++ & 4095);
+        indice.actualizarFranja(franja.agendaSlotId(), franja);
+    }
+
+    private static FranjaLibreDTO franja(SplittableRandom random, long slotId, long profesionalId, LocalDate dia) {
+        LocalDateTime inicio = dia.atTime(7 + random.nextInt(12), 15 * random.nextInt(4));
+        return new FranjaLibreDTO(slotId, profesionalId, inicio, inicio.plusMinutes(30L * (1 + random.nextInt(8))));
+    }
+}
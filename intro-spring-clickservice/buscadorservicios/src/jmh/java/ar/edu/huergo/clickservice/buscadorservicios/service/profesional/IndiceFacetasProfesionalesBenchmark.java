@@ -0,0 +1,107 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroFacetasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ModoServicios;
+
+/**
+ * Costo de una búsqueda por facetas (primera página de 20 y conteos de todas las facetas) y de
+ * reindexar un profesional en {@link IndiceFacetasProfesionales}, con 100.000 y 500.000
+ * profesionales repartidos en 20 servicios (cada uno ofrece entre 1 y 3) y 50 zonas.
+ *
+ * <ul>
+ *   <li>{@code sinFiltros}: la primera vista del directorio, sólo conteos.</li>
+ *   <li>{@code serviciosConYZona}: dos servicios con Y, una zona y sólo disponibles.</li>
+ *   <li>{@code serviciosConO}: tres servicios con O y dos rangos de calificación.</li>
+ *   <li>{@code reindexar}: cambian los valores de faceta de un profesional al azar.</li>
+ * </ul>
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=IndiceFacetasProfesionalesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceFacetasProfesionalesBenchmark {
+
+    private static final int SERVICIOS = 20;
+    private static final int ZONAS = 50;
+
+    private static final FiltroFacetasDTO SIN_FILTROS = new FiltroFacetasDTO(null, ModoServicios.ALGUNO, null,
+            null, null);
+    private static final FiltroFacetasDTO SERVICIOS_CON_Y_ZONA = new FiltroFacetasDTO(Set.of(1L, 2L),
+            ModoServicios.TODOS, Set.of("Zona 7"), null, true);
+    private static final FiltroFacetasDTO SERVICIOS_CON_O = new FiltroFacetasDTO(Set.of(3L, 4L, 5L),
+            ModoServicios.ALGUNO, null, Set.of(3, 4), null);
+
+    @Param({"100000", "500000"})
+    private int profesionales;
+
+    private IndiceFacetasProfesionales indice;
+    private List<List<FacetaProfesionalDTO>> actualizaciones;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SplittableRandom random = new SplittableRandom(5);
+        indice = new IndiceFacetasProfesionales(null);
+        List<FacetaProfesionalDTO> filas = new ArrayList<>();
+        for (long id = 1; id <= profesionales; id++) {
+            filas.addAll(filas(random, id));
+        }
+        indice.indexar(filas);
+
+        // Actualizaciones pregeneradas para no medir el generador de números al azar
+        actualizaciones = new ArrayList<>(4096);
+        for (int i = 0; i < 4096; i++) {
+            actualizaciones.add(filas(random, 1 + random.nextInt(profesionales)));
+        }
+    }
+
+    @Benchmark
+    public IndiceFacetasProfesionales.Resultado sinFiltros() {
+        return indice.buscar(SIN_FILTROS, 0, 20);
+    }
+
+    @Benchmark
+    public IndiceFacetasProfesionales.Resultado serviciosConYZona() {
+        return indice.buscar(SERVICIOS_CON_Y_ZONA, 0, 20);
+    }
+
+    @Benchmark
+    public IndiceFacetasProfesionales.Resultado serviciosConO() {
+        return indice.buscar(SERVICIOS_CON_O, 0, 20);
+    }
+
+    @Benchmark
+    public void reindexar() {
+        indice.indexar(actualizaciones.get(siguiente++ & 4095));
+    }
+
+    private static List<FacetaProfesionalDTO> filas(SplittableRandom random, long id) {
+        double calificacion = random.nextInt(51) / 10.0;
+        boolean disponible = random.nextInt(10) < 7;
+        String zona = "Zona " + random.nextInt(ZONAS);
+        int cantidadServicios = 1 + random.nextInt(3);
+        List<FacetaProfesionalDTO> filas = new ArrayList<>(cantidadServicios);
+        for (int s = 0; s < cantidadServicios; s++) {
+            filas.add(new FacetaProfesionalDTO(id, calificacion, disponible, zona, 1L + random.nextInt(SERVICIOS)));
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,105 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.UbicacionProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.util.GrillaGeografica.Vecino;
+
+/**
+ * Latencia de la búsqueda de los k profesionales más cercanos en {@link IndiceGeograficoProfesionales}
+ * con 1.000.000 de profesionales y 20 servicios (cada profesional ofrece entre 1 y 3).
+ *
+ * El 80% de los profesionales se concentra alrededor de cinco ciudades y el resto se reparte en
+ * todo el país, de modo que se miden tanto zonas densas (centro de Buenos Aires) como zonas poco
+ * pobladas donde la búsqueda tiene que recorrer más anillos de la grilla.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=IndiceGeograficoProfesionalesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceGeograficoProfesionalesBenchmark {
+
+    private static final double[][] CIUDADES = {
+        {-34.6037, -58.3816}, {-31.4201, -64.1888}, {-32.9442, -60.6505}, {-32.8895, -68.8458},
+        {-26.8083, -65.2176}
+    };
+    private static final int SERVICIOS = 20;
+    private static final int CONSULTAS = 1024;
+
+    @Param({"1000000"})
+    private int profesionales;
+
+    private IndiceGeograficoProfesionales indice;
+    private double[][] consultasCiudad;
+    private double[][] consultasInterior;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SplittableRandom random = new SplittableRandom(7);
+        indice = new IndiceGeograficoProfesionales(null, 0.05);
+        List<UbicacionProfesionalDTO> filas = new ArrayList<>();
+        for (long id = 1; id <= profesionales; id++) {
+            double[] punto = random.nextInt(10) < 8 ? cercaDeCiudad(random) : enElPais(random);
+            Double radio = random.nextInt(4) == 0 ? 5.0 + random.nextInt(30) : null;
+            int cantidadServicios = 1 + random.nextInt(3);
+            for (int s = 0; s < cantidadServicios; s++) {
+                filas.add(new UbicacionProfesionalDTO(id, punto[0], punto[1], radio,
+                        (long) 1 + random.nextInt(SERVICIOS)));
+            }
+        }
+        indice.cargar(filas);
+
+        consultasCiudad = new double[CONSULTAS][];
+        consultasInterior = new double[CONSULTAS][];
+        for (int i = 0; i < CONSULTAS; i++) {
+            consultasCiudad[i] = cercaDeCiudad(random);
+            consultasInterior[i] = enElPais(random);
+        }
+    }
+
+    @Benchmark
+    public List<Vecino> k10EnCiudad() {
+        double[] punto = consultasCiudad[siguiente++ & (CONSULTAS - 1)];
+        return indice.buscarCercanos(1L + (siguiente % SERVICIOS), punto[0], punto[1], 10, 50);
+    }
+
+    @Benchmark
+    public List<Vecino> k10EnElInterior() {
+        double[] punto = consultasInterior[siguiente++ & (CONSULTAS - 1)];
+        return indice.buscarCercanos(1L + (siguiente % SERVICIOS), punto[0], punto[1], 10, 50);
+    }
+
+    private static double[] cercaDeCiudad(SplittableRandom random) {
+        double[] ciudad = CIUDADES[random.nextInt(CIUDADES.length)];
+        // Dispersión de unos 15-20 km alrededor del centro
+        return new double[] {ciudad[0] + gauss(random) * 0.15, ciudad[1] + gauss(random) * 0.15};
+    }
+
+    private static double[] enElPais(SplittableRandom random) {
+        return new double[] {-55 + random.nextDouble() * 33, -73 + random.nextDouble() * 20};
+    }
+
+    private static double gauss(SplittableRandom random) {
+        // Aproximación de una normal estándar sumando uniformes
+        double suma = 0;
+        for (int i = 0; i < 12; i++) {
+            suma += random.nextDouble();
+        }
+        return suma - 6;
+    }
+}
@@ -0,0 +1,124 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TextoProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.util.IndiceInvertido;
+
+/**
+ * Distribución de latencias (incluido p99) de la búsqueda de texto de {@link IndiceTextoProfesionales}
+ * con corpus de 100.000 y 500.000 profesionales generados al azar.
+ *
+ * Las descripciones usan un vocabulario con distribución de Zipf, así hay términos muy frecuentes
+ * (listas de ocurrencias largas) y términos raros. Se miden consultas de un servicio (el caso más
+ * costoso: decenas de miles de coincidencias), servicio + zona, y un apellido poco frecuente.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=IndiceTextoProfesionalesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceTextoProfesionalesBenchmark {
+
+    private static final String[] SERVICIOS = {
+        "Plomería", "Gas", "Electricidad", "Albañilería", "Jardinería", "Carpintería", "Pintura",
+        "Herrería", "Cerrajería", "Refrigeración", "Techista", "Vidriería", "Mudanzas", "Limpieza",
+        "Fumigación", "Tapicería", "Durlock", "Soldadura", "Piletas", "Alarmas"
+    };
+    private static final String[] NOMBRES = {
+        "Juan", "María", "José", "Ana", "Carlos", "Lucía", "Jorge", "Sofía", "Luis", "Valentina",
+        "Miguel", "Camila", "Diego", "Martina", "Pablo", "Julieta", "Martín", "Florencia"
+    };
+    private static final int APELLIDOS = 5000;
+    private static final int ZONAS = 300;
+    private static final int VOCABULARIO = 20000;
+    private static final int CONSULTAS = 1024;
+
+    @Param({"100000", "500000"})
+    private int profesionales;
+
+    private IndiceTextoProfesionales indice;
+    private String[] consultasServicio;
+    private String[] consultasServicioYZona;
+    private String[] consultasApellido;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SplittableRandom random = new SplittableRandom(11);
+        indice = new IndiceTextoProfesionales(null);
+        List<TextoProfesionalDTO> lote = new ArrayList<>();
+        for (long id = 1; id <= profesionales; id++) {
+            String nombre = NOMBRES[random.nextInt(NOMBRES.length)] + " " + apellido(random.nextInt(APELLIDOS));
+            String descripcion = descripcion(random);
+            String zona = zona(random.nextInt(ZONAS));
+            int cantidadServicios = 1 + random.nextInt(3);
+            for (int s = 0; s < cantidadServicios; s++) {
+                lote.add(new TextoProfesionalDTO(id, nombre, descripcion, zona,
+                        SERVICIOS[random.nextInt(SERVICIOS.length)]));
+            }
+            if (lote.size() >= 10000) {
+                indice.indexar(lote);
+                lote = new ArrayList<>();
+            }
+        }
+        indice.indexar(lote);
+
+        consultasServicio = new String[CONSULTAS];
+        consultasServicioYZona = new String[CONSULTAS];
+        consultasApellido = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            String servicio = SERVICIOS[random.nextInt(SERVICIOS.length)].toLowerCase();
+            consultasServicio[i] = servicio;
+            consultasServicioYZona[i] = servicio + " en " + zona(random.nextInt(ZONAS));
+            consultasApellido[i] = apellido(random.nextInt(APELLIDOS));
+        }
+    }
+
+    @Benchmark
+    public IndiceInvertido.Pagina servicio() {
+        return indice.buscar(consultasServicio[siguiente++ & (CONSULTAS - 1)], 0, 20);
+    }
+
+    @Benchmark
+    public IndiceInvertido.Pagina servicioYZona() {
+        return indice.buscar(consultasServicioYZona[siguiente++ & (CONSULTAS - 1)], 0, 20);
+    }
+
+    @Benchmark
+    public IndiceInvertido.Pagina apellido() {
+        return indice.buscar(consultasApellido[siguiente++ & (CONSULTAS - 1)], 0, 20);
+    }
+
+    private static String apellido(int i) {
+        return "Apellido" + Integer.toString(i, 36);
+    }
+
+    private static String zona(int i) {
+        return "Barrio" + Integer.toString(i, 36);
+    }
+
+    private static String descripcion(SplittableRandom random) {
+        StringBuilder descripcion = new StringBuilder();
+        int palabras = 8 + random.nextInt(20);
+        for (int i = 0; i < palabras; i++) {
+            // Zipf aproximado: el rango se elige con probabilidad ~1/rango
+            int rango = (int) Math.pow(VOCABULARIO, random.nextDouble());
+            descripcion.append("palabra").append(Integer.toString(rango, 36)).append(' ');
+        }
+        return descripcion.toString();
+    }
+}
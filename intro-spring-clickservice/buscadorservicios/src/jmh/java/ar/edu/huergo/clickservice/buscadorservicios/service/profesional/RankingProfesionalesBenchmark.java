@@ -0,0 +1,98 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.MetricasRankingDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.util.TopKIncremental;
+
+/**
+ * Costo de actualizar y de consultar {@link RankingProfesionales} con 100.000 y 500.000
+ * profesionales repartidos en 20 servicios (cada uno ofrece entre 1 y 3) y un top de 100.
+ *
+ * <ul>
+ *   <li>{@code actualizar}: llega una reseña o cambian los trabajos de un profesional al azar.</li>
+ *   <li>{@code consultarTop10}: el top no cambió desde la última consulta (ya está ordenado).</li>
+ *   <li>{@code actualizarYConsultarTop10}: peor caso de lectura, el top se vuelve a ordenar.</li>
+ * </ul>
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=RankingProfesionalesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RankingProfesionalesBenchmark {
+
+    private static final int SERVICIOS = 20;
+    private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Param({"100000", "500000"})
+    private int profesionales;
+
+    private RankingProfesionales ranking;
+    private List<List<MetricasRankingDTO>> actualizaciones;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SplittableRandom random = new SplittableRandom(3);
+        ranking = new RankingProfesionales(null, 100, 0.6, 0.25, 0.15, 90);
+        ranking.recalcular(AHORA);
+        List<MetricasRankingDTO> filas = new ArrayList<>();
+        for (long id = 1; id <= profesionales; id++) {
+            filas.addAll(filas(random, id));
+        }
+        ranking.cargar(filas);
+
+        // Actualizaciones pregeneradas para no medir el generador de números al azar
+        actualizaciones = new ArrayList<>(4096);
+        for (int i = 0; i < 4096; i++) {
+            actualizaciones.add(filas(random, 1 + random.nextInt(profesionales)));
+        }
+    }
+
+    @Benchmark
+    public void actualizar() {
+        List<MetricasRankingDTO> filas = actualizaciones.get(siguiente++ & 4095);
+        ranking.actualizar(filas.get(0).profesionalId(), filas);
+    }
+
+    @Benchmark
+    public List<TopKIncremental.Entrada> consultarTop10() {
+        return ranking.mejores(1L + (siguiente++ & 15), 10);
+    }
+
+    @Benchmark
+    public List<TopKIncremental.Entrada> actualizarYConsultarTop10() {
+        List<MetricasRankingDTO> filas = actualizaciones.get(siguiente++ & 4095);
+        ranking.actualizar(filas.get(0).profesionalId(), filas);
+        return ranking.mejores(filas.get(0).servicioId(), 10);
+    }
+
+    private static List<MetricasRankingDTO> filas(SplittableRandom random, long id) {
+        int trabajos = random.nextInt(400);
+        long reseñas = random.nextInt(60);
+        Double promedio = reseñas == 0 ? null : 1 + random.nextDouble() * 4;
+        LocalDateTime ultima = reseñas == 0 ? null : AHORA.minusDays(random.nextInt(720));
+        int cantidadServicios = 1 + random.nextInt(3);
+        List<MetricasRankingDTO> filas = new ArrayList<>(cantidadServicios);
+        for (int s = 0; s < cantidadServicios; s++) {
+            filas.add(new MetricasRankingDTO(id, 1L + random.nextInt(SERVICIOS), trabajos, reseñas, promedio,
+                    ultima));
+        }
+        return filas;
+    }
+}
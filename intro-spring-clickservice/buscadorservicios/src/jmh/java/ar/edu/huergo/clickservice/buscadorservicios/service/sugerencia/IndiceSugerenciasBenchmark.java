@@ -0,0 +1,106 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.sugerencia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.SugerenciaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia.SugerenciasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+
+/**
+ * Costo de una sugerencia y de actualizar un profesional en {@link IndiceSugerencias}, con 100.000
+ * y 500.000 profesionales de nombres combinados al azar, 200 servicios y 300 zonas.
+ *
+ * <ul>
+ *   <li>{@code unaLetra}: lo primero que se escribe; coinciden decenas de miles de elementos.</li>
+ *   <li>{@code palabraAcentuada}: un apellido escrito con tilde y mayúsculas.</li>
+ *   <li>{@code actualizarProfesional}: cambian nombre, trabajos y servicios de uno al azar.</li>
+ * </ul>
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=IndiceSugerenciasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndiceSugerenciasBenchmark {
+
+    private static final String[] NOMBRES = {"Juan", "María", "Pedro", "Ana", "Lucía", "Martín", "Sofía",
+            "Diego", "Valentina", "Tomás", "Camila", "Nicolás", "Julieta", "Matías", "Agustina", "Federico"};
+    private static final String[] APELLIDOS = {"Pérez", "Gómez", "González", "Rodríguez", "Fernández", "López",
+            "Martínez", "Sánchez", "Romero", "Díaz", "Álvarez", "Torres", "Ruiz", "Ramírez", "Flores", "Acosta",
+            "Benítez", "Medina", "Herrera", "Suárez"};
+    private static final int SERVICIOS = 200;
+    private static final int ZONAS = 300;
+
+    @Param({"100000", "500000"})
+    private int profesionales;
+
+    private IndiceSugerencias indice;
+    private List<List<SugerenciaProfesionalDTO>> actualizaciones;
+    private long[] idsActualizados;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        SplittableRandom random = new SplittableRandom(7);
+        indice = new IndiceSugerencias(null, null, 10);
+        List<Servicio> servicios = new ArrayList<>(SERVICIOS);
+        for (long id = 1; id <= SERVICIOS; id++) {
+            servicios.add(new Servicio(id, "Servicio " + id, 1000.0));
+        }
+        List<SugerenciaProfesionalDTO> filas = new ArrayList<>();
+        for (long id = 1; id <= profesionales; id++) {
+            filas.addAll(filas(random, id));
+        }
+        indice.cargar(servicios, filas);
+
+        // Actualizaciones pregeneradas para no medir el generador de números al azar
+        actualizaciones = new ArrayList<>(4096);
+        idsActualizados = new long[4096];
+        for (int i = 0; i < 4096; i++) {
+            idsActualizados[i] = 1 + random.nextInt(profesionales);
+            actualizaciones.add(filas(random, idsActualizados[i]));
+        }
+    }
+
+    @Benchmark
+    public SugerenciasDTO unaLetra() {
+        return indice.sugerir("m", 10);
+    }
+
+    @Benchmark
+    public SugerenciasDTO palabraAcentuada() {
+        return indice.sugerir("RODRÍG", 10);
+    }
+
+    @Benchmark
+    public void actualizarProfesional() {
+        int i = siguiente++ & 4095;
+        indice.actualizarProfesional(idsActualizados[i], actualizaciones.get(i));
+    }
+
+    private static List<SugerenciaProfesionalDTO> filas(SplittableRandom random, long id) {
+        String nombre = NOMBRES[random.nextInt(NOMBRES.length)] + " " + APELLIDOS[random.nextInt(APELLIDOS.length)]
+                + " " + APELLIDOS[random.nextInt(APELLIDOS.length)];
+        String zona = "Zona " + random.nextInt(ZONAS);
+        int trabajos = random.nextInt(500);
+        int cantidadServicios = 1 + random.nextInt(3);
+        List<SugerenciaProfesionalDTO> filas = new ArrayList<>(cantidadServicios);
+        for (int s = 0; s < cantidadServicios; s++) {
+            filas.add(new SugerenciaProfesionalDTO(id, nombre, zona, trabajos, 1L + random.nextInt(SERVICIOS)));
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,147 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link PasswordEncoder} que ejecuta el hashing (BCrypt) en un pool de hilos propio y acotado.
+ *
+ * - La cantidad de hashes simultáneos queda limitada por el tamaño del pool, así una ráfaga de
+ *   logins no consume todo el CPU y las lecturas baratas siguen respondiendo.
+ * - La cola de espera es acotada: si está llena se lanza {@link HashingSaturadoException} en lugar
+ *   de encolar sin límite (el cliente recibe 503 con Retry-After).
+ * - Si el llamador ya es un hilo del pool el trabajo se ejecuta directamente, evitando bloqueos.
+ *
+ * Métricas: password.hash.cola (profundidad de la cola), password.hash.activos,
+ * password.hash.duracion (latencia por operación) y password.hash.rechazos.
+ */
+public class HashingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final String PREFIJO_HILO = "password-hash-";
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final long reintentarEnSegundos;
+
+    private final Timer duracionEncode;
+    private final Timer duracionMatches;
+    private final Counter rechazos;
+
+    public HashingPasswordEncoder(PasswordEncoder delegado, int hilos, int capacidadCola,
+            long reintentarEnSegundos, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.reintentarEnSegundos = reintentarEnSegundos;
+        int tamanioPool = Math.max(1, hilos);
+        this.executor = new ThreadPoolExecutor(tamanioPool, tamanioPool, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, capacidadCola)), crearThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.duracionEncode = Timer.builder("password.hash.duracion").tag("operacion", "encode")
+                .description("Tiempo de cálculo de un hash de contraseña")
+                .register(meterRegistry);
+        this.duracionMatches = Timer.builder("password.hash.duracion").tag("operacion", "matches")
+                .description("Tiempo de verificación de una contraseña contra su hash")
+                .register(meterRegistry);
+        this.rechazos = Counter.builder("password.hash.rechazos")
+                .description("Operaciones rechazadas por tener la cola de hashing llena")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.cola", executor, e -> e.getQueue().size())
+                .description("Operaciones de hashing esperando un hilo libre")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.activos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operaciones de hashing en ejecución")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> duracionEncode.recordCallable(() -> delegado.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> duracionMatches.recordCallable(
+                () -> delegado.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * No calcula ningún hash (sólo lee el costo del hash guardado), por eso no pasa por el pool.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    public int getTamanioCola() {
+        return executor.getQueue().size();
+    }
+
+    public long getRechazos() {
+        return (long) rechazos.count();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T ejecutar(Callable<T> tarea) {
+        if (Thread.currentThread().getName().startsWith(PREFIJO_HILO)) {
+            return llamar(tarea);
+        }
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(tarea);
+        } catch (RejectedExecutionException ex) {
+            rechazos.increment();
+            throw new HashingSaturadoException(reintentarEnSegundos);
+        }
+        try {
+            return futuro.get();
+        } catch (InterruptedException ex) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se calculaba el hash", ex);
+        } catch (ExecutionException ex) {
+            Throwable causa = ex.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Error calculando el hash de la contraseña", causa);
+        }
+    }
+
+    private static <T> T llamar(Callable<T> tarea) {
+        try {
+            return tarea.call();
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException("Error calculando el hash de la contraseña", ex);
+        }
+    }
+
+    private static ThreadFactory crearThreadFactory() {
+        AtomicInteger contador = new AtomicInteger();
+        return runnable -> {
+            Thread hilo = new Thread(runnable, PREFIJO_HILO + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+}
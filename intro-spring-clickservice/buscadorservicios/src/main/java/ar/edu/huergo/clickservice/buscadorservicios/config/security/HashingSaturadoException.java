@@ -0,0 +1,20 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+/**
+ * Se lanza cuando el pool de hashing de contraseñas está lleno y no puede aceptar más trabajo. En la
+ * API se traduce a un 503 con header Retry-After en {@code GlobalExceptionHandler}; en el form login
+ * web, a una redirección al login en {@link LimiteLoginWebFilter}.
+ */
+public class HashingSaturadoException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public HashingSaturadoException(long reintentarEnSegundos) {
+        super("El servicio de autenticación está saturado, reintente en unos segundos");
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
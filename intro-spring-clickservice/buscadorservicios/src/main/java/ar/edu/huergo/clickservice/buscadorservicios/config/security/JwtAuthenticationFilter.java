@@ -1,28 +1,63 @@
 package ar.edu.huergo.clickservice.buscadorservicios.config.security;
 
 import java.io.IOException;
+import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TipoEventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.AuditoriaService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.JwtAuthenticationCache;
 import ar.edu.huergo.clickservice.buscadorservicios.service.security.JwtTokenService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.RevocacionTokenService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 
+/**
+ * Filtro que autentica los requests de la API a partir del header "Authorization: Bearer ...".
+ *
+ * Tiene dos modos de funcionamiento (propiedad security.jwt.stateless):
+ * - false (por defecto): el usuario y sus roles se cargan con el {@link UserDetailsService}, por
+ *   lo que cambios de roles o bajas se reflejan apenas se invalida la cache de tokens.
+ * - true: las authorities se construyen directamente desde el claim "roles" del token firmado, sin
+ *   acceder a la base de datos. Un cambio de roles recién se refleja cuando el token expira, por
+ *   eso conviene combinarlo con un security.jwt.expiration-ms corto.
+ */
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
     private final UserDetailsService userDetailsService;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
+    private final RevocacionTokenService revocacionTokenService;
+    private final AuditoriaService auditoriaService;
+    private final boolean modoStateless;
+
+    public JwtAuthenticationFilter(JwtTokenService jwtTokenService, UserDetailsService userDetailsService,
+            JwtAuthenticationCache jwtAuthenticationCache, RevocacionTokenService revocacionTokenService,
+            AuditoriaService auditoriaService,
+            @Value("${security.jwt.stateless:false}") boolean modoStateless) {
+        this.jwtTokenService = jwtTokenService;
+        this.userDetailsService = userDetailsService;
+        this.jwtAuthenticationCache = jwtAuthenticationCache;
+        this.revocacionTokenService = revocacionTokenService;
+        this.auditoriaService = auditoriaService;
+        this.modoStateless = modoStateless;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
@@ -41,23 +76,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extraer el token (sin "Bearer ")
             String token = authHeader.substring(7);
             
-            // Extraer el username del token
-            String username = jwtTokenService.extraerUsername(token);
-            
-            // Si hay username y no hay autenticación previa en el contexto
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                
-                // Cargar los detalles del usuario
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                // Validar el token
-                if (jwtTokenService.esTokenValido(token, userDetails)) {
-                    // Crear el token de autenticación
-                    UsernamePasswordAuthenticationToken authToken = 
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, 
-                                    null, 
-                                    userDetails.getAuthorities()
+            // Si no hay autenticación previa en el contexto
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+
+                // Buscar primero en la cache de tokens ya verificados
+                Authentication autenticacion = autenticarDesdeCache(token);
+                if (autenticacion == null) {
+                    autenticacion = autenticarToken(token);
+                    if (autenticacion == null) {
+                        auditoriaService.registrar(TipoEventoAuditoria.TOKEN_INVALIDO, null, request,
+                                "Token rechazado");
+                    }
+                }
+
+                if (autenticacion != null) {
+                    // Crear el token de autenticación para este request
+                    UsernamePasswordAuthenticationToken authToken =
+                            UsernamePasswordAuthenticationToken.authenticated(
+                                    autenticacion.getPrincipal(),
+                                    null,
+                                    autenticacion.getAuthorities()
                             );
                     
                     // Establecer detalles adicionales
@@ -71,6 +109,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (Exception ex) {
             // Log del error para debugging
             logger.error("Error procesando JWT token: " + ex.getMessage());
+            auditoriaService.registrar(TipoEventoAuditoria.TOKEN_INVALIDO, null, request,
+                    ex.getClass().getSimpleName());
             // Limpiar el contexto de seguridad en caso de error
             SecurityContextHolder.clearContext();
         }
@@ -78,4 +118,73 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Continuar con la cadena de filtros
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Autenticación cacheada del token, si no fue revocado. La revocación se vuelve a consultar en cada
+     * acierto (es un chequeo en memoria): una revocación que llega entre el chequeo de
+     * {@link #autenticarToken} y el guardado en la cache no alcanza a invalidar la entrada.
+     */
+    private Authentication autenticarDesdeCache(String token) {
+        JwtAuthenticationCache.TokenVerificado verificado = jwtAuthenticationCache.obtener(token);
+        if (verificado == null || revocacionTokenService.estaRevocado(verificado.jti(),
+                verificado.autenticacion().getName(), verificado.emitidoEn())) {
+            return null;
+        }
+        return verificado.autenticacion();
+    }
+
+    /**
+     * Verifica el token (un solo parseo) y construye la autenticación según el modo configurado. Si
+     * todo es válido, la guarda en la cache hasta la expiración del token.
+     */
+    private Authentication autenticarToken(String token) {
+        Claims claims = jwtTokenService.extraerClaims(token);
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+        // Chequeo en memoria; se repite en cada acierto de la cache
+        if (revocacionTokenService.estaRevocado(claims.getId(), username, claims.getIssuedAt())) {
+            return null;
+        }
+
+        UserDetails principal = modoStateless
+                ? principalDesdeClaims(username, claims)
+                : principalDesdeBaseDeDatos(username, claims);
+        if (principal == null) {
+            return null;
+        }
+
+        Authentication autenticacion = UsernamePasswordAuthenticationToken.authenticated(
+                principal, null, principal.getAuthorities());
+        jwtAuthenticationCache.guardar(token, autenticacion, claims.getId(), claims.getIssuedAt(),
+                claims.getExpiration());
+        return autenticacion;
+    }
+
+    /**
+     * Modo stateless: las authorities salen del claim "roles", que ya viene firmado.
+     */
+    private UserDetails principalDesdeClaims(String username, Claims claims) {
+        List<GrantedAuthority> authorities = jwtTokenService.extraerRoles(claims).stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return User.withUsername(username).password("").authorities(authorities).build();
+    }
+
+    /**
+     * Modo con base de datos: se cargan el usuario y sus roles actuales.
+     */
+    private UserDetails principalDesdeBaseDeDatos(String username, Claims claims) {
+        // Cargar los detalles del usuario
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+
+        // Validar el token
+        if (!jwtTokenService.esTokenValido(claims, userDetails)) {
+            return null;
+        }
+
+        // El principal cacheado no necesita el hash de la contraseña
+        return User.withUserDetails(userDetails).password("").build();
+    }
+}
@@ -0,0 +1,68 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+import java.io.IOException;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.IntentosLoginExcedidosException;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.LimitadorIntentosLogin;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica {@link LimitadorIntentosLogin} al form login web (POST /web/login) antes de que
+ * UsernamePasswordAuthenticationFilter verifique la contraseña. Si se supera el límite redirige a
+ * la página de login con el parámetro "bloqueado".
+ *
+ * También traduce {@link HashingSaturadoException}, que sale de DaoAuthenticationProvider sin ser una
+ * AuthenticationException y no llega a {@code GlobalExceptionHandler}: en lugar de un error 500
+ * redirige al login con el parámetro "saturado" y el header Retry-After.
+ *
+ * No es un @Component para que Spring Boot no lo registre también como filtro del servlet; se
+ * agrega únicamente a la cadena web en {@link SecurityConfig}.
+ */
+public class LimiteLoginWebFilter extends OncePerRequestFilter {
+
+    private final LimitadorIntentosLogin limitadorIntentosLogin;
+
+    public LimiteLoginWebFilter(LimitadorIntentosLogin limitadorIntentosLogin) {
+        this.limitadorIntentosLogin = limitadorIntentosLogin;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !("POST".equals(request.getMethod())
+                && "/web/login".equals(request.getServletPath()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String username = request.getParameter("username");
+        try {
+            limitadorIntentosLogin.verificar(username, request.getRemoteAddr());
+        } catch (IntentosLoginExcedidosException ex) {
+            response.setHeader("Retry-After", String.valueOf(ex.getReintentarEnSegundos()));
+            response.sendRedirect(request.getContextPath() + "/web/login?bloqueado=true");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } catch (HashingSaturadoException ex) {
+            response.setHeader("Retry-After", String.valueOf(ex.getReintentarEnSegundos()));
+            response.sendRedirect(request.getContextPath() + "/web/login?saturado=true");
+            return;
+        }
+
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacion != null && autenticacion.isAuthenticated()
+                && autenticacion.getName().equalsIgnoreCase(String.valueOf(username))) {
+            limitadorIntentosLogin.registrarExito(username);
+        }
+    }
+}
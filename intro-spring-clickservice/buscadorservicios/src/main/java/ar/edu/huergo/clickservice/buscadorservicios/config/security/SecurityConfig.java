@@ -1,5 +1,6 @@
 package ar.edu.huergo.clickservice.buscadorservicios.config.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -11,6 +12,8 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -19,30 +22,69 @@ import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TipoEventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.security.UsuarioRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.AuditoriaService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.LimitadorIntentosLogin;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.UserDetailsServiceConCache;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    /**
+     * Cadena mínima para las páginas web públicas: inicio, catálogo de servicios y "acerca" (sólo GET).
+     * No crea sesión, no carga el contexto de seguridad ni guarda el request, así estas páginas no
+     * pagan el costo de la cadena web con sesiones. Los archivos estáticos (/css/**, /styles.css,
+     * /favicon.ico) no entran en ninguna cadena y no pasan por Spring Security.
+     */
+    @Bean
+    @Order(0)
+    SecurityFilterChain publicSecurityFilterChain(HttpSecurity http) throws Exception {
+        PathPatternRequestMatcher.Builder rutas = PathPatternRequestMatcher.withDefaults();
+        http
+            .securityMatcher(new OrRequestMatcher(
+                rutas.matcher(HttpMethod.GET, "/web"),
+                rutas.matcher(HttpMethod.GET, "/web/"),
+                rutas.matcher(HttpMethod.GET, "/web/servicios"),
+                rutas.matcher(HttpMethod.GET, "/web/acerca")))
+            .csrf(csrf -> csrf.disable())
+            .securityContext(context -> context.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .requestCache(cache -> cache.disable())
+            .anonymous(anonymous -> anonymous.disable())
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
+
     /**
      * Configuración de seguridad para rutas WEB (/web/**)
      * Usa autenticación basada en sesiones (form login)
      */
     @Bean
     @Order(1)
-    SecurityFilterChain webSecurityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain webSecurityFilterChain(HttpSecurity http,
+            LimitadorIntentosLogin limitadorIntentosLogin,
+            SessionRegistry sessionRegistry) throws Exception {
         http
             .securityMatcher("/web/**")
             .csrf(csrf -> csrf.disable()) // Puedes habilitarlo si lo necesitas
             .authorizeHttpRequests(auth -> auth
-                // Rutas públicas web
-                .requestMatchers("/web/", "/web/login", "/web/registro", 
-                                "/web/registro-profesional", "/web/acerca", 
-                                "/web/servicios").permitAll()
+                // Rutas públicas web (el catálogo y "acerca" se atienden en la cadena pública)
+                .requestMatchers("/web/login", "/web/registro",
+                                "/web/registro-profesional").permitAll()
                 
                 // Dashboard requiere autenticación
                 .requestMatchers("/web/dashboard").authenticated()
@@ -61,37 +103,57 @@ public class SecurityConfig {
                 .logoutUrl("/web/logout")
                 .logoutSuccessUrl("/web/login?logout=true")
                 .invalidateHttpSession(true)
-                .deleteCookies("JSESSIONID")
+                .deleteCookies("SESSION")
                 .permitAll()
             )
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED)
                 .maximumSessions(1)
                 .maxSessionsPreventsLogin(false)
-            );
+                // Registro respaldado por el repositorio de sesiones: el límite vale para todo el cluster
+                .sessionRegistry(sessionRegistry)
+            )
+            // Limita los intentos de login antes de verificar la contraseña
+            .addFilterBefore(new LimiteLoginWebFilter(limitadorIntentosLogin),
+                UsernamePasswordAuthenticationFilter.class);
             
         return http.build();
     }
 
     /**
-     * Configuración de seguridad para API REST (/api/**)
+     * Registro de sesiones que consulta el repositorio JDBC de Spring Session (indexado por
+     * usuario) en lugar de un mapa en memoria, para que maximumSessions(1) se cumpla aunque el
+     * usuario entre por distintos nodos.
+     */
+    @Bean
+    <S extends Session> SessionRegistry sessionRegistry(
+            FindByIndexNameSessionRepository<S> sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+    }
+
+    /**
+     * Configuración de seguridad para API REST (/api/**) y endpoints de Actuator (/actuator/**)
      * Usa autenticación JWT (stateless)
      */
     @Bean
     @Order(2)
     SecurityFilterChain apiSecurityFilterChain(HttpSecurity http,
-            JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+            JwtAuthenticationFilter jwtAuthenticationFilter, AccessDeniedHandler accessDeniedHandler,
+            AuthenticationEntryPoint authenticationEntryPoint) throws Exception {
         
         http
-            .securityMatcher("/api/**")
+            .securityMatcher("/api/**", "/actuator/**")
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> 
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 // Rutas públicas API - no requieren autenticación
                 .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/auth/refresh").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/usuarios/registrar").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/usuarios/registrar-profesional").permitAll()
+                // Sugerencias del buscador: sin token sólo servicios y zonas (ver SugerenciaController)
+                .requestMatchers(HttpMethod.GET, "/api/sugerencias").permitAll()
                 
                 // Rutas de servicios - configuración por método HTTP y rol
                 .requestMatchers(HttpMethod.GET, "/api/servicios").hasAnyRole("ADMIN", "CLIENTE", "PROFESIONAL")
@@ -107,6 +169,15 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/profesionales/**").hasAnyRole("ADMIN", "PROFESIONAL")
                 .requestMatchers(HttpMethod.DELETE, "/api/profesionales/**").hasRole("ADMIN")
                 
+                // Reservas de bloques: el servicio además exige ser el cliente de la solicitud (o el
+                // profesional del bloque para cancelar)
+                .requestMatchers(HttpMethod.POST, "/api/agenda-slots/*/reserva").hasAnyRole("ADMIN", "CLIENTE")
+                .requestMatchers(HttpMethod.DELETE, "/api/agenda-slots/*/reserva").hasAnyRole("ADMIN", "CLIENTE", "PROFESIONAL")
+
+                // Feriados de las reglas de disponibilidad: los carga el ADMIN
+                .requestMatchers(HttpMethod.POST, "/api/reglas-disponibilidad/feriados").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/reglas-disponibilidad/feriados/**").hasRole("ADMIN")
+
                 // Rutas de solicitudes
                 .requestMatchers(HttpMethod.GET, "/api/solicitudes").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/solicitudes/**").hasAnyRole("ADMIN", "CLIENTE", "PROFESIONAL")
@@ -127,13 +198,22 @@ public class SecurityConfig {
 
                 // Rutas de usuarios - solo ADMIN puede ver todos los usuarios
                 .requestMatchers(HttpMethod.GET, "/api/usuarios").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/usuarios/*/roles").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/usuarios/*/revocar-sesiones").hasRole("ADMIN")
+
+                // Auditoría de eventos de seguridad - solo ADMIN
+                .requestMatchers("/api/auditoria/**").hasRole("ADMIN")
+
+                // Métricas: health es público, el resto solo ADMIN
+                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Cualquier otra ruta API requiere autenticación
                 .anyRequest().authenticated()
             )
             .exceptionHandling(exceptions -> exceptions
-                .accessDeniedHandler(accessDeniedHandler())
-                .authenticationEntryPoint(authenticationEntryPoint())
+                .accessDeniedHandler(accessDeniedHandler)
+                .authenticationEntryPoint(authenticationEntryPoint)
             )
             .addFilterBefore(jwtAuthenticationFilter,
                 UsernamePasswordAuthenticationFilter.class);
@@ -141,14 +221,27 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * BCrypt con costo configurable, ejecutado en un pool acotado para que el hashing no ocupe
+     * todos los hilos de Tomcat (ver {@link HashingPasswordEncoder}).
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int costo,
+            @Value("${security.password.hash.threads:0}") int hilos,
+            @Value("${security.password.hash.queue-capacity:64}") int capacidadCola,
+            @Value("${security.password.hash.retry-after-seconds:2}") long reintentarEnSegundos,
+            MeterRegistry meterRegistry) {
+        int tamanioPool = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        return new HashingPasswordEncoder(new BCryptPasswordEncoder(costo), tamanioPool,
+                capacidadCola, reintentarEnSegundos, meterRegistry);
     }
 
     @Bean
-    AccessDeniedHandler accessDeniedHandler() {
+    AccessDeniedHandler accessDeniedHandler(AuditoriaService auditoriaService) {
         return (request, response, accessDeniedException) -> {
+            auditoriaService.registrar(TipoEventoAuditoria.ACCESO_DENEGADO,
+                    request.getUserPrincipal() != null ? request.getUserPrincipal().getName() : null,
+                    request, request.getMethod());
             response.setStatus(403);
             response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
 
@@ -164,8 +257,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    AuthenticationEntryPoint authenticationEntryPoint() {
+    AuthenticationEntryPoint authenticationEntryPoint(AuditoriaService auditoriaService) {
         return (request, response, authException) -> {
+            auditoriaService.registrar(TipoEventoAuditoria.NO_AUTENTICADO, null, request,
+                    request.getMethod());
             response.setStatus(401);
             response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
 
@@ -180,9 +275,17 @@ public class SecurityConfig {
         };
     }
 
+    /**
+     * Carga de usuarios con cache en memoria (ver {@link UserDetailsServiceConCache}); evita consultar
+     * la base en cada login y en cada request autenticado con JWT.
+     */
     @Bean
-    UserDetailsService userDetailsService(UsuarioRepository usuarioRepository) {
-        return username -> usuarioRepository.findByUsername(username)
+    UserDetailsServiceConCache userDetailsService(UsuarioRepository usuarioRepository,
+            @Value("${security.userdetails.cache.enabled:true}") boolean habilitada,
+            @Value("${security.userdetails.cache.ttl-ms:300000}") long ttlMillis,
+            @Value("${security.userdetails.cache.max-entries:10000}") int maxEntradas,
+            MeterRegistry meterRegistry) {
+        UserDetailsService desdeBaseDeDatos = username -> usuarioRepository.findByUsername(username)
                 .map(usuario -> org.springframework.security.core.userdetails.User
                         .withUsername(usuario.getUsername())
                         .password(usuario.getPassword())
@@ -192,13 +295,34 @@ public class SecurityConfig {
                         .build())
                 .orElseThrow(
                         () -> new UsernameNotFoundException("Usuario no encontrado: " + username));
+        return new UserDetailsServiceConCache(desdeBaseDeDatos, habilitada, ttlMillis, maxEntradas,
+                meterRegistry);
+    }
+
+    /**
+     * Persiste el nuevo hash cuando {@link DaoAuthenticationProvider} detecta que el guardado usa un
+     * costo BCrypt desactualizado (security.password.bcrypt-strength).
+     */
+    @Bean
+    UserDetailsPasswordService userDetailsPasswordService(UsuarioRepository usuarioRepository) {
+        return (user, newPassword) -> {
+            Usuario usuario = usuarioRepository.findByUsername(user.getUsername()).orElseThrow(
+                    () -> new UsernameNotFoundException("Usuario no encontrado: " + user.getUsername()));
+            usuario.setPassword(newPassword);
+            usuarioRepository.save(usuario);
+            return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                    .password(newPassword)
+                    .build();
+        };
     }
 
     @Bean
     DaoAuthenticationProvider daoAuthenticationProvider(UserDetailsService userDetailsService,
-            PasswordEncoder passwordEncoder) {
+            PasswordEncoder passwordEncoder, UserDetailsPasswordService userDetailsPasswordService) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder);
+        // Re-hashea la contraseña en el login si fue generada con un costo menor al configurado
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 
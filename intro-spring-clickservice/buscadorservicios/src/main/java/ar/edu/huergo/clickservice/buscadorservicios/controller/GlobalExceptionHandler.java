@@ -4,15 +4,23 @@ import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import ar.edu.huergo.clickservice.buscadorservicios.config.security.HashingSaturadoException;
+import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.AgendaSlotNoDisponibleException;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.IntentosLoginExcedidosException;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
@@ -60,6 +68,37 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    @ExceptionHandler(AgendaSlotNoDisponibleException.class)
+    public ProblemDetail handleAgendaSlotNoDisponible(AgendaSlotNoDisponibleException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        problem.setTitle("Bloque no disponible");
+        problem.setDetail(ex.getMessage());
+        problem.setType(URI.create("https://http.dev/problems/conflict"));
+        return problem;
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ProblemDetail handleAccessDenied(AccessDeniedException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.FORBIDDEN);
+        problem.setTitle("Acceso denegado");
+        problem.setDetail(ex.getMessage());
+        problem.setType(URI.create("https://http.dev/problems/access-denied"));
+        // Log de advertencia: el rol alcanza para la ruta pero no para este recurso
+        log.warn("Acceso denegado al recurso: {}", ex.getMessage());
+        return problem;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        problem.setTitle("Modificación concurrente");
+        problem.setDetail("El recurso fue modificado por otra operación, vuelva a leerlo e intente nuevamente");
+        problem.setType(URI.create("https://http.dev/problems/conflict"));
+        // Log informativo: dos escrituras sobre la misma versión
+        log.info("Conflicto de versión: {}", ex.getMessage());
+        return problem;
+    }
+
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleGeneric(Exception ex) {
         ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -91,6 +130,33 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    @ExceptionHandler(HashingSaturadoException.class)
+    public ResponseEntity<ProblemDetail> handleHashingSaturado(HashingSaturadoException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        problem.setTitle("Servicio saturado");
+        problem.setDetail(ex.getMessage());
+        problem.setType(URI.create("https://http.dev/problems/service-unavailable"));
+        // Log de advertencia: el pool de hashing rechazó la operación
+        log.warn("Pool de hashing de contraseñas saturado, se rechaza la solicitud");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(problem);
+    }
+
+    @ExceptionHandler(IntentosLoginExcedidosException.class)
+    public ResponseEntity<ProblemDetail> handleIntentosLoginExcedidos(IntentosLoginExcedidosException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.TOO_MANY_REQUESTS);
+        problem.setTitle("Demasiados intentos");
+        problem.setDetail(ex.getMessage());
+        problem.setType(URI.create("https://http.dev/problems/too-many-requests"));
+        problem.setProperty("reintentarEnSegundos", ex.getReintentarEnSegundos());
+        // Log de advertencia: posible ataque de fuerza bruta
+        log.warn("Intento de login rechazado por límite de intentos");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(problem);
+    }
+
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ProblemDetail handleMissingRequestParam(MissingServletRequestParameterException ex) {
         ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
@@ -106,7 +172,12 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
-    
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ProblemDetail handleArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.BAD_REQUEST);
+        problem.setTitle("Parámetro inválido");
+        problem.setDetail("El valor del parámetro '" + ex.getName() + "' no es válido");
+        problem.setType(URI.create("https://http.dev/problems/invalid-argument"));
+        return problem;
+    }
 }
-
-
@@ -1,10 +1,21 @@
 package ar.edu.huergo.clickservice.buscadorservicios.controller.profesional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,13 +23,28 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.AgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ProfesionalDisponibleDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ProximaDisponibilidadDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ReservaAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ResultadoImportacionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ResumenDiaAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.RetencionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TramoAgendaDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.RetencionAgendaSlot;
 import ar.edu.huergo.clickservice.buscadorservicios.mapper.profesional.AgendaSlotMapper;
+import ar.edu.huergo.clickservice.buscadorservicios.mapper.profesional.ProfesionalMapper;
 import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.AgendaSlotService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.RetencionAgendaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -28,9 +54,18 @@ public class AgendaSlotController {
     @Autowired
     private AgendaSlotService agendaSlotService;
 
+    @Autowired
+    private RetencionAgendaService retencionAgendaService;
+
     @Autowired
     private AgendaSlotMapper agendaSlotMapper;
 
+    @Autowired
+    private ProfesionalMapper profesionalMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<AgendaSlotDTO>> obtenerTodosLosAgendaSlots() {
         List<AgendaSlot> agendaSlots = agendaSlotService.obtenerTodosLosAgendaSlots();
@@ -43,10 +78,65 @@ public class AgendaSlotController {
         return ResponseEntity.ok(agendaSlotMapper.toDTO(agendaSlot));
     }
 
+    // El arreglo JSON se escribe a medida que se leen los bloques, sin armar la lista en memoria
     @GetMapping("/profesional/{profesionalId}")
-    public ResponseEntity<List<AgendaSlotDTO>> obtenerAgendaSlotsPorProfesional(@PathVariable Long profesionalId) {
-        List<AgendaSlot> agendaSlots = agendaSlotService.obtenerAgendaSlotsPorProfesional(profesionalId);
-        return ResponseEntity.ok(agendaSlotMapper.toDTOList(agendaSlots));
+    public void obtenerAgendaSlotsPorProfesional(@PathVariable Long profesionalId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            HttpServletResponse response) {
+        agendaSlotService.recorrerCalendario(profesionalId, desde, hasta,
+                agendaSlots -> escribirArreglo(response, agendaSlots));
+    }
+
+    @GetMapping("/profesional/{profesionalId}/conflictos")
+    public ResponseEntity<List<AgendaSlotDTO>> obtenerConflictos(@PathVariable Long profesionalId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @RequestParam(required = false) Long excluirAgendaSlotId) {
+        List<AgendaSlotDTO> conflictos = agendaSlotService
+                .obtenerConflictos(profesionalId, desde, hasta, excluirAgendaSlotId).stream()
+                .map(agendaSlotMapper::toDTO)
+                .toList();
+        return ResponseEntity.ok(conflictos);
+    }
+
+    @GetMapping("/profesional/{profesionalId}/libre-ocupado")
+    public ResponseEntity<List<TramoAgendaDTO>> obtenerLibreOcupado(@PathVariable Long profesionalId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return ResponseEntity.ok(agendaSlotService.obtenerLibreOcupado(profesionalId, desde, hasta));
+    }
+
+    @GetMapping("/profesional/{profesionalId}/resumen-dia")
+    public ResponseEntity<ResumenDiaAgendaDTO> obtenerResumenDia(@PathVariable Long profesionalId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) Integer duracionMinutos) {
+        return ResponseEntity.ok(agendaSlotService.obtenerResumenDia(profesionalId, fecha, duracionMinutos));
+    }
+
+    @GetMapping("/disponibilidad")
+    public ResponseEntity<List<ProfesionalDisponibleDTO>> buscarDisponibilidad(@RequestParam Long servicioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime desde,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime hasta,
+            @RequestParam(required = false) Integer duracionMinutos,
+            @RequestParam(defaultValue = "20") int cantidad) {
+        List<ProfesionalDisponibleDTO> disponibles = agendaSlotService
+                .buscarDisponibilidad(servicioId, fecha, desde, hasta, duracionMinutos, cantidad).stream()
+                .map(d -> new ProfesionalDisponibleDTO(profesionalMapper.toDTO(d.profesional()), d.agendaSlotId(),
+                        d.libreDesde(), d.libreHasta()))
+                .toList();
+        return ResponseEntity.ok(disponibles);
+    }
+
+    @GetMapping("/proxima-disponibilidad")
+    public ResponseEntity<List<ProximaDisponibilidadDTO>> obtenerProximasFechasDisponibles() {
+        List<ProximaDisponibilidadDTO> fechas = agendaSlotService.obtenerProximasFechasDisponibles().entrySet()
+                .stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> new ProximaDisponibilidadDTO(e.getKey(), e.getValue()))
+                .toList();
+        return ResponseEntity.ok(fechas);
     }
 
     @PostMapping
@@ -58,6 +148,14 @@ public class AgendaSlotController {
         return ResponseEntity.created(location).body(agendaSlotMapper.toDTO(agendaSlotCreado));
     }
 
+    // Sin @Valid: cada bloque se valida en el servicio y los inválidos se informan en su posición
+    @PostMapping("/importacion")
+    public ResponseEntity<List<ResultadoImportacionAgendaSlotDTO>> importarAgendaSlots(
+            @RequestBody List<AgendaSlotDTO> agendaSlotsDTO) {
+        List<AgendaSlot> agendaSlots = agendaSlotMapper.toEntityList(agendaSlotsDTO);
+        return ResponseEntity.ok(agendaSlotService.importarAgendaSlots(agendaSlots));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<AgendaSlotDTO> actualizarAgendaSlot(@PathVariable Long id,
             @Valid @RequestBody AgendaSlotDTO agendaSlotDTO) {
@@ -66,9 +164,55 @@ public class AgendaSlotController {
         return ResponseEntity.ok(agendaSlotMapper.toDTO(agendaSlotActualizado));
     }
 
+    @PostMapping("/{id}/retencion")
+    public ResponseEntity<RetencionAgendaSlotDTO> retenerAgendaSlot(@PathVariable Long id,
+            Authentication authentication) {
+        RetencionAgendaSlot retencion = retencionAgendaService.retener(id, authentication.getName());
+        return ResponseEntity.ok(new RetencionAgendaSlotDTO(id, retencion.getExpiraEn()));
+    }
+
+    @DeleteMapping("/{id}/retencion")
+    public ResponseEntity<Void> liberarRetencion(@PathVariable Long id, Authentication authentication) {
+        retencionAgendaService.liberar(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/reserva")
+    public ResponseEntity<AgendaSlotDTO> reservarAgendaSlot(@PathVariable Long id,
+            @Valid @RequestBody ReservaAgendaSlotDTO reservaDTO, Authentication authentication) {
+        AgendaSlot agendaSlotReservado = agendaSlotService.reservarAgendaSlot(id, reservaDTO.getSolicitudServicioId(),
+                authentication.getName(), esAdmin(authentication));
+        return ResponseEntity.ok(agendaSlotMapper.toDTO(agendaSlotReservado));
+    }
+
+    @DeleteMapping("/{id}/reserva")
+    public ResponseEntity<AgendaSlotDTO> cancelarReserva(@PathVariable Long id, Authentication authentication) {
+        AgendaSlot agendaSlotLiberado = agendaSlotService.cancelarReserva(id, authentication.getName(),
+                esAdmin(authentication));
+        return ResponseEntity.ok(agendaSlotMapper.toDTO(agendaSlotLiberado));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> eliminarAgendaSlot(@PathVariable Long id) {
         agendaSlotService.eliminarAgendaSlot(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static boolean esAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private void escribirArreglo(HttpServletResponse response, Stream<AgendaSlotDTO> agendaSlots) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.createGenerator(response.getOutputStream())) {
+            json.writeStartArray();
+            for (Iterator<AgendaSlotDTO> it = agendaSlots.iterator(); it.hasNext();) {
+                json.writeObject(it.next());
+            }
+            json.writeEndArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
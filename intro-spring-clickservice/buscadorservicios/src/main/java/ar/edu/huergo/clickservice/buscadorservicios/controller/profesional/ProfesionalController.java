@@ -13,10 +13,20 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.PaginaCursorDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.PaginaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetasProfesionalesDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroDirectorioDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroFacetasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ModoServicios;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.OrdenDirectorio;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ProfesionalCercanoDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ProfesionalRankeadoDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 import ar.edu.huergo.clickservice.buscadorservicios.mapper.profesional.ProfesionalMapper;
 import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.ProfesionalService;
@@ -83,6 +93,64 @@ public class ProfesionalController {
         return ResponseEntity.ok(profesionalesDTO);
     }
 
+    @GetMapping("/cerca")
+    public ResponseEntity<List<ProfesionalCercanoDTO>> obtenerProfesionalesCercanos(
+            @RequestParam Long servicioId, @RequestParam double latitud, @RequestParam double longitud,
+            @RequestParam(defaultValue = "10") int cantidad, @RequestParam(required = false) Double radioKm) {
+        List<ProfesionalCercanoDTO> cercanos = profesionalService
+                .obtenerProfesionalesCercanos(servicioId, latitud, longitud, cantidad, radioKm).stream()
+                .map(c -> new ProfesionalCercanoDTO(profesionalMapper.toDTO(c.profesional()), c.distanciaKm()))
+                .toList();
+        return ResponseEntity.ok(cercanos);
+    }
+
+    @GetMapping("/ranking")
+    public ResponseEntity<List<ProfesionalRankeadoDTO>> obtenerRanking(@RequestParam Long servicioId,
+            @RequestParam(defaultValue = "10") int cantidad) {
+        List<ProfesionalRankeadoDTO> ranking = profesionalService.obtenerRanking(servicioId, cantidad).stream()
+                .map(r -> new ProfesionalRankeadoDTO(profesionalMapper.toDTO(r.profesional()), r.puntaje()))
+                .toList();
+        return ResponseEntity.ok(ranking);
+    }
+
+    @GetMapping("/buscar")
+    public ResponseEntity<PaginaDTO<ProfesionalDTO>> buscarProfesionales(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int pagina, @RequestParam(defaultValue = "20") int tamanio) {
+        return ResponseEntity.ok(profesionalMapper.toPaginaDTO(
+                profesionalService.buscarProfesionales(q, pagina, tamanio)));
+    }
+
+    @GetMapping("/directorio")
+    public ResponseEntity<PaginaCursorDTO<ProfesionalDTO>> obtenerDirectorio(
+            @RequestParam(required = false) Set<Long> serviciosIds,
+            @RequestParam(required = false) Double calificacionMinima,
+            @RequestParam(required = false) Integer trabajosMinimos,
+            @RequestParam(required = false) Boolean disponible,
+            @RequestParam(required = false) String zona,
+            @RequestParam(defaultValue = "CALIFICACION") OrdenDirectorio orden,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int tamanio) {
+        FiltroDirectorioDTO filtro = new FiltroDirectorioDTO(serviciosIds, calificacionMinima, trabajosMinimos,
+                disponible, zona);
+        return ResponseEntity.ok(profesionalMapper.toPaginaCursorDTO(
+                profesionalService.obtenerDirectorio(filtro, orden, cursor, tamanio)));
+    }
+
+    @GetMapping("/facetas")
+    public ResponseEntity<FacetasProfesionalesDTO> obtenerFacetas(
+            @RequestParam(required = false) Set<Long> serviciosIds,
+            @RequestParam(defaultValue = "ALGUNO") ModoServicios modoServicios,
+            @RequestParam(required = false) Set<String> zonas,
+            @RequestParam(required = false) Set<Integer> rangosCalificacion,
+            @RequestParam(required = false) Boolean disponible,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamanio) {
+        FiltroFacetasDTO filtro = new FiltroFacetasDTO(serviciosIds, modoServicios, zonas, rangosCalificacion,
+                disponible);
+        return ResponseEntity.ok(profesionalMapper.toFacetasDTO(
+                profesionalService.obtenerFacetas(filtro, pagina, tamanio)));
+    }
+
     @PutMapping("/{id}/servicios")
     public ResponseEntity<ProfesionalDTO> asignarServicios(@PathVariable Long id,
             @RequestBody Set<Long> serviciosIds) {
@@ -0,0 +1,88 @@
+package ar.edu.huergo.clickservice.buscadorservicios.controller.profesional;
+
+import java.net.URI;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FeriadoDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ReglaDisponibilidadDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Feriado;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.ReglaDisponibilidad;
+import ar.edu.huergo.clickservice.buscadorservicios.mapper.profesional.ReglaDisponibilidadMapper;
+import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.ReglaDisponibilidadService;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/reglas-disponibilidad")
+public class ReglaDisponibilidadController {
+
+    @Autowired
+    private ReglaDisponibilidadService reglaDisponibilidadService;
+
+    @Autowired
+    private ReglaDisponibilidadMapper reglaDisponibilidadMapper;
+
+    @GetMapping("/profesional/{profesionalId}")
+    public ResponseEntity<List<ReglaDisponibilidadDTO>> obtenerReglasPorProfesional(@PathVariable Long profesionalId) {
+        List<ReglaDisponibilidad> reglas = reglaDisponibilidadService.obtenerReglasPorProfesional(profesionalId);
+        return ResponseEntity.ok(reglaDisponibilidadMapper.toDTOList(reglas));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReglaDisponibilidadDTO> obtenerReglaPorId(@PathVariable Long id) {
+        return ResponseEntity.ok(reglaDisponibilidadMapper.toDTO(reglaDisponibilidadService.obtenerReglaPorId(id)));
+    }
+
+    @PostMapping
+    public ResponseEntity<ReglaDisponibilidadDTO> crearRegla(@Valid @RequestBody ReglaDisponibilidadDTO reglaDTO) {
+        ReglaDisponibilidad creada = reglaDisponibilidadService.crearRegla(reglaDisponibilidadMapper.toEntity(reglaDTO));
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+                .buildAndExpand(creada.getId()).toUri();
+        return ResponseEntity.created(location).body(reglaDisponibilidadMapper.toDTO(creada));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ReglaDisponibilidadDTO> actualizarRegla(@PathVariable Long id,
+            @Valid @RequestBody ReglaDisponibilidadDTO reglaDTO) {
+        ReglaDisponibilidad actualizada = reglaDisponibilidadService.actualizarRegla(id,
+                reglaDisponibilidadMapper.toEntity(reglaDTO));
+        return ResponseEntity.ok(reglaDisponibilidadMapper.toDTO(actualizada));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> eliminarRegla(@PathVariable Long id) {
+        reglaDisponibilidadService.eliminarRegla(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/feriados")
+    public ResponseEntity<List<FeriadoDTO>> obtenerFeriados() {
+        return ResponseEntity.ok(reglaDisponibilidadService.obtenerFeriados().stream()
+                .map(reglaDisponibilidadMapper::toDTO)
+                .toList());
+    }
+
+    @PostMapping("/feriados")
+    public ResponseEntity<FeriadoDTO> crearFeriado(@Valid @RequestBody FeriadoDTO feriadoDTO) {
+        Feriado creado = reglaDisponibilidadService.crearFeriado(reglaDisponibilidadMapper.toEntity(feriadoDTO));
+        return ResponseEntity.created(URI.create("/api/reglas-disponibilidad/feriados"))
+                .body(reglaDisponibilidadMapper.toDTO(creado));
+    }
+
+    @DeleteMapping("/feriados/{id}")
+    public ResponseEntity<Void> eliminarFeriado(@PathVariable Long id) {
+        reglaDisponibilidadService.eliminarFeriado(id);
+        return ResponseEntity.noContent().build();
+    }
+}
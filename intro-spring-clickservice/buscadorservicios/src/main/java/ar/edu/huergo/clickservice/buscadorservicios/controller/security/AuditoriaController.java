@@ -0,0 +1,40 @@
+package ar.edu.huergo.clickservice.buscadorservicios.controller.security;
+
+import java.time.Instant;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.PaginaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.security.EventoAuditoriaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TipoEventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.mapper.security.EventoAuditoriaMapper;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.AuditoriaService;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/auditoria")
+public class AuditoriaController {
+    private final AuditoriaService auditoriaService;
+    private final EventoAuditoriaMapper eventoAuditoriaMapper;
+
+    /**
+     * Eventos de seguridad en el rango [desde, hasta), del más reciente al más antiguo. Sin rango
+     * se devuelven las últimas 24 horas.
+     */
+    @GetMapping
+    public ResponseEntity<PaginaDTO<EventoAuditoriaDTO>> consultar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant hasta,
+            @RequestParam(required = false) TipoEventoAuditoria tipo,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "50") int tamanio) {
+        return ResponseEntity.ok(eventoAuditoriaMapper.toPaginaDTO(
+                auditoriaService.consultar(desde, hasta, tipo, pagina, tamanio)));
+    }
+}
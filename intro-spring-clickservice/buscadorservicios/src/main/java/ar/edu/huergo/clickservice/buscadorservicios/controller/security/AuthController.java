@@ -2,18 +2,31 @@ package ar.edu.huergo.clickservice.buscadorservicios.controller.security;
 
 import java.util.List;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import ar.edu.huergo.clickservice.buscadorservicios.dto.security.LoginDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.security.RefreshTokenDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TipoEventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.AuditoriaService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.IntentosLoginExcedidosException;
 import ar.edu.huergo.clickservice.buscadorservicios.service.security.JwtTokenService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.LimitadorIntentosLogin;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.RefreshTokenService;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.RevocacionTokenService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -25,22 +38,81 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenService jwtTokenService;
     private final UserDetailsService userDetailsService;
+    private final LimitadorIntentosLogin limitadorIntentosLogin;
+    private final RefreshTokenService refreshTokenService;
+    private final RevocacionTokenService revocacionTokenService;
+    private final AuditoriaService auditoriaService;
 
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody @Valid LoginDTO request) {
+    public ResponseEntity<Map<String, String>> login(@RequestBody @Valid LoginDTO request,
+            HttpServletRequest httpRequest) {
+        // 0) Rechazar intentos por encima del límite antes de calcular ningún hash
+        try {
+            limitadorIntentosLogin.verificar(request.username(), httpRequest.getRemoteAddr());
+        } catch (IntentosLoginExcedidosException e) {
+            auditoriaService.registrar(TipoEventoAuditoria.LOGIN_BLOQUEADO, request.username(), httpRequest, null);
+            throw e;
+        }
+
         // 1) Autenticar credenciales username/password (lanza excepción si no son válidas)
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password()));
+        Authentication autenticacion;
+        try {
+            autenticacion = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username(), request.password()));
+        } catch (AuthenticationException e) {
+            auditoriaService.registrar(TipoEventoAuditoria.LOGIN_FALLIDO, request.username(), httpRequest,
+                    e.getClass().getSimpleName());
+            throw e;
+        }
+        limitadorIntentosLogin.registrarExito(request.username());
+        auditoriaService.registrar(TipoEventoAuditoria.LOGIN_EXITOSO, request.username(), httpRequest, null);
+
+        // 2) Generar el token de acceso con el usuario ya cargado por la autenticación
+        String token = generarTokenDeAcceso((UserDetails) autenticacion.getPrincipal());
+        // 3) Emitir el refresh token con el que el cliente renovará el token sin volver a loguearse
+        String refreshToken = refreshTokenService.emitir(request.username());
+        // 4) Responder con los tokens (el cliente deberá enviar "token" en el header Authorization)
+        return ResponseEntity.ok(Map.of("token", token, "refreshToken", refreshToken));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, String>> refresh(@RequestBody @Valid RefreshTokenDTO request,
+            HttpServletRequest httpRequest) {
+        // 1) Rotar el refresh token (lanza BadCredentialsException si es inválido o ya se usó)
+        RefreshTokenService.Rotacion rotacion;
+        try {
+            rotacion = refreshTokenService.rotar(request.refreshToken());
+        } catch (AuthenticationException e) {
+            auditoriaService.registrar(TipoEventoAuditoria.TOKEN_RENOVACION_FALLIDA, null, httpRequest,
+                    e.getMessage());
+            throw e;
+        }
+        auditoriaService.registrar(TipoEventoAuditoria.TOKEN_RENOVADO, rotacion.username(), httpRequest, null);
+        // 2) Generar un nuevo token de acceso con los roles actuales del usuario (sin BCrypt)
+        String token = generarTokenDeAcceso(userDetailsService.loadUserByUsername(rotacion.username()));
+        return ResponseEntity.ok(Map.of("token", token, "refreshToken", rotacion.refreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+            @RequestBody(required = false) @Valid RefreshTokenDTO request, HttpServletRequest httpRequest) {
+        // 1) Revocar el token de acceso presentado hasta su expiración original
+        Claims claims = jwtTokenService.extraerClaims(authorization.substring("Bearer ".length()));
+        revocacionTokenService.revocarToken(claims.getId(), claims.getSubject(), claims.getExpiration());
+        auditoriaService.registrar(TipoEventoAuditoria.LOGOUT, claims.getSubject(), httpRequest, null);
+        // 2) Si se envió, revocar también la familia del refresh token
+        if (request != null) {
+            refreshTokenService.revocarFamilia(request.refreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
 
-        // 2) Cargar UserDetails y derivar roles/authorities
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.username());
+    private String generarTokenDeAcceso(UserDetails userDetails) {
         List<String> roles =
                 userDetails.getAuthorities().stream().map(a -> a.getAuthority()).toList();
-        // 3) Generar token JWT firmado con el username como subject y los roles como claims
-        String token = jwtTokenService.generarToken(userDetails, roles);
-        // 4) Responder con el token (el cliente deberá enviarlo en el header Authorization)
-        return ResponseEntity.ok(Map.of("token", token));
+        // Token JWT firmado con el username como subject y los roles como claims
+        return jwtTokenService.generarToken(userDetails, roles);
     }
 }
 
@@ -1,19 +1,25 @@
 package ar.edu.huergo.clickservice.buscadorservicios.controller.security;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.security.CambiarPasswordDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.dto.security.RegistrarDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.dto.security.RegistrarProfesionalDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.dto.security.UsuarioDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
 import ar.edu.huergo.clickservice.buscadorservicios.mapper.security.UsuarioMapper;
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.RevocacionTokenService;
 import ar.edu.huergo.clickservice.buscadorservicios.service.security.UsuarioService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +30,7 @@ import lombok.RequiredArgsConstructor;
 public class UsuarioController {
     private final UsuarioService usuarioService;
     private final UsuarioMapper usuarioMapper;
+    private final RevocacionTokenService revocacionTokenService;
     
     @PostMapping("/registrar")
     public ResponseEntity<UsuarioDTO> registrarCliente(@Valid @RequestBody RegistrarDTO registrarDTO) {
@@ -46,4 +53,29 @@ public class UsuarioController {
         List<UsuarioDTO> usuarioDTOs = usuarioMapper.toDTOList(usuarios);
         return ResponseEntity.ok(usuarioDTOs);
     }
-}
\ No newline at end of file
+
+    @PutMapping("/password")
+    public ResponseEntity<UsuarioDTO> cambiarPassword(Authentication authentication,
+            @Valid @RequestBody CambiarPasswordDTO cambiarPasswordDTO) {
+        Usuario usuario = usuarioService.cambiarPassword(authentication.getName(),
+                cambiarPasswordDTO.passwordActual(), cambiarPasswordDTO.nuevaPassword(),
+                cambiarPasswordDTO.verificacionPassword());
+        return ResponseEntity.ok(usuarioMapper.toDTO(usuario));
+    }
+
+    /**
+     * Cierra todas las sesiones del usuario: revoca sus tokens de acceso y refresh tokens emitidos.
+     */
+    @PostMapping("/{id}/revocar-sesiones")
+    public ResponseEntity<Void> revocarSesiones(@PathVariable Long id) {
+        Usuario usuario = usuarioService.getUsuarioById(id);
+        revocacionTokenService.revocarUsuario(usuario.getUsername());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{id}/roles")
+    public ResponseEntity<UsuarioDTO> actualizarRoles(@PathVariable Long id, @RequestBody Set<String> roles) {
+        Usuario usuario = usuarioService.actualizarRoles(id, roles);
+        return ResponseEntity.ok(usuarioMapper.toDTO(usuario));
+    }
+}
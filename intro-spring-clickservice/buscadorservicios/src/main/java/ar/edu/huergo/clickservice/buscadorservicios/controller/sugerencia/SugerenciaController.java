@@ -0,0 +1,34 @@
+package ar.edu.huergo.clickservice.buscadorservicios.controller.sugerencia;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia.SugerenciasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.service.sugerencia.IndiceSugerencias;
+
+@RestController
+@RequestMapping("/api/sugerencias")
+public class SugerenciaController {
+
+    /** Roles que pueden ver el directorio (GET /api/profesionales) y, por lo tanto, los nombres. */
+    private static final Set<String> ROLES_DIRECTORIO = Set.of("ROLE_ADMIN", "ROLE_CLIENTE");
+
+    @Autowired
+    private IndiceSugerencias indiceSugerencias;
+
+    // Es pública (el buscador de la página de inicio), pero sin token sólo sugiere servicios y zonas
+    @GetMapping
+    public ResponseEntity<SugerenciasDTO> sugerir(@RequestParam String q,
+            @RequestParam(defaultValue = "5") int cantidad, Authentication authentication) {
+        boolean incluirProfesionales = authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> ROLES_DIRECTORIO.contains(authority.getAuthority()));
+        return ResponseEntity.ok(indiceSugerencias.sugerir(q, cantidad, incluirProfesionales));
+    }
+}
@@ -53,10 +53,18 @@ public class BuscadorServiciosWebController {
     @GetMapping("/login")
     public String login(@RequestParam(value = "error", required = false) String error,
                        @RequestParam(value = "logout", required = false) String logout,
+                       @RequestParam(value = "bloqueado", required = false) String bloqueado,
+                       @RequestParam(value = "saturado", required = false) String saturado,
                        Model model) {
         if (error != null) {
             model.addAttribute("error", "Usuario o contraseña incorrectos");
         }
+        if (bloqueado != null) {
+            model.addAttribute("error", "Demasiados intentos de inicio de sesión. Espere unos minutos e intente nuevamente");
+        }
+        if (saturado != null) {
+            model.addAttribute("error", "El servicio de autenticación está saturado, reintente en unos segundos");
+        }
         if (logout != null) {
             model.addAttribute("success", "Has cerrado sesión correctamente");
         }
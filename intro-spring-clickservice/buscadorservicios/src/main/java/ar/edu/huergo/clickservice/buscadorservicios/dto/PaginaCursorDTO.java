@@ -0,0 +1,13 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto;
+
+import java.util.List;
+
+/**
+ * Página de una consulta paginada por cursor. {@code siguienteCursor} es null en la última página.
+ */
+public record PaginaCursorDTO<T>(
+        List<T> contenido,
+        int tamanio,
+        String siguienteCursor) {
+
+}
@@ -0,0 +1,12 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto;
+
+import java.util.List;
+
+public record PaginaDTO<T>(
+        List<T> contenido,
+        int pagina,
+        int tamanio,
+        long totalElementos,
+        int totalPaginas) {
+
+}
@@ -29,6 +29,9 @@ public class AgendaSlotDTO {
 
     private Boolean disponible = Boolean.TRUE;
 
+    // Sólo lectura: se asigna al reservar el bloque y se ignora al crearlo o modificarlo
+    private Long solicitudServicioId;
+
     @AssertTrue(message = "La fecha de fin debe ser posterior a la fecha de inicio")
     public boolean isRangoHorarioValido() {
         if (fechaInicio == null || fechaFin == null) {
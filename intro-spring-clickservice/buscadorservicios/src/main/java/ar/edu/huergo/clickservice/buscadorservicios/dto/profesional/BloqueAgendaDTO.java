@@ -0,0 +1,16 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección liviana de un bloque de agenda (libre u ocupado), usada para construir el índice de
+ * agendas sin cargar el profesional.
+ */
+public record BloqueAgendaDTO(
+        Long agendaSlotId,
+        Long profesionalId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin,
+        Boolean disponible) {
+
+}
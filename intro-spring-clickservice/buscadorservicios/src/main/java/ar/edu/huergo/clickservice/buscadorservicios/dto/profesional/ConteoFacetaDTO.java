@@ -0,0 +1,12 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Cantidad de profesionales de un valor de faceta. {@code valor} es lo que se envía como filtro y
+ * {@code etiqueta} lo que se muestra.
+ */
+public record ConteoFacetaDTO(
+        String valor,
+        String etiqueta,
+        long cantidad) {
+
+}
@@ -0,0 +1,14 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Proyección liviana usada para construir el índice de facetas: una fila por cada servicio del
+ * profesional (o una sola con servicio null si no ofrece ninguno).
+ */
+public record FacetaProfesionalDTO(
+        Long profesionalId,
+        Double calificacionPromedio,
+        Boolean disponible,
+        String zonaTrabajo,
+        Long servicioId) {
+
+}
@@ -0,0 +1,14 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.util.List;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.PaginaDTO;
+
+public record FacetasProfesionalesDTO(
+        PaginaDTO<ProfesionalDTO> resultados,
+        List<ConteoFacetaDTO> servicios,
+        List<ConteoFacetaDTO> zonas,
+        List<ConteoFacetaDTO> calificaciones,
+        List<ConteoFacetaDTO> disponibilidad) {
+
+}
@@ -0,0 +1,26 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para exponer un feriado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeriadoDTO {
+
+    private Long id;
+
+    @NotNull(message = "La fecha es obligatoria")
+    private LocalDate fecha;
+
+    @Size(max = 100, message = "La descripción no puede exceder los 100 caracteres")
+    private String descripcion;
+}
@@ -0,0 +1,18 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.util.Set;
+
+/**
+ * Filtros combinables del directorio de profesionales; los que son null (o vacíos) no se aplican.
+ *
+ * @param serviciosIds profesionales que ofrecen al menos uno de estos servicios
+ * @param zona texto contenido en la zona de trabajo, sin distinguir mayúsculas
+ */
+public record FiltroDirectorioDTO(
+        Set<Long> serviciosIds,
+        Double calificacionMinima,
+        Integer trabajosMinimos,
+        Boolean disponible,
+        String zona) {
+
+}
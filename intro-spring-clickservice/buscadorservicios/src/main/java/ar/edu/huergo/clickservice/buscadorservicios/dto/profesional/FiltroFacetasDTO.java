@@ -0,0 +1,20 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.util.Set;
+
+/**
+ * Filtros de la búsqueda por facetas; los que son null (o vacíos) no se aplican. Dentro de una
+ * faceta los valores se combinan con O (salvo los servicios con {@link ModoServicios#TODOS}) y
+ * entre facetas con Y.
+ *
+ * @param zonas zonas de trabajo exactas, sin distinguir mayúsculas ni tildes
+ * @param rangosCalificacion rangos de calificación: el rango n abarca de n a n+1 estrellas (0 a 4)
+ */
+public record FiltroFacetasDTO(
+        Set<Long> serviciosIds,
+        ModoServicios modoServicios,
+        Set<String> zonas,
+        Set<Integer> rangosCalificacion,
+        Boolean disponible) {
+
+}
@@ -0,0 +1,15 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección liviana de un bloque de agenda disponible, usada para construir el índice de
+ * disponibilidad sin cargar el profesional.
+ */
+public record FranjaLibreDTO(
+        Long agendaSlotId,
+        Long profesionalId,
+        LocalDateTime fechaInicio,
+        LocalDateTime fechaFin) {
+
+}
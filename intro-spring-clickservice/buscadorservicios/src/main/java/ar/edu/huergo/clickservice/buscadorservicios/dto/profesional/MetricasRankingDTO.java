@@ -0,0 +1,17 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección usada para calcular el ranking: una fila por cada servicio que ofrece un profesional
+ * disponible, con sus trabajos realizados y el resumen de sus reseñas.
+ */
+public record MetricasRankingDTO(
+        Long profesionalId,
+        Long servicioId,
+        Integer trabajosRealizados,
+        Long cantidadReseñas,
+        Double promedioReseñas,
+        LocalDateTime ultimaReseña) {
+
+}
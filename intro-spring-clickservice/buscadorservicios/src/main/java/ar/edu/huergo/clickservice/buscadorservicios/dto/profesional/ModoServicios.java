@@ -0,0 +1,11 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Cómo se combinan los servicios pedidos en la búsqueda por facetas.
+ */
+public enum ModoServicios {
+    /** El profesional ofrece todos los servicios pedidos. */
+    TODOS,
+    /** El profesional ofrece al menos uno de los servicios pedidos. */
+    ALGUNO
+}
@@ -0,0 +1,11 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Criterios de orden del directorio de profesionales, siempre de mayor a menor.
+ */
+public enum OrdenDirectorio {
+    /** Por calificación promedio. */
+    CALIFICACION,
+    /** Por cantidad de trabajos realizados. */
+    EXPERIENCIA
+}
@@ -57,5 +57,17 @@ public class ProfesionalDTO {
     @Size(max = 200, message = "La zona de trabajo no puede exceder los 200 caracteres")
     private String zonaTrabajo;
 
+    @DecimalMin(value = "-90.0", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90.0", message = "La latitud debe estar entre -90 y 90")
+    private Double latitud;
+
+    @DecimalMin(value = "-180.0", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180.0", message = "La longitud debe estar entre -180 y 180")
+    private Double longitud;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "El radio de cobertura debe ser mayor a 0")
+    @DecimalMax(value = "500.0", message = "El radio de cobertura no puede exceder los 500 km")
+    private Double radioCoberturaKm;
+
     private LocalDateTime fechaRegistro;
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDateTime;
+
+public record ProfesionalDisponibleDTO(
+        ProfesionalDTO profesional,
+        Long agendaSlotId,
+        LocalDateTime libreDesde,
+        LocalDateTime libreHasta) {
+
+}
@@ -0,0 +1,7 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+public record ProfesionalRankeadoDTO(
+        ProfesionalDTO profesional,
+        double puntaje) {
+
+}
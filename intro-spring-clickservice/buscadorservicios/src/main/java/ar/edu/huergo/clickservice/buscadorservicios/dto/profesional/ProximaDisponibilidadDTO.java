@@ -0,0 +1,9 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDate;
+
+public record ProximaDisponibilidadDTO(
+        Long servicioId,
+        LocalDate fecha) {
+
+}
@@ -0,0 +1,63 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para exponer una regla de disponibilidad semanal de un profesional.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReglaDisponibilidadDTO {
+
+    private Long id;
+
+    @NotNull(message = "El identificador del profesional es obligatorio")
+    private Long profesionalId;
+
+    @NotEmpty(message = "La regla debe aplicar al menos un día de la semana")
+    private Set<DayOfWeek> dias = new HashSet<>();
+
+    @NotNull(message = "La hora de inicio es obligatoria")
+    private LocalTime horaInicio;
+
+    // Si es anterior a la hora de inicio, la ventana termina al día siguiente
+    @NotNull(message = "La hora de fin es obligatoria")
+    private LocalTime horaFin;
+
+    @NotNull(message = "La fecha de inicio de vigencia es obligatoria")
+    private LocalDate vigenteDesde;
+
+    private LocalDate vigenteHasta;
+
+    private Boolean respetaFeriados = Boolean.TRUE;
+
+    private Set<LocalDate> excepciones = new HashSet<>();
+
+    @AssertTrue(message = "La hora de fin debe ser distinta de la hora de inicio")
+    public boolean isHorarioValido() {
+        if (horaInicio == null || horaFin == null) {
+            return true;
+        }
+        return !horaFin.equals(horaInicio);
+    }
+
+    @AssertTrue(message = "La fecha de fin de vigencia no puede ser anterior a la de inicio")
+    public boolean isVigenciaValida() {
+        if (vigenteDesde == null || vigenteHasta == null) {
+            return true;
+        }
+        return !vigenteHasta.isBefore(vigenteDesde);
+    }
+}
@@ -0,0 +1,18 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para reservar un bloque de agenda para una solicitud de servicio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaAgendaSlotDTO {
+
+    @NotNull(message = "La solicitud de servicio es obligatoria")
+    private Long solicitudServicioId;
+}
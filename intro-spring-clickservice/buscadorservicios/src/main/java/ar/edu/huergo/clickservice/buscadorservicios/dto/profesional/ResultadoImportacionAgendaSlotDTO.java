@@ -0,0 +1,12 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Resultado de un bloque de una importación, en la posición que tenía en el pedido: el id del bloque
+ * creado, o el motivo por el que no se creó (y el id en null).
+ */
+public record ResultadoImportacionAgendaSlotDTO(
+        int indice,
+        Long agendaSlotId,
+        String error) {
+
+}
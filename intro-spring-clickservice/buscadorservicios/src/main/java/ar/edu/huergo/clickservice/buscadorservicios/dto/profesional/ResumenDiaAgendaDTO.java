@@ -0,0 +1,15 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de un día de la agenda de un profesional según sus bloques: el hueco libre más largo y, si se
+ * pidió una duración, el primer horario en que entra un trabajo de esa duración (null si no entra).
+ */
+public record ResumenDiaAgendaDTO(
+        LocalDate fecha,
+        long mayorHuecoLibreMinutos,
+        LocalDateTime primerInicioLibre) {
+
+}
@@ -0,0 +1,12 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.Instant;
+
+/**
+ * Retención vigente de un bloque de agenda: hasta {@code expiraEn} sólo el cliente que la pidió
+ * puede reservarlo.
+ */
+public record RetencionAgendaSlotDTO(
+        Long agendaSlotId,
+        Instant expiraEn) {
+}
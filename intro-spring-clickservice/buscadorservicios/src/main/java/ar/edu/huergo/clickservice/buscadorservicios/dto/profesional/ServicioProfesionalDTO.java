@@ -0,0 +1,11 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Proyección usada para el índice de disponibilidad: una fila por cada servicio que ofrece un
+ * profesional disponible.
+ */
+public record ServicioProfesionalDTO(
+        Long profesionalId,
+        Long servicioId) {
+
+}
@@ -0,0 +1,14 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Proyección liviana usada para construir el índice de sugerencias: una fila por cada servicio
+ * del profesional (o una sola con servicio null si no ofrece ninguno).
+ */
+public record SugerenciaProfesionalDTO(
+        Long profesionalId,
+        String nombreCompleto,
+        String zonaTrabajo,
+        Integer trabajosRealizados,
+        Long servicioId) {
+
+}
@@ -0,0 +1,18 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tramo de la agenda de un profesional en una consulta de libre/ocupado: LIBRE si lo cubre un bloque
+ * disponible, OCUPADO si lo cubre un bloque no disponible o retenido y SIN_AGENDA si no hay ningún
+ * bloque.
+ */
+public record TramoAgendaDTO(
+        LocalDateTime desde,
+        LocalDateTime hasta,
+        Estado estado) {
+
+    public enum Estado {
+        LIBRE, OCUPADO, SIN_AGENDA
+    }
+}
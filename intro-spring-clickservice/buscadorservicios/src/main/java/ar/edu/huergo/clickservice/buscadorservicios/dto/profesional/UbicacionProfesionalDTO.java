@@ -0,0 +1,14 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.profesional;
+
+/**
+ * Proyección liviana usada para construir el índice geográfico: una fila por cada servicio que
+ * ofrece un profesional disponible con ubicación cargada.
+ */
+public record UbicacionProfesionalDTO(
+        Long profesionalId,
+        Double latitud,
+        Double longitud,
+        Double radioCoberturaKm,
+        Long servicioId) {
+
+}
@@ -0,0 +1,14 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.security;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public record CambiarPasswordDTO(
+        @NotBlank(message = "La contraseña actual es requerida")
+        String passwordActual,
+        @NotBlank(message = "La nueva contraseña es requerida")
+        @Pattern(regexp = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{16,}$", message = "La contraseña debe tener al menos 16 caracteres, una mayúscula, una minúscula, un número y un carácter especial")
+        String nuevaPassword,
+        @NotBlank(message = "La verificación de contraseña es requerida")
+        String verificacionPassword) {
+}
@@ -0,0 +1,14 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.security;
+
+import java.time.Instant;
+
+public record EventoAuditoriaDTO(
+        Long id,
+        String tipo,
+        String username,
+        String ip,
+        String ruta,
+        String detalle,
+        Instant fecha) {
+
+}
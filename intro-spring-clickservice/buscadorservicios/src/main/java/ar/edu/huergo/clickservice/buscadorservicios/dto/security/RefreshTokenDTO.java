@@ -0,0 +1,8 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.security;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenDTO(
+        @NotBlank(message = "El refresh token es requerido")
+        String refreshToken) {
+}
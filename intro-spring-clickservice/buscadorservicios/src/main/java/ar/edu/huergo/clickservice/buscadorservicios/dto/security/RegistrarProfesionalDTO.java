@@ -2,6 +2,8 @@ package ar.edu.huergo.clickservice.buscadorservicios.dto.security;
 
 import java.util.Set;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -68,6 +70,18 @@ public class RegistrarProfesionalDTO {
     @Size(max = 200, message = "La zona de trabajo no puede exceder los 200 caracteres")
     private String zonaTrabajo;
 
+    @DecimalMin(value = "-90.0", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90.0", message = "La latitud debe estar entre -90 y 90")
+    private Double latitud;
+
+    @DecimalMin(value = "-180.0", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180.0", message = "La longitud debe estar entre -180 y 180")
+    private Double longitud;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "El radio de cobertura debe ser mayor a 0")
+    @DecimalMax(value = "500.0", message = "El radio de cobertura no puede exceder los 500 km")
+    private Double radioCoberturaKm;
+
     // IDs de los servicios que puede ofrecer el profesional
     @NotEmpty(message = "Debe seleccionar al menos un servicio")
     private Set<Long> serviciosIds;
@@ -0,0 +1,11 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia;
+
+/**
+ * Sugerencia de autocompletado. {@code id} es el id del servicio o del profesional (null para
+ * las zonas).
+ */
+public record SugerenciaDTO(
+        Long id,
+        String texto) {
+
+}
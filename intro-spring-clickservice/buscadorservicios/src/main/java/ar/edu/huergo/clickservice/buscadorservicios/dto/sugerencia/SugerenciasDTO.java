@@ -0,0 +1,10 @@
+package ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia;
+
+import java.util.List;
+
+public record SugerenciasDTO(
+        List<SugerenciaDTO> servicios,
+        List<SugerenciaDTO> zonas,
+        List<SugerenciaDTO> profesionales) {
+
+}
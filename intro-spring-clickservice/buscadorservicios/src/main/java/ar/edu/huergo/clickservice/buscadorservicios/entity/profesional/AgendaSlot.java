@@ -2,17 +2,22 @@ package ar.edu.huergo.clickservice.buscadorservicios.entity.profesional;
 
 import java.time.LocalDateTime;
 
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -24,18 +29,30 @@ import lombok.ToString;
  * Entidad que representa un bloque de disponibilidad en la agenda de un profesional.
  *
  * Cada {@link AgendaSlot} indica un rango horario en el que el profesional puede
- * aceptar nuevos trabajos.
+ * aceptar nuevos trabajos. Al reservarlo queda ocupado y vinculado a la
+ * {@link SolicitudServicio} que lo tomó.
+ *
+ * La versión permite detectar que otra operación modificó el bloque entre que se
+ * leyó y que se escribió (por ejemplo, dos reservas del mismo bloque).
+ *
+ * El id sale de una secuencia que se pide de a 50 valores, así Hibernate lo conoce
+ * antes del insert y puede agrupar los inserts en lotes JDBC (con IDENTITY cada
+ * bloque necesita su propio insert para obtener el id).
  */
 @Entity
-@Table(name = "agenda_slots")
+@Table(name = "agenda_slots", indexes = {
+    // Calendario de un profesional por rango de fechas, ya ordenado por inicio
+    @Index(name = "ix_agenda_slots_profesional_inicio", columnList = "profesional_id, fecha_inicio")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = "profesional")
+@ToString(exclude = {"profesional", "solicitudServicio"})
 public class AgendaSlot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agenda_slots_seq")
+    @SequenceGenerator(name = "agenda_slots_seq", sequenceName = "agenda_slots_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.EAGER, optional = false)
@@ -54,6 +71,14 @@ public class AgendaSlot {
     @Column(nullable = false)
     private Boolean disponible = Boolean.TRUE;
 
+    // Solicitud que reservó el bloque; null mientras no esté reservado
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "solicitud_servicio_id", unique = true)
+    private SolicitudServicio solicitudServicio;
+
+    @Version
+    private Long version;
+
     @AssertTrue(message = "La fecha de fin debe ser posterior a la fecha de inicio")
     public boolean isRangoHorarioValido() {
         if (fechaInicio == null || fechaFin == null) {
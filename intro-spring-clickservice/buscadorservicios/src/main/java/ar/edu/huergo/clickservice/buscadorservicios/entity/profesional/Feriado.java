@@ -0,0 +1,39 @@
+package ar.edu.huergo.clickservice.buscadorservicios.entity.profesional;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad que representa un feriado: las {@link ReglaDisponibilidad} que respetan feriados no aplican
+ * ese día.
+ */
+@Entity
+@Table(name = "feriados")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Feriado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "La fecha es obligatoria")
+    @Column(nullable = false, unique = true)
+    private LocalDate fecha;
+
+    @Size(max = 100, message = "La descripción no puede exceder los 100 caracteres")
+    @Column(length = 100)
+    private String descripcion;
+}
@@ -5,15 +5,21 @@ import java.util.Set;
 
 import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.ProfesionalEntityListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -35,16 +41,39 @@ import lombok.Setter;
  * 
  * Un profesional es un usuario que puede ofrecer uno o más servicios
  * y tiene información adicional como calificación, descripción y disponibilidad.
+ *
+ * Los índices compuestos respaldan el directorio paginado por cursor: uno por cada orden
+ * (calificación o experiencia, con el id como desempate), con y sin disponibilidad adelante.
+ *
+ * El grafo {@value #GRAFO_LISTADO} trae el usuario (con sus roles) y los servicios en la misma
+ * consulta, que es todo lo que usa ProfesionalMapper.toDTO; los listados lo usan para no hacer
+ * consultas por cada fila al mapear.
  */
 
-@Table(name = "profesionales")
+@Table(name = "profesionales", indexes = {
+    @Index(name = "ix_profesionales_calificacion", columnList = "calificacion_promedio DESC, id DESC"),
+    @Index(name = "ix_profesionales_disponible_calificacion",
+            columnList = "disponible, calificacion_promedio DESC, id DESC"),
+    @Index(name = "ix_profesionales_trabajos", columnList = "trabajos_realizados DESC, id DESC"),
+    @Index(name = "ix_profesionales_disponible_trabajos",
+            columnList = "disponible, trabajos_realizados DESC, id DESC")
+})
 @Entity
+@NamedEntityGraph(name = Profesional.GRAFO_LISTADO,
+    attributeNodes = {
+        @NamedAttributeNode(value = "usuario", subgraph = "usuario"),
+        @NamedAttributeNode("servicios")
+    },
+    subgraphs = @NamedSubgraph(name = "usuario", attributeNodes = @NamedAttributeNode("roles")))
+@EntityListeners(ProfesionalEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Profesional {
 
+    public static final String GRAFO_LISTADO = "Profesional.listado";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -73,12 +102,12 @@ public class Profesional {
     @NotNull(message = "La calificación no puede ser nula")
     @DecimalMin(value = "0.0", message = "La calificación debe ser mayor o igual a 0")
     @DecimalMax(value = "5.0", message = "La calificación debe ser menor o igual a 5")
-    @Column(name = "calificacion_promedio")
+    @Column(name = "calificacion_promedio", nullable = false)
     private Double calificacionPromedio = 0.0;
 
     // Número total de trabajos realizados
     @Min(value = 0, message = "El número de trabajos no puede ser negativo")
-    @Column(name = "trabajos_realizados")
+    @Column(name = "trabajos_realizados", nullable = false)
     private Integer trabajosRealizados = 0;
 
     // Si el profesional está disponible para trabajar
@@ -99,6 +128,23 @@ public class Profesional {
     @Column(name = "zona_trabajo", length = 200)
     private String zonaTrabajo;
 
+    // Ubicación del profesional (opcional), usada para la búsqueda por cercanía
+    @DecimalMin(value = "-90.0", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90.0", message = "La latitud debe estar entre -90 y 90")
+    @Column(name = "latitud")
+    private Double latitud;
+
+    @DecimalMin(value = "-180.0", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180.0", message = "La longitud debe estar entre -180 y 180")
+    @Column(name = "longitud")
+    private Double longitud;
+
+    // Radio de cobertura en km alrededor de la ubicación (null = sin límite propio)
+    @DecimalMin(value = "0.0", inclusive = false, message = "El radio de cobertura debe ser mayor a 0")
+    @DecimalMax(value = "500.0", message = "El radio de cobertura no puede exceder los 500 km")
+    @Column(name = "radio_cobertura_km")
+    private Double radioCoberturaKm;
+
     @Column(name = "fecha_registro")
     private LocalDateTime fechaRegistro = LocalDateTime.now();
 
@@ -0,0 +1,115 @@
+package ar.edu.huergo.clickservice.buscadorservicios.entity.profesional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Entidad que representa una regla de disponibilidad semanal de un profesional, por ejemplo "lunes a
+ * viernes de 9 a 13 desde el 1 de marzo".
+ *
+ * Una regla reemplaza a los cientos de {@link AgendaSlot} que haría falta crear para el mismo horario:
+ * se guarda una sola fila con los días de la semana como máscara de bits (lunes = 1, martes = 2, ...,
+ * domingo = 64) y las fechas en las que no aplica, y se expande a ventanas concretas sólo para el rango
+ * que se consulta. Si la hora de fin es anterior a la de inicio la ventana termina al día siguiente.
+ * Los {@link AgendaSlot} que se superponen con una ventana de la regla la reemplazan en ese horario.
+ */
+@Entity
+@Table(name = "reglas_disponibilidad", indexes = {
+    @Index(name = "ix_reglas_disponibilidad_profesional", columnList = "profesional_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "profesional")
+public class ReglaDisponibilidad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "profesional_id", nullable = false)
+    @NotNull(message = "El profesional es obligatorio")
+    private Profesional profesional;
+
+    @NotNull(message = "Los días de la semana son obligatorios")
+    @Min(value = 1, message = "La regla debe aplicar al menos un día de la semana")
+    @Max(value = 127, message = "Los días de la semana no son válidos")
+    @Column(name = "dias_semana", nullable = false)
+    private Integer diasSemana;
+
+    @NotNull(message = "La hora de inicio es obligatoria")
+    @Column(name = "hora_inicio", nullable = false)
+    private LocalTime horaInicio;
+
+    @NotNull(message = "La hora de fin es obligatoria")
+    @Column(name = "hora_fin", nullable = false)
+    private LocalTime horaFin;
+
+    @NotNull(message = "La fecha de inicio de vigencia es obligatoria")
+    @Column(name = "vigente_desde", nullable = false)
+    private LocalDate vigenteDesde;
+
+    // Null = sin fecha de fin
+    @Column(name = "vigente_hasta")
+    private LocalDate vigenteHasta;
+
+    // Si no aplica en los feriados cargados
+    @Column(name = "respeta_feriados", nullable = false)
+    private Boolean respetaFeriados = Boolean.TRUE;
+
+    // Fechas puntuales en las que la regla no aplica (vacaciones, un día libre)
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "reglas_disponibilidad_excepciones", joinColumns = @JoinColumn(name = "regla_id"))
+    @Column(name = "fecha", nullable = false)
+    private Set<LocalDate> excepciones = new HashSet<>();
+
+    @AssertTrue(message = "La hora de fin debe ser distinta de la hora de inicio")
+    public boolean isHorarioValido() {
+        if (horaInicio == null || horaFin == null) {
+            return true;
+        }
+        return !horaFin.equals(horaInicio);
+    }
+
+    @AssertTrue(message = "La fecha de fin de vigencia no puede ser anterior a la de inicio")
+    public boolean isVigenciaValida() {
+        if (vigenteDesde == null || vigenteHasta == null) {
+            return true;
+        }
+        return !vigenteHasta.isBefore(vigenteDesde);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void ensureDefaults() {
+        if (respetaFeriados == null) {
+            respetaFeriados = Boolean.TRUE;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ar.edu.huergo.clickservice.buscadorservicios.entity.profesional;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Retención temporal de un {@link AgendaSlot} mientras un cliente completa la solicitud de servicio.
+ *
+ * Mientras existe, el bloque se informa como ocupado y sólo el cliente que lo retuvo puede reservarlo.
+ * Se borra al reservar el bloque, al liberarla o al vencer; se guarda en la base para que las
+ * retenciones sobrevivan a un reinicio.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "agendaSlot")
+@Table(name = "retenciones_agenda", indexes = {
+    @Index(name = "ix_retenciones_agenda_username", columnList = "username"),
+    @Index(name = "ix_retenciones_agenda_expira_en", columnList = "expira_en")
+})
+public class RetencionAgendaSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "agenda_slot_id", nullable = false, unique = true)
+    private AgendaSlot agendaSlot;
+
+    // Cliente que retuvo el bloque
+    @Column(nullable = false, length = 100)
+    private String username;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+}
@@ -0,0 +1,56 @@
+package ar.edu.huergo.clickservice.buscadorservicios.entity.security;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento de seguridad (login, renovación de token, acceso denegado, etc.).
+ *
+ * Las filas se insertan en lotes desde {@code AuditoriaService} con JDBC, fuera del hilo del
+ * request; esta entidad se usa sólo para las consultas.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "auditoria_eventos", indexes = {
+    @Index(name = "ix_auditoria_eventos_fecha", columnList = "fecha"),
+    @Index(name = "ix_auditoria_eventos_tipo_fecha", columnList = "tipo, fecha")
+})
+public class EventoAuditoria {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEventoAuditoria tipo;
+
+    @Column(length = 100)
+    private String username;
+
+    @Column(length = 45)
+    private String ip;
+
+    @Column(length = 200)
+    private String ruta;
+
+    @Column(length = 255)
+    private String detalle;
+
+    @Column(nullable = false)
+    private Instant fecha;
+}
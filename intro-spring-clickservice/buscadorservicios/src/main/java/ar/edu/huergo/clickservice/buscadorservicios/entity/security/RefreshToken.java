@@ -0,0 +1,63 @@
+package ar.edu.huergo.clickservice.buscadorservicios.entity.security;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Refresh token emitido en el login y rotado en cada uso.
+ *
+ * Sólo se guarda el SHA-256 del token. Todos los tokens que derivan de un mismo login comparten la
+ * misma familia: si un token ya usado vuelve a presentarse se asume que fue robado y se revoca la
+ * familia completa.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "ux_refresh_tokens_hash", columnList = "token_hash", unique = true),
+    @Index(name = "ix_refresh_tokens_familia", columnList = "familia"),
+    @Index(name = "ix_refresh_tokens_username", columnList = "username"),
+    @Index(name = "ix_refresh_tokens_expira_en", columnList = "expira_en")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, length = 43)
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36)
+    private String familia;
+
+    @Column(nullable = false, length = 100)
+    private String username;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+
+    @Column(nullable = false)
+    private boolean usado;
+
+    @Column(nullable = false)
+    private boolean revocado;
+
+    public RefreshToken(String tokenHash, String familia, String username, Instant expiraEn) {
+        this.tokenHash = tokenHash;
+        this.familia = familia;
+        this.username = username;
+        this.expiraEn = expiraEn;
+    }
+}
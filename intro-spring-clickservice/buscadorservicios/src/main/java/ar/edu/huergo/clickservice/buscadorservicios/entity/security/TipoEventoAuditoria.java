@@ -0,0 +1,13 @@
+package ar.edu.huergo.clickservice.buscadorservicios.entity.security;
+
+public enum TipoEventoAuditoria {
+    LOGIN_EXITOSO,
+    LOGIN_FALLIDO,
+    LOGIN_BLOQUEADO,
+    TOKEN_RENOVADO,
+    TOKEN_RENOVACION_FALLIDA,
+    TOKEN_INVALIDO,
+    LOGOUT,
+    ACCESO_DENEGADO,
+    NO_AUTENTICADO
+}
@@ -0,0 +1,58 @@
+package ar.edu.huergo.clickservice.buscadorservicios.entity.security;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Revocación de tokens JWT antes de su expiración.
+ *
+ * - Con {@code jti}: revoca un único token (logout).
+ * - Sin {@code jti}: revoca todos los tokens del usuario emitidos antes de {@code revocadoEn}
+ *   (bloqueo de cuenta / cierre de todas las sesiones).
+ *
+ * {@code expiraEn} es el instante a partir del cual ningún token alcanzado sigue siendo válido;
+ * desde entonces la fila ya no es necesaria y se elimina.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tokens_revocados", indexes = {
+    @Index(name = "ix_tokens_revocados_jti", columnList = "jti"),
+    @Index(name = "ix_tokens_revocados_expira_en", columnList = "expira_en")
+})
+public class TokenRevocado {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 36)
+    private String jti;
+
+    @Column(nullable = false, length = 100)
+    private String username;
+
+    @Column(name = "revocado_en", nullable = false)
+    private Instant revocadoEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+
+    public TokenRevocado(String jti, String username, Instant revocadoEn, Instant expiraEn) {
+        this.jti = jti;
+        this.username = username;
+        this.revocadoEn = revocadoEn;
+        this.expiraEn = expiraEn;
+    }
+}
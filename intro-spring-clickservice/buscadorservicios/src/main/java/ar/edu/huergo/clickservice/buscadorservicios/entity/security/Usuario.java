@@ -3,8 +3,10 @@ package ar.edu.huergo.clickservice.buscadorservicios.entity.security;
 import java.util.HashSet;
 import java.util.Set;
 
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.UsuarioEntityListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -28,6 +30,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "usuarios")
+@EntityListeners(UsuarioEntityListener.class)
 public class Usuario {
 
     @Id
@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
 
 import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.AgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 
@@ -23,9 +24,20 @@ public class AgendaSlotMapper {
         dto.setFechaInicio(agendaSlot.getFechaInicio());
         dto.setFechaFin(agendaSlot.getFechaFin());
         dto.setDisponible(Boolean.TRUE.equals(agendaSlot.getDisponible()));
+        dto.setSolicitudServicioId(agendaSlot.getSolicitudServicio() != null
+                ? agendaSlot.getSolicitudServicio().getId()
+                : null);
         return dto;
     }
 
+    public AgendaSlotDTO toDTO(BloqueAgendaDTO bloque) {
+        if (bloque == null) {
+            return null;
+        }
+        return new AgendaSlotDTO(bloque.agendaSlotId(), bloque.profesionalId(), bloque.fechaInicio(),
+                bloque.fechaFin(), Boolean.TRUE.equals(bloque.disponible()), null);
+    }
+
     public AgendaSlot toEntity(AgendaSlotDTO dto) {
         if (dto == null) {
             return null;
@@ -5,14 +5,20 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.PaginaCursorDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.PaginaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetasProfesionalesDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ProfesionalDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.dto.servicio.ServicioDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
 import ar.edu.huergo.clickservice.buscadorservicios.mapper.security.UsuarioMapper;
 import ar.edu.huergo.clickservice.buscadorservicios.mapper.servicio.ServicioMapper;
+import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.ProfesionalService.PaginaDirectorio;
+import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.ProfesionalService.ResultadoFacetas;
 
 @Component
 public class ProfesionalMapper {
@@ -41,6 +47,9 @@ public class ProfesionalMapper {
         dto.setTrabajosRealizados(profesional.getTrabajosRealizados());
         dto.setDisponible(profesional.getDisponible());
         dto.setZonaTrabajo(profesional.getZonaTrabajo());
+        dto.setLatitud(profesional.getLatitud());
+        dto.setLongitud(profesional.getLongitud());
+        dto.setRadioCoberturaKm(profesional.getRadioCoberturaKm());
         dto.setFechaRegistro(profesional.getFechaRegistro());
         
         // Mapear servicios
@@ -76,6 +85,9 @@ public class ProfesionalMapper {
         profesional.setTrabajosRealizados(dto.getTrabajosRealizados());
         profesional.setDisponible(dto.getDisponible());
         profesional.setZonaTrabajo(dto.getZonaTrabajo());
+        profesional.setLatitud(dto.getLatitud());
+        profesional.setLongitud(dto.getLongitud());
+        profesional.setRadioCoberturaKm(dto.getRadioCoberturaKm());
         profesional.setFechaRegistro(dto.getFechaRegistro());
 
         return profesional;
@@ -94,6 +106,40 @@ public class ProfesionalMapper {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Convierte una página de entidades Profesional a PaginaDTO
+     */
+    public PaginaDTO<ProfesionalDTO> toPaginaDTO(Page<Profesional> pagina) {
+        return new PaginaDTO<>(
+                toDTOList(pagina.getContent()),
+                pagina.getNumber(),
+                pagina.getSize(),
+                pagina.getTotalElements(),
+                pagina.getTotalPages());
+    }
+
+    /**
+     * Convierte una página del directorio a PaginaCursorDTO
+     */
+    public PaginaCursorDTO<ProfesionalDTO> toPaginaCursorDTO(PaginaDirectorio pagina) {
+        return new PaginaCursorDTO<>(
+                toDTOList(pagina.profesionales()),
+                pagina.profesionales().size(),
+                pagina.siguienteCursor());
+    }
+
+    /**
+     * Convierte el resultado de la búsqueda por facetas a FacetasProfesionalesDTO
+     */
+    public FacetasProfesionalesDTO toFacetasDTO(ResultadoFacetas resultado) {
+        return new FacetasProfesionalesDTO(
+                toPaginaDTO(resultado.profesionales()),
+                resultado.servicios(),
+                resultado.zonas(),
+                resultado.calificaciones(),
+                resultado.disponibilidad());
+    }
+
     /**
      * Convierte una lista de ProfesionalDTO a lista de entidades Profesional
      */
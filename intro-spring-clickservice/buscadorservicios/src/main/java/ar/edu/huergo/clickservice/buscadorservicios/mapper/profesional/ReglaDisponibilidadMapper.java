@@ -0,0 +1,105 @@
+package ar.edu.huergo.clickservice.buscadorservicios.mapper.profesional;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FeriadoDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ReglaDisponibilidadDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Feriado;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.ReglaDisponibilidad;
+
+@Component
+public class ReglaDisponibilidadMapper {
+
+    public ReglaDisponibilidadDTO toDTO(ReglaDisponibilidad regla) {
+        if (regla == null) {
+            return null;
+        }
+        ReglaDisponibilidadDTO dto = new ReglaDisponibilidadDTO();
+        dto.setId(regla.getId());
+        dto.setProfesionalId(regla.getProfesional() != null ? regla.getProfesional().getId() : null);
+        dto.setDias(dias(regla.getDiasSemana()));
+        dto.setHoraInicio(regla.getHoraInicio());
+        dto.setHoraFin(regla.getHoraFin());
+        dto.setVigenteDesde(regla.getVigenteDesde());
+        dto.setVigenteHasta(regla.getVigenteHasta());
+        dto.setRespetaFeriados(!Boolean.FALSE.equals(regla.getRespetaFeriados()));
+        dto.setExcepciones(regla.getExcepciones() == null ? new TreeSet<>() : new TreeSet<>(regla.getExcepciones()));
+        return dto;
+    }
+
+    public ReglaDisponibilidad toEntity(ReglaDisponibilidadDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        ReglaDisponibilidad regla = new ReglaDisponibilidad();
+        regla.setId(dto.getId());
+        if (dto.getProfesionalId() != null) {
+            Profesional profesional = new Profesional();
+            profesional.setId(dto.getProfesionalId());
+            regla.setProfesional(profesional);
+        }
+        regla.setDiasSemana(mascara(dto.getDias()));
+        regla.setHoraInicio(dto.getHoraInicio());
+        regla.setHoraFin(dto.getHoraFin());
+        regla.setVigenteDesde(dto.getVigenteDesde());
+        regla.setVigenteHasta(dto.getVigenteHasta());
+        regla.setRespetaFeriados(dto.getRespetaFeriados() == null ? Boolean.TRUE : dto.getRespetaFeriados());
+        regla.setExcepciones(dto.getExcepciones() == null ? new HashSet<>() : new HashSet<>(dto.getExcepciones()));
+        return regla;
+    }
+
+    public List<ReglaDisponibilidadDTO> toDTOList(List<ReglaDisponibilidad> reglas) {
+        if (reglas == null) {
+            return new ArrayList<>();
+        }
+        return reglas.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    public FeriadoDTO toDTO(Feriado feriado) {
+        if (feriado == null) {
+            return null;
+        }
+        return new FeriadoDTO(feriado.getId(), feriado.getFecha(), feriado.getDescripcion());
+    }
+
+    public Feriado toEntity(FeriadoDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+        return new Feriado(dto.getId(), dto.getFecha(), dto.getDescripcion());
+    }
+
+    // Lunes = 1, martes = 2, ..., domingo = 64
+    private static Integer mascara(Set<DayOfWeek> dias) {
+        if (dias == null || dias.isEmpty()) {
+            return null;
+        }
+        int mascara = 0;
+        for (DayOfWeek dia : dias) {
+            mascara |= 1 << (dia.getValue() - 1);
+        }
+        return mascara;
+    }
+
+    private static Set<DayOfWeek> dias(Integer mascara) {
+        Set<DayOfWeek> dias = EnumSet.noneOf(DayOfWeek.class);
+        if (mascara != null) {
+            for (DayOfWeek dia : DayOfWeek.values()) {
+                if ((mascara & (1 << (dia.getValue() - 1))) != 0) {
+                    dias.add(dia);
+                }
+            }
+        }
+        return dias;
+    }
+}
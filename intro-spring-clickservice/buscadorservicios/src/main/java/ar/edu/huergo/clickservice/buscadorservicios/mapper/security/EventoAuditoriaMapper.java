@@ -0,0 +1,34 @@
+package ar.edu.huergo.clickservice.buscadorservicios.mapper.security;
+
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.PaginaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.security.EventoAuditoriaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.EventoAuditoria;
+
+@Component
+public class EventoAuditoriaMapper {
+    public EventoAuditoriaDTO toDTO(EventoAuditoria evento) {
+        if (evento == null) {
+            return null;
+        }
+        return new EventoAuditoriaDTO(
+                evento.getId(),
+                evento.getTipo().name(),
+                evento.getUsername(),
+                evento.getIp(),
+                evento.getRuta(),
+                evento.getDetalle(),
+                evento.getFecha());
+    }
+
+    public PaginaDTO<EventoAuditoriaDTO> toPaginaDTO(Page<EventoAuditoria> pagina) {
+        return new PaginaDTO<>(
+                pagina.getContent().stream().map(this::toDTO).toList(),
+                pagina.getNumber(),
+                pagina.getSize(),
+                pagina.getTotalElements(),
+                pagina.getTotalPages());
+    }
+}
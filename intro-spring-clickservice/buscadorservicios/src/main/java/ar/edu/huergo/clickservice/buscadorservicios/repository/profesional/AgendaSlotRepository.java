@@ -1,12 +1,26 @@
 package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.AgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FranjaLibreDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface AgendaSlotRepository extends JpaRepository<AgendaSlot, Long> {
@@ -21,4 +35,101 @@ public interface AgendaSlotRepository extends JpaRepository<AgendaSlot, Long> {
             LocalDateTime fechaFin,
             LocalDateTime fechaInicio
     );
+
+    // Calendario de un profesional: los bloques que empiezan en [desde, hasta) (sin límite si es null),
+    // ordenados por inicio, con sólo las columnas del bloque (sin cargar el profesional ni la solicitud).
+    // Recorre ix_agenda_slots_profesional_inicio y se lee de a tandas, así que debe consumirse dentro de
+    // una transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.AgendaSlotDTO(
+                a.id, a.profesional.id, a.fechaInicio, a.fechaFin, a.disponible, a.solicitudServicio.id)
+            from AgendaSlot a
+            where a.profesional.id = :profesionalId
+              and (cast(:desde as LocalDateTime) is null or a.fechaInicio >= :desde)
+              and (cast(:hasta as LocalDateTime) is null or a.fechaInicio < :hasta)
+            order by a.fechaInicio, a.id
+            """)
+    Stream<AgendaSlotDTO> streamCalendario(@Param("profesionalId") Long profesionalId,
+            @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+    // Bloques disponibles y sin retener que todavía no terminaron, sin cargar el profesional (para el
+    // índice de disponibilidad)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FranjaLibreDTO(
+                a.id, a.profesional.id, a.fechaInicio, a.fechaFin)
+            from AgendaSlot a
+            where a.disponible = true and a.fechaFin > :desde
+              and not exists (select r.id from RetencionAgendaSlot r where r.agendaSlot = a)
+            """)
+    List<FranjaLibreDTO> findFranjasLibresDesde(@Param("desde") LocalDateTime desde);
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FranjaLibreDTO(
+                a.id, a.profesional.id, a.fechaInicio, a.fechaFin)
+            from AgendaSlot a
+            where a.id = :id and a.disponible = true
+              and not exists (select r.id from RetencionAgendaSlot r where r.agendaSlot = a)
+            """)
+    Optional<FranjaLibreDTO> findFranjaLibreById(@Param("id") Long id);
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FranjaLibreDTO(
+                a.id, a.profesional.id, a.fechaInicio, a.fechaFin)
+            from AgendaSlot a
+            where a.id in :ids and a.disponible = true
+              and not exists (select r.id from RetencionAgendaSlot r where r.agendaSlot = a)
+            """)
+    List<FranjaLibreDTO> findFranjasLibresByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Todos los bloques, libres u ocupados, sin cargar el profesional (para el índice de agendas). Un
+    // bloque retenido se informa como no disponible
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO(
+                a.id, a.profesional.id, a.fechaInicio, a.fechaFin,
+                case when a.disponible = true
+                    and not exists (select r.id from RetencionAgendaSlot r where r.agendaSlot = a)
+                    then true else false end)
+            from AgendaSlot a
+            """)
+    List<BloqueAgendaDTO> findBloques();
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO(
+                a.id, a.profesional.id, a.fechaInicio, a.fechaFin,
+                case when a.disponible = true
+                    and not exists (select r.id from RetencionAgendaSlot r where r.agendaSlot = a)
+                    then true else false end)
+            from AgendaSlot a
+            where a.id = :id
+            """)
+    Optional<BloqueAgendaDTO> findBloqueById(@Param("id") Long id);
+
+    // Reserva sólo si el bloque sigue libre y con la versión leída; 0 si otra operación lo cambió antes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update AgendaSlot a
+            set a.disponible = false, a.solicitudServicio = :solicitud, a.version = a.version + 1
+            where a.id = :id and a.version = :version and a.disponible = true
+            """)
+    int reservar(@Param("id") Long id, @Param("version") Long version,
+            @Param("solicitud") SolicitudServicio solicitud);
+
+    // Sólo cambia la versión si el bloque sigue libre y con la versión leída (al retenerlo, para que una
+    // reserva que lo leyó antes tenga que volver a leerlo y vea la retención)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update AgendaSlot a set a.version = a.version + 1
+            where a.id = :id and a.version = :version and a.disponible = true
+            """)
+    int incrementarVersionSiDisponible(@Param("id") Long id, @Param("version") Long version);
+
+    // Libera la reserva sólo si el bloque sigue con la versión leída; 0 si otra operación lo cambió antes
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update AgendaSlot a
+            set a.disponible = true, a.solicitudServicio = null, a.version = a.version + 1
+            where a.id = :id and a.version = :version and a.solicitudServicio is not null
+            """)
+    int liberar(@Param("id") Long id, @Param("version") Long version);
 }
@@ -0,0 +1,28 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
+
+import java.util.List;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroDirectorioDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.OrdenDirectorio;
+
+/**
+ * Consulta del directorio de profesionales con filtros combinables y paginación por clave
+ * (keyset): cada página continúa después del último (valor de orden, id) devuelto en lugar de
+ * usar OFFSET, así el costo de una página no depende de su profundidad.
+ */
+public interface DirectorioProfesionalesRepository {
+
+    /**
+     * Posición de un profesional en el orden del directorio: el valor del criterio de orden
+     * (calificación o trabajos realizados) y su id como desempate.
+     */
+    record PosicionDirectorio(Number valor, Long id) {
+    }
+
+    /**
+     * Devuelve hasta {@code limite} ids de profesionales que cumplen el filtro, en el orden pedido
+     * y a partir de la posición siguiente a {@code despuesDe} (null para la primera página).
+     */
+    List<Long> buscarIdsDirectorio(FiltroDirectorioDTO filtro, OrdenDirectorio orden,
+            PosicionDirectorio despuesDe, int limite);
+}
@@ -0,0 +1,100 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroDirectorioDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.OrdenDirectorio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * SQL nativo del directorio, armado sólo con los filtros presentes para que la base pueda
+ * recorrer en orden uno de los índices compuestos de {@code profesionales} y cortar al llegar
+ * al límite, sin ordenar el resultado completo:
+ * <ul>
+ *   <li>La posición del cursor se compara como fila: {@code (orden, id) < (:valor, :id)}, que la
+ *   base resuelve como un rango sobre el índice.</li>
+ *   <li>Con filtro de disponibilidad, {@code disponible} se agrega al principio del ORDER BY (no
+ *   cambia el orden porque es constante) para que coincida con el índice que empieza por esa
+ *   columna.</li>
+ *   <li>Los servicios se filtran con EXISTS sobre la clave primaria de {@code profesional_servicio},
+ *   sin join, para no duplicar filas ni romper el orden.</li>
+ * </ul>
+ */
+public class DirectorioProfesionalesRepositoryImpl implements DirectorioProfesionalesRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Sentencia SQL y sus parámetros con nombre.
+     */
+    record ConsultaDirectorio(String sql, Map<String, Object> parametros) {
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> buscarIdsDirectorio(FiltroDirectorioDTO filtro, OrdenDirectorio orden,
+            PosicionDirectorio despuesDe, int limite) {
+        ConsultaDirectorio consulta = construirConsulta(filtro, orden, despuesDe, limite);
+        Query query = entityManager.createNativeQuery(consulta.sql(), Long.class);
+        consulta.parametros().forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    static ConsultaDirectorio construirConsulta(FiltroDirectorioDTO filtro, OrdenDirectorio orden,
+            PosicionDirectorio despuesDe, int limite) {
+        String columnaOrden = switch (orden) {
+            case CALIFICACION -> "p.calificacion_promedio";
+            case EXPERIENCIA -> "p.trabajos_realizados";
+        };
+        StringBuilder where = new StringBuilder();
+        Map<String, Object> parametros = new LinkedHashMap<>();
+
+        if (filtro.disponible() != null) {
+            agregarCondicion(where, "p.disponible = :disponible");
+            parametros.put("disponible", filtro.disponible());
+        }
+        if (filtro.calificacionMinima() != null) {
+            agregarCondicion(where, "p.calificacion_promedio >= :calificacionMinima");
+            parametros.put("calificacionMinima", filtro.calificacionMinima());
+        }
+        if (filtro.trabajosMinimos() != null) {
+            agregarCondicion(where, "p.trabajos_realizados >= :trabajosMinimos");
+            parametros.put("trabajosMinimos", filtro.trabajosMinimos());
+        }
+        if (filtro.zona() != null && !filtro.zona().isBlank()) {
+            agregarCondicion(where, "lower(p.zona_trabajo) like :zona escape '\\'");
+            parametros.put("zona", "%" + escaparLike(filtro.zona().trim().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (filtro.serviciosIds() != null && !filtro.serviciosIds().isEmpty()) {
+            agregarCondicion(where, "exists (select 1 from profesional_servicio ps"
+                    + " where ps.profesional_id = p.id and ps.servicio_id in (:serviciosIds))");
+            parametros.put("serviciosIds", filtro.serviciosIds());
+        }
+        if (despuesDe != null) {
+            agregarCondicion(where, "(" + columnaOrden + ", p.id) < (:valorCursor, :idCursor)");
+            parametros.put("valorCursor", despuesDe.valor());
+            parametros.put("idCursor", despuesDe.id());
+        }
+        parametros.put("limite", limite);
+
+        String sql = "select p.id from profesionales p" + where
+                + " order by " + (filtro.disponible() != null ? "p.disponible, " : "")
+                + columnaOrden + " desc, p.id desc"
+                + " fetch first :limite rows only";
+        return new ConsultaDirectorio(sql, parametros);
+    }
+
+    private static void agregarCondicion(StringBuilder where, String condicion) {
+        where.append(where.isEmpty() ? " where " : " and ").append(condicion);
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
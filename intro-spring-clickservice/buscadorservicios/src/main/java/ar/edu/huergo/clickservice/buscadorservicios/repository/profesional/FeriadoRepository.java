@@ -0,0 +1,17 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Feriado;
+
+@Repository
+public interface FeriadoRepository extends JpaRepository<Feriado, Long> {
+
+    boolean existsByFecha(LocalDate fecha);
+
+    List<Feriado> findAllByOrderByFechaAsc();
+}
@@ -1,22 +1,161 @@
 package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.MetricasRankingDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ServicioProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.SugerenciaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TextoProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.UbicacionProfesionalDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 
 @Repository
-public interface ProfesionalRepository extends JpaRepository<Profesional, Long> {
+public interface ProfesionalRepository extends JpaRepository<Profesional, Long>, DirectorioProfesionalesRepository {
     
     // Buscar profesional por ID de usuario
     Optional<Profesional> findByUsuarioId(Long usuarioId);
     
+    // Los listados cargan usuario, roles y servicios con el grafo de listado (sin N+1 al mapear)
+    @Override
+    @EntityGraph(Profesional.GRAFO_LISTADO)
+    List<Profesional> findAll();
+
     // Buscar profesionales disponibles
+    @EntityGraph(Profesional.GRAFO_LISTADO)
     List<Profesional> findByDisponibleTrue();
     
-    // Buscar profesionales por servicio (usando la tabla intermedia)
-    List<Profesional> findByServiciosIdAndDisponibleTrue(Long servicioId);
-}
\ No newline at end of file
+    // Buscar profesionales por servicio (usando la tabla intermedia). Se filtra con una subconsulta
+    // para que la colección de servicios traída por el grafo quede completa.
+    @EntityGraph(Profesional.GRAFO_LISTADO)
+    @Query("""
+            select p from Profesional p
+            where p.disponible = true
+              and p.id in (select p2.id from Profesional p2 join p2.servicios s where s.id = :servicioId)
+            """)
+    List<Profesional> findByServiciosIdAndDisponibleTrue(@Param("servicioId") Long servicioId);
+
+    // Profesionales de una página armada por id (directorio, cercanía, búsqueda de texto)
+    @EntityGraph(Profesional.GRAFO_LISTADO)
+    List<Profesional> findByIdIn(Collection<Long> ids);
+
+    // Ubicaciones de profesionales disponibles, una fila por servicio (para el índice geográfico)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.UbicacionProfesionalDTO(
+                p.id, p.latitud, p.longitud, p.radioCoberturaKm, s.id)
+            from Profesional p join p.servicios s
+            where p.disponible = true and p.latitud is not null and p.longitud is not null
+            """)
+    List<UbicacionProfesionalDTO> findUbicacionesDisponibles();
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.UbicacionProfesionalDTO(
+                p.id, p.latitud, p.longitud, p.radioCoberturaKm, s.id)
+            from Profesional p join p.servicios s
+            where p.id = :id and p.disponible = true and p.latitud is not null and p.longitud is not null
+            """)
+    List<UbicacionProfesionalDTO> findUbicacionesDisponiblesByProfesionalId(@Param("id") Long id);
+
+    // Textos indexables de los profesionales, una fila por servicio (para el índice de texto)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TextoProfesionalDTO(
+                p.id, p.nombreCompleto, p.descripcion, p.zonaTrabajo, s.nombre)
+            from Profesional p left join p.servicios s
+            order by p.id
+            """)
+    List<TextoProfesionalDTO> findTextosProfesionales();
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TextoProfesionalDTO(
+                p.id, p.nombreCompleto, p.descripcion, p.zonaTrabajo, s.nombre)
+            from Profesional p left join p.servicios s
+            where p.id = :id
+            """)
+    List<TextoProfesionalDTO> findTextosByProfesionalId(@Param("id") Long id);
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TextoProfesionalDTO(
+                p.id, p.nombreCompleto, p.descripcion, p.zonaTrabajo, s.nombre)
+            from Profesional p left join p.servicios s
+            where p.id in (select p2.id from Profesional p2 join p2.servicios s2 where s2.id = :servicioId)
+            order by p.id
+            """)
+    List<TextoProfesionalDTO> findTextosByServicioId(@Param("servicioId") Long servicioId);
+
+    // Métricas de ranking de profesionales disponibles, una fila por servicio (para el ranking)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.MetricasRankingDTO(
+                p.id, s.id, p.trabajosRealizados, count(r.id), avg(r.rating), max(r.fecha))
+            from Profesional p join p.servicios s left join Reseña r on r.profesional = p
+            where p.disponible = true
+            group by p.id, s.id, p.trabajosRealizados
+            """)
+    List<MetricasRankingDTO> findMetricasRanking();
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.MetricasRankingDTO(
+                p.id, s.id, p.trabajosRealizados, count(r.id), avg(r.rating), max(r.fecha))
+            from Profesional p join p.servicios s left join Reseña r on r.profesional = p
+            where p.id = :id and p.disponible = true
+            group by p.id, s.id, p.trabajosRealizados
+            """)
+    List<MetricasRankingDTO> findMetricasRankingByProfesionalId(@Param("id") Long id);
+
+    // Valores de faceta de los profesionales, una fila por servicio (para el índice de facetas)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetaProfesionalDTO(
+                p.id, p.calificacionPromedio, p.disponible, p.zonaTrabajo, s.id)
+            from Profesional p left join p.servicios s
+            order by p.id
+            """)
+    List<FacetaProfesionalDTO> findFacetasProfesionales();
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetaProfesionalDTO(
+                p.id, p.calificacionPromedio, p.disponible, p.zonaTrabajo, s.id)
+            from Profesional p left join p.servicios s
+            where p.id = :id
+            """)
+    List<FacetaProfesionalDTO> findFacetasByProfesionalId(@Param("id") Long id);
+
+    // Nombre, zona, trabajos y servicios de los profesionales, una fila por servicio (para las sugerencias)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.SugerenciaProfesionalDTO(
+                p.id, p.nombreCompleto, p.zonaTrabajo, p.trabajosRealizados, s.id)
+            from Profesional p left join p.servicios s
+            """)
+    List<SugerenciaProfesionalDTO> findSugerenciasProfesionales();
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.SugerenciaProfesionalDTO(
+                p.id, p.nombreCompleto, p.zonaTrabajo, p.trabajosRealizados, s.id)
+            from Profesional p left join p.servicios s
+            where p.id = :id
+            """)
+    List<SugerenciaProfesionalDTO> findSugerenciasByProfesionalId(@Param("id") Long id);
+
+    // Servicios de los profesionales disponibles, una fila por servicio (para el índice de disponibilidad)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ServicioProfesionalDTO(
+                p.id, s.id)
+            from Profesional p join p.servicios s
+            where p.disponible = true
+            """)
+    List<ServicioProfesionalDTO> findServiciosDeDisponibles();
+
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ServicioProfesionalDTO(
+                p.id, s.id)
+            from Profesional p join p.servicios s
+            where p.id = :id and p.disponible = true
+            """)
+    List<ServicioProfesionalDTO> findServiciosDeDisponiblesByProfesionalId(@Param("id") Long id);
+}
@@ -0,0 +1,29 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.ReglaDisponibilidad;
+
+@Repository
+public interface ReglaDisponibilidadRepository extends JpaRepository<ReglaDisponibilidad, Long> {
+
+    @Query("""
+            select distinct r from ReglaDisponibilidad r left join fetch r.excepciones
+            where r.profesional.id = :profesionalId
+            order by r.id
+            """)
+    List<ReglaDisponibilidad> findConExcepcionesByProfesionalId(@Param("profesionalId") Long profesionalId);
+
+    // Todas las reglas con sus excepciones en una sola consulta (para el índice de agendas)
+    @Query("select distinct r from ReglaDisponibilidad r left join fetch r.excepciones")
+    List<ReglaDisponibilidad> findAllConExcepciones();
+
+    @Query("select r from ReglaDisponibilidad r left join fetch r.excepciones where r.id = :id")
+    Optional<ReglaDisponibilidad> findConExcepcionesById(@Param("id") Long id);
+}
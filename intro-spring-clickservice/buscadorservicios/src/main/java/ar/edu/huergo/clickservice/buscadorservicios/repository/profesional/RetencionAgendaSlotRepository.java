@@ -0,0 +1,43 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.RetencionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.RetencionAgendaSlot;
+
+@Repository
+public interface RetencionAgendaSlotRepository extends JpaRepository<RetencionAgendaSlot, Long> {
+
+    Optional<RetencionAgendaSlot> findByAgendaSlotId(Long agendaSlotId);
+
+    long countByUsernameAndExpiraEnAfter(String username, Instant ahora);
+
+    // Id del bloque y vencimiento de cada retención, sin cargar los bloques (para la carga inicial)
+    @Query("""
+            select new ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.RetencionAgendaSlotDTO(
+                r.agendaSlot.id, r.expiraEn)
+            from RetencionAgendaSlot r
+            """)
+    List<RetencionAgendaSlotDTO> findVencimientos();
+
+    // Borra la retención sólo si sigue vencida (0 si se renovó o ya no existe)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RetencionAgendaSlot r where r.agendaSlot.id = :agendaSlotId and r.expiraEn <= :ahora")
+    int eliminarVencida(@Param("agendaSlotId") Long agendaSlotId, @Param("ahora") Instant ahora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RetencionAgendaSlot r where r.expiraEn <= :ahora")
+    int eliminarVencidas(@Param("ahora") Instant ahora);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from RetencionAgendaSlot r where r.agendaSlot.id = :agendaSlotId")
+    int eliminarPorAgendaSlotId(@Param("agendaSlotId") Long agendaSlotId);
+}
@@ -0,0 +1,18 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.security;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.EventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TipoEventoAuditoria;
+
+public interface EventoAuditoriaRepository extends JpaRepository<EventoAuditoria, Long> {
+    Page<EventoAuditoria> findByFechaGreaterThanEqualAndFechaLessThan(Instant desde, Instant hasta,
+            Pageable pageable);
+
+    Page<EventoAuditoria> findByTipoAndFechaGreaterThanEqualAndFechaLessThan(TipoEventoAuditoria tipo,
+            Instant desde, Instant hasta, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.security;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.RefreshToken;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Marca el token como usado sólo si nadie lo usó antes (evita dos rotaciones concurrentes)
+    @Modifying
+    @Query("update RefreshToken r set r.usado = true where r.id = :id and r.usado = false")
+    int marcarUsado(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.familia = :familia")
+    int revocarFamilia(@Param("familia") String familia);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.username = :username")
+    int revocarPorUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiraEn < :limite")
+    int eliminarVencidos(@Param("limite") Instant limite);
+}
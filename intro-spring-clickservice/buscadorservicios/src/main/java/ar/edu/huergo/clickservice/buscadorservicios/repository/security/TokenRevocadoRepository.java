@@ -0,0 +1,19 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.security;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TokenRevocado;
+
+public interface TokenRevocadoRepository extends JpaRepository<TokenRevocado, Long> {
+    List<TokenRevocado> findByExpiraEnAfter(Instant instante);
+
+    @Modifying
+    @Query("delete from TokenRevocado t where t.expiraEn < :limite")
+    int eliminarVencidos(@Param("limite") Instant limite);
+}
@@ -3,6 +3,9 @@ package ar.edu.huergo.clickservice.buscadorservicios.repository.servicio;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio;
@@ -19,4 +22,10 @@ public interface SolicitudServicioRepository extends JpaRepository<SolicitudServ
     
     // Buscar solicitudes por servicio y estado (para asignar a profesionales)
     List<SolicitudServicio> findByServicioIdAndEstado(Long servicioId, EstadoSolicitud estado);
-}
\ No newline at end of file
+
+    // Cambia el estado sólo si la solicitud sigue en el estado esperado (0 si otra operación la cambió)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolicitudServicio s set s.estado = :nuevo where s.id = :id and s.estado = :actual")
+    int cambiarEstado(@Param("id") Long id, @Param("actual") EstadoSolicitud actual,
+            @Param("nuevo") EstadoSolicitud nuevo);
+}
@@ -0,0 +1,8 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina un bloque de agenda, para que
+ * {@link IndiceDisponibilidad} e {@link IndiceAgendas} lo vuelvan a leer después del commit.
+ */
+public record AgendaSlotModificadoEvent(Long agendaSlotId) {
+}
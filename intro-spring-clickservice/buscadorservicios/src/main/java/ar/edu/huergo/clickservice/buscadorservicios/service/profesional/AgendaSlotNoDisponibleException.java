@@ -0,0 +1,13 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+/**
+ * Se lanza cuando no se puede reservar un bloque de agenda porque ya está ocupado o porque otras
+ * operaciones lo siguieron modificando durante todos los reintentos. Se traduce a un 409 en
+ * {@code GlobalExceptionHandler}.
+ */
+public class AgendaSlotNoDisponibleException extends RuntimeException {
+
+    public AgendaSlotNoDisponibleException(String message) {
+        super(message);
+    }
+}
@@ -1,14 +1,46 @@
 package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.AgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ResultadoImportacionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ResumenDiaAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TramoAgendaDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio.EstadoSolicitud;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.SolicitudServicioRepository;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
@@ -20,12 +52,81 @@ public class AgendaSlotService {
     @Autowired
     private ProfesionalRepository profesionalRepository;
 
+    @Autowired
+    private IndiceDisponibilidad indiceDisponibilidad;
+
+    @Autowired
+    private IndiceAgendas indiceAgendas;
+
+    @Autowired
+    private SolicitudServicioRepository solicitudServicioRepository;
+
+    @Autowired
+    private RetencionAgendaService retencionAgendaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /** Máximo de profesionales devueltos por una búsqueda de disponibilidad. */
+    public static final int CANTIDAD_DISPONIBLES_MAXIMA = 50;
+
+    /** Máximo de días de una consulta de conflictos o de libre/ocupado. */
+    public static final int RANGO_CONSULTA_MAXIMO_DIAS = 92;
+
+    /** Máximo de bloques de una importación. */
+    public static final int IMPORTACION_MAXIMA = 1000;
+
+    /** Intentos de una reserva cuando otra operación modifica el bloque entre la lectura y la escritura. */
+    public static final int INTENTOS_RESERVA = 5;
+
+    private static final int MINUTOS_POR_DIA = 24 * 60;
+
+    /** Espera máxima antes del primer reintento; se duplica en cada uno y se elige al azar hasta ese tope. */
+    private static final long ESPERA_REINTENTO_MS = 10;
+
+    private static final int CANTIDAD_CERROJOS = 64;
+
+    /**
+     * Cerrojos repartidos por id de profesional: controlar la superposición, guardar el bloque y
+     * registrarlo en el índice de agendas se hace con el del profesional tomado, así dos altas
+     * simultáneas no pueden pasar las dos el control.
+     */
+    private final ReentrantLock[] cerrojos = crearCerrojos();
+
+    /**
+     * Profesional con un hueco libre en la ventana buscada: el bloque de agenda, desde cuándo está
+     * libre dentro de la ventana y hasta cuándo dura el bloque.
+     */
+    public record ProfesionalDisponible(Profesional profesional, Long agendaSlotId, LocalDateTime libreDesde,
+            LocalDateTime libreHasta) {
+    }
+
     public List<AgendaSlot> obtenerTodosLosAgendaSlots() {
         return agendaSlotRepository.findAll();
     }
 
-    public List<AgendaSlot> obtenerAgendaSlotsPorProfesional(Long profesionalId) {
-        return agendaSlotRepository.findByProfesionalId(profesionalId);
+    /**
+     * Pasa a {@code consumidor} los bloques del profesional que empiezan en [{@code desde},
+     * {@code hasta}) (sin límite del lado que sea null), ordenados por inicio. Se leen de la base de a
+     * tandas con una proyección de las columnas del bloque, sin cargar el profesional, así que el costo
+     * no depende del tamaño del rango más allá de los bloques que trae. El stream sólo es válido dentro
+     * de {@code consumidor}, y se valida antes de llamarlo para no dejar una respuesta a medio escribir.
+     */
+    @Transactional(readOnly = true)
+    public void recorrerCalendario(Long profesionalId, LocalDateTime desde, LocalDateTime hasta,
+            Consumer<Stream<AgendaSlotDTO>> consumidor) {
+        if (desde != null && hasta != null && !hasta.isAfter(desde)) {
+            throw new IllegalArgumentException("La fecha de fin debe ser posterior a la fecha de inicio");
+        }
+        if (!profesionalRepository.existsById(profesionalId)) {
+            throw new EntityNotFoundException("Profesional no encontrado");
+        }
+        try (Stream<AgendaSlotDTO> agendaSlots = agendaSlotRepository.streamCalendario(profesionalId, desde, hasta)) {
+            consumidor.accept(agendaSlots);
+        }
     }
 
     public AgendaSlot obtenerAgendaSlotPorId(Long id) {
@@ -39,11 +140,125 @@ public class AgendaSlotService {
         if (agendaSlot.getDisponible() == null) {
             agendaSlot.setDisponible(Boolean.TRUE);
         }
-        return agendaSlotRepository.save(agendaSlot);
+        AgendaSlot guardado = guardarSinSuperposicion(agendaSlot, null, profesional.getId());
+        eventPublisher.publishEvent(new AgendaSlotModificadoEvent(guardado.getId()));
+        return guardado;
+    }
+
+    /**
+     * Crea varios bloques de una vez (por ejemplo, al cargar la agenda de un profesional nuevo). Cada
+     * bloque se valida por separado y los que no pasan se informan en su posición sin impedir que se
+     * guarden los demás: profesional inexistente, rango inválido, superposición con la agenda del
+     * profesional o con otro bloque de la misma importación (queda el que empieza antes).
+     *
+     * Los profesionales se leen con una sola consulta y las superposiciones se controlan en memoria
+     * (ordenando los bloques de cada profesional por inicio y contra el índice de agendas) con los
+     * cerrojos de todos los profesionales tomados. Los bloques válidos se guardan en una transacción,
+     * con inserts en lotes JDBC gracias al id de secuencia.
+     */
+    public List<ResultadoImportacionAgendaSlotDTO> importarAgendaSlots(List<AgendaSlot> agendaSlots) {
+        if (agendaSlots == null || agendaSlots.isEmpty() || agendaSlots.size() > IMPORTACION_MAXIMA) {
+            throw new IllegalArgumentException(
+                    "La importación debe tener entre 1 y " + IMPORTACION_MAXIMA + " bloques");
+        }
+        Map<Long, Profesional> profesionales = profesionalRepository.findAllById(agendaSlots.stream()
+                .map(AgendaSlot::getProfesional)
+                .filter(Objects::nonNull)
+                .map(Profesional::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+
+        String[] errores = new String[agendaSlots.size()];
+        Map<Long, List<Integer>> porProfesional = new HashMap<>();
+        for (int i = 0; i < agendaSlots.size(); i++) {
+            AgendaSlot agendaSlot = agendaSlots.get(i);
+            Profesional profesional = agendaSlot.getProfesional() != null
+                    ? profesionales.get(agendaSlot.getProfesional().getId())
+                    : null;
+            if (profesional == null) {
+                errores[i] = "Profesional no encontrado";
+            } else if (agendaSlot.getFechaInicio() == null || agendaSlot.getFechaFin() == null
+                    || !agendaSlot.getFechaFin().isAfter(agendaSlot.getFechaInicio())) {
+                errores[i] = "La fecha de fin debe ser posterior a la fecha de inicio";
+            } else {
+                agendaSlot.setId(null);
+                agendaSlot.setVersion(null);
+                agendaSlot.setProfesional(profesional);
+                if (agendaSlot.getDisponible() == null) {
+                    agendaSlot.setDisponible(Boolean.TRUE);
+                }
+                porProfesional.computeIfAbsent(profesional.getId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        List<AgendaSlot> aceptados = new ArrayList<>();
+        List<ReentrantLock> tomados = bloquear(porProfesional.keySet());
+        try {
+            porProfesional.forEach((profesionalId, indices) -> {
+                indices.sort(Comparator.comparing(indice -> agendaSlots.get(indice).getFechaInicio()));
+                // Los aceptados de cada profesional no se superponen y están ordenados por inicio, así que
+                // un candidato choca con alguno sólo si empieza antes de que termine el último
+                LocalDateTime finAceptados = null;
+                for (int indice : indices) {
+                    AgendaSlot candidato = agendaSlots.get(indice);
+                    if (finAceptados != null && candidato.getFechaInicio().isBefore(finAceptados)) {
+                        errores[indice] = "El horario se superpone con otro bloque de la importación";
+                    } else if (indiceAgendas.haySuperposicion(profesionalId, candidato.getFechaInicio(),
+                            candidato.getFechaFin(), null)) {
+                        errores[indice] = "El horario se superpone con otro bloque de la agenda del profesional";
+                    } else {
+                        aceptados.add(candidato);
+                        finAceptados = candidato.getFechaFin();
+                    }
+                }
+            });
+            if (!aceptados.isEmpty()) {
+                transactionTemplate.execute(estado -> agendaSlotRepository.saveAll(aceptados));
+                for (AgendaSlot guardado : aceptados) {
+                    indiceAgendas.actualizarBloque(guardado.getId(), new BloqueAgendaDTO(guardado.getId(),
+                            guardado.getProfesional().getId(), guardado.getFechaInicio(), guardado.getFechaFin(),
+                            guardado.getDisponible()));
+                }
+            }
+        } finally {
+            for (int i = tomados.size() - 1; i >= 0; i--) {
+                tomados.get(i).unlock();
+            }
+        }
+        if (!aceptados.isEmpty()) {
+            eventPublisher.publishEvent(new AgendaSlotsImportadosEvent(aceptados.stream()
+                    .map(AgendaSlot::getId)
+                    .toList()));
+        }
+
+        List<ResultadoImportacionAgendaSlotDTO> resultados = new ArrayList<>(agendaSlots.size());
+        for (int i = 0; i < agendaSlots.size(); i++) {
+            resultados.add(errores[i] != null
+                    ? new ResultadoImportacionAgendaSlotDTO(i, null, errores[i])
+                    : new ResultadoImportacionAgendaSlotDTO(i, agendaSlots.get(i).getId(), null));
+        }
+        return resultados;
     }
 
     public AgendaSlot actualizarAgendaSlot(Long id, AgendaSlot agendaSlotActualizado) {
         AgendaSlot agendaSlotExistente = obtenerAgendaSlotPorId(id);
+        Long profesionalAnteriorId = agendaSlotExistente.getProfesional() != null
+                ? agendaSlotExistente.getProfesional().getId()
+                : null;
+
+        // Un bloque reservado queda atado a la solicitud: no cambia de profesional ni de horario
+        if (agendaSlotExistente.getSolicitudServicio() != null) {
+            boolean cambiaProfesional = agendaSlotActualizado.getProfesional() != null
+                    && agendaSlotActualizado.getProfesional().getId() != null
+                    && !agendaSlotActualizado.getProfesional().getId().equals(profesionalAnteriorId);
+            if (cambiaProfesional
+                    || !Objects.equals(agendaSlotExistente.getFechaInicio(), agendaSlotActualizado.getFechaInicio())
+                    || !Objects.equals(agendaSlotExistente.getFechaFin(), agendaSlotActualizado.getFechaFin())) {
+                throw new IllegalArgumentException(
+                        "No se puede mover un bloque reservado, primero cancele la reserva");
+            }
+        }
 
         if (agendaSlotActualizado.getProfesional() != null && agendaSlotActualizado.getProfesional().getId() != null) {
             Profesional profesionalActualizado = profesionalRepository
@@ -57,13 +272,367 @@ public class AgendaSlotService {
         agendaSlotExistente
                 .setDisponible(agendaSlotActualizado.getDisponible() == null ? Boolean.TRUE
                         : agendaSlotActualizado.getDisponible());
+        // Un bloque reservado sólo se libera cancelando la reserva
+        if (agendaSlotExistente.getSolicitudServicio() != null) {
+            agendaSlotExistente.setDisponible(Boolean.FALSE);
+        }
 
-        return agendaSlotRepository.save(agendaSlotExistente);
+        AgendaSlot guardado = guardarSinSuperposicion(agendaSlotExistente, id, profesionalAnteriorId);
+        eventPublisher.publishEvent(new AgendaSlotModificadoEvent(guardado.getId()));
+        return guardado;
     }
 
     public void eliminarAgendaSlot(Long id) {
         AgendaSlot agendaSlot = obtenerAgendaSlotPorId(id);
+        if (agendaSlot.getSolicitudServicio() != null) {
+            throw new IllegalArgumentException("No se puede eliminar un bloque reservado, primero cancele la reserva");
+        }
+        retencionAgendaService.descartar(id);
         agendaSlotRepository.delete(agendaSlot);
+        eventPublisher.publishEvent(new AgendaSlotModificadoEvent(id));
+    }
+
+    /**
+     * Reserva el bloque para la solicitud: el bloque queda ocupado y vinculado a la solicitud, y la
+     * solicitud pasa a asignada, las dos cosas en la misma transacción. Sólo puede pedirla el cliente
+     * de la solicitud o un administrador. Si el bloque está retenido sólo puede reservarlo el cliente
+     * de la solicitud, y la retención se consume.
+     *
+     * Las reservas de un mismo profesional se ordenan con su cerrojo, así que dentro de esta instancia
+     * sólo compiten entre sí las de ese profesional. La escritura además exige que el bloque conserve
+     * la versión leída, lo que cubre a otras instancias y a modificaciones que leyeron el bloque antes:
+     * si la versión cambió se espera un tiempo al azar y se vuelve a leer.
+     */
+    public AgendaSlot reservarAgendaSlot(Long id, Long solicitudServicioId, String username, boolean admin) {
+        SolicitudServicio solicitud = solicitudServicioRepository.findById(solicitudServicioId)
+                .orElseThrow(() -> new EntityNotFoundException("Solicitud de servicio no encontrada"));
+        if (!admin && !solicitud.getCliente().getUsername().equals(username)) {
+            throw new AccessDeniedException("Sólo el cliente de la solicitud puede reservar un bloque para ella");
+        }
+        if (solicitud.getEstado() != EstadoSolicitud.PENDIENTE) {
+            throw new IllegalArgumentException("Sólo se puede reservar un bloque para una solicitud pendiente");
+        }
+        return escribirConVersion(id, agendaSlot -> validarReserva(agendaSlot, solicitud), (agendaSlot, estado) -> {
+            retencionAgendaService.consumir(agendaSlot.getId(), solicitud.getCliente().getUsername());
+            // Primero la solicitud: si la pide otro bloque al mismo tiempo, la base ordena las dos
+            // actualizaciones y la segunda ya no la encuentra pendiente
+            if (solicitudServicioRepository.cambiarEstado(solicitud.getId(), EstadoSolicitud.PENDIENTE,
+                    EstadoSolicitud.ASIGNADA) == 0) {
+                throw new IllegalArgumentException("Sólo se puede reservar un bloque para una solicitud pendiente");
+            }
+            if (agendaSlotRepository.reservar(agendaSlot.getId(), agendaSlot.getVersion(), solicitud) == 0) {
+                estado.setRollbackOnly();
+                return false;
+            }
+            solicitud.setEstado(EstadoSolicitud.ASIGNADA);
+            agendaSlot.setDisponible(Boolean.FALSE);
+            agendaSlot.setSolicitudServicio(solicitud);
+            return true;
+        });
+    }
+
+    /**
+     * Cancela la reserva del bloque: vuelve a estar libre y la solicitud vuelve a pendiente. Sólo se
+     * puede mientras la solicitud siga asignada (no en proceso ni completada), y sólo la pueden
+     * cancelar el cliente de la solicitud, el profesional del bloque o un administrador.
+     */
+    public AgendaSlot cancelarReserva(Long id, String username, boolean admin) {
+        return escribirConVersion(id, agendaSlot -> {
+            if (agendaSlot.getSolicitudServicio() == null) {
+                throw new IllegalArgumentException("El bloque no tiene una reserva");
+            }
+            if (!admin && !participaDeLaReserva(agendaSlot, username)) {
+                throw new AccessDeniedException(
+                        "Sólo el cliente de la solicitud o el profesional del bloque pueden cancelar la reserva");
+            }
+        }, (agendaSlot, estado) -> {
+            Long solicitudId = agendaSlot.getSolicitudServicio().getId();
+            if (solicitudServicioRepository.cambiarEstado(solicitudId, EstadoSolicitud.ASIGNADA,
+                    EstadoSolicitud.PENDIENTE) == 0) {
+                throw new IllegalArgumentException("La solicitud ya no está asignada y no se puede cancelar la reserva");
+            }
+            if (agendaSlotRepository.liberar(agendaSlot.getId(), agendaSlot.getVersion()) == 0) {
+                estado.setRollbackOnly();
+                return false;
+            }
+            agendaSlot.setDisponible(Boolean.TRUE);
+            agendaSlot.setSolicitudServicio(null);
+            return true;
+        });
+    }
+
+    /**
+     * Bloques de la agenda del profesional que se superponen con [{@code desde}, {@code hasta}),
+     * ordenados por inicio. Con {@code agendaSlotIdExcluido} se omite ese bloque (para revisar un
+     * cambio de horario antes de hacerlo).
+     */
+    public List<BloqueAgendaDTO> obtenerConflictos(Long profesionalId, LocalDateTime desde, LocalDateTime hasta,
+            Long agendaSlotIdExcluido) {
+        validarConsultaDeAgenda(profesionalId, desde, hasta);
+        return indiceAgendas.superpuestos(profesionalId, desde, hasta).stream()
+                .filter(bloque -> !bloque.agendaSlotId().equals(agendaSlotIdExcluido))
+                .toList();
+    }
+
+    /**
+     * Agenda del profesional entre {@code desde} y {@code hasta} dividida en tramos libres, ocupados y
+     * sin agenda.
+     */
+    public List<TramoAgendaDTO> obtenerLibreOcupado(Long profesionalId, LocalDateTime desde, LocalDateTime hasta) {
+        validarConsultaDeAgenda(profesionalId, desde, hasta);
+        return indiceAgendas.libreOcupado(profesionalId, desde, hasta);
+    }
+
+    /**
+     * Hueco libre más largo del día según los bloques del profesional y, con {@code duracionMinutos},
+     * el primer horario (no pasado) en que entra un trabajo de esa duración. Sale de las máscaras
+     * diarias del índice de agendas, sin recorrer los bloques; no incluye las reglas semanales.
+     */
+    public ResumenDiaAgendaDTO obtenerResumenDia(Long profesionalId, LocalDate fecha, Integer duracionMinutos) {
+        if (fecha == null) {
+            throw new IllegalArgumentException("La fecha es obligatoria");
+        }
+        if (duracionMinutos != null && (duracionMinutos < 1 || duracionMinutos > MINUTOS_POR_DIA)) {
+            throw new IllegalArgumentException("La duración debe estar entre 1 y " + MINUTOS_POR_DIA + " minutos");
+        }
+        if (!profesionalRepository.existsById(profesionalId)) {
+            throw new EntityNotFoundException("Profesional no encontrado");
+        }
+        Duration mayorHueco = indiceAgendas.mayorHuecoLibre(profesionalId, fecha);
+        LocalDateTime primerInicio = null;
+        if (duracionMinutos != null && mayorHueco.toMinutes() >= duracionMinutos) {
+            LocalDateTime ahora = LocalDateTime.now();
+            LocalTime desde = fecha.equals(ahora.toLocalDate()) ? ahora.toLocalTime() : LocalTime.MIDNIGHT;
+            primerInicio = indiceAgendas.primerInicioLibre(profesionalId, fecha, desde,
+                    Duration.ofMinutes(duracionMinutos)).orElse(null);
+        }
+        return new ResumenDiaAgendaDTO(fecha, mayorHueco.toMinutes(), primerInicio);
+    }
+
+    /**
+     * Profesionales disponibles que ofrecen el servicio y tienen un hueco libre el día indicado
+     * entre {@code desde} y {@code hasta} (hasta el fin del día si es null), ordenados por el primer
+     * horario libre. Con {@code duracionMinutos} sólo se devuelven huecos de al menos esa duración.
+     *
+     * Los huecos salen de los bloques disponibles y de las ventanas de las reglas semanales que no
+     * tienen un bloque encima; en este último caso el bloque informado es null.
+     */
+    public List<ProfesionalDisponible> buscarDisponibilidad(Long servicioId, LocalDate fecha, LocalTime desde,
+            LocalTime hasta, Integer duracionMinutos, int cantidad) {
+        if (servicioId == null) {
+            throw new IllegalArgumentException("El servicio es obligatorio");
+        }
+        if (fecha == null) {
+            throw new IllegalArgumentException("La fecha es obligatoria");
+        }
+        if (cantidad < 1 || cantidad > CANTIDAD_DISPONIBLES_MAXIMA) {
+            throw new IllegalArgumentException(
+                    "La cantidad debe estar entre 1 y " + CANTIDAD_DISPONIBLES_MAXIMA);
+        }
+        if (duracionMinutos != null && duracionMinutos < 1) {
+            throw new IllegalArgumentException("La duración debe ser de al menos un minuto");
+        }
+        LocalDateTime inicio = fecha.atTime(desde != null ? desde : LocalTime.MIDNIGHT);
+        LocalDateTime fin = hasta != null ? fecha.atTime(hasta) : fecha.plusDays(1).atStartOfDay();
+        if (!fin.isAfter(inicio)) {
+            throw new IllegalArgumentException("La hora de fin debe ser posterior a la hora de inicio");
+        }
+
+        Duration duracion = duracionMinutos != null ? Duration.ofMinutes(duracionMinutos) : Duration.ZERO;
+        LocalDateTime ahora = LocalDateTime.now();
+        List<IndiceDisponibilidad.ProfesionalLibre> libres = agregarHuecosDeReglas(servicioId,
+                indiceDisponibilidad.buscar(servicioId, inicio, fin, duracion, cantidad, ahora),
+                inicio.isAfter(ahora) ? inicio : ahora, fin, duracion, cantidad);
+        if (libres.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Profesional> porId = profesionalRepository
+                .findByIdIn(libres.stream().map(IndiceDisponibilidad.ProfesionalLibre::profesionalId).toList())
+                .stream()
+                .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+        return libres.stream()
+                .filter(libre -> porId.containsKey(libre.profesionalId()))
+                .map(libre -> new ProfesionalDisponible(porId.get(libre.profesionalId()), libre.agendaSlotId(),
+                        libre.desde(), libre.hasta()))
+                .toList();
+    }
+
+    /**
+     * Próximo día con algún bloque libre de cada servicio que tiene alguno (para el catálogo).
+     */
+    public Map<Long, LocalDate> obtenerProximasFechasDisponibles() {
+        return indiceDisponibilidad.proximasFechas(LocalDateTime.now());
+    }
+
+    /**
+     * Suma a los huecos del índice de disponibilidad los de los profesionales del servicio que tienen
+     * reglas semanales (su primer hueco según la agenda completa, que nunca es posterior al del índice),
+     * dejando el primero de cada profesional y los {@code cantidad} más tempranos.
+     */
+    private List<IndiceDisponibilidad.ProfesionalLibre> agregarHuecosDeReglas(Long servicioId,
+            List<IndiceDisponibilidad.ProfesionalLibre> libres, LocalDateTime inicio, LocalDateTime fin,
+            Duration duracion, int cantidad) {
+        Set<Long> conReglas = indiceAgendas.profesionalesConReglas();
+        if (conReglas.isEmpty()) {
+            return libres;
+        }
+        Map<Long, IndiceDisponibilidad.ProfesionalLibre> primeroPorProfesional = new HashMap<>();
+        libres.forEach(libre -> primeroPorProfesional.put(libre.profesionalId(), libre));
+        for (Long profesionalId : indiceDisponibilidad.ofrecenServicio(servicioId, conReglas)) {
+            indiceAgendas.primerHuecoLibre(profesionalId, inicio, fin, duracion)
+                    .ifPresent(libre -> primeroPorProfesional.put(profesionalId, libre));
+        }
+        return primeroPorProfesional.values().stream()
+                .sorted(Comparator.comparing(IndiceDisponibilidad.ProfesionalLibre::desde)
+                        .thenComparing(IndiceDisponibilidad.ProfesionalLibre::profesionalId))
+                .limit(cantidad)
+                .toList();
+    }
+
+    /**
+     * Guarda el bloque si no se superpone con otro del mismo profesional (salvo {@code agendaSlotIdExcluido},
+     * el propio bloque cuando se modifica) y lo registra en el índice de agendas. Se toman los
+     * cerrojos del profesional nuevo y, si el bloque cambia de profesional, también del anterior.
+     */
+    private AgendaSlot guardarSinSuperposicion(AgendaSlot agendaSlot, Long agendaSlotIdExcluido,
+            Long profesionalAnteriorId) {
+        LocalDateTime inicio = agendaSlot.getFechaInicio();
+        LocalDateTime fin = agendaSlot.getFechaFin();
+        if (inicio == null || fin == null || !fin.isAfter(inicio)) {
+            throw new IllegalArgumentException("La fecha de fin debe ser posterior a la fecha de inicio");
+        }
+        Long profesionalId = agendaSlot.getProfesional().getId();
+        List<ReentrantLock> tomados = bloquear(profesionalId, profesionalAnteriorId);
+        try {
+            if (indiceAgendas.haySuperposicion(profesionalId, inicio, fin, agendaSlotIdExcluido)) {
+                throw new IllegalArgumentException(
+                        "El horario se superpone con otro bloque de la agenda del profesional");
+            }
+            AgendaSlot guardado = agendaSlotRepository.save(agendaSlot);
+            indiceAgendas.actualizarBloque(guardado.getId(), new BloqueAgendaDTO(guardado.getId(), profesionalId,
+                    guardado.getFechaInicio(), guardado.getFechaFin(), guardado.getDisponible()));
+            return guardado;
+        } finally {
+            for (int i = tomados.size() - 1; i >= 0; i--) {
+                tomados.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Lee el bloque, lo valida y aplica {@code escribir} en una transacción con el cerrojo del
+     * profesional tomado. {@code escribir} devuelve false (y marca la transacción para deshacerla) si
+     * el bloque ya no tiene la versión leída; en ese caso se espera y se vuelve a empezar, hasta
+     * {@link #INTENTOS_RESERVA} veces. La espera se elige al azar hasta un tope que se duplica en cada
+     * intento, para que los que chocaron no vuelvan a chocar todos juntos.
+     */
+    private AgendaSlot escribirConVersion(Long id, Consumer<AgendaSlot> validar,
+            BiPredicate<AgendaSlot, TransactionStatus> escribir) {
+        for (int intento = 1;; intento++) {
+            AgendaSlot agendaSlot = obtenerAgendaSlotPorId(id);
+            validar.accept(agendaSlot);
+            Long profesionalId = agendaSlot.getProfesional().getId();
+            boolean escrito;
+            List<ReentrantLock> tomados = bloquear(profesionalId, null);
+            try {
+                escrito = Boolean.TRUE.equals(transactionTemplate.execute(estado -> escribir.test(agendaSlot, estado)));
+                if (escrito) {
+                    agendaSlot.setVersion(agendaSlot.getVersion() + 1);
+                    indiceAgendas.actualizarBloque(id, new BloqueAgendaDTO(id, profesionalId,
+                            agendaSlot.getFechaInicio(), agendaSlot.getFechaFin(), agendaSlot.getDisponible()));
+                }
+            } finally {
+                tomados.forEach(ReentrantLock::unlock);
+            }
+            if (escrito) {
+                eventPublisher.publishEvent(new AgendaSlotModificadoEvent(id));
+                return agendaSlot;
+            }
+            if (intento == INTENTOS_RESERVA) {
+                throw new AgendaSlotNoDisponibleException(
+                        "El bloque está siendo modificado por otra operación, intente nuevamente");
+            }
+            esperarAntesDeReintentar(intento);
+        }
+    }
+
+    private boolean participaDeLaReserva(AgendaSlot agendaSlot, String username) {
+        if (agendaSlot.getProfesional().getUsuario().getUsername().equals(username)) {
+            return true;
+        }
+        // La solicitud del bloque es perezosa: se lee por id para no depender de la sesión abierta
+        return solicitudServicioRepository.findById(agendaSlot.getSolicitudServicio().getId())
+                .map(solicitud -> solicitud.getCliente().getUsername().equals(username))
+                .orElse(false);
+    }
+
+    private void validarReserva(AgendaSlot agendaSlot, SolicitudServicio solicitud) {
+        if (!Boolean.TRUE.equals(agendaSlot.getDisponible())) {
+            throw new AgendaSlotNoDisponibleException("El bloque ya está reservado");
+        }
+        if (!agendaSlot.getFechaInicio().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("No se puede reservar un bloque que ya empezó");
+        }
+        if (indiceDisponibilidad.ofrecenServicio(solicitud.getServicio().getId(),
+                List.of(agendaSlot.getProfesional().getId())).isEmpty()) {
+            throw new IllegalArgumentException("El profesional del bloque no ofrece el servicio de la solicitud");
+        }
+    }
+
+    private static void esperarAntesDeReintentar(int intento) {
+        long tope = ESPERA_REINTENTO_MS << (intento - 1);
+        try {
+            Thread.sleep(1 + ThreadLocalRandom.current().nextLong(tope));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("La reserva se interrumpió", e);
+        }
+    }
+
+    /** Toma los cerrojos de los profesionales siempre en el mismo orden, para no trabarse entre sí. */
+    private List<ReentrantLock> bloquear(Long profesionalId, Long otroProfesionalId) {
+        return bloquear(Arrays.asList(profesionalId, otroProfesionalId));
+    }
+
+    /** Toma en orden los cerrojos de cualquier cantidad de profesionales, cada uno una vez e ignorando los null. */
+    private List<ReentrantLock> bloquear(Collection<Long> profesionalIds) {
+        List<ReentrantLock> tomados = profesionalIds.stream()
+                .filter(Objects::nonNull)
+                .map(AgendaSlotService::indiceCerrojo)
+                .distinct()
+                .sorted()
+                .map(indice -> cerrojos[indice])
+                .toList();
+        tomados.forEach(ReentrantLock::lock);
+        return tomados;
+    }
+
+    private static int indiceCerrojo(Long profesionalId) {
+        return Math.floorMod(Long.hashCode(profesionalId), CANTIDAD_CERROJOS);
+    }
+
+    private static ReentrantLock[] crearCerrojos() {
+        ReentrantLock[] cerrojos = new ReentrantLock[CANTIDAD_CERROJOS];
+        for (int i = 0; i < cerrojos.length; i++) {
+            cerrojos[i] = new ReentrantLock();
+        }
+        return cerrojos;
+    }
+
+    private void validarConsultaDeAgenda(Long profesionalId, LocalDateTime desde, LocalDateTime hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("El rango de fechas es obligatorio");
+        }
+        if (!hasta.isAfter(desde)) {
+            throw new IllegalArgumentException("La fecha de fin debe ser posterior a la fecha de inicio");
+        }
+        if (desde.plusDays(RANGO_CONSULTA_MAXIMO_DIAS).isBefore(hasta)) {
+            throw new IllegalArgumentException(
+                    "El rango no puede superar los " + RANGO_CONSULTA_MAXIMO_DIAS + " días");
+        }
+        if (!profesionalRepository.existsById(profesionalId)) {
+            throw new EntityNotFoundException("Profesional no encontrado");
+        }
     }
 
     private Profesional obtenerProfesionalValido(AgendaSlot agendaSlot) {
@@ -0,0 +1,10 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.List;
+
+/**
+ * Evento publicado al importar bloques de agenda, para que {@link IndiceDisponibilidad} los lea todos
+ * juntos después del commit. {@link IndiceAgendas} ya los recibe de la importación.
+ */
+public record AgendaSlotsImportadosEvent(List<Long> agendaSlotIds) {
+}
@@ -0,0 +1,8 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+/**
+ * Evento publicado cuando se agrega o elimina un feriado, para que {@link IndiceAgendas} vuelva a
+ * leer los feriados después del commit.
+ */
+public record FeriadosModificadosEvent() {
+}
@@ -0,0 +1,495 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TramoAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Feriado;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.FeriadoRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ReglaDisponibilidadRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.ArbolIntervalos;
+import ar.edu.huergo.clickservice.buscadorservicios.util.MascarasDiarias;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria con la agenda completa (bloques libres y ocupados) de cada profesional en un
+ * {@link ArbolIntervalos}, para controlar superposiciones al guardar un bloque y para responder
+ * conflictos y libre/ocupado de un rango en O(log n + k) sin consultar la base.
+ *
+ * Cada profesional tiene su propio árbol con su propio lock, así que las consultas y escrituras de
+ * profesionales distintos no se esperan entre sí. Se carga completo al iniciar y se actualiza después
+ * de cada commit con {@link AgendaSlotModificadoEvent}; {@link AgendaSlotService} además registra el
+ * bloque apenas lo guarda, dentro del cerrojo del profesional, para que la próxima alta ya lo vea.
+ *
+ * Junto a los bloques se guardan las {@link ReglaSemanal reglas semanales} del profesional (con
+ * {@link ReglaDisponibilidadModificadaEvent}) y los feriados (con {@link FeriadosModificadosEvent}).
+ * Las reglas nunca se expanden completas: cada consulta pide sólo las ventanas de su rango, y los
+ * bloques que se superponen con una ventana la reemplazan en ese horario.
+ *
+ * Cada agenda lleva además, desde hoy, una {@link MascarasDiarias máscara} por día con los cuartos de
+ * hora libres según los bloques, que se recalcula para los días que toca cada bloque al agregarlo o
+ * quitarlo. Con ellas ver si un rango está libre, la racha libre más larga de un día o si entra un
+ * trabajo de N horas son operaciones de bits, sin recorrer el árbol.
+ */
+@Slf4j
+@Service
+public class IndiceAgendas {
+
+    private final AgendaSlotRepository agendaSlotRepository;
+    private final ReglaDisponibilidadRepository reglaDisponibilidadRepository;
+    private final FeriadoRepository feriadoRepository;
+
+    private final Map<Long, Agenda> agendas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> profesionalPorSlot = new ConcurrentHashMap<>();
+    private final Map<Long, Long> profesionalPorRegla = new ConcurrentHashMap<>();
+    private volatile Set<LocalDate> feriados = Set.of();
+
+    public IndiceAgendas(AgendaSlotRepository agendaSlotRepository,
+            ReglaDisponibilidadRepository reglaDisponibilidadRepository, FeriadoRepository feriadoRepository) {
+        this.agendaSlotRepository = agendaSlotRepository;
+        this.reglaDisponibilidadRepository = reglaDisponibilidadRepository;
+        this.feriadoRepository = feriadoRepository;
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        cargar(agendaSlotRepository.findBloques());
+        reglaDisponibilidadRepository.findAllConExcepciones()
+                .forEach(regla -> actualizarRegla(regla.getId(), ReglaSemanal.de(regla)));
+        alModificarFeriados(new FeriadosModificadosEvent());
+        log.debug("Índice de agendas cargado con {} bloques y {} reglas", getTamanio(), profesionalPorRegla.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarAgendaSlot(AgendaSlotModificadoEvent evento) {
+        Long id = evento.agendaSlotId();
+        actualizarBloque(id, agendaSlotRepository.findBloqueById(id).orElse(null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarRegla(ReglaDisponibilidadModificadaEvent evento) {
+        Long id = evento.reglaId();
+        actualizarRegla(id, reglaDisponibilidadRepository.findConExcepcionesById(id).map(ReglaSemanal::de)
+                .orElse(null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarFeriados(FeriadosModificadosEvent evento) {
+        actualizarFeriados(feriadoRepository.findAll().stream()
+                .map(Feriado::getFecha)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Carga los bloques de agenda. Se usa en la carga inicial.
+     */
+    public void cargar(List<BloqueAgendaDTO> bloques) {
+        for (BloqueAgendaDTO bloque : bloques) {
+            actualizarBloque(bloque.agendaSlotId(), bloque);
+        }
+    }
+
+    /**
+     * Reemplaza un bloque de agenda, aunque haya cambiado de profesional. Con null (bloque eliminado)
+     * se quita.
+     */
+    public void actualizarBloque(Long agendaSlotId, BloqueAgendaDTO bloque) {
+        // compute bloquea la entrada del slot, así que dos cambios del mismo bloque no se mezclan
+        profesionalPorSlot.compute(agendaSlotId, (id, anterior) -> {
+            if (anterior != null && (bloque == null || !anterior.equals(bloque.profesionalId()))) {
+                Agenda agenda = agendas.get(anterior);
+                if (agenda != null) {
+                    agenda.quitar(id);
+                }
+            }
+            if (bloque == null) {
+                return null;
+            }
+            agendas.computeIfAbsent(bloque.profesionalId(), profesionalId -> new Agenda()).agregar(bloque);
+            return bloque.profesionalId();
+        });
+    }
+
+    /**
+     * Reemplaza una regla semanal, aunque haya cambiado de profesional. Con null (regla eliminada) se
+     * quita.
+     */
+    public void actualizarRegla(Long reglaId, ReglaSemanal regla) {
+        profesionalPorRegla.compute(reglaId, (id, anterior) -> {
+            if (anterior != null && (regla == null || !anterior.equals(regla.profesionalId()))) {
+                Agenda agenda = agendas.get(anterior);
+                if (agenda != null) {
+                    agenda.quitarRegla(id);
+                }
+            }
+            if (regla == null) {
+                return null;
+            }
+            agendas.computeIfAbsent(regla.profesionalId(), profesionalId -> new Agenda()).agregarRegla(regla);
+            return regla.profesionalId();
+        });
+    }
+
+    public void actualizarFeriados(Set<LocalDate> feriados) {
+        this.feriados = Set.copyOf(feriados);
+    }
+
+    /**
+     * Profesionales que tienen al menos una regla semanal.
+     */
+    public Set<Long> profesionalesConReglas() {
+        return Set.copyOf(profesionalPorRegla.values());
+    }
+
+    /**
+     * Indica si el profesional tiene algún bloque, salvo {@code agendaSlotIdExcluido} (el que se está
+     * modificando, o null), que se superpone con [{@code inicio}, {@code fin}).
+     */
+    public boolean haySuperposicion(Long profesionalId, LocalDateTime inicio, LocalDateTime fin,
+            Long agendaSlotIdExcluido) {
+        Agenda agenda = agendas.get(profesionalId);
+        return agenda != null && agenda.haySuperposicion(inicio, fin, agendaSlotIdExcluido);
+    }
+
+    /**
+     * Bloques del profesional que se superponen con [{@code inicio}, {@code fin}), ordenados por
+     * inicio.
+     */
+    public List<BloqueAgendaDTO> superpuestos(Long profesionalId, LocalDateTime inicio, LocalDateTime fin) {
+        Agenda agenda = agendas.get(profesionalId);
+        return agenda == null ? List.of() : agenda.superpuestos(inicio, fin);
+    }
+
+    /**
+     * Divide [{@code desde}, {@code hasta}) en tramos consecutivos LIBRE, OCUPADO o SIN_AGENDA según
+     * los bloques y las reglas semanales del profesional. Un bloque prevalece sobre las ventanas de las
+     * reglas, y si hubiera bloques superpuestos (cargados antes del control) lo ocupado prevalece sobre
+     * lo libre.
+     */
+    public List<TramoAgendaDTO> libreOcupado(Long profesionalId, LocalDateTime desde, LocalDateTime hasta) {
+        Agenda agenda = agendas.get(profesionalId);
+        List<BloqueAgendaDTO> bloques = List.of();
+        List<ReglaSemanal> reglas = List.of();
+        if (agenda != null) {
+            agenda.lock.readLock().lock();
+            try {
+                bloques = agenda.arbol.superpuestos(desde, hasta);
+                reglas = List.copyOf(agenda.reglas);
+            } finally {
+                agenda.lock.readLock().unlock();
+            }
+        }
+
+        // Barrido sobre los bordes de los bloques y de las ventanas de las reglas, recortados al rango,
+        // contando cuántos de cada tipo cubren cada punto
+        List<Borde> bordes = new ArrayList<>(bloques.size() * 2);
+        for (BloqueAgendaDTO bloque : bloques) {
+            int tipo = Boolean.TRUE.equals(bloque.disponible()) ? Borde.LIBRE : Borde.OCUPADO;
+            bordes.add(new Borde(max(bloque.fechaInicio(), desde), tipo, 1));
+            bordes.add(new Borde(min(bloque.fechaFin(), hasta), tipo, -1));
+        }
+        Set<LocalDate> feriadosActuales = feriados;
+        for (ReglaSemanal regla : reglas) {
+            for (Iterator<ReglaSemanal.Ventana> it = regla.ventanas(desde, hasta, feriadosActuales); it.hasNext();) {
+                ReglaSemanal.Ventana ventana = it.next();
+                bordes.add(new Borde(max(ventana.desde(), desde), Borde.REGLA, 1));
+                bordes.add(new Borde(min(ventana.hasta(), hasta), Borde.REGLA, -1));
+            }
+        }
+        bordes.sort(Comparator.comparing(Borde::momento));
+
+        List<TramoAgendaDTO> tramos = new ArrayList<>();
+        LocalDateTime cursor = desde;
+        int[] cubren = new int[3];
+        for (Borde borde : bordes) {
+            if (borde.momento().isAfter(cursor)) {
+                agregarTramo(tramos, cursor, borde.momento(), estado(cubren));
+                cursor = borde.momento();
+            }
+            cubren[borde.tipo()] += borde.delta();
+        }
+        if (hasta.isAfter(cursor)) {
+            agregarTramo(tramos, cursor, hasta, TramoAgendaDTO.Estado.SIN_AGENDA);
+        }
+        return tramos;
+    }
+
+    /**
+     * Primer hueco libre del profesional (por un bloque disponible o por una regla sin bloques encima)
+     * que dentro de [{@code desde}, {@code hasta}) dura al menos {@code duracion}. El hueco informado
+     * puede seguir hasta un día después de {@code hasta}; el bloque es el disponible en que empieza, o
+     * null si empieza en la ventana de una regla.
+     */
+    public Optional<IndiceDisponibilidad.ProfesionalLibre> primerHuecoLibre(Long profesionalId, LocalDateTime desde,
+            LocalDateTime hasta, Duration duracion) {
+        if (!hasta.isAfter(desde)) {
+            return Optional.empty();
+        }
+        for (TramoAgendaDTO tramo : libreOcupado(profesionalId, desde, hasta.plusDays(1))) {
+            if (!tramo.desde().isBefore(hasta)) {
+                break;
+            }
+            if (tramo.estado() != TramoAgendaDTO.Estado.LIBRE
+                    || Duration.between(tramo.desde(), min(tramo.hasta(), hasta)).compareTo(duracion) < 0) {
+                continue;
+            }
+            Long agendaSlotId = superpuestos(profesionalId, tramo.desde(), tramo.desde().plusNanos(1)).stream()
+                    .filter(bloque -> Boolean.TRUE.equals(bloque.disponible()))
+                    .map(BloqueAgendaDTO::agendaSlotId)
+                    .findFirst()
+                    .orElse(null);
+            return Optional.of(new IndiceDisponibilidad.ProfesionalLibre(profesionalId, agendaSlotId, tramo.desde(),
+                    tramo.hasta()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Indica si [{@code desde}, {@code hasta}) está libre según los bloques del profesional: cubierto
+     * por bloques disponibles y sin ninguno ocupado. Se resuelve con las máscaras de cada día, con el
+     * rango redondeado hacia afuera al cuarto de hora. No tiene en cuenta las reglas semanales, y un
+     * día anterior a hoy nunca está libre.
+     */
+    public boolean estaLibre(Long profesionalId, LocalDateTime desde, LocalDateTime hasta) {
+        Agenda agenda = agendas.get(profesionalId);
+        if (agenda == null || !hasta.isAfter(desde)) {
+            return false;
+        }
+        agenda.lock.readLock().lock();
+        try {
+            for (LocalDate dia = desde.toLocalDate(); dia.atStartOfDay().isBefore(hasta); dia = dia.plusDays(1)) {
+                LocalDateTime inicioDia = dia.atStartOfDay();
+                int primerCuarto = cuarto(max(desde, inicioDia), inicioDia, false);
+                int ultimoCuarto = cuarto(min(hasta, inicioDia.plusDays(1)), inicioDia, true);
+                if (!agenda.mascaras.estanTodos(dia, primerCuarto, ultimoCuarto)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            agenda.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hueco libre más largo del día según los bloques del profesional, en múltiplos de 15 minutos.
+     */
+    public Duration mayorHuecoLibre(Long profesionalId, LocalDate dia) {
+        Agenda agenda = agendas.get(profesionalId);
+        if (agenda == null) {
+            return Duration.ZERO;
+        }
+        agenda.lock.readLock().lock();
+        try {
+            return Duration.ofMinutes((long) agenda.mascaras.rachaMasLarga(dia) * MascarasDiarias.MINUTOS_POR_CUARTO);
+        } finally {
+            agenda.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Primer horario del día, desde {@code desde}, en que entra un trabajo de {@code duracion} según
+     * los bloques del profesional. El horario cae en un cuarto de hora y el trabajo termina dentro del
+     * día.
+     */
+    public Optional<LocalDateTime> primerInicioLibre(Long profesionalId, LocalDate dia, LocalTime desde,
+            Duration duracion) {
+        Agenda agenda = agendas.get(profesionalId);
+        if (agenda == null) {
+            return Optional.empty();
+        }
+        LocalDateTime inicioDia = dia.atStartOfDay();
+        int cuartos = (int) Math.max(1, Math.ceilDiv(duracion.toMinutes(), MascarasDiarias.MINUTOS_POR_CUARTO));
+        int inicio;
+        agenda.lock.readLock().lock();
+        try {
+            inicio = agenda.mascaras.primerInicio(dia, cuartos, cuarto(dia.atTime(desde), inicioDia, true));
+        } finally {
+            agenda.lock.readLock().unlock();
+        }
+        return inicio < 0 ? Optional.empty()
+                : Optional.of(inicioDia.plusMinutes((long) inicio * MascarasDiarias.MINUTOS_POR_CUARTO));
+    }
+
+    public int getTamanio() {
+        return profesionalPorSlot.size();
+    }
+
+    /**
+     * Cuarto de hora del día en que cae {@code momento} (entre 0 y 96), redondeado hacia arriba o hacia
+     * abajo.
+     */
+    private static int cuarto(LocalDateTime momento, LocalDateTime inicioDia, boolean haciaArriba) {
+        long segundos = Duration.between(inicioDia, momento).getSeconds();
+        long porCuarto = MascarasDiarias.MINUTOS_POR_CUARTO * 60L;
+        long cuarto = haciaArriba ? Math.ceilDiv(segundos, porCuarto) : Math.floorDiv(segundos, porCuarto);
+        return Math.clamp(cuarto, 0, MascarasDiarias.CUARTOS_POR_DIA);
+    }
+
+    private static TramoAgendaDTO.Estado estado(int[] cubren) {
+        if (cubren[Borde.OCUPADO] > 0) {
+            return TramoAgendaDTO.Estado.OCUPADO;
+        }
+        return cubren[Borde.LIBRE] > 0 || cubren[Borde.REGLA] > 0 ? TramoAgendaDTO.Estado.LIBRE
+                : TramoAgendaDTO.Estado.SIN_AGENDA;
+    }
+
+    /** Agrega el tramo o, si sigue al anterior con el mismo estado, lo extiende. */
+    private static void agregarTramo(List<TramoAgendaDTO> tramos, LocalDateTime desde, LocalDateTime hasta,
+            TramoAgendaDTO.Estado estado) {
+        if (!tramos.isEmpty()) {
+            TramoAgendaDTO ultimo = tramos.get(tramos.size() - 1);
+            if (ultimo.estado() == estado && ultimo.hasta().equals(desde)) {
+                tramos.set(tramos.size() - 1, new TramoAgendaDTO(ultimo.desde(), hasta, estado));
+                return;
+            }
+        }
+        tramos.add(new TramoAgendaDTO(desde, hasta, estado));
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private record Borde(LocalDateTime momento, int tipo, int delta) {
+        static final int REGLA = 0;
+        static final int LIBRE = 1;
+        static final int OCUPADO = 2;
+    }
+
+    /**
+     * Árbol de intervalos, máscaras diarias y reglas semanales de un profesional, con su lock.
+     */
+    private static final class Agenda {
+        private final ArbolIntervalos<BloqueAgendaDTO> arbol = new ArbolIntervalos<>();
+        private final MascarasDiarias mascaras = new MascarasDiarias();
+        private final List<ReglaSemanal> reglas = new ArrayList<>(2);
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void agregarRegla(ReglaSemanal regla) {
+            lock.writeLock().lock();
+            try {
+                reglas.removeIf(r -> r.reglaId().equals(regla.reglaId()));
+                reglas.add(regla);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void quitarRegla(Long reglaId) {
+            lock.writeLock().lock();
+            try {
+                reglas.removeIf(r -> r.reglaId().equals(reglaId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void agregar(BloqueAgendaDTO bloque) {
+            lock.writeLock().lock();
+            try {
+                BloqueAgendaDTO anterior = arbol.obtener(bloque.agendaSlotId());
+                arbol.agregar(bloque.agendaSlotId(), bloque.fechaInicio(), bloque.fechaFin(), bloque);
+                recalcularMascaras(anterior);
+                recalcularMascaras(bloque);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void quitar(Long agendaSlotId) {
+            lock.writeLock().lock();
+            try {
+                BloqueAgendaDTO anterior = arbol.obtener(agendaSlotId);
+                arbol.quitar(agendaSlotId);
+                recalcularMascaras(anterior);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Recalcula las máscaras de los días que toca el bloque, desde hoy, con todos los bloques de
+         * cada día: un cuarto queda libre si lo cubren entero bloques disponibles y ningún bloque
+         * ocupado lo toca.
+         */
+        private void recalcularMascaras(BloqueAgendaDTO bloque) {
+            if (bloque == null) {
+                return;
+            }
+            LocalDate hoy = LocalDate.now();
+            mascaras.descartarAntesDe(hoy);
+            LocalDate primerDia = bloque.fechaInicio().toLocalDate();
+            if (primerDia.isBefore(hoy)) {
+                primerDia = hoy;
+            }
+            for (LocalDate dia = primerDia; dia.atStartOfDay().isBefore(bloque.fechaFin()); dia = dia.plusDays(1)) {
+                LocalDateTime inicioDia = dia.atStartOfDay();
+                LocalDateTime finDia = inicioDia.plusDays(1);
+                long libresBajos = 0;
+                long libresAltos = 0;
+                long ocupadosBajos = 0;
+                long ocupadosAltos = 0;
+                for (BloqueAgendaDTO otro : arbol.superpuestos(inicioDia, finDia)) {
+                    boolean disponible = Boolean.TRUE.equals(otro.disponible());
+                    // Lo libre se redondea hacia adentro y lo ocupado hacia afuera
+                    int desde = cuarto(max(otro.fechaInicio(), inicioDia), inicioDia, disponible);
+                    int hasta = cuarto(min(otro.fechaFin(), finDia), inicioDia, !disponible);
+                    if (disponible) {
+                        libresBajos |= MascarasDiarias.rangoBajos(desde, hasta);
+                        libresAltos |= MascarasDiarias.rangoAltos(desde, hasta);
+                    } else {
+                        ocupadosBajos |= MascarasDiarias.rangoBajos(desde, hasta);
+                        ocupadosAltos |= MascarasDiarias.rangoAltos(desde, hasta);
+                    }
+                }
+                mascaras.asignar(dia, libresBajos & ~ocupadosBajos, libresAltos & ~ocupadosAltos);
+            }
+        }
+
+        boolean haySuperposicion(LocalDateTime inicio, LocalDateTime fin, Long agendaSlotIdExcluido) {
+            lock.readLock().lock();
+            try {
+                return arbol.haySuperposicion(inicio, fin, agendaSlotIdExcluido);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<BloqueAgendaDTO> superpuestos(LocalDateTime inicio, LocalDateTime fin) {
+            lock.readLock().lock();
+            try {
+                return arbol.superpuestos(inicio, fin);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FranjaLibreDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ServicioProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice en memoria de los bloques de agenda libres, agrupados por servicio y por día, para
+ * responder "qué profesionales del servicio X tienen un hueco el día D entre tal y tal hora" sin
+ * consultar la agenda de cada profesional.
+ *
+ * Para cada servicio hay un mapa ordenado de días y, en cada día, los bloques disponibles de los
+ * profesionales disponibles que ofrecen el servicio, ordenados por hora de inicio en arreglos de
+ * {@code long} (recorrerlos no salta entre objetos). Un bloque que cruza la medianoche figura en cada
+ * día que toca. Una búsqueda recorre sólo el día pedido, desde el inicio de la ventana menos el bloque
+ * más largo del día hasta el fin de la ventana, así que los resultados salen ordenados por el primer
+ * horario libre.
+ *
+ * Se carga completo al iniciar (sólo bloques que no terminaron) y luego se actualiza después de cada
+ * commit con {@link AgendaSlotModificadoEvent} (alta, cambio o baja de un bloque) y
+ * {@link ProfesionalModificadoEvent} (disponibilidad y servicios del profesional). Los bloques ya
+ * terminados se quitan periódicamente.
+ */
+@Slf4j
+@Service
+public class IndiceDisponibilidad {
+
+    private final AgendaSlotRepository agendaSlotRepository;
+    private final ProfesionalRepository profesionalRepository;
+
+    private final Map<Long, FranjaLibreDTO> franjaPorSlot = new HashMap<>();
+    private final Map<Long, Set<Long>> slotsPorProfesional = new HashMap<>();
+    private final Map<Long, List<Long>> serviciosPorProfesional = new HashMap<>();
+    private final Map<Long, TreeMap<LocalDate, Dia>> diasPorServicio = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Primer hueco libre de un profesional dentro de la ventana buscada: desde cuándo está libre y
+     * hasta cuándo dura el bloque.
+     */
+    public record ProfesionalLibre(Long profesionalId, Long agendaSlotId, LocalDateTime desde,
+            LocalDateTime hasta) {
+    }
+
+    public IndiceDisponibilidad(AgendaSlotRepository agendaSlotRepository,
+            ProfesionalRepository profesionalRepository) {
+        this.agendaSlotRepository = agendaSlotRepository;
+        this.profesionalRepository = profesionalRepository;
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        cargar(profesionalRepository.findServiciosDeDisponibles(),
+                agendaSlotRepository.findFranjasLibresDesde(LocalDateTime.now()));
+        log.debug("Índice de disponibilidad cargado con {} bloques libres", getTamanio());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarAgendaSlot(AgendaSlotModificadoEvent evento) {
+        Long id = evento.agendaSlotId();
+        actualizarFranja(id, agendaSlotRepository.findFranjaLibreById(id).orElse(null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alImportarAgendaSlots(AgendaSlotsImportadosEvent evento) {
+        cargar(List.of(), agendaSlotRepository.findFranjasLibresByIdIn(evento.agendaSlotIds()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarProfesional(ProfesionalModificadoEvent evento) {
+        Long id = evento.profesionalId();
+        actualizarProfesional(id, profesionalRepository.findServiciosDeDisponiblesByProfesionalId(id).stream()
+                .map(ServicioProfesionalDTO::servicioId)
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${agenda.disponibilidad.limpieza-ms:3600000}",
+            initialDelayString = "${agenda.disponibilidad.limpieza-ms:3600000}")
+    public void limpiarPeriodicamente() {
+        quitarTerminadas(LocalDateTime.now());
+    }
+
+    /**
+     * Carga los servicios de los profesionales disponibles (una fila por profesional y servicio) y
+     * los bloques libres. Se usa en la carga inicial y al importar bloques.
+     */
+    public void cargar(List<ServicioProfesionalDTO> servicios, List<FranjaLibreDTO> franjas) {
+        Map<Long, List<Long>> porProfesional = new LinkedHashMap<>();
+        for (ServicioProfesionalDTO fila : servicios) {
+            List<Long> lista = porProfesional.computeIfAbsent(fila.profesionalId(), id -> new ArrayList<>(2));
+            if (!lista.contains(fila.servicioId())) {
+                lista.add(fila.servicioId());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            porProfesional.forEach(this::reemplazarServicios);
+            for (FranjaLibreDTO franja : franjas) {
+                reemplazarFranja(franja.agendaSlotId(), franja);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza un bloque de agenda. Con null (bloque eliminado o no disponible) se quita.
+     */
+    public void actualizarFranja(Long agendaSlotId, FranjaLibreDTO franja) {
+        lock.writeLock().lock();
+        try {
+            reemplazarFranja(agendaSlotId, franja);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza los servicios de un profesional. Con una lista vacía (no disponible, sin servicios o
+     * eliminado) sus bloques dejan de aparecer en las búsquedas.
+     */
+    public void actualizarProfesional(Long profesionalId, List<Long> servicios) {
+        lock.writeLock().lock();
+        try {
+            reemplazarServicios(profesionalId, servicios);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita los bloques que terminaron antes de {@code ahora}.
+     */
+    public void quitarTerminadas(LocalDateTime ahora) {
+        lock.writeLock().lock();
+        try {
+            List<Long> terminadas = franjaPorSlot.values().stream()
+                    .filter(franja -> !franja.fechaFin().isAfter(ahora))
+                    .map(FranjaLibreDTO::agendaSlotId)
+                    .toList();
+            terminadas.forEach(id -> reemplazarFranja(id, null));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code cantidad} profesionales del servicio con un bloque libre que se superpone con
+     * [{@code desde}, {@code hasta}) por al menos {@code duracion}, uno por profesional y ordenados por
+     * el primer horario libre. La ventana debe caer dentro de un día (puede terminar a la medianoche
+     * siguiente) y no se cuenta el tiempo anterior a {@code ahora}.
+     */
+    public List<ProfesionalLibre> buscar(Long servicioId, LocalDateTime desde, LocalDateTime hasta,
+            Duration duracion, int cantidad, LocalDateTime ahora) {
+        LocalDateTime inicio = desde.isAfter(ahora) ? desde : ahora;
+        long inicioVentana = instante(inicio);
+        long finVentana = instante(hasta);
+        long duracionMinima = duracion.toNanos();
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, Dia> dias = diasPorServicio.get(servicioId);
+            Dia dia = dias == null ? null : dias.get(desde.toLocalDate());
+            if (dia == null || inicioVentana >= finVentana) {
+                return List.of();
+            }
+
+            List<ProfesionalLibre> resultado = new ArrayList<>(Math.min(cantidad, dia.tamanio));
+            Set<Long> vistos = new HashSet<>();
+            // Un bloque que empezó antes que inicioVentana - duracionMaxima ya terminó al abrirse la ventana
+            for (int i = dia.primeroDesde(inicioVentana - dia.duracionMaxima);
+                    i < dia.tamanio && dia.inicios[i] < finVentana && resultado.size() < cantidad; i++) {
+                long libreDesde = Math.max(dia.inicios[i], inicioVentana);
+                long libreHasta = Math.min(dia.fines[i], finVentana);
+                if (libreHasta <= libreDesde || libreHasta - libreDesde < duracionMinima
+                        || !vistos.add(dia.profesionales[i])) {
+                    continue;
+                }
+                FranjaLibreDTO franja = franjaPorSlot.get(dia.slots[i]);
+                resultado.add(new ProfesionalLibre(franja.profesionalId(), franja.agendaSlotId(),
+                        dia.inicios[i] >= inicioVentana ? franja.fechaInicio() : inicio, franja.fechaFin()));
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * De {@code profesionalIds}, los disponibles que ofrecen el servicio.
+     */
+    public List<Long> ofrecenServicio(Long servicioId, Collection<Long> profesionalIds) {
+        lock.readLock().lock();
+        try {
+            return profesionalIds.stream()
+                    .filter(id -> serviciosPorProfesional.getOrDefault(id, List.of()).contains(servicioId))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Primer día, desde el de {@code ahora}, en que algún profesional del servicio tiene un bloque
+     * libre que todavía no terminó, o null si no hay ninguno.
+     */
+    public LocalDate proximaFecha(Long servicioId, LocalDateTime ahora) {
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, Dia> dias = diasPorServicio.get(servicioId);
+            return dias == null ? null : proximaFecha(dias, ahora);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@link #proximaFecha(Long, LocalDateTime)} de todos los servicios que tienen alguna.
+     */
+    public Map<Long, LocalDate> proximasFechas(LocalDateTime ahora) {
+        lock.readLock().lock();
+        try {
+            Map<Long, LocalDate> fechas = new HashMap<>();
+            diasPorServicio.forEach((servicioId, dias) -> {
+                LocalDate fecha = proximaFecha(dias, ahora);
+                if (fecha != null) {
+                    fechas.put(servicioId, fecha);
+                }
+            });
+            return fechas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return franjaPorSlot.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static LocalDate proximaFecha(TreeMap<LocalDate, Dia> dias, LocalDateTime ahora) {
+        LocalDate hoy = ahora.toLocalDate();
+        long instante = instante(ahora);
+        for (Map.Entry<LocalDate, Dia> dia : dias.tailMap(hoy, true).entrySet()) {
+            // Los días vacíos se quitan, y en los días siguientes a hoy todo bloque termina después de ahora
+            if (dia.getKey().isAfter(hoy) || dia.getValue().terminaDespuesDe(instante)) {
+                return dia.getKey();
+            }
+        }
+        return null;
+    }
+
+    private void reemplazarFranja(Long agendaSlotId, FranjaLibreDTO franja) {
+        FranjaLibreDTO anterior = franjaPorSlot.remove(agendaSlotId);
+        if (anterior != null) {
+            Set<Long> slots = slotsPorProfesional.get(anterior.profesionalId());
+            slots.remove(agendaSlotId);
+            if (slots.isEmpty()) {
+                slotsPorProfesional.remove(anterior.profesionalId());
+            }
+            for (Long servicioId : serviciosPorProfesional.getOrDefault(anterior.profesionalId(), List.of())) {
+                quitarDeDias(servicioId, anterior);
+            }
+        }
+        if (franja == null || !franja.fechaFin().isAfter(franja.fechaInicio())) {
+            return;
+        }
+
+        franjaPorSlot.put(agendaSlotId, franja);
+        slotsPorProfesional.computeIfAbsent(franja.profesionalId(), id -> new HashSet<>()).add(agendaSlotId);
+        for (Long servicioId : serviciosPorProfesional.getOrDefault(franja.profesionalId(), List.of())) {
+            agregarADias(servicioId, franja);
+        }
+    }
+
+    private void reemplazarServicios(Long profesionalId, List<Long> servicios) {
+        List<Long> anteriores = serviciosPorProfesional.remove(profesionalId);
+        Set<Long> slots = slotsPorProfesional.getOrDefault(profesionalId, Set.of());
+        if (anteriores != null) {
+            for (Long servicioId : anteriores) {
+                if (!servicios.contains(servicioId)) {
+                    slots.forEach(id -> quitarDeDias(servicioId, franjaPorSlot.get(id)));
+                }
+            }
+        }
+        if (servicios.isEmpty()) {
+            return;
+        }
+
+        serviciosPorProfesional.put(profesionalId, List.copyOf(servicios));
+        for (Long servicioId : servicios) {
+            if (anteriores == null || !anteriores.contains(servicioId)) {
+                slots.forEach(id -> agregarADias(servicioId, franjaPorSlot.get(id)));
+            }
+        }
+    }
+
+    private void agregarADias(Long servicioId, FranjaLibreDTO franja) {
+        TreeMap<LocalDate, Dia> dias = diasPorServicio.computeIfAbsent(servicioId, id -> new TreeMap<>());
+        long inicio = instante(franja.fechaInicio());
+        long fin = instante(franja.fechaFin());
+        for (LocalDate dia = franja.fechaInicio().toLocalDate(); !dia.isAfter(ultimoDia(franja));
+                dia = dia.plusDays(1)) {
+            dias.computeIfAbsent(dia, d -> new Dia()).agregar(inicio, fin, franja.profesionalId(),
+                    franja.agendaSlotId());
+        }
+    }
+
+    private void quitarDeDias(Long servicioId, FranjaLibreDTO franja) {
+        TreeMap<LocalDate, Dia> dias = diasPorServicio.get(servicioId);
+        if (dias == null) {
+            return;
+        }
+        long inicio = instante(franja.fechaInicio());
+        NavigableMap<LocalDate, Dia> tocados = dias.subMap(franja.fechaInicio().toLocalDate(), true,
+                ultimoDia(franja), true);
+        tocados.values().removeIf(dia -> dia.quitar(inicio, franja.agendaSlotId()) && dia.tamanio == 0);
+        if (dias.isEmpty()) {
+            diasPorServicio.remove(servicioId);
+        }
+    }
+
+    /** Nanosegundos desde 1970 (sin zona horaria): alcanza hasta el año 2262. */
+    private static long instante(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + fecha.getNano();
+    }
+
+    /** Último día que toca el bloque: uno que termina justo a la medianoche no ocupa el día siguiente. */
+    private static LocalDate ultimoDia(FranjaLibreDTO franja) {
+        return franja.fechaFin().minusNanos(1).toLocalDate();
+    }
+
+    /**
+     * Bloques de un servicio en un día, ordenados por inicio y luego por id de bloque, en arreglos
+     * paralelos. {@code duracionMaxima} es la del bloque más largo que tuvo el día (no baja al quitar
+     * bloques, así que sólo puede hacer recorrer de más).
+     */
+    private static final class Dia {
+        private long[] inicios = new long[4];
+        private long[] fines = new long[4];
+        private long[] profesionales = new long[4];
+        private long[] slots = new long[4];
+        private int tamanio;
+        private long duracionMaxima;
+
+        void agregar(long inicio, long fin, long profesionalId, long slotId) {
+            int posicion = buscar(inicio, slotId);
+            if (posicion >= 0) {
+                return;
+            }
+            posicion = -posicion - 1;
+            if (tamanio == inicios.length) {
+                int capacidad = tamanio * 2;
+                inicios = Arrays.copyOf(inicios, capacidad);
+                fines = Arrays.copyOf(fines, capacidad);
+                profesionales = Arrays.copyOf(profesionales, capacidad);
+                slots = Arrays.copyOf(slots, capacidad);
+            }
+            int mover = tamanio - posicion;
+            System.arraycopy(inicios, posicion, inicios, posicion + 1, mover);
+            System.arraycopy(fines, posicion, fines, posicion + 1, mover);
+            System.arraycopy(profesionales, posicion, profesionales, posicion + 1, mover);
+            System.arraycopy(slots, posicion, slots, posicion + 1, mover);
+            inicios[posicion] = inicio;
+            fines[posicion] = fin;
+            profesionales[posicion] = profesionalId;
+            slots[posicion] = slotId;
+            tamanio++;
+            duracionMaxima = Math.max(duracionMaxima, fin - inicio);
+        }
+
+        /** Quita el bloque; devuelve false si no estaba. */
+        boolean quitar(long inicio, long slotId) {
+            int posicion = buscar(inicio, slotId);
+            if (posicion < 0) {
+                return false;
+            }
+            int mover = tamanio - posicion - 1;
+            System.arraycopy(inicios, posicion + 1, inicios, posicion, mover);
+            System.arraycopy(fines, posicion + 1, fines, posicion, mover);
+            System.arraycopy(profesionales, posicion + 1, profesionales, posicion, mover);
+            System.arraycopy(slots, posicion + 1, slots, posicion, mover);
+            tamanio--;
+            if (tamanio == 0) {
+                duracionMaxima = 0;
+            }
+            return true;
+        }
+
+        /** Posición del primer bloque que empieza en {@code inicio} o después. */
+        int primeroDesde(long inicio) {
+            int bajo = 0;
+            int alto = tamanio;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (inicios[medio] < inicio) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        boolean terminaDespuesDe(long instante) {
+            for (int i = 0; i < tamanio; i++) {
+                if (fines[i] > instante) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Búsqueda binaria por (inicio, slot), con la convención de {@link Arrays#binarySearch}. */
+        private int buscar(long inicio, long slotId) {
+            int bajo = 0;
+            int alto = tamanio - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                int comparacion = inicios[medio] != inicio ? Long.compare(inicios[medio], inicio)
+                        : Long.compare(slots[medio], slotId);
+                if (comparacion < 0) {
+                    bajo = medio + 1;
+                } else if (comparacion > 0) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+    }
+}
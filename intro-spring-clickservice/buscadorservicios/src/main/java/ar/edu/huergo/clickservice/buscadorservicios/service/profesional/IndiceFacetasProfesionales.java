@@ -0,0 +1,365 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ConteoFacetaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroFacetasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ModoServicios;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.BitmapComprimido;
+import ar.edu.huergo.clickservice.buscadorservicios.util.NormalizadorTexto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice de facetas de profesionales con un {@link BitmapComprimido} por valor de faceta.
+ *
+ * Cada profesional recibe un ordinal denso (0, 1, 2...) la primera vez que se indexa y lo conserva
+ * mientras exista. Hay un bitmap de ordinales por servicio, por zona de trabajo (normalizada con
+ * {@link NormalizadorTexto}), por rango de calificación (de a una estrella) y por disponibilidad,
+ * así que filtrar es intersecar o unir bitmaps y contar una faceta es la cardinalidad de una
+ * intersección, sin consultar la base.
+ *
+ * Los conteos de cada faceta se calculan con los filtros de las demás facetas, no con el propio:
+ * elegir una zona no hace desaparecer las otras zonas de la lista. Con
+ * {@link ModoServicios#TODOS} los servicios sí se cuentan sobre el resultado, porque cada servicio
+ * que se agrega achica el conjunto.
+ *
+ * Se carga completo al iniciar y luego se actualiza de a un profesional con
+ * {@link ProfesionalModificadoEvent}.
+ */
+@Slf4j
+@Service
+public class IndiceFacetasProfesionales {
+
+    /** Cantidad de rangos de calificación: de 0 a 1 estrellas, de 1 a 2, ..., de 4 a 5. */
+    public static final int RANGOS_CALIFICACION = 5;
+
+    /** Máximo de zonas devueltas en los conteos (las de más profesionales). */
+    public static final int ZONAS_MAXIMAS = 20;
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    /**
+     * Ids de la página pedida (en orden de alta en el índice), total de coincidencias y conteos por
+     * faceta. Los servicios se devuelven por id para que quien llama resuelva los nombres.
+     */
+    public record Resultado(long total, List<Long> ids, Map<Long, Long> servicios, List<ConteoFacetaDTO> zonas,
+            List<ConteoFacetaDTO> calificaciones, List<ConteoFacetaDTO> disponibilidad) {
+    }
+
+    private final ProfesionalRepository profesionalRepository;
+
+    private final Map<Long, Integer> ordinalPorId = new HashMap<>();
+    private long[] idPorOrdinal = new long[CAPACIDAD_INICIAL];
+    private Valores[] valoresPorOrdinal = new Valores[CAPACIDAD_INICIAL];
+    private int siguienteOrdinal;
+
+    private final BitmapComprimido todos = new BitmapComprimido();
+    private final BitmapComprimido disponibles = new BitmapComprimido();
+    private final BitmapComprimido noDisponibles = new BitmapComprimido();
+    private final BitmapComprimido[] porRango = new BitmapComprimido[RANGOS_CALIFICACION];
+    private final Map<Long, BitmapComprimido> porServicio = new HashMap<>();
+    private final Map<String, BitmapComprimido> porZona = new HashMap<>();
+    private final Map<String, String> etiquetaPorZona = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IndiceFacetasProfesionales(ProfesionalRepository profesionalRepository) {
+        this.profesionalRepository = profesionalRepository;
+        for (int i = 0; i < RANGOS_CALIFICACION; i++) {
+            porRango[i] = new BitmapComprimido();
+        }
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        indexar(profesionalRepository.findFacetasProfesionales());
+        log.debug("Índice de facetas cargado con {} profesionales", getTamanio());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarProfesional(ProfesionalModificadoEvent evento) {
+        List<FacetaProfesionalDTO> filas = profesionalRepository.findFacetasByProfesionalId(evento.profesionalId());
+        if (filas.isEmpty()) {
+            eliminar(evento.profesionalId());
+        } else {
+            indexar(filas);
+        }
+    }
+
+    /**
+     * Indexa (o reindexa) los profesionales de las filas, agrupando los servicios de cada uno. Los
+     * profesionales nuevos reciben ordinales en el orden de las filas.
+     */
+    public void indexar(List<FacetaProfesionalDTO> filas) {
+        Map<Long, List<FacetaProfesionalDTO>> porProfesional = new LinkedHashMap<>();
+        for (FacetaProfesionalDTO fila : filas) {
+            porProfesional.computeIfAbsent(fila.profesionalId(), id -> new ArrayList<>(2)).add(fila);
+        }
+        lock.writeLock().lock();
+        try {
+            porProfesional.forEach(this::reemplazar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un profesional del índice. Su ordinal no se reutiliza.
+     */
+    public void eliminar(Long profesionalId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalPorId.remove(profesionalId);
+            if (ordinal != null) {
+                quitarValores(ordinal);
+                todos.quitar(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Profesionales que cumplen el filtro (la página pedida y el total) y conteos de cada faceta.
+     */
+    public Resultado buscar(FiltroFacetasDTO filtro, int desde, int cantidad) {
+        lock.readLock().lock();
+        try {
+            BitmapComprimido servicios = filtroServicios(filtro.serviciosIds(), filtro.modoServicios());
+            BitmapComprimido zonas = filtroZonas(filtro.zonas());
+            BitmapComprimido rangos = filtroRangos(filtro.rangosCalificacion());
+            BitmapComprimido disponibilidad = filtro.disponible() == null ? null
+                    : filtro.disponible() ? disponibles : noDisponibles;
+
+            BitmapComprimido coincidentes = interseccion(servicios, zonas, rangos, disponibilidad);
+            List<Long> ids = new ArrayList<>(cantidad);
+            for (int ordinal : coincidentes.valores(desde, cantidad)) {
+                ids.add(idPorOrdinal[ordinal]);
+            }
+
+            BitmapComprimido baseServicios = filtro.modoServicios() == ModoServicios.TODOS
+                    ? coincidentes
+                    : interseccion(zonas, rangos, disponibilidad);
+            Map<Long, Long> conteoServicios = new HashMap<>();
+            porServicio.forEach((servicioId, bitmap) -> {
+                long conteo = BitmapComprimido.cardinalidadY(baseServicios, bitmap);
+                if (conteo > 0) {
+                    conteoServicios.put(servicioId, conteo);
+                }
+            });
+
+            return new Resultado(coincidentes.cardinalidad(), ids, conteoServicios,
+                    contarZonas(interseccion(servicios, rangos, disponibilidad)),
+                    contarRangos(interseccion(servicios, zonas, disponibilidad)),
+                    contarDisponibilidad(interseccion(servicios, zonas, rangos)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return ordinalPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clave de faceta de una zona de trabajo: minúsculas, sin tildes y con los espacios
+     * normalizados. Vacía si no hay zona.
+     */
+    public static String claveZona(String zona) {
+        return String.join(" ", NormalizadorTexto.plegar(zona).trim().split("\\s+"));
+    }
+
+    /**
+     * Rango de calificación (0 a {@link #RANGOS_CALIFICACION} - 1); 5 estrellas cae en el último.
+     */
+    public static int rangoCalificacion(Double calificacion) {
+        if (calificacion == null) {
+            return 0;
+        }
+        return Math.min(RANGOS_CALIFICACION - 1, Math.max(0, (int) Math.floor(calificacion)));
+    }
+
+    private void reemplazar(Long profesionalId, List<FacetaProfesionalDTO> filas) {
+        Integer ordinal = ordinalPorId.get(profesionalId);
+        if (ordinal == null) {
+            ordinal = nuevoOrdinal(profesionalId);
+        } else {
+            quitarValores(ordinal);
+        }
+
+        FacetaProfesionalDTO primera = filas.get(0);
+        long[] servicios = filas.stream()
+                .map(FacetaProfesionalDTO::servicioId)
+                .filter(id -> id != null)
+                .mapToLong(Long::longValue)
+                .distinct()
+                .toArray();
+        Valores valores = new Valores(servicios, claveZona(primera.zonaTrabajo()),
+                rangoCalificacion(primera.calificacionPromedio()), Boolean.TRUE.equals(primera.disponible()));
+        valoresPorOrdinal[ordinal] = valores;
+
+        for (long servicioId : servicios) {
+            porServicio.computeIfAbsent(servicioId, id -> new BitmapComprimido()).agregar(ordinal);
+        }
+        if (!valores.zona().isEmpty()) {
+            porZona.computeIfAbsent(valores.zona(), zona -> new BitmapComprimido()).agregar(ordinal);
+            etiquetaPorZona.putIfAbsent(valores.zona(), primera.zonaTrabajo().trim());
+        }
+        porRango[valores.rango()].agregar(ordinal);
+        (valores.disponible() ? disponibles : noDisponibles).agregar(ordinal);
+    }
+
+    private int nuevoOrdinal(Long profesionalId) {
+        int ordinal = siguienteOrdinal++;
+        if (ordinal == idPorOrdinal.length) {
+            idPorOrdinal = Arrays.copyOf(idPorOrdinal, ordinal * 2);
+            valoresPorOrdinal = Arrays.copyOf(valoresPorOrdinal, ordinal * 2);
+        }
+        idPorOrdinal[ordinal] = profesionalId;
+        ordinalPorId.put(profesionalId, ordinal);
+        todos.agregar(ordinal);
+        return ordinal;
+    }
+
+    private void quitarValores(int ordinal) {
+        Valores valores = valoresPorOrdinal[ordinal];
+        if (valores == null) {
+            return;
+        }
+        for (long servicioId : valores.servicios()) {
+            quitarDeMapa(porServicio, servicioId, ordinal);
+        }
+        if (!valores.zona().isEmpty() && quitarDeMapa(porZona, valores.zona(), ordinal)) {
+            etiquetaPorZona.remove(valores.zona());
+        }
+        porRango[valores.rango()].quitar(ordinal);
+        (valores.disponible() ? disponibles : noDisponibles).quitar(ordinal);
+        valoresPorOrdinal[ordinal] = null;
+    }
+
+    /**
+     * Quita el ordinal del bitmap de la clave y descarta el bitmap si queda vacío (devuelve true en
+     * ese caso).
+     */
+    private static <K> boolean quitarDeMapa(Map<K, BitmapComprimido> mapa, K clave, int ordinal) {
+        BitmapComprimido bitmap = mapa.get(clave);
+        bitmap.quitar(ordinal);
+        if (bitmap.estaVacio()) {
+            mapa.remove(clave);
+            return true;
+        }
+        return false;
+    }
+
+    private BitmapComprimido filtroServicios(Set<Long> serviciosIds, ModoServicios modo) {
+        if (serviciosIds == null || serviciosIds.isEmpty()) {
+            return null;
+        }
+        boolean todosLosServicios = modo == ModoServicios.TODOS;
+        BitmapComprimido resultado = null;
+        for (Long servicioId : serviciosIds) {
+            BitmapComprimido bitmap = porServicio.getOrDefault(servicioId, new BitmapComprimido());
+            resultado = resultado == null ? bitmap
+                    : todosLosServicios ? BitmapComprimido.y(resultado, bitmap)
+                    : BitmapComprimido.o(resultado, bitmap);
+        }
+        return resultado;
+    }
+
+    private BitmapComprimido filtroZonas(Set<String> zonas) {
+        if (zonas == null || zonas.isEmpty()) {
+            return null;
+        }
+        BitmapComprimido resultado = new BitmapComprimido();
+        for (String zona : zonas) {
+            BitmapComprimido bitmap = porZona.get(claveZona(zona));
+            if (bitmap != null) {
+                resultado = BitmapComprimido.o(resultado, bitmap);
+            }
+        }
+        return resultado;
+    }
+
+    private BitmapComprimido filtroRangos(Set<Integer> rangos) {
+        if (rangos == null || rangos.isEmpty()) {
+            return null;
+        }
+        BitmapComprimido resultado = new BitmapComprimido();
+        for (Integer rango : rangos) {
+            if (rango == null || rango < 0 || rango >= RANGOS_CALIFICACION) {
+                throw new IllegalArgumentException(
+                        "Los rangos de calificación van de 0 a " + (RANGOS_CALIFICACION - 1));
+            }
+            resultado = BitmapComprimido.o(resultado, porRango[rango]);
+        }
+        return resultado;
+    }
+
+    /**
+     * Intersección de los filtros que no son null; sin filtros, todos los profesionales.
+     */
+    private BitmapComprimido interseccion(BitmapComprimido... filtros) {
+        BitmapComprimido resultado = null;
+        for (BitmapComprimido filtro : filtros) {
+            if (filtro != null) {
+                resultado = resultado == null ? filtro : BitmapComprimido.y(resultado, filtro);
+            }
+        }
+        return resultado != null ? resultado : todos;
+    }
+
+    private List<ConteoFacetaDTO> contarZonas(BitmapComprimido base) {
+        List<ConteoFacetaDTO> conteos = new ArrayList<>();
+        porZona.forEach((zona, bitmap) -> {
+            long conteo = BitmapComprimido.cardinalidadY(base, bitmap);
+            if (conteo > 0) {
+                conteos.add(new ConteoFacetaDTO(zona, etiquetaPorZona.get(zona), conteo));
+            }
+        });
+        conteos.sort(Comparator.comparingLong(ConteoFacetaDTO::cantidad).reversed()
+                .thenComparing(ConteoFacetaDTO::valor));
+        return conteos.size() > ZONAS_MAXIMAS ? List.copyOf(conteos.subList(0, ZONAS_MAXIMAS)) : conteos;
+    }
+
+    private List<ConteoFacetaDTO> contarRangos(BitmapComprimido base) {
+        List<ConteoFacetaDTO> conteos = new ArrayList<>(RANGOS_CALIFICACION);
+        for (int rango = RANGOS_CALIFICACION - 1; rango >= 0; rango--) {
+            conteos.add(new ConteoFacetaDTO(String.valueOf(rango), rango + " a " + (rango + 1) + " estrellas",
+                    BitmapComprimido.cardinalidadY(base, porRango[rango])));
+        }
+        return conteos;
+    }
+
+    private List<ConteoFacetaDTO> contarDisponibilidad(BitmapComprimido base) {
+        return List.of(
+                new ConteoFacetaDTO("true", "Disponible", BitmapComprimido.cardinalidadY(base, disponibles)),
+                new ConteoFacetaDTO("false", "No disponible", BitmapComprimido.cardinalidadY(base, noDisponibles)));
+    }
+
+    /**
+     * Valores de faceta de un profesional, para poder quitarlo de los bitmaps al reindexarlo.
+     */
+    private record Valores(long[] servicios, String zona, int rango, boolean disponible) {
+    }
+}
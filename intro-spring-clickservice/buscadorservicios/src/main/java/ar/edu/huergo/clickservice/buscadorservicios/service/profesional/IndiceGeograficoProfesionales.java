@@ -0,0 +1,161 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.UbicacionProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.GrillaGeografica;
+import ar.edu.huergo.clickservice.buscadorservicios.util.GrillaGeografica.Vecino;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice geográfico en memoria de los profesionales disponibles, con una {@link GrillaGeografica}
+ * por servicio para que buscar "plomeros cerca" no recorra profesionales de otros rubros.
+ *
+ * Se carga completo al iniciar y luego se actualiza de a un profesional por vez al recibir
+ * {@link ProfesionalModificadoEvent}. Sólo se indexan profesionales disponibles, con latitud y
+ * longitud cargadas y al menos un servicio. Las lecturas son concurrentes; las escrituras toman un
+ * lock exclusivo durante el reemplazo de la entrada.
+ */
+@Slf4j
+@Service
+public class IndiceGeograficoProfesionales {
+
+    private final ProfesionalRepository profesionalRepository;
+    private final double tamanioCelda;
+
+    private final Map<Long, GrillaGeografica> grillasPorServicio = new HashMap<>();
+    private final Map<Long, Ubicacion> ubicaciones = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IndiceGeograficoProfesionales(ProfesionalRepository profesionalRepository,
+            @Value("${profesionales.geo.cell-size-degrees:0.05}") double tamanioCelda) {
+        this.profesionalRepository = profesionalRepository;
+        this.tamanioCelda = tamanioCelda;
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        List<UbicacionProfesionalDTO> filas = profesionalRepository.findUbicacionesDisponibles();
+        cargar(filas);
+        log.debug("Índice geográfico cargado con {} profesionales", getTamanio());
+    }
+
+    /**
+     * Vuelve a leer la ubicación y los servicios del profesional modificado y reemplaza su entrada.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarProfesional(ProfesionalModificadoEvent evento) {
+        Long id = evento.profesionalId();
+        actualizar(id, profesionalRepository.findUbicacionesDisponiblesByProfesionalId(id));
+    }
+
+    /**
+     * Agrega filas al índice (una por profesional y servicio). Se usa en la carga inicial.
+     */
+    public void cargar(List<UbicacionProfesionalDTO> filas) {
+        lock.writeLock().lock();
+        try {
+            for (UbicacionProfesionalDTO fila : filas) {
+                Ubicacion ubicacion = ubicaciones.computeIfAbsent(fila.profesionalId(),
+                        id -> new Ubicacion(fila.latitud(), fila.longitud(), radio(fila), new ArrayList<>()));
+                insertar(fila.profesionalId(), ubicacion, fila.servicioId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza la entrada de un profesional. Con una lista vacía el profesional sale del índice.
+     */
+    public void actualizar(Long profesionalId, List<UbicacionProfesionalDTO> filas) {
+        lock.writeLock().lock();
+        try {
+            quitar(profesionalId);
+            if (filas.isEmpty()) {
+                return;
+            }
+            UbicacionProfesionalDTO primera = filas.get(0);
+            Ubicacion ubicacion = new Ubicacion(primera.latitud(), primera.longitud(), radio(primera),
+                    new ArrayList<>(filas.size()));
+            ubicaciones.put(profesionalId, ubicacion);
+            for (UbicacionProfesionalDTO fila : filas) {
+                insertar(profesionalId, ubicacion, fila.servicioId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve hasta {@code cantidad} profesionales del servicio a no más de {@code radioKm}, del
+     * más cercano al más lejano. Respeta el radio de cobertura propio de cada profesional.
+     */
+    public List<Vecino> buscarCercanos(Long servicioId, double latitud, double longitud, int cantidad,
+            double radioKm) {
+        lock.readLock().lock();
+        try {
+            GrillaGeografica grilla = grillasPorServicio.get(servicioId);
+            if (grilla == null) {
+                return List.of();
+            }
+            return grilla.buscarCercanos(latitud, longitud, cantidad, radioKm);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return ubicaciones.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insertar(Long profesionalId, Ubicacion ubicacion, Long servicioId) {
+        if (ubicacion.servicios().contains(servicioId)) {
+            return;
+        }
+        ubicacion.servicios().add(servicioId);
+        grillasPorServicio.computeIfAbsent(servicioId, id -> new GrillaGeografica(tamanioCelda))
+                .insertar(profesionalId, ubicacion.latitud(), ubicacion.longitud(), ubicacion.radioKm());
+    }
+
+    private void quitar(Long profesionalId) {
+        Ubicacion anterior = ubicaciones.remove(profesionalId);
+        if (anterior == null) {
+            return;
+        }
+        for (Long servicioId : anterior.servicios()) {
+            GrillaGeografica grilla = grillasPorServicio.get(servicioId);
+            if (grilla != null) {
+                grilla.eliminar(profesionalId, anterior.latitud(), anterior.longitud());
+                if (grilla.tamanio() == 0) {
+                    grillasPorServicio.remove(servicioId);
+                }
+            }
+        }
+    }
+
+    private static double radio(UbicacionProfesionalDTO fila) {
+        return fila.radioCoberturaKm() != null ? fila.radioCoberturaKm() : 0;
+    }
+
+    private record Ubicacion(double latitud, double longitud, double radioKm, List<Long> servicios) {
+    }
+}
@@ -0,0 +1,149 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TextoProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.service.servicio.ServicioModificadoEvent;
+import ar.edu.huergo.clickservice.buscadorservicios.util.IndiceInvertido;
+import ar.edu.huergo.clickservice.buscadorservicios.util.NormalizadorTexto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Búsqueda de texto sobre profesionales con un {@link IndiceInvertido} en memoria.
+ *
+ * Se indexan el nombre completo, la descripción, la zona de trabajo y los nombres de los servicios
+ * que ofrece cada profesional, normalizados con {@link NormalizadorTexto} ("plomería" encuentra
+ * "Plomeria"). Cada campo tiene un peso: una coincidencia en el nombre o en un servicio cuenta más
+ * que una en la descripción.
+ *
+ * Se carga completo al iniciar y luego se actualiza después de cada commit con
+ * {@link ProfesionalModificadoEvent} (un profesional) y {@link ServicioModificadoEvent} (todos los
+ * profesionales que ofrecen el servicio renombrado).
+ */
+@Slf4j
+@Service
+public class IndiceTextoProfesionales {
+
+    private static final int PESO_NOMBRE = 3;
+    private static final int PESO_SERVICIO = 2;
+    private static final int PESO_ZONA = 2;
+    private static final int PESO_DESCRIPCION = 1;
+
+    private final ProfesionalRepository profesionalRepository;
+    private final IndiceInvertido indice = new IndiceInvertido();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IndiceTextoProfesionales(ProfesionalRepository profesionalRepository) {
+        this.profesionalRepository = profesionalRepository;
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        indexar(profesionalRepository.findTextosProfesionales());
+        log.debug("Índice de texto cargado con {} profesionales", getTamanio());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarProfesional(ProfesionalModificadoEvent evento) {
+        List<TextoProfesionalDTO> filas = profesionalRepository.findTextosByProfesionalId(evento.profesionalId());
+        if (filas.isEmpty()) {
+            eliminar(evento.profesionalId());
+        } else {
+            indexar(filas);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarServicio(ServicioModificadoEvent evento) {
+        indexar(profesionalRepository.findTextosByServicioId(evento.servicioId()));
+    }
+
+    /**
+     * Indexa (o reindexa) los profesionales de las filas, agrupando los servicios de cada uno.
+     */
+    public void indexar(List<TextoProfesionalDTO> filas) {
+        Map<Long, List<TextoProfesionalDTO>> porProfesional = new HashMap<>();
+        for (TextoProfesionalDTO fila : filas) {
+            porProfesional.computeIfAbsent(fila.profesionalId(), id -> new ArrayList<>(2)).add(fila);
+        }
+        lock.writeLock().lock();
+        try {
+            porProfesional.forEach((id, filasProfesional) -> indice.indexar(id, frecuencias(filasProfesional)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long profesionalId) {
+        lock.writeLock().lock();
+        try {
+            indice.eliminar(profesionalId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve la página pedida de profesionales ordenados por relevancia (BM25).
+     */
+    public IndiceInvertido.Pagina buscar(String consulta, int desde, int cantidad) {
+        List<String> terminos = NormalizadorTexto.terminos(consulta);
+        if (terminos.isEmpty()) {
+            return new IndiceInvertido.Pagina(List.of(), 0);
+        }
+        lock.readLock().lock();
+        try {
+            return indice.buscar(terminos, desde, cantidad);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return indice.tamanio();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Integer> frecuencias(List<TextoProfesionalDTO> filas) {
+        TextoProfesionalDTO primera = filas.get(0);
+        Map<String, Integer> frecuencias = new HashMap<>();
+        sumar(frecuencias, primera.nombreCompleto(), PESO_NOMBRE);
+        sumar(frecuencias, primera.descripcion(), PESO_DESCRIPCION);
+        sumar(frecuencias, primera.zonaTrabajo(), PESO_ZONA);
+        Set<String> servicios = new LinkedHashSet<>();
+        for (TextoProfesionalDTO fila : filas) {
+            if (fila.servicio() != null) {
+                servicios.add(fila.servicio());
+            }
+        }
+        for (String servicio : servicios) {
+            sumar(frecuencias, servicio, PESO_SERVICIO);
+        }
+        return frecuencias;
+    }
+
+    private static void sumar(Map<String, Integer> frecuencias, String texto, int peso) {
+        for (String termino : NormalizadorTexto.terminos(texto)) {
+            frecuencias.merge(termino, peso, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Listener JPA de {@link Profesional}: publica {@link ProfesionalModificadoEvent} cada vez que se
+ * guarda o elimina un profesional, sin importar qué servicio hizo la escritura.
+ *
+ * Los cambios que sólo tocan la colección de servicios no disparan {@code @PostUpdate}; en ese caso
+ * el evento lo publica {@link ProfesionalService#asignarServicios}.
+ */
+public class ProfesionalEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alGuardarProfesional(Profesional profesional) {
+        if (eventPublisher != null && profesional.getId() != null) {
+            eventPublisher.publishEvent(new ProfesionalModificadoEvent(profesional.getId()));
+        }
+    }
+}
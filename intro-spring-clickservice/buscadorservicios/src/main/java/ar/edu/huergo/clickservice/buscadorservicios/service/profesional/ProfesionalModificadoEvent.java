@@ -0,0 +1,10 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina un profesional (incluidos sus servicios).
+ *
+ * Los índices en memoria (por ejemplo {@link IndiceGeograficoProfesionales}) lo escuchan para
+ * actualizar la entrada del profesional después del commit.
+ */
+public record ProfesionalModificadoEvent(Long profesionalId) {
+}
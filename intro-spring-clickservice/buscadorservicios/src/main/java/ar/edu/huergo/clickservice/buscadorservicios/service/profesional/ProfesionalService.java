@@ -1,15 +1,34 @@
 package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ConteoFacetaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroDirectorioDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroFacetasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.OrdenDirectorio;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.DirectorioProfesionalesRepository.PosicionDirectorio;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.ServicioRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.GrillaGeografica.Vecino;
+import ar.edu.huergo.clickservice.buscadorservicios.util.IndiceInvertido;
+import ar.edu.huergo.clickservice.buscadorservicios.util.TopKIncremental;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
@@ -21,6 +40,66 @@ public class ProfesionalService {
     @Autowired
     private ServicioRepository servicioRepository;
 
+    @Autowired
+    private IndiceGeograficoProfesionales indiceGeograficoProfesionales;
+
+    @Autowired
+    private IndiceTextoProfesionales indiceTextoProfesionales;
+
+    @Autowired
+    private RankingProfesionales rankingProfesionales;
+
+    @Autowired
+    private IndiceFacetasProfesionales indiceFacetasProfesionales;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${profesionales.geo.default-radius-km:50}")
+    private double radioBusquedaPorDefectoKm;
+
+    @Value("${profesionales.geo.max-radius-km:500}")
+    private double radioBusquedaMaximoKm;
+
+    /** Máximo de profesionales devueltos por una búsqueda por cercanía. */
+    public static final int CANTIDAD_CERCANOS_MAXIMA = 50;
+
+    /** Tamaño máximo de página y cantidad máxima de resultados navegables en la búsqueda de texto. */
+    public static final int TAMANIO_PAGINA_BUSQUEDA_MAXIMO = 100;
+    public static final int RESULTADOS_BUSQUEDA_MAXIMOS = 1000;
+
+    /** Tamaño máximo de página del directorio. */
+    public static final int TAMANIO_PAGINA_DIRECTORIO_MAXIMO = 100;
+
+    /** Tamaño máximo de página de la búsqueda por facetas. */
+    public static final int TAMANIO_PAGINA_FACETAS_MAXIMO = 100;
+
+    /**
+     * Página de la búsqueda por facetas y conteos de cada faceta.
+     */
+    public record ResultadoFacetas(Page<Profesional> profesionales, List<ConteoFacetaDTO> servicios,
+            List<ConteoFacetaDTO> zonas, List<ConteoFacetaDTO> calificaciones,
+            List<ConteoFacetaDTO> disponibilidad) {
+    }
+
+    /**
+     * Página del directorio y cursor para pedir la siguiente (null si no hay más).
+     */
+    public record PaginaDirectorio(List<Profesional> profesionales, String siguienteCursor) {
+    }
+
+    /**
+     * Profesional del ranking de un servicio y su puntaje.
+     */
+    public record ProfesionalRankeado(Profesional profesional, double puntaje) {
+    }
+
+    /**
+     * Profesional encontrado por cercanía y su distancia en kilómetros al punto consultado.
+     */
+    public record ProfesionalCercano(Profesional profesional, double distanciaKm) {
+    }
+
     public List<Profesional> obtenerTodosLosProfesionales() {
         return profesionalRepository.findAll();
     }
@@ -42,6 +121,9 @@ public class ProfesionalService {
         profesionalExistente.setDescripcion(profesional.getDescripcion());
         profesionalExistente.setDisponible(profesional.getDisponible());
         profesionalExistente.setZonaTrabajo(profesional.getZonaTrabajo());
+        profesionalExistente.setLatitud(profesional.getLatitud());
+        profesionalExistente.setLongitud(profesional.getLongitud());
+        profesionalExistente.setRadioCoberturaKm(profesional.getRadioCoberturaKm());
         
         return profesionalRepository.save(profesionalExistente);
     }
@@ -63,11 +145,186 @@ public class ProfesionalService {
         Profesional profesional = obtenerProfesionalPorId(profesionalId);
         Set<Servicio> servicios = Set.copyOf(servicioRepository.findAllById(serviciosIds));
         profesional.setServicios(servicios);
-        return profesionalRepository.save(profesional);
+        Profesional guardado = profesionalRepository.save(profesional);
+        // Un cambio que sólo toca la colección de servicios no dispara @PostUpdate
+        eventPublisher.publishEvent(new ProfesionalModificadoEvent(guardado.getId()));
+        return guardado;
+    }
+
+    /**
+     * Profesionales disponibles que ofrecen el servicio, ordenados por distancia al punto dado.
+     * Si no se indica radio se usa profesionales.geo.default-radius-km.
+     */
+    public List<ProfesionalCercano> obtenerProfesionalesCercanos(Long servicioId, double latitud,
+            double longitud, int cantidad, Double radioKm) {
+        if (servicioId == null) {
+            throw new IllegalArgumentException("El servicio es obligatorio");
+        }
+        if (latitud < -90 || latitud > 90 || longitud < -180 || longitud > 180) {
+            throw new IllegalArgumentException("Coordenadas inválidas");
+        }
+        if (cantidad < 1 || cantidad > CANTIDAD_CERCANOS_MAXIMA) {
+            throw new IllegalArgumentException(
+                    "La cantidad debe estar entre 1 y " + CANTIDAD_CERCANOS_MAXIMA);
+        }
+        double radio = radioKm != null ? radioKm : radioBusquedaPorDefectoKm;
+        if (radio <= 0 || radio > radioBusquedaMaximoKm) {
+            throw new IllegalArgumentException(
+                    "El radio debe ser mayor a 0 y no superar " + radioBusquedaMaximoKm + " km");
+        }
+
+        List<Vecino> vecinos = indiceGeograficoProfesionales.buscarCercanos(servicioId, latitud, longitud,
+                cantidad, radio);
+        if (vecinos.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Profesional> porId = profesionalRepository
+                .findByIdIn(vecinos.stream().map(Vecino::id).toList()).stream()
+                .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+        return vecinos.stream()
+                .filter(vecino -> porId.containsKey(vecino.id()))
+                .map(vecino -> new ProfesionalCercano(porId.get(vecino.id()), vecino.distanciaKm()))
+                .toList();
+    }
+
+    /**
+     * Los mejores profesionales disponibles del servicio según el ranking, de mayor a menor puntaje.
+     */
+    public List<ProfesionalRankeado> obtenerRanking(Long servicioId, int cantidad) {
+        if (servicioId == null) {
+            throw new IllegalArgumentException("El servicio es obligatorio");
+        }
+        if (cantidad < 1 || cantidad > rankingProfesionales.getK()) {
+            throw new IllegalArgumentException(
+                    "La cantidad debe estar entre 1 y " + rankingProfesionales.getK());
+        }
+
+        List<TopKIncremental.Entrada> mejores = rankingProfesionales.mejores(servicioId, cantidad);
+        if (mejores.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Profesional> porId = profesionalRepository
+                .findByIdIn(mejores.stream().map(TopKIncremental.Entrada::id).toList()).stream()
+                .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+        return mejores.stream()
+                .filter(entrada -> porId.containsKey(entrada.id()))
+                .map(entrada -> new ProfesionalRankeado(porId.get(entrada.id()), entrada.puntaje()))
+                .toList();
     }
 
     public Profesional obtenerProfesionalPorUsuarioId(Long usuarioId) throws EntityNotFoundException {
         return profesionalRepository.findByUsuarioId(usuarioId)
                 .orElseThrow(() -> new EntityNotFoundException("Profesional no encontrado"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Búsqueda de texto sobre nombre, descripción, zona y servicios, ordenada por relevancia.
+     */
+    public Page<Profesional> buscarProfesionales(String consulta, int pagina, int tamanio) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new IllegalArgumentException("La consulta no puede estar vacía");
+        }
+        if (pagina < 0 || tamanio < 1 || tamanio > TAMANIO_PAGINA_BUSQUEDA_MAXIMO) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANIO_PAGINA_BUSQUEDA_MAXIMO);
+        }
+        if ((long) (pagina + 1) * tamanio > RESULTADOS_BUSQUEDA_MAXIMOS) {
+            throw new IllegalArgumentException(
+                    "Sólo se pueden recorrer los primeros " + RESULTADOS_BUSQUEDA_MAXIMOS + " resultados");
+        }
+
+        IndiceInvertido.Pagina resultado = indiceTextoProfesionales.buscar(consulta, pagina * tamanio, tamanio);
+        List<Long> ids = resultado.resultados().stream().map(IndiceInvertido.Resultado::id).toList();
+        Map<Long, Profesional> porId = ids.isEmpty() ? Map.of()
+                : profesionalRepository.findByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+        List<Profesional> profesionales = ids.stream().filter(porId::containsKey).map(porId::get).toList();
+        return new PageImpl<>(profesionales, PageRequest.of(pagina, tamanio), resultado.total());
+    }
+
+    /**
+     * Directorio de profesionales filtrado y ordenado de mayor a menor por calificación o
+     * experiencia, paginado por cursor: {@code cursor} es el {@code siguienteCursor} de la página
+     * anterior (null para la primera).
+     */
+    public PaginaDirectorio obtenerDirectorio(FiltroDirectorioDTO filtro, OrdenDirectorio orden, String cursor,
+            int tamanio) {
+        if (tamanio < 1 || tamanio > TAMANIO_PAGINA_DIRECTORIO_MAXIMO) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANIO_PAGINA_DIRECTORIO_MAXIMO);
+        }
+        OrdenDirectorio ordenEfectivo = orden != null ? orden : OrdenDirectorio.CALIFICACION;
+        PosicionDirectorio desde = cursor == null || cursor.isBlank() ? null
+                : decodificarCursor(cursor, ordenEfectivo);
+
+        // Se pide uno de más para saber si hay página siguiente
+        List<Long> ids = profesionalRepository.buscarIdsDirectorio(filtro, ordenEfectivo, desde, tamanio + 1);
+        boolean hayMas = ids.size() > tamanio;
+        List<Long> idsPagina = hayMas ? ids.subList(0, tamanio) : ids;
+        if (idsPagina.isEmpty()) {
+            return new PaginaDirectorio(List.of(), null);
+        }
+
+        Map<Long, Profesional> porId = profesionalRepository.findByIdIn(idsPagina).stream()
+                .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+        List<Profesional> profesionales = idsPagina.stream().filter(porId::containsKey).map(porId::get).toList();
+        String siguienteCursor = null;
+        if (hayMas && !profesionales.isEmpty()) {
+            siguienteCursor = codificarCursor(ordenEfectivo, profesionales.get(profesionales.size() - 1));
+        }
+        return new PaginaDirectorio(profesionales, siguienteCursor);
+    }
+
+    /**
+     * Profesionales que cumplen los filtros de facetas (en orden de alta) junto con la cantidad de
+     * profesionales de cada servicio, zona, rango de calificación y disponibilidad.
+     */
+    public ResultadoFacetas obtenerFacetas(FiltroFacetasDTO filtro, int pagina, int tamanio) {
+        if (pagina < 0 || tamanio < 1 || tamanio > TAMANIO_PAGINA_FACETAS_MAXIMO) {
+            throw new IllegalArgumentException(
+                    "El tamaño de página debe estar entre 1 y " + TAMANIO_PAGINA_FACETAS_MAXIMO);
+        }
+
+        IndiceFacetasProfesionales.Resultado resultado = indiceFacetasProfesionales.buscar(filtro,
+                pagina * tamanio, tamanio);
+        Map<Long, Profesional> porId = resultado.ids().isEmpty() ? Map.of()
+                : profesionalRepository.findByIdIn(resultado.ids()).stream()
+                        .collect(Collectors.toMap(Profesional::getId, Function.identity()));
+        List<Profesional> profesionales = resultado.ids().stream().filter(porId::containsKey).map(porId::get)
+                .toList();
+
+        List<ConteoFacetaDTO> servicios = resultado.servicios().isEmpty() ? List.of()
+                : servicioRepository.findAllById(resultado.servicios().keySet()).stream()
+                        .map(servicio -> new ConteoFacetaDTO(String.valueOf(servicio.getId()), servicio.getNombre(),
+                                resultado.servicios().get(servicio.getId())))
+                        .sorted(Comparator.comparingLong(ConteoFacetaDTO::cantidad).reversed()
+                                .thenComparing(ConteoFacetaDTO::etiqueta))
+                        .toList();
+        return new ResultadoFacetas(new PageImpl<>(profesionales, PageRequest.of(pagina, tamanio), resultado.total()),
+                servicios, resultado.zonas(), resultado.calificaciones(), resultado.disponibilidad());
+    }
+
+    private static String codificarCursor(OrdenDirectorio orden, Profesional ultimo) {
+        Number valor = orden == OrdenDirectorio.CALIFICACION
+                ? ultimo.getCalificacionPromedio()
+                : ultimo.getTrabajosRealizados();
+        String texto = orden.name() + ":" + valor + ":" + ultimo.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PosicionDirectorio decodificarCursor(String cursor, OrdenDirectorio orden) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (partes.length != 3 || !partes[0].equals(orden.name())) {
+                throw new IllegalArgumentException("El cursor no corresponde al orden pedido");
+            }
+            Number valor = orden == OrdenDirectorio.CALIFICACION
+                    ? Double.valueOf(partes[1])
+                    : Integer.valueOf(partes[1]);
+            return new PosicionDirectorio(valor, Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException y errores de Base64 también son IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
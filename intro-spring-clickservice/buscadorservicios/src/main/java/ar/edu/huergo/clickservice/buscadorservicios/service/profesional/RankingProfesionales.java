@@ -0,0 +1,234 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.MetricasRankingDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.TopKIncremental;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ranking en memoria de los profesionales disponibles de cada servicio, con un
+ * {@link TopKIncremental} por servicio.
+ *
+ * El puntaje combina, con pesos configurables:
+ * <ul>
+ *   <li>calificación: promedio bayesiano de las reseñas (tira hacia 3 estrellas a quien tiene
+ *   pocas reseñas, así la cantidad de reseñas también cuenta),</li>
+ *   <li>experiencia: trabajos realizados en escala logarítmica,</li>
+ *   <li>recencia: decae a la mitad cada profesionales.ranking.vida-media-recencia-dias desde la
+ *   última reseña.</li>
+ * </ul>
+ * Los profesionales no disponibles quedan fuera del ranking.
+ *
+ * Se carga completo al iniciar y luego se actualiza de a un profesional con
+ * {@link ProfesionalModificadoEvent} (disponibilidad, trabajos, servicios) y
+ * {@link ReseñaModificadaEvent}. Como la recencia depende de la fecha actual, los puntajes se
+ * recalculan periódicamente desde las métricas en memoria, sin volver a consultar la base.
+ */
+@Slf4j
+@Service
+public class RankingProfesionales {
+
+    private static final double CALIFICACION_PREVIA = 3.0;
+    private static final double RESEÑAS_PREVIAS = 5.0;
+    private static final double TRABAJOS_SATURACION = 200.0;
+
+    private final ProfesionalRepository profesionalRepository;
+    private final int k;
+    private final double pesoCalificacion;
+    private final double pesoExperiencia;
+    private final double pesoRecencia;
+    private final double vidaMediaRecenciaDias;
+
+    private final Map<Long, TopKIncremental> topPorServicio = new HashMap<>();
+    private final Map<Long, Metricas> metricasPorProfesional = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private LocalDateTime referencia = LocalDateTime.now();
+
+    public RankingProfesionales(ProfesionalRepository profesionalRepository,
+            @Value("${profesionales.ranking.top-k:100}") int k,
+            @Value("${profesionales.ranking.peso-calificacion:0.6}") double pesoCalificacion,
+            @Value("${profesionales.ranking.peso-experiencia:0.25}") double pesoExperiencia,
+            @Value("${profesionales.ranking.peso-recencia:0.15}") double pesoRecencia,
+            @Value("${profesionales.ranking.vida-media-recencia-dias:90}") double vidaMediaRecenciaDias) {
+        this.profesionalRepository = profesionalRepository;
+        this.k = k;
+        this.pesoCalificacion = pesoCalificacion;
+        this.pesoExperiencia = pesoExperiencia;
+        this.pesoRecencia = pesoRecencia;
+        this.vidaMediaRecenciaDias = vidaMediaRecenciaDias;
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        cargar(profesionalRepository.findMetricasRanking());
+        log.debug("Ranking cargado con {} profesionales", getTamanio());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarProfesional(ProfesionalModificadoEvent evento) {
+        Long id = evento.profesionalId();
+        actualizar(id, profesionalRepository.findMetricasRankingByProfesionalId(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarReseña(ReseñaModificadaEvent evento) {
+        Long id = evento.profesionalId();
+        actualizar(id, profesionalRepository.findMetricasRankingByProfesionalId(id));
+    }
+
+    @Scheduled(fixedDelayString = "${profesionales.ranking.recalculo-ms:3600000}",
+            initialDelayString = "${profesionales.ranking.recalculo-ms:3600000}")
+    public void recalcularPeriodicamente() {
+        recalcular(LocalDateTime.now());
+    }
+
+    /**
+     * Agrega filas al ranking (una por profesional y servicio). Se usa en la carga inicial.
+     */
+    public void cargar(List<MetricasRankingDTO> filas) {
+        Map<Long, List<MetricasRankingDTO>> porProfesional = new LinkedHashMap<>();
+        for (MetricasRankingDTO fila : filas) {
+            porProfesional.computeIfAbsent(fila.profesionalId(), id -> new ArrayList<>(2)).add(fila);
+        }
+        lock.writeLock().lock();
+        try {
+            porProfesional.forEach(this::reemplazar);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza las métricas de un profesional. Con una lista vacía sale del ranking.
+     */
+    public void actualizar(Long profesionalId, List<MetricasRankingDTO> filas) {
+        lock.writeLock().lock();
+        try {
+            reemplazar(profesionalId, filas);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vuelve a calcular todos los puntajes con {@code ahora} como fecha de referencia de la recencia.
+     */
+    public void recalcular(LocalDateTime ahora) {
+        lock.writeLock().lock();
+        try {
+            referencia = ahora;
+            metricasPorProfesional.forEach((id, metricas) -> {
+                double puntaje = puntaje(metricas);
+                for (Long servicioId : metricas.servicios()) {
+                    topPorServicio.get(servicioId).actualizar(id, puntaje);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Los {@code cantidad} mejores profesionales del servicio (como mucho {@link #getK()}), de mayor
+     * a menor puntaje.
+     */
+    public List<TopKIncremental.Entrada> mejores(Long servicioId, int cantidad) {
+        lock.readLock().lock();
+        try {
+            TopKIncremental top = topPorServicio.get(servicioId);
+            return top == null ? List.of() : top.mejores(cantidad);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public int getTamanio() {
+        lock.readLock().lock();
+        try {
+            return metricasPorProfesional.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reemplazar(Long profesionalId, List<MetricasRankingDTO> filas) {
+        Metricas anteriores = metricasPorProfesional.remove(profesionalId);
+        List<Long> servicios = new ArrayList<>(filas.size());
+        for (MetricasRankingDTO fila : filas) {
+            if (!servicios.contains(fila.servicioId())) {
+                servicios.add(fila.servicioId());
+            }
+        }
+        if (anteriores != null) {
+            for (Long servicioId : anteriores.servicios()) {
+                if (!servicios.contains(servicioId)) {
+                    TopKIncremental top = topPorServicio.get(servicioId);
+                    top.eliminar(profesionalId);
+                    if (top.tamanio() == 0) {
+                        topPorServicio.remove(servicioId);
+                    }
+                }
+            }
+        }
+        if (filas.isEmpty()) {
+            return;
+        }
+
+        MetricasRankingDTO primera = filas.get(0);
+        Metricas metricas = new Metricas(
+                primera.trabajosRealizados() != null ? primera.trabajosRealizados() : 0,
+                primera.cantidadReseñas() != null ? primera.cantidadReseñas() : 0,
+                primera.promedioReseñas() != null ? primera.promedioReseñas() : 0,
+                primera.ultimaReseña(),
+                servicios);
+        metricasPorProfesional.put(profesionalId, metricas);
+        double puntaje = puntaje(metricas);
+        for (Long servicioId : servicios) {
+            topPorServicio.computeIfAbsent(servicioId, id -> new TopKIncremental(k))
+                    .actualizar(profesionalId, puntaje);
+        }
+    }
+
+    private double puntaje(Metricas metricas) {
+        long reseñas = metricas.cantidadReseñas();
+        double bayesiana = (RESEÑAS_PREVIAS * CALIFICACION_PREVIA + reseñas * metricas.promedioReseñas())
+                / (RESEÑAS_PREVIAS + reseñas);
+        // Cada componente queda entre 0 y 1
+        double calificacion = (bayesiana - 1) / 4;
+        double experiencia = Math.min(1,
+                Math.log1p(metricas.trabajosRealizados()) / Math.log1p(TRABAJOS_SATURACION));
+        double recencia = 0;
+        if (metricas.ultimaReseña() != null) {
+            double dias = Math.max(0, Duration.between(metricas.ultimaReseña(), referencia).toHours() / 24.0);
+            recencia = Math.pow(0.5, dias / vidaMediaRecenciaDias);
+        }
+        return pesoCalificacion * calificacion + pesoExperiencia * experiencia + pesoRecencia * recencia;
+    }
+
+    private record Metricas(int trabajosRealizados, long cantidadReseñas, double promedioReseñas,
+            LocalDateTime ultimaReseña, List<Long> servicios) {
+    }
+}
@@ -0,0 +1,8 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina una regla de disponibilidad, para que
+ * {@link IndiceAgendas} la vuelva a leer después del commit.
+ */
+public record ReglaDisponibilidadModificadaEvent(Long reglaId) {
+}
@@ -0,0 +1,142 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.util.HashSet;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Feriado;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.ReglaDisponibilidad;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.FeriadoRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ReglaDisponibilidadRepository;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Alta, baja y modificación de las reglas de disponibilidad semanales y de los feriados. Una regla
+ * no puede superponerse con otra del mismo profesional; con los bloques de agenda no hay conflicto
+ * porque un bloque reemplaza a la regla en su horario.
+ */
+@Service
+public class ReglaDisponibilidadService {
+
+    @Autowired
+    private ReglaDisponibilidadRepository reglaDisponibilidadRepository;
+
+    @Autowired
+    private FeriadoRepository feriadoRepository;
+
+    @Autowired
+    private ProfesionalRepository profesionalRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<ReglaDisponibilidad> obtenerReglasPorProfesional(Long profesionalId) {
+        return reglaDisponibilidadRepository.findConExcepcionesByProfesionalId(profesionalId);
+    }
+
+    public ReglaDisponibilidad obtenerReglaPorId(Long id) {
+        return reglaDisponibilidadRepository.findConExcepcionesById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Regla de disponibilidad no encontrada"));
+    }
+
+    public ReglaDisponibilidad crearRegla(ReglaDisponibilidad regla) {
+        regla.setId(null);
+        regla.setProfesional(obtenerProfesional(regla.getProfesional()));
+        validarRegla(regla);
+        ReglaDisponibilidad guardada = reglaDisponibilidadRepository.save(regla);
+        eventPublisher.publishEvent(new ReglaDisponibilidadModificadaEvent(guardada.getId()));
+        return guardada;
+    }
+
+    public ReglaDisponibilidad actualizarRegla(Long id, ReglaDisponibilidad reglaActualizada) {
+        ReglaDisponibilidad reglaExistente = obtenerReglaPorId(id);
+        if (reglaActualizada.getProfesional() != null && reglaActualizada.getProfesional().getId() != null) {
+            reglaExistente.setProfesional(obtenerProfesional(reglaActualizada.getProfesional()));
+        }
+        reglaExistente.setDiasSemana(reglaActualizada.getDiasSemana());
+        reglaExistente.setHoraInicio(reglaActualizada.getHoraInicio());
+        reglaExistente.setHoraFin(reglaActualizada.getHoraFin());
+        reglaExistente.setVigenteDesde(reglaActualizada.getVigenteDesde());
+        reglaExistente.setVigenteHasta(reglaActualizada.getVigenteHasta());
+        reglaExistente.setRespetaFeriados(reglaActualizada.getRespetaFeriados() == null ? Boolean.TRUE
+                : reglaActualizada.getRespetaFeriados());
+        reglaExistente.setExcepciones(reglaActualizada.getExcepciones() == null ? new HashSet<>()
+                : new HashSet<>(reglaActualizada.getExcepciones()));
+        validarRegla(reglaExistente);
+
+        ReglaDisponibilidad guardada = reglaDisponibilidadRepository.save(reglaExistente);
+        eventPublisher.publishEvent(new ReglaDisponibilidadModificadaEvent(guardada.getId()));
+        return guardada;
+    }
+
+    public void eliminarRegla(Long id) {
+        ReglaDisponibilidad regla = obtenerReglaPorId(id);
+        reglaDisponibilidadRepository.delete(regla);
+        eventPublisher.publishEvent(new ReglaDisponibilidadModificadaEvent(id));
+    }
+
+    public List<Feriado> obtenerFeriados() {
+        return feriadoRepository.findAllByOrderByFechaAsc();
+    }
+
+    public Feriado crearFeriado(Feriado feriado) {
+        if (feriado.getFecha() == null) {
+            throw new IllegalArgumentException("La fecha es obligatoria");
+        }
+        if (feriadoRepository.existsByFecha(feriado.getFecha())) {
+            throw new IllegalArgumentException("Ya existe un feriado en esa fecha");
+        }
+        feriado.setId(null);
+        Feriado guardado = feriadoRepository.save(feriado);
+        eventPublisher.publishEvent(new FeriadosModificadosEvent());
+        return guardado;
+    }
+
+    public void eliminarFeriado(Long id) {
+        Feriado feriado = feriadoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Feriado no encontrado"));
+        feriadoRepository.delete(feriado);
+        eventPublisher.publishEvent(new FeriadosModificadosEvent());
+    }
+
+    /**
+     * Valida los campos que no cubre la validación del DTO cuando se llama desde otro servicio, y que
+     * la regla no se superponga con otra del mismo profesional.
+     */
+    private void validarRegla(ReglaDisponibilidad regla) {
+        if (regla.getDiasSemana() == null || regla.getDiasSemana() < 1 || regla.getDiasSemana() > 127) {
+            throw new IllegalArgumentException("La regla debe aplicar al menos un día de la semana");
+        }
+        if (regla.getHoraInicio() == null || regla.getHoraFin() == null || regla.getVigenteDesde() == null) {
+            throw new IllegalArgumentException("El horario y la fecha de inicio de vigencia son obligatorios");
+        }
+        if (!regla.isHorarioValido()) {
+            throw new IllegalArgumentException("La hora de fin debe ser distinta de la hora de inicio");
+        }
+        if (!regla.isVigenciaValida()) {
+            throw new IllegalArgumentException("La fecha de fin de vigencia no puede ser anterior a la de inicio");
+        }
+
+        ReglaSemanal nueva = ReglaSemanal.de(regla);
+        boolean superpuesta = reglaDisponibilidadRepository
+                .findConExcepcionesByProfesionalId(regla.getProfesional().getId()).stream()
+                .filter(otra -> !otra.getId().equals(regla.getId()))
+                .anyMatch(otra -> nueva.seSuperponeCon(ReglaSemanal.de(otra)));
+        if (superpuesta) {
+            throw new IllegalArgumentException("La regla se superpone con otra regla del profesional");
+        }
+    }
+
+    private Profesional obtenerProfesional(Profesional profesional) {
+        if (profesional == null || profesional.getId() == null) {
+            throw new EntityNotFoundException("Profesional no encontrado");
+        }
+        return profesionalRepository.findById(profesional.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Profesional no encontrado"));
+    }
+}
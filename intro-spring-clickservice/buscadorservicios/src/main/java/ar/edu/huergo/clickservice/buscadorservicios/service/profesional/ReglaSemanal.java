@@ -0,0 +1,206 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.ReglaDisponibilidad;
+
+/**
+ * Copia inmutable de una {@link ReglaDisponibilidad} que se guarda en el índice de agendas y sabe
+ * expandirse a ventanas concretas.
+ *
+ * La expansión es un iterador que avanza día por día sólo dentro del rango pedido, así que una regla
+ * sin fecha de fin nunca se convierte en una serie completa: consultar una semana cuesta siete pasos
+ * sin importar cuántos años de vigencia tenga la regla.
+ */
+public record ReglaSemanal(Long reglaId, Long profesionalId, int diasSemana, LocalTime horaInicio,
+        LocalTime horaFin, LocalDate vigenteDesde, LocalDate vigenteHasta, boolean respetaFeriados,
+        Set<LocalDate> excepciones) {
+
+    private static final int MINUTOS_DIA = 24 * 60;
+    private static final int MINUTOS_SEMANA = 7 * MINUTOS_DIA;
+
+    /** Si dos reglas conviven menos días que esto se comparan sus ventanas concretas y no la semana tipo. */
+    private static final int DIAS_COMPARACION_EXACTA = 8;
+
+    /**
+     * Ventana concreta de una regla: [{@code desde}, {@code hasta}).
+     */
+    public record Ventana(LocalDateTime desde, LocalDateTime hasta) {
+    }
+
+    public ReglaSemanal {
+        excepciones = Set.copyOf(excepciones);
+    }
+
+    public static ReglaSemanal de(ReglaDisponibilidad regla) {
+        return new ReglaSemanal(regla.getId(), regla.getProfesional().getId(), regla.getDiasSemana(),
+                regla.getHoraInicio(), regla.getHoraFin(), regla.getVigenteDesde(), regla.getVigenteHasta(),
+                !Boolean.FALSE.equals(regla.getRespetaFeriados()),
+                regla.getExcepciones() == null ? Set.of() : regla.getExcepciones());
+    }
+
+    /** Bit de un día en {@link #diasSemana()}: lunes = 1, martes = 2, ..., domingo = 64. */
+    public static int bit(DayOfWeek dia) {
+        return 1 << (dia.getValue() - 1);
+    }
+
+    /** Si la ventana termina al día siguiente de empezar. */
+    public boolean cruzaMedianoche() {
+        return !horaFin.isAfter(horaInicio);
+    }
+
+    /** Si la regla genera una ventana que empieza el día indicado. */
+    public boolean aplica(LocalDate dia, Set<LocalDate> feriados) {
+        return (diasSemana & bit(dia.getDayOfWeek())) != 0
+                && !dia.isBefore(vigenteDesde)
+                && (vigenteHasta == null || !dia.isAfter(vigenteHasta))
+                && !excepciones.contains(dia)
+                && !(respetaFeriados && feriados.contains(dia));
+    }
+
+    /**
+     * Ventanas de la regla que se superponen con [{@code desde}, {@code hasta}), en orden. Se calculan a
+     * medida que se piden.
+     */
+    public Iterator<Ventana> ventanas(LocalDateTime desde, LocalDateTime hasta, Set<LocalDate> feriados) {
+        // Se empieza un día antes por la ventana que pudo arrancar ayer y cruzar la medianoche
+        LocalDate primero = desde.toLocalDate().minusDays(1);
+        LocalDate ultimo = hasta.toLocalDate();
+        if (primero.isBefore(vigenteDesde)) {
+            primero = vigenteDesde;
+        }
+        if (vigenteHasta != null && ultimo.isAfter(vigenteHasta)) {
+            ultimo = vigenteHasta;
+        }
+        LocalDate inicio = primero;
+        LocalDate fin = ultimo;
+        return new Iterator<>() {
+            private LocalDate dia = inicio;
+            private Ventana siguiente = avanzar();
+
+            @Override
+            public boolean hasNext() {
+                return siguiente != null;
+            }
+
+            @Override
+            public Ventana next() {
+                if (siguiente == null) {
+                    throw new NoSuchElementException();
+                }
+                Ventana actual = siguiente;
+                siguiente = avanzar();
+                return actual;
+            }
+
+            private Ventana avanzar() {
+                while (!dia.isAfter(fin)) {
+                    LocalDate candidato = dia;
+                    dia = dia.plusDays(1);
+                    if (!aplica(candidato, feriados)) {
+                        continue;
+                    }
+                    Ventana ventana = ventana(candidato);
+                    if (ventana.hasta().isAfter(desde) && ventana.desde().isBefore(hasta)) {
+                        return ventana;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Indica si alguna ventana de esta regla puede superponerse con una de {@code otra}, sin tener en
+     * cuenta excepciones ni feriados (que pueden cambiar después).
+     */
+    public boolean seSuperponeCon(ReglaSemanal otra) {
+        LocalDateTime desde = max(primerMomento(), otra.primerMomento());
+        LocalDateTime hasta = min(ultimoMomento(), otra.ultimoMomento());
+        if (!hasta.isAfter(desde)) {
+            return false;
+        }
+        if (Duration.between(desde, hasta).toDays() < DIAS_COMPARACION_EXACTA) {
+            // Conviven pocos días: se comparan las ventanas concretas
+            Iterator<Ventana> propias = ventanasSinExcepciones(desde, hasta);
+            while (propias.hasNext()) {
+                Ventana propia = propias.next();
+                if (otra.ventanasSinExcepciones(propia.desde(), propia.hasta()).hasNext()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // Conviven al menos una semana: se comparan los minutos de la semana que ocupa cada una
+        for (int dia = 0; dia < 7; dia++) {
+            if ((diasSemana & (1 << dia)) == 0) {
+                continue;
+            }
+            for (int otroDia = 0; otroDia < 7; otroDia++) {
+                if ((otra.diasSemana & (1 << otroDia)) != 0
+                        && seSuperponenEnLaSemana(minutoSemanal(dia), duracionMinutos(),
+                                otra.minutoSemanal(otroDia), otra.duracionMinutos())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Ventana ventana(LocalDate dia) {
+        LocalDateTime desde = dia.atTime(horaInicio);
+        LocalDateTime hasta = (cruzaMedianoche() ? dia.plusDays(1) : dia).atTime(horaFin);
+        return new Ventana(desde, hasta);
+    }
+
+    private Iterator<Ventana> ventanasSinExcepciones(LocalDateTime desde, LocalDateTime hasta) {
+        return new ReglaSemanal(reglaId, profesionalId, diasSemana, horaInicio, horaFin, vigenteDesde,
+                vigenteHasta, false, Set.of()).ventanas(desde, hasta, Set.of());
+    }
+
+    private LocalDateTime primerMomento() {
+        return vigenteDesde.atTime(horaInicio);
+    }
+
+    private LocalDateTime ultimoMomento() {
+        if (vigenteHasta == null) {
+            return LocalDateTime.MAX;
+        }
+        return (cruzaMedianoche() ? vigenteHasta.plusDays(1) : vigenteHasta).atTime(horaFin);
+    }
+
+    private int minutoSemanal(int dia) {
+        return dia * MINUTOS_DIA + horaInicio.toSecondOfDay() / 60;
+    }
+
+    private int duracionMinutos() {
+        int minutos = (horaFin.toSecondOfDay() - horaInicio.toSecondOfDay()) / 60;
+        return minutos > 0 ? minutos : minutos + MINUTOS_DIA;
+    }
+
+    /** Superposición de dos intervalos de minutos de la semana, que pueden pasar del domingo al lunes. */
+    private static boolean seSuperponenEnLaSemana(int inicio, int duracion, int otroInicio, int otraDuracion) {
+        for (int semana = -1; semana <= 1; semana++) {
+            int desde = otroInicio + semana * MINUTOS_SEMANA;
+            if (inicio < desde + otraDuracion && desde < inicio + duracion) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,8 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+/**
+ * Evento publicado cuando se crea, modifica o elimina una reseña, para que el ranking del
+ * profesional reseñado se recalcule.
+ */
+public record ReseñaModificadaEvent(Long profesionalId) {
+}
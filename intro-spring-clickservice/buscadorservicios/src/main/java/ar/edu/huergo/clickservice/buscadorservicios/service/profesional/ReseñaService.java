@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
@@ -26,6 +27,9 @@ public class ReseñaService {
     @Autowired
     private ProfesionalRepository profesionalRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Reseña> obtenerTodasLasReseñas() {
         return reseñaRepository.findAll();
     }
@@ -69,7 +73,9 @@ public class ReseñaService {
             reseña.setFecha(LocalDateTime.now());
         }
 
-        return reseñaRepository.save(reseña);
+        Reseña guardada = reseñaRepository.save(reseña);
+        eventPublisher.publishEvent(new ReseñaModificadaEvent(profesionalId));
+        return guardada;
     }
 
     public Reseña actualizarReseña(Long id, Reseña reseña) throws EntityNotFoundException {
@@ -82,11 +88,14 @@ public class ReseñaService {
         // Actualizar la fecha de modificación
         reseñaExistente.setFecha(LocalDateTime.now());
         
-        return reseñaRepository.save(reseñaExistente);
+        Reseña guardada = reseñaRepository.save(reseñaExistente);
+        eventPublisher.publishEvent(new ReseñaModificadaEvent(reseñaExistente.getProfesional().getId()));
+        return guardada;
     }
 
     public void eliminarReseña(Long id) throws EntityNotFoundException {
         Reseña reseña = obtenerReseñaPorId(id);
         reseñaRepository.delete(reseña);
+        eventPublisher.publishEvent(new ReseñaModificadaEvent(reseña.getProfesional().getId()));
     }
 }
\ No newline at end of file
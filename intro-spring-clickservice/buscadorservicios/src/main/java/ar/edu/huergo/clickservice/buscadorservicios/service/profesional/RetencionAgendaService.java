@@ -0,0 +1,303 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.RetencionAgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.RetencionAgendaSlotRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.RuedaTemporizadora;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Retenciones temporales de bloques de agenda mientras un cliente completa la solicitud de servicio.
+ *
+ * Las retenciones se guardan en la base (sobreviven a un reinicio) y sus vencimientos se llevan en
+ * una {@link RuedaTemporizadora} en memoria: programar y cancelar cuestan O(1) y cada tick sólo
+ * revisa los vencimientos de su casillero, en lugar de consultar la base periódicamente. Al vencer
+ * se borra la fila sólo si sigue vencida, así una renovación que llegó justo antes no se pierde.
+ *
+ * Retener cambia la versión del bloque: una reserva que lo leyó antes tiene que volver a leerlo y
+ * encuentra la retención. Cada cambio publica {@link AgendaSlotModificadoEvent} para que los índices
+ * de disponibilidad y de agendas informen el bloque como ocupado mientras esté retenido.
+ *
+ * Métricas: retenciones creadas, convertidas en reserva, liberadas y vencidas, las activas, y las
+ * tasas de conversión y de vencimiento sobre las retenciones terminadas.
+ */
+@Service
+public class RetencionAgendaService {
+
+    /** Máximo de retenciones vigentes de un mismo cliente. */
+    public static final int RETENCIONES_MAXIMAS_POR_USUARIO = 3;
+
+    private static final int CASILLEROS = 512;
+
+    private static final int CANTIDAD_CERROJOS = 64;
+
+    private final RetencionAgendaSlotRepository retencionRepository;
+    private final AgendaSlotRepository agendaSlotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration duracion;
+    private final LongSupplier reloj;
+    private final RuedaTemporizadora<Long> rueda;
+
+    /**
+     * Cerrojos repartidos por username: contar las retenciones vigentes del cliente y guardar la nueva
+     * se hace con el suyo tomado, así pedidos simultáneos sobre bloques distintos no pueden pasar
+     * todos el límite. La guarda por versión del bloque sólo ordena las retenciones del mismo bloque.
+     */
+    private final ReentrantLock[] cerrojos = crearCerrojos();
+
+    private final Counter creadas;
+    private final Counter convertidas;
+    private final Counter liberadas;
+    private final Counter vencidas;
+
+    @Autowired
+    public RetencionAgendaService(RetencionAgendaSlotRepository retencionRepository,
+            AgendaSlotRepository agendaSlotRepository, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${agenda.retencion.minutos:10}") long minutos,
+            @Value("${agenda.retencion.tick-ms:1000}") long tickMs) {
+        this(retencionRepository, agendaSlotRepository, transactionTemplate, eventPublisher, meterRegistry,
+                Duration.ofMinutes(minutos), tickMs, System::currentTimeMillis);
+    }
+
+    RetencionAgendaService(RetencionAgendaSlotRepository retencionRepository,
+            AgendaSlotRepository agendaSlotRepository, TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry, Duration duracion,
+            long tickMs, LongSupplier reloj) {
+        this.retencionRepository = retencionRepository;
+        this.agendaSlotRepository = agendaSlotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.duracion = duracion;
+        this.reloj = reloj;
+        this.rueda = new RuedaTemporizadora<>(tickMs, CASILLEROS, reloj.getAsLong());
+
+        this.creadas = contador(meterRegistry, "creadas", "Bloques retenidos");
+        this.convertidas = contador(meterRegistry, "convertidas", "Retenciones que terminaron en una reserva");
+        this.liberadas = contador(meterRegistry, "liberadas", "Retenciones liberadas por el cliente");
+        this.vencidas = contador(meterRegistry, "vencidas", "Retenciones que vencieron sin reserva");
+        Gauge.builder("agenda.retenciones.activas", this, RetencionAgendaService::getCantidadActivas)
+                .description("Retenciones vigentes")
+                .register(meterRegistry);
+        Gauge.builder("agenda.retenciones.tasa-conversion", this, r -> r.tasa(r.convertidas))
+                .description("Retenciones convertidas en reserva sobre las terminadas")
+                .register(meterRegistry);
+        Gauge.builder("agenda.retenciones.tasa-vencimiento", this, r -> r.tasa(r.vencidas))
+                .description("Retenciones vencidas sobre las terminadas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Borra las retenciones que vencieron con la aplicación detenida y programa el resto.
+     */
+    @PostConstruct
+    public void inicializar() {
+        Instant ahora = Instant.ofEpochMilli(reloj.getAsLong());
+        transactionTemplate.executeWithoutResult(estado -> retencionRepository.eliminarVencidas(ahora));
+        synchronized (rueda) {
+            retencionRepository.findVencimientos()
+                    .forEach(r -> rueda.programar(r.agendaSlotId(), r.expiraEn().toEpochMilli()));
+        }
+    }
+
+    /**
+     * Retiene el bloque para el cliente durante la duración configurada. Si el cliente ya lo tenía
+     * retenido se renueva el vencimiento.
+     */
+    public RetencionAgendaSlot retener(Long agendaSlotId, String username) {
+        AgendaSlot agendaSlot = agendaSlotRepository.findById(agendaSlotId)
+                .orElseThrow(() -> new EntityNotFoundException("AgendaSlot no encontrado"));
+        if (!Boolean.TRUE.equals(agendaSlot.getDisponible())) {
+            throw new AgendaSlotNoDisponibleException("El bloque ya está reservado");
+        }
+        if (!agendaSlot.getFechaInicio().isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("No se puede retener un bloque que ya empezó");
+        }
+        Instant ahora = Instant.ofEpochMilli(reloj.getAsLong());
+        Instant expiraEn = ahora.plus(duracion);
+
+        AtomicBoolean renovada = new AtomicBoolean();
+        AtomicBoolean reemplazaVencida = new AtomicBoolean();
+        RetencionAgendaSlot guardada;
+        // El cerrojo abarca la transacción completa: el siguiente pedido del cliente cuenta ya confirmada
+        ReentrantLock cerrojo = cerrojos[Math.floorMod(username.hashCode(), CANTIDAD_CERROJOS)];
+        cerrojo.lock();
+        try {
+            guardada = transactionTemplate.execute(estado -> {
+                Optional<RetencionAgendaSlot> existente = retencionRepository.findByAgendaSlotId(agendaSlotId);
+                if (existente.isPresent() && !existente.get().getUsername().equals(username)
+                        && existente.get().getExpiraEn().isAfter(ahora)) {
+                    throw new AgendaSlotNoDisponibleException("El bloque está retenido por otro cliente");
+                }
+                if (existente.isEmpty()
+                        && retencionRepository.countByUsernameAndExpiraEnAfter(username, ahora)
+                                >= RETENCIONES_MAXIMAS_POR_USUARIO) {
+                    throw new IllegalArgumentException(
+                            "No se pueden retener más de " + RETENCIONES_MAXIMAS_POR_USUARIO + " bloques a la vez");
+                }
+                if (agendaSlotRepository.incrementarVersionSiDisponible(agendaSlotId, agendaSlot.getVersion()) == 0) {
+                    throw new AgendaSlotNoDisponibleException(
+                            "El bloque está siendo modificado por otra operación, intente nuevamente");
+                }
+                renovada.set(existente.isPresent() && existente.get().getUsername().equals(username));
+                reemplazaVencida.set(existente.isPresent() && !renovada.get());
+                RetencionAgendaSlot retencion = existente.orElseGet(RetencionAgendaSlot::new);
+                retencion.setAgendaSlot(agendaSlotRepository.getReferenceById(agendaSlotId));
+                retencion.setUsername(username);
+                retencion.setExpiraEn(expiraEn);
+                return retencionRepository.save(retencion);
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Otro cliente lo retuvo entre la lectura y el alta
+            throw new AgendaSlotNoDisponibleException("El bloque está retenido por otro cliente");
+        } finally {
+            cerrojo.unlock();
+        }
+        synchronized (rueda) {
+            rueda.programar(agendaSlotId, expiraEn.toEpochMilli());
+        }
+        if (!renovada.get()) {
+            creadas.increment();
+        }
+        if (reemplazaVencida.get()) {
+            vencidas.increment();
+        }
+        eventPublisher.publishEvent(new AgendaSlotModificadoEvent(agendaSlotId));
+        return guardada;
+    }
+
+    /**
+     * Libera la retención del cliente sobre el bloque.
+     */
+    public void liberar(Long agendaSlotId, String username) {
+        RetencionAgendaSlot retencion = retencionRepository.findByAgendaSlotId(agendaSlotId)
+                .filter(r -> r.getUsername().equals(username))
+                .orElseThrow(() -> new EntityNotFoundException("Retención no encontrada"));
+        transactionTemplate.executeWithoutResult(estado -> retencionRepository.delete(retencion));
+        synchronized (rueda) {
+            rueda.cancelar(agendaSlotId);
+        }
+        liberadas.increment();
+        eventPublisher.publishEvent(new AgendaSlotModificadoEvent(agendaSlotId));
+    }
+
+    /**
+     * Consume la retención del bloque al reservarlo para un cliente; se llama dentro de la transacción
+     * de la reserva. Lanza {@link AgendaSlotNoDisponibleException} si lo retiene otro cliente y la
+     * retención no venció. La rueda y las métricas se actualizan cuando la reserva se confirma.
+     */
+    void consumir(Long agendaSlotId, String username) {
+        Optional<RetencionAgendaSlot> retencion = retencionRepository.findByAgendaSlotId(agendaSlotId);
+        if (retencion.isEmpty()) {
+            return;
+        }
+        boolean propia = retencion.get().getUsername().equals(username);
+        if (!propia && retencion.get().getExpiraEn().isAfter(Instant.ofEpochMilli(reloj.getAsLong()))) {
+            throw new AgendaSlotNoDisponibleException("El bloque está retenido por otro cliente");
+        }
+        retencionRepository.eliminarPorAgendaSlotId(agendaSlotId);
+        despuesDeConfirmar(() -> {
+            synchronized (rueda) {
+                rueda.cancelar(agendaSlotId);
+            }
+            (propia ? convertidas : vencidas).increment();
+        });
+    }
+
+    /**
+     * Descarta la retención de un bloque que se va a eliminar.
+     */
+    void descartar(Long agendaSlotId) {
+        Integer borradas = transactionTemplate.execute(
+                estado -> retencionRepository.eliminarPorAgendaSlotId(agendaSlotId));
+        if (borradas != null && borradas > 0) {
+            synchronized (rueda) {
+                rueda.cancelar(agendaSlotId);
+            }
+            liberadas.increment();
+        }
+    }
+
+    /**
+     * Avanza la rueda y borra las retenciones vencidas.
+     */
+    @Scheduled(fixedDelayString = "${agenda.retencion.tick-ms:1000}")
+    public void procesarVencimientos() {
+        long ahora = reloj.getAsLong();
+        List<Long> vencidos;
+        synchronized (rueda) {
+            vencidos = rueda.avanzar(ahora);
+        }
+        for (Long agendaSlotId : vencidos) {
+            Integer borradas = transactionTemplate.execute(
+                    estado -> retencionRepository.eliminarVencida(agendaSlotId, Instant.ofEpochMilli(ahora)));
+            if (borradas != null && borradas > 0) {
+                vencidas.increment();
+                eventPublisher.publishEvent(new AgendaSlotModificadoEvent(agendaSlotId));
+            }
+        }
+    }
+
+    public int getCantidadActivas() {
+        synchronized (rueda) {
+            return rueda.tamanio();
+        }
+    }
+
+    private double tasa(Counter contador) {
+        double terminadas = convertidas.count() + liberadas.count() + vencidas.count();
+        return terminadas == 0 ? 0 : contador.count() / terminadas;
+    }
+
+    private static void despuesDeConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    private static ReentrantLock[] crearCerrojos() {
+        ReentrantLock[] cerrojos = new ReentrantLock[CANTIDAD_CERROJOS];
+        for (int i = 0; i < cerrojos.length; i++) {
+            cerrojos[i] = new ReentrantLock();
+        }
+        return cerrojos;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado, String descripcion) {
+        return Counter.builder("agenda.retenciones").tag("resultado", resultado)
+                .description(descripcion)
+                .register(meterRegistry);
+    }
+}
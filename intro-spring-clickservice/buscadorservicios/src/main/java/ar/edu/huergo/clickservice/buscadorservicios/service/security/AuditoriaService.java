@@ -0,0 +1,257 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.EventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TipoEventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.EventoAuditoriaRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.BufferCircular;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Auditoría de eventos de seguridad (logins, renovaciones de token, accesos denegados).
+ *
+ * Los hilos de los requests sólo encolan el evento en un {@link BufferCircular} sin locks; un hilo
+ * escritor en segundo plano lo vacía periódicamente e inserta los eventos en lotes con JDBC. Así
+ * registrar un evento no agrega una escritura a la base en el camino del request.
+ *
+ * Si el buffer se llena se aplica la política {@code audit.overflow-policy}:
+ * - drop (por defecto): el evento se descarta y se cuenta en auditoria.eventos.descartados.
+ * - block: el request espera hasta {@code audit.block-timeout-ms} a que se libere lugar y, si no
+ *   lo hay, el evento se descarta igual.
+ */
+@Slf4j
+@Service
+public class AuditoriaService {
+
+    private static final String SQL_INSERTAR = "INSERT INTO auditoria_eventos "
+            + "(tipo, username, ip, ruta, detalle, fecha) VALUES (?, ?, ?, ?, ?, ?)";
+
+    /** Espera entre reintentos cuando la política es block y el buffer está lleno. */
+    private static final long ESPERA_REINTENTO_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /** Máximo de resultados por página en las consultas. */
+    public static final int TAMANIO_PAGINA_MAXIMO = 500;
+
+    public enum PoliticaDesborde {
+        DROP, BLOCK
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventoAuditoriaRepository eventoAuditoriaRepository;
+    private final boolean habilitada;
+    private final BufferCircular<Registro> buffer;
+    private final PoliticaDesborde politica;
+    private final long esperaMaximaNanos;
+    private final int tamanioLote;
+    private final long intervaloEscrituraNanos;
+
+    private final Counter encolados;
+    private final Counter descartados;
+    private final Counter escritos;
+    private final Counter errores;
+
+    private volatile boolean activo;
+    private Thread escritor;
+
+    public AuditoriaService(JdbcTemplate jdbcTemplate, EventoAuditoriaRepository eventoAuditoriaRepository,
+            @Value("${audit.enabled:true}") boolean habilitada,
+            @Value("${audit.buffer-capacity:8192}") int capacidad,
+            @Value("${audit.overflow-policy:drop}") String politica,
+            @Value("${audit.block-timeout-ms:50}") long esperaMaximaMillis,
+            @Value("${audit.batch-size:256}") int tamanioLote,
+            @Value("${audit.flush-interval-ms:200}") long intervaloEscrituraMillis,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventoAuditoriaRepository = eventoAuditoriaRepository;
+        this.habilitada = habilitada;
+        this.buffer = new BufferCircular<>(capacidad);
+        this.politica = PoliticaDesborde.valueOf(politica.trim().toUpperCase());
+        this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, esperaMaximaMillis));
+        this.tamanioLote = Math.max(1, tamanioLote);
+        this.intervaloEscrituraNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervaloEscrituraMillis));
+        this.encolados = Counter.builder("auditoria.eventos.encolados")
+                .description("Eventos de auditoría aceptados en el buffer")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("auditoria.eventos.descartados")
+                .description("Eventos de auditoría descartados porque el buffer estaba lleno")
+                .register(meterRegistry);
+        this.escritos = Counter.builder("auditoria.eventos.escritos")
+                .description("Eventos de auditoría insertados en la base")
+                .register(meterRegistry);
+        this.errores = Counter.builder("auditoria.eventos.errores")
+                .description("Eventos de auditoría perdidos por errores al insertar el lote")
+                .register(meterRegistry);
+        Gauge.builder("auditoria.buffer.tamanio", buffer, BufferCircular::tamanio)
+                .description("Eventos de auditoría pendientes de escribir")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitada) {
+            return;
+        }
+        activo = true;
+        escritor = Thread.ofPlatform().name("auditoria-escritor").daemon(true).start(this::escribirEnBucle);
+    }
+
+    /**
+     * Detiene el hilo escritor y escribe lo que haya quedado en el buffer.
+     */
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (escritor != null) {
+            LockSupport.unpark(escritor);
+            try {
+                escritor.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        escribirPendientes();
+    }
+
+    /**
+     * Registra un evento tomando la IP y la ruta del request. No bloquea salvo con la política
+     * block y el buffer lleno.
+     */
+    public void registrar(TipoEventoAuditoria tipo, String username, HttpServletRequest request,
+            String detalle) {
+        registrar(tipo, username, request != null ? request.getRemoteAddr() : null,
+                request != null ? request.getRequestURI() : null, detalle);
+    }
+
+    /**
+     * Registra un evento. Devuelve false si se descartó por falta de lugar.
+     */
+    public boolean registrar(TipoEventoAuditoria tipo, String username, String ip, String ruta,
+            String detalle) {
+        if (!habilitada) {
+            return false;
+        }
+        Registro registro = new Registro(tipo, recortar(username, 100), recortar(ip, 45),
+                recortar(ruta, 200), recortar(detalle, 255), System.currentTimeMillis());
+        if (buffer.ofrecer(registro) || (politica == PoliticaDesborde.BLOCK && esperarLugar(registro))) {
+            encolados.increment();
+            return true;
+        }
+        descartados.increment();
+        return false;
+    }
+
+    /**
+     * Consulta los eventos en el rango [desde, hasta), opcionalmente filtrados por tipo, del más
+     * reciente al más antiguo.
+     */
+    public Page<EventoAuditoria> consultar(Instant desde, Instant hasta, TipoEventoAuditoria tipo,
+            int pagina, int tamanio) {
+        Instant fin = hasta != null ? hasta : Instant.now();
+        Instant inicio = desde != null ? desde : fin.minus(Duration.ofDays(1));
+        if (!inicio.isBefore(fin)) {
+            throw new IllegalArgumentException("'desde' debe ser anterior a 'hasta'");
+        }
+        if (pagina < 0 || tamanio < 1) {
+            throw new IllegalArgumentException("Página o tamaño de página inválidos");
+        }
+        PageRequest pageable = PageRequest.of(pagina, Math.min(tamanio, TAMANIO_PAGINA_MAXIMO),
+                Sort.by(Sort.Direction.DESC, "fecha", "id"));
+        return tipo == null
+                ? eventoAuditoriaRepository.findByFechaGreaterThanEqualAndFechaLessThan(inicio, fin, pageable)
+                : eventoAuditoriaRepository.findByTipoAndFechaGreaterThanEqualAndFechaLessThan(tipo,
+                        inicio, fin, pageable);
+    }
+
+    /**
+     * Vacía el buffer insertando los eventos en lotes. Lo usa el hilo escritor y el apagado.
+     */
+    int escribirPendientes() {
+        int total = 0;
+        List<Registro> lote = new ArrayList<>(tamanioLote);
+        while (buffer.drenar(lote, tamanioLote) > 0) {
+            total += insertar(lote);
+            lote.clear();
+        }
+        return total;
+    }
+
+    public int getPendientes() {
+        return buffer.tamanio();
+    }
+
+    public long getDescartados() {
+        return (long) descartados.count();
+    }
+
+    private void escribirEnBucle() {
+        while (activo) {
+            try {
+                escribirPendientes();
+            } catch (RuntimeException e) {
+                log.error("Error en el escritor de auditoría", e);
+            }
+            LockSupport.parkNanos(this, intervaloEscrituraNanos);
+        }
+    }
+
+    private int insertar(List<Registro> lote) {
+        try {
+            jdbcTemplate.batchUpdate(SQL_INSERTAR, lote, lote.size(), (ps, registro) -> {
+                ps.setString(1, registro.tipo().name());
+                ps.setString(2, registro.username());
+                ps.setString(3, registro.ip());
+                ps.setString(4, registro.ruta());
+                ps.setString(5, registro.detalle());
+                ps.setTimestamp(6, new Timestamp(registro.fechaMillis()));
+            });
+            escritos.increment(lote.size());
+            return lote.size();
+        } catch (RuntimeException e) {
+            errores.increment(lote.size());
+            log.error("No se pudieron escribir {} eventos de auditoría: {}", lote.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    private boolean esperarLugar(Registro registro) {
+        long limite = System.nanoTime() + esperaMaximaNanos;
+        while (System.nanoTime() < limite) {
+            if (escritor != null) {
+                LockSupport.unpark(escritor);
+            }
+            LockSupport.parkNanos(ESPERA_REINTENTO_NANOS);
+            if (buffer.ofrecer(registro)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String recortar(String valor, int largo) {
+        return valor == null || valor.length() <= largo ? valor : valor.substring(0, largo);
+    }
+
+    private record Registro(TipoEventoAuditoria tipo, String username, String ip, String ruta,
+            String detalle, long fechaMillis) {
+    }
+}
@@ -0,0 +1,19 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+/**
+ * Se lanza cuando un usuario o una IP superan el límite de intentos de login. Se traduce a un 429
+ * con header Retry-After en {@code GlobalExceptionHandler}.
+ */
+public class IntentosLoginExcedidosException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public IntentosLoginExcedidosException(long reintentarEnSegundos) {
+        super("Demasiados intentos de inicio de sesión, reintente en " + reintentarEnSegundos + " segundos");
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
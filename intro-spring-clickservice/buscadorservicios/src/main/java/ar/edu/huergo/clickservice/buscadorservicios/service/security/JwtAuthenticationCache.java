@@ -0,0 +1,165 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.util.TokenHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache de tokens JWT ya verificados.
+ *
+ * Guarda, por cada token, la {@link Authentication} construida la primera vez que se validó, de
+ * modo que los requests siguientes con el mismo token no vuelvan a verificar la firma HMAC ni a
+ * consultar la base de datos. Características:
+ * - La clave es el SHA-256 del token (no se guardan tokens en claro).
+ * - Cada entrada expira en el mismo instante que el claim {@code exp} del token.
+ * - El tamaño está acotado por {@code security.jwt.cache.max-entries}; al llenarse se descartan
+ *   primero las entradas vencidas y luego las que vencen antes.
+ * - Se puede invalidar por username cuando cambian la contraseña o los roles del usuario.
+ * - Cada entrada conserva el jti y la emisión del token, porque una revocación puede llegar entre el
+ *   chequeo y el guardado: quien obtiene una entrada debe volver a consultar la revocación.
+ */
+@Service
+public class JwtAuthenticationCache {
+
+    /** Porcentaje de la capacidad que se libera cuando la cache está llena y nada venció. */
+    private static final int PORCENTAJE_DESALOJO = 10;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final boolean habilitada;
+    private final int maxEntradas;
+
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter desalojos;
+
+    public JwtAuthenticationCache(@Value("${security.jwt.cache.enabled:true}") boolean habilitada,
+            @Value("${security.jwt.cache.max-entries:10000}") int maxEntradas,
+            MeterRegistry meterRegistry) {
+        this.habilitada = habilitada;
+        this.maxEntradas = Math.max(1, maxEntradas);
+        this.aciertos = Counter.builder("jwt.cache.aciertos")
+                .description("Tokens resueltos desde la cache sin volver a verificarlos")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("jwt.cache.fallos")
+                .description("Tokens que tuvieron que verificarse contra la firma y la base de datos")
+                .register(meterRegistry);
+        this.desalojos = Counter.builder("jwt.cache.desalojos")
+                .description("Entradas descartadas por falta de espacio")
+                .register(meterRegistry);
+        Gauge.builder("jwt.cache.tamanio", entradas, Map::size)
+                .description("Cantidad de tokens verificados en memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Autenticación de un token ya verificado, con el jti y la emisión para volver a controlar la
+     * revocación.
+     */
+    public record TokenVerificado(Authentication autenticacion, String jti, Date emitidoEn) {
+    }
+
+    /**
+     * Devuelve el token verificado o {@code null} si no está en cache o ya expiró.
+     */
+    public TokenVerificado obtener(String token) {
+        if (!habilitada) {
+            return null;
+        }
+        String clave = TokenHasher.digerir(token);
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            fallos.increment();
+            return null;
+        }
+        if (entrada.expiraEnMillis() <= System.currentTimeMillis()) {
+            entradas.remove(clave, entrada);
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        return entrada.verificado();
+    }
+
+    /**
+     * Guarda la autenticación ya verificada de un token hasta su fecha de expiración.
+     */
+    public void guardar(String token, Authentication autenticacion, String jti, Date emitidoEn, Date expiracion) {
+        if (!habilitada || expiracion == null) {
+            return;
+        }
+        long expiraEnMillis = expiracion.getTime();
+        if (expiraEnMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        if (entradas.size() >= maxEntradas) {
+            liberarEspacio();
+        }
+        entradas.put(TokenHasher.digerir(token), new Entrada(new TokenVerificado(autenticacion, jti, emitidoEn),
+                autenticacion.getName(), expiraEnMillis));
+    }
+
+    /**
+     * Descarta todas las entradas de un usuario. Se usa cuando cambian sus credenciales o roles.
+     */
+    public void invalidarUsuario(String username) {
+        if (username == null) {
+            return;
+        }
+        entradas.values().removeIf(entrada -> username.equals(entrada.username()));
+    }
+
+    public void invalidarTodo() {
+        entradas.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarUsuario(UsuarioModificadoEvent evento) {
+        invalidarUsuario(evento.username());
+    }
+
+    public int getTamanio() {
+        return entradas.size();
+    }
+
+    public long getAciertos() {
+        return (long) aciertos.count();
+    }
+
+    public long getFallos() {
+        return (long) fallos.count();
+    }
+
+    private void liberarEspacio() {
+        long ahora = System.currentTimeMillis();
+        entradas.values().removeIf(entrada -> entrada.expiraEnMillis() <= ahora);
+        if (entradas.size() < maxEntradas) {
+            return;
+        }
+        // Nada venció: se descartan las entradas más próximas a expirar
+        int aDescartar = Math.max(1, maxEntradas * PORCENTAJE_DESALOJO / 100);
+        List<Map.Entry<String, Entrada>> candidatas = new ArrayList<>(entradas.entrySet());
+        candidatas.sort(Comparator.comparingLong(e -> e.getValue().expiraEnMillis()));
+        for (int i = 0; i < aDescartar && i < candidatas.size(); i++) {
+            Map.Entry<String, Entrada> candidata = candidatas.get(i);
+            if (entradas.remove(candidata.getKey(), candidata.getValue())) {
+                desalojos.increment();
+            }
+        }
+    }
+
+    private record Entrada(TokenVerificado verificado, String username, long expiraEnMillis) {
+    }
+}
@@ -5,6 +5,7 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
@@ -12,6 +13,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -32,6 +35,12 @@ public class JwtTokenService {
      */
     private SecretKey signingKey;
 
+    /**
+     * Parser inmutable y thread-safe, construido una única vez con la clave de firma. Evita
+     * reconstruirlo en cada request.
+     */
+    private final JwtParser parser;
+
     /**
      * Tiempo de vida del token en milisegundos. Se inyecta desde application.properties
      * (security.jwt.expiration-ms).
@@ -45,17 +54,20 @@ public class JwtTokenService {
             @Value("${security.jwt.expiration-ms}") long expirationMillis) {
         this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMillis = expirationMillis;
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     /**
-     * Genera un JWT para el usuario autenticado. - subject: username - iat/exp: fechas de emisión y
-     * expiración - claims personalizados: lista de roles
+     * Genera un JWT para el usuario autenticado. - subject: username - jti: identificador único
+     * (permite revocar el token) - iat/exp: fechas de emisión y expiración - claims personalizados:
+     * lista de roles
      */
     public String generarToken(UserDetails userDetails, List<String> roles) {
         Instant now = Instant.now();
         Instant expiry = now.plusMillis(expirationMillis);
 
-        return Jwts.builder().subject(userDetails.getUsername()).issuedAt(Date.from(now))
+        return Jwts.builder().id(UUID.randomUUID().toString()).subject(userDetails.getUsername())
+                .issuedAt(Date.from(now))
                 .expiration(Date.from(expiry)).claims(Map.of("roles", roles)).signWith(signingKey)
                 .compact();
     }
@@ -65,8 +77,27 @@ public class JwtTokenService {
      * válida o el token es malformado.
      */
     public String extraerUsername(String token) {
-        return Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token).getPayload()
-                .getSubject();
+        return parser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    /**
+     * Verifica la firma del token y devuelve todos sus claims en un único parseo. Dispara una
+     * excepción si la firma no es válida, el token está expirado o es malformado.
+     */
+    public Claims extraerClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Devuelve las authorities guardadas en el claim "roles" (por ejemplo "ROLE_ADMIN"). Si el
+     * claim no existe devuelve una lista vacía.
+     */
+    public List<String> extraerRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof List<?> lista)) {
+            return List.of();
+        }
+        return lista.stream().map(String::valueOf).toList();
     }
 
     /**
@@ -75,18 +106,23 @@ public class JwtTokenService {
      */
     public boolean esTokenValido(String token, UserDetails userDetails) {
         try {
-            var payload = Jwts.parser().verifyWith(signingKey).build().parseSignedClaims(token)
-                    .getPayload();
-
-            String username = payload.getSubject();
-            Date expiration = payload.getExpiration();
-            return username != null && username.equals(userDetails.getUsername())
-                    && expiration.after(new Date());
+            return esTokenValido(extraerClaims(token), userDetails);
         } catch (Exception ex) {
             // Cualquier problema (firma inválida, token malformado/expirado) -> inválido
             return false;
         }
     }
+
+    /**
+     * Igual que {@link #esTokenValido(String, UserDetails)} pero sobre claims ya verificados, para
+     * no volver a parsear el token cuando el llamador ya lo hizo.
+     */
+    public boolean esTokenValido(Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
+        Date expiration = claims.getExpiration();
+        return username != null && username.equals(userDetails.getUsername())
+                && expiration != null && expiration.after(new Date());
+    }
 }
 
 
@@ -0,0 +1,209 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limitador de intentos de login basado en token buckets, por username y por IP del cliente.
+ *
+ * Se consulta antes de {@code AuthenticationManager.authenticate}, así los intentos que superan el
+ * límite se rechazan sin calcular ningún hash BCrypt. Detalles de implementación:
+ * - Las cubetas se reparten en un arreglo fijo de franjas, cada una con su propio lock, para que
+ *   los logins concurrentes de distintos usuarios no compitan por un único lock global.
+ * - Cada cubeta es un objeto mutable que se recarga en el momento de consultarla (no hay timers).
+ * - Una cubeta que volvió a llenarse equivale a no tener entrada, por eso se descarta cuando la
+ *   franja necesita espacio. Si ninguna está llena se descarta la usada hace más tiempo: una clave
+ *   nueva siempre recibe su cubeta, así llenar las franjas con usernames o IPs inventados no apaga
+ *   el límite. La memoria queda acotada por security.login.rate-limit.max-entries.
+ * - Un login exitoso descarta la cubeta del username.
+ */
+@Service
+public class LimitadorIntentosLogin {
+
+    private static final int CANTIDAD_FRANJAS = 64;
+
+    private final Franja[] franjas = new Franja[CANTIDAD_FRANJAS];
+    private final boolean habilitado;
+    private final Limite limiteUsuario;
+    private final Limite limiteIp;
+    private final int maxEntradasPorFranja;
+    private final LongSupplier reloj;
+
+    private final Counter rechazosUsuario;
+    private final Counter rechazosIp;
+
+    @Autowired
+    public LimitadorIntentosLogin(@Value("${security.login.rate-limit.enabled:true}") boolean habilitado,
+            @Value("${security.login.rate-limit.username.capacity:5}") int capacidadUsuario,
+            @Value("${security.login.rate-limit.username.refill-per-minute:5}") int recargaUsuarioPorMinuto,
+            @Value("${security.login.rate-limit.ip.capacity:20}") int capacidadIp,
+            @Value("${security.login.rate-limit.ip.refill-per-minute:30}") int recargaIpPorMinuto,
+            @Value("${security.login.rate-limit.max-entries:100000}") int maxEntradas,
+            MeterRegistry meterRegistry) {
+        this(habilitado, capacidadUsuario, recargaUsuarioPorMinuto, capacidadIp, recargaIpPorMinuto,
+                maxEntradas, meterRegistry, System::nanoTime);
+    }
+
+    LimitadorIntentosLogin(boolean habilitado, int capacidadUsuario, int recargaUsuarioPorMinuto,
+            int capacidadIp, int recargaIpPorMinuto, int maxEntradas, MeterRegistry meterRegistry,
+            LongSupplier reloj) {
+        this.habilitado = habilitado;
+        this.limiteUsuario = Limite.porMinuto(capacidadUsuario, recargaUsuarioPorMinuto);
+        this.limiteIp = Limite.porMinuto(capacidadIp, recargaIpPorMinuto);
+        this.maxEntradasPorFranja = Math.max(1, maxEntradas / CANTIDAD_FRANJAS);
+        this.reloj = reloj;
+        for (int i = 0; i < CANTIDAD_FRANJAS; i++) {
+            franjas[i] = new Franja();
+        }
+
+        this.rechazosUsuario = Counter.builder("login.limite.rechazos").tag("clave", "usuario")
+                .description("Intentos de login rechazados por superar el límite del usuario")
+                .register(meterRegistry);
+        this.rechazosIp = Counter.builder("login.limite.rechazos").tag("clave", "ip")
+                .description("Intentos de login rechazados por superar el límite de la IP")
+                .register(meterRegistry);
+        Gauge.builder("login.limite.entradas", this, LimitadorIntentosLogin::getCantidadEntradas)
+                .description("Cubetas de intentos de login en memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consume un intento para la IP y para el username. Lanza
+     * {@link IntentosLoginExcedidosException} si alguno de los dos no tiene intentos disponibles.
+     */
+    public void verificar(String username, String ip) {
+        if (!habilitado) {
+            return;
+        }
+        long ahora = reloj.getAsLong();
+        long esperaIp = consumir("ip:" + ip, limiteIp, ahora);
+        if (esperaIp > 0) {
+            rechazosIp.increment();
+            throw new IntentosLoginExcedidosException(aSegundos(esperaIp));
+        }
+        long esperaUsuario = consumir("u:" + normalizar(username), limiteUsuario, ahora);
+        if (esperaUsuario > 0) {
+            rechazosUsuario.increment();
+            throw new IntentosLoginExcedidosException(aSegundos(esperaUsuario));
+        }
+    }
+
+    /**
+     * Descarta la cubeta del username después de un login exitoso.
+     */
+    public void registrarExito(String username) {
+        if (!habilitado) {
+            return;
+        }
+        String clave = "u:" + normalizar(username);
+        Franja franja = franjaDe(clave);
+        synchronized (franja) {
+            franja.cubetas.remove(clave);
+        }
+    }
+
+    public int getCantidadEntradas() {
+        int total = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                total += franja.cubetas.size();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Devuelve 0 si se pudo consumir un intento o los nanosegundos que faltan para el próximo.
+     */
+    private long consumir(String clave, Limite limite, long ahora) {
+        Franja franja = franjaDe(clave);
+        synchronized (franja) {
+            Cubeta cubeta = franja.cubetas.get(clave);
+            if (cubeta == null) {
+                if (franja.cubetas.size() >= maxEntradasPorFranja) {
+                    purgarLlenas(franja, ahora);
+                }
+                if (franja.cubetas.size() >= maxEntradasPorFranja) {
+                    // Sin cubetas llenas: se descarta la usada hace más tiempo (la primera en orden de acceso)
+                    Iterator<Cubeta> masAntigua = franja.cubetas.values().iterator();
+                    masAntigua.next();
+                    masAntigua.remove();
+                }
+                cubeta = new Cubeta(limite, limite.capacidad(), ahora);
+                franja.cubetas.put(clave, cubeta);
+            } else {
+                cubeta.recargar(ahora);
+            }
+            if (cubeta.tokens >= 1) {
+                cubeta.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - cubeta.tokens) / limite.tokensPorNano());
+        }
+    }
+
+    private static void purgarLlenas(Franja franja, long ahora) {
+        franja.cubetas.values().removeIf(cubeta -> {
+            cubeta.recargar(ahora);
+            return cubeta.tokens >= cubeta.limite.capacidad();
+        });
+    }
+
+    private Franja franjaDe(String clave) {
+        int hash = clave.hashCode();
+        return franjas[(hash ^ (hash >>> 16)) & (CANTIDAD_FRANJAS - 1)];
+    }
+
+    private static String normalizar(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long aSegundos(long nanos) {
+        return Math.max(1, (long) Math.ceil(nanos / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private record Limite(int capacidad, double tokensPorNano) {
+
+        static Limite porMinuto(int capacidad, int recargaPorMinuto) {
+            return new Limite(Math.max(1, capacidad),
+                    Math.max(1, recargaPorMinuto) / (double) TimeUnit.MINUTES.toNanos(1));
+        }
+    }
+
+    private static final class Franja {
+        // En orden de acceso: cada consulta pasa la cubeta al final
+        private final Map<String, Cubeta> cubetas = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static final class Cubeta {
+        private final Limite limite;
+        private double tokens;
+        private long ultimaRecarga;
+
+        private Cubeta(Limite limite, double tokens, long ultimaRecarga) {
+            this.limite = limite;
+            this.tokens = tokens;
+            this.ultimaRecarga = ultimaRecarga;
+        }
+
+        private void recargar(long ahora) {
+            long transcurrido = ahora - ultimaRecarga;
+            if (transcurrido > 0) {
+                tokens = Math.min(limite.capacidad(), tokens + transcurrido * limite.tokensPorNano());
+                ultimaRecarga = ahora;
+            }
+        }
+    }
+}
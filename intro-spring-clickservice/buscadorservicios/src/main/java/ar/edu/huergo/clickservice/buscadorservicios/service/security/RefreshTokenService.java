@@ -0,0 +1,122 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.RefreshToken;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.RefreshTokenRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.TokenHasher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio que emite y rota refresh tokens.
+ *
+ * Conceptos clave:
+ * - El refresh token es un valor aleatorio opaco; en la base sólo se guarda su SHA-256.
+ * - Cada uso lo rota: el token presentado queda marcado como usado y se emite uno nuevo de la
+ *   misma familia. Renovar la sesión no requiere verificar la contraseña (sin BCrypt).
+ * - Si se presenta un token ya usado o revocado se revoca toda la familia (detección de reuso).
+ * - Un proceso en segundo plano elimina periódicamente los tokens vencidos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final int BYTES_TOKEN = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * Tiempo de vida de cada refresh token en milisegundos (security.jwt.refresh.expiration-ms).
+     */
+    @Value("${security.jwt.refresh.expiration-ms:604800000}")
+    private long expirationMillis;
+
+    /**
+     * Resultado de una rotación: el usuario dueño del token y el nuevo refresh token.
+     */
+    public record Rotacion(String username, String refreshToken) {
+    }
+
+    /**
+     * Emite el primer refresh token de una nueva familia (se usa en el login).
+     */
+    @Transactional
+    public String emitir(String username) {
+        return emitir(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Valida el refresh token presentado y lo reemplaza por uno nuevo de la misma familia.
+     * Los errores se reportan como {@link BadCredentialsException} (401). La revocación de la
+     * familia se confirma aunque se lance la excepción.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotacion rotar(String refreshToken) {
+        RefreshToken actual = refreshTokenRepository.findByTokenHash(TokenHasher.digerir(refreshToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh token inválido"));
+
+        if (actual.isRevocado() || actual.isUsado()
+                || refreshTokenRepository.marcarUsado(actual.getId()) == 0) {
+            // Reuso de un token ya rotado: se invalida toda la sesión derivada de ese login
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            log.warn("Reuso de refresh token detectado para {}, se revoca la familia", actual.getUsername());
+            throw new BadCredentialsException("Refresh token inválido");
+        }
+        if (actual.getExpiraEn().isBefore(Instant.now())) {
+            throw new BadCredentialsException("Refresh token expirado");
+        }
+
+        return new Rotacion(actual.getUsername(), emitir(actual.getUsername(), actual.getFamilia()));
+    }
+
+    /**
+     * Revoca la familia del refresh token indicado (logout). Un token desconocido se ignora.
+     */
+    @Transactional
+    public void revocarFamilia(String refreshToken) {
+        refreshTokenRepository.findByTokenHash(TokenHasher.digerir(refreshToken))
+                .ifPresent(actual -> refreshTokenRepository.revocarFamilia(actual.getFamilia()));
+    }
+
+    /**
+     * Revoca todos los refresh tokens de un usuario (por ejemplo al cerrar todas sus sesiones).
+     */
+    @Transactional
+    public void revocarUsuario(String username) {
+        refreshTokenRepository.revocarPorUsername(username);
+    }
+
+    /**
+     * Elimina los refresh tokens vencidos. Los usados se conservan hasta vencer para poder
+     * detectar su reuso.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.refresh.sweep-interval-ms:3600000}")
+    @Transactional
+    public void purgarVencidos() {
+        int eliminados = refreshTokenRepository.eliminarVencidos(Instant.now());
+        if (eliminados > 0) {
+            log.debug("Se eliminaron {} refresh tokens vencidos", eliminados);
+        }
+    }
+
+    private String emitir(String username, String familia) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(TokenHasher.digerir(token), familia, username,
+                Instant.now().plusMillis(expirationMillis)));
+        return token;
+    }
+}
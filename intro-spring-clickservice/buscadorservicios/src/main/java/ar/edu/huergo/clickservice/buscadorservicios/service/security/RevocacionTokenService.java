@@ -0,0 +1,207 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TokenRevocado;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.TokenRevocadoRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.FiltroBloom;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocación de tokens JWT antes de su expiración (logout y bloqueo de cuentas).
+ *
+ * Las revocaciones se persisten en la tabla tokens_revocados y se mantienen en memoria:
+ * - Un {@link FiltroBloom} responde el caso común ("no revocado") con unas pocas lecturas de bits.
+ * - Sólo cuando el filtro indica "puede estar" se consulta el mapa exacto (jti o corte por usuario).
+ * - La consulta nunca accede a la base de datos.
+ *
+ * Periódicamente se eliminan las filas cuyos tokens ya expiraron y se recarga el estado desde la
+ * base, de modo que las revocaciones hechas por otra instancia también se apliquen.
+ */
+@Slf4j
+@Service
+public class RevocacionTokenService {
+
+    private static final double PROBABILIDAD_FALSO_POSITIVO = 0.01;
+
+    private final TokenRevocadoRepository tokenRevocadoRepository;
+    private final JwtAuthenticationCache jwtAuthenticationCache;
+    private final RefreshTokenService refreshTokenService;
+    private final long vidaTokenMillis;
+    private final int entradasEsperadas;
+
+    private volatile Estado estado;
+
+    public RevocacionTokenService(TokenRevocadoRepository tokenRevocadoRepository,
+            JwtAuthenticationCache jwtAuthenticationCache, RefreshTokenService refreshTokenService,
+            @Value("${security.jwt.expiration-ms}") long vidaTokenMillis,
+            @Value("${security.jwt.revocation.bloom-expected-entries:10000}") int entradasEsperadas) {
+        this.tokenRevocadoRepository = tokenRevocadoRepository;
+        this.jwtAuthenticationCache = jwtAuthenticationCache;
+        this.refreshTokenService = refreshTokenService;
+        this.vidaTokenMillis = vidaTokenMillis;
+        this.entradasEsperadas = Math.max(1, entradasEsperadas);
+        this.estado = new Estado(new FiltroBloom(this.entradasEsperadas, PROBABILIDAD_FALSO_POSITIVO),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        recargar();
+    }
+
+    /**
+     * Indica si un token fue revocado, ya sea por su jti o por un corte del usuario posterior a su
+     * emisión.
+     */
+    public boolean estaRevocado(String jti, String username, Date emitidoEn) {
+        Estado actual = estado;
+        if (jti != null && actual.filtro().puedeContener(claveJti(jti))
+                && actual.jtis().containsKey(jti)) {
+            return true;
+        }
+        if (username != null && actual.filtro().puedeContener(claveUsuario(username))) {
+            Corte corte = actual.cortes().get(username);
+            return corte != null && (emitidoEn == null || emitidoEn.getTime() < corte.revocadoEnMillis());
+        }
+        return false;
+    }
+
+    /**
+     * Revoca un único token (por ejemplo en el logout) hasta su expiración original.
+     */
+    @Transactional
+    public void revocarToken(String jti, String username, Date expiracion) {
+        if (jti == null || expiracion == null) {
+            throw new IllegalArgumentException("El token no tiene identificador o expiración");
+        }
+        Instant ahora = Instant.now();
+        tokenRevocadoRepository.save(new TokenRevocado(jti, username, ahora, expiracion.toInstant()));
+        registrar(jti, username, ahora.toEpochMilli(), expiracion.getTime());
+        jwtAuthenticationCache.invalidarUsuario(username);
+    }
+
+    /**
+     * Revoca todos los tokens de acceso emitidos hasta ahora para el usuario y sus refresh tokens.
+     *
+     * El claim iat sólo tiene segundos enteros, así que el corte se guarda redondeado hacia abajo al
+     * segundo: un token emitido en el mismo segundo que la revocación (por ejemplo, el login que
+     * sigue a un bloqueo de sesiones) no queda revocado por error.
+     */
+    @Transactional
+    public void revocarUsuario(String username) {
+        Instant ahora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant expira = ahora.plusMillis(vidaTokenMillis);
+        tokenRevocadoRepository.save(new TokenRevocado(null, username, ahora, expira));
+        registrar(null, username, ahora.toEpochMilli(), expira.toEpochMilli());
+        refreshTokenService.revocarUsuario(username);
+        jwtAuthenticationCache.invalidarUsuario(username);
+    }
+
+    /**
+     * Elimina las revocaciones cuyos tokens ya expiraron y vuelve a cargar el estado desde la base.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sweep-interval-ms:60000}",
+            initialDelayString = "${security.jwt.revocation.sweep-interval-ms:60000}")
+    @Transactional
+    public void purgarYRecargar() {
+        int eliminados = tokenRevocadoRepository.eliminarVencidos(Instant.now());
+        if (eliminados > 0) {
+            log.debug("Se eliminaron {} revocaciones de tokens vencidos", eliminados);
+        }
+        recargar();
+    }
+
+    public int getCantidadRevocaciones() {
+        Estado actual = estado;
+        return actual.jtis().size() + actual.cortes().size();
+    }
+
+    /**
+     * Reconstruye el filtro y los mapas a partir de la base y de lo registrado en memoria que aún no
+     * venció (puede haber revocaciones de transacciones todavía no confirmadas).
+     */
+    private synchronized void recargar() {
+        long ahora = System.currentTimeMillis();
+        List<TokenRevocado> vigentes = tokenRevocadoRepository.findByExpiraEnAfter(Instant.ofEpochMilli(ahora));
+        Estado anterior = estado;
+
+        Map<String, Long> jtis = new ConcurrentHashMap<>();
+        Map<String, Corte> cortes = new ConcurrentHashMap<>();
+        anterior.jtis().forEach((jti, expira) -> {
+            if (expira > ahora) {
+                jtis.put(jti, expira);
+            }
+        });
+        anterior.cortes().forEach((username, corte) -> {
+            if (corte.expiraEnMillis() > ahora) {
+                cortes.put(username, corte);
+            }
+        });
+
+        Set<String> usuariosNuevos = new HashSet<>();
+        for (TokenRevocado revocado : vigentes) {
+            long expira = revocado.getExpiraEn().toEpochMilli();
+            if (revocado.getJti() != null) {
+                if (jtis.putIfAbsent(revocado.getJti(), expira) == null) {
+                    usuariosNuevos.add(revocado.getUsername());
+                }
+            } else {
+                Corte corte = new Corte(revocado.getRevocadoEn().toEpochMilli(), expira);
+                Corte previo = cortes.get(revocado.getUsername());
+                if (previo == null || previo.revocadoEnMillis() < corte.revocadoEnMillis()) {
+                    cortes.put(revocado.getUsername(), corte);
+                    usuariosNuevos.add(revocado.getUsername());
+                }
+            }
+        }
+
+        FiltroBloom filtro = new FiltroBloom(Math.max(entradasEsperadas, 2 * (jtis.size() + cortes.size())),
+                PROBABILIDAD_FALSO_POSITIVO);
+        jtis.keySet().forEach(jti -> filtro.agregar(claveJti(jti)));
+        cortes.keySet().forEach(username -> filtro.agregar(claveUsuario(username)));
+        estado = new Estado(filtro, jtis, cortes);
+
+        // Revocaciones hechas por otra instancia: descartar autenticaciones cacheadas
+        usuariosNuevos.forEach(jwtAuthenticationCache::invalidarUsuario);
+    }
+
+    private synchronized void registrar(String jti, String username, long revocadoEnMillis, long expiraEnMillis) {
+        Estado actual = estado;
+        if (jti != null) {
+            actual.jtis().put(jti, expiraEnMillis);
+            actual.filtro().agregar(claveJti(jti));
+        } else {
+            actual.cortes().merge(username, new Corte(revocadoEnMillis, expiraEnMillis),
+                    (previo, nuevo) -> previo.revocadoEnMillis() >= nuevo.revocadoEnMillis() ? previo : nuevo);
+            actual.filtro().agregar(claveUsuario(username));
+        }
+    }
+
+    private static String claveJti(String jti) {
+        return "jti:" + jti;
+    }
+
+    private static String claveUsuario(String username) {
+        return "u:" + username;
+    }
+
+    private record Corte(long revocadoEnMillis, long expiraEnMillis) {
+    }
+
+    private record Estado(FiltroBloom filtro, Map<String, Long> jtis, Map<String, Corte> cortes) {
+    }
+}
@@ -0,0 +1,158 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decorador de {@link UserDetailsService} que guarda en memoria los usuarios ya cargados.
+ *
+ * - Cada entrada vive como máximo security.userdetails.cache.ttl-ms y la cantidad de entradas está
+ *   acotada por security.userdetails.cache.max-entries.
+ * - Las cargas concurrentes del mismo username se agrupan: sólo la primera consulta la base y el
+ *   resto espera su resultado.
+ * - Se entrega siempre una copia: el ProviderManager borra las credenciales del principal después
+ *   del login y no debe vaciar la contraseña guardada en la cache.
+ * - Se invalida con {@link UsuarioModificadoEvent} (guardado del usuario o cambio de roles).
+ * - Los usuarios inexistentes no se guardan.
+ */
+public class UserDetailsServiceConCache implements UserDetailsService {
+
+    /** Porcentaje de la capacidad que se libera cuando la cache está llena y nada venció. */
+    private static final int PORCENTAJE_DESALOJO = 10;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final UserDetailsService delegado;
+    private final boolean habilitada;
+    private final long ttlNanos;
+    private final int maxEntradas;
+
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public UserDetailsServiceConCache(UserDetailsService delegado, boolean habilitada, long ttlMillis,
+            int maxEntradas, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.habilitada = habilitada;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, ttlMillis));
+        this.maxEntradas = Math.max(1, maxEntradas);
+        this.aciertos = Counter.builder("userdetails.cache.aciertos")
+                .description("Usuarios resueltos desde la cache o desde una carga en curso")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("userdetails.cache.fallos")
+                .description("Usuarios que tuvieron que cargarse desde la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("userdetails.cache.tamanio", entradas, Map::size)
+                .description("Cantidad de usuarios en memoria")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        if (!habilitada) {
+            return delegado.loadUserByUsername(username);
+        }
+        long ahora = System.nanoTime();
+        CompletableFuture<UserDetails> carga = new CompletableFuture<>();
+        Entrada propia = new Entrada(carga, ahora + ttlNanos);
+        Entrada actual = entradas.compute(username,
+                (clave, existente) -> existente != null && existente.vigente(ahora) ? existente : propia);
+
+        if (actual != propia) {
+            aciertos.increment();
+            return copiar(esperar(actual.usuario()));
+        }
+
+        fallos.increment();
+        if (entradas.size() > maxEntradas) {
+            liberarEspacio(ahora);
+        }
+        try {
+            UserDetails usuario = delegado.loadUserByUsername(username);
+            carga.complete(usuario);
+            return copiar(usuario);
+        } catch (RuntimeException ex) {
+            entradas.remove(username, propia);
+            carga.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    public void invalidar(String username) {
+        if (username != null) {
+            entradas.remove(username);
+        }
+    }
+
+    public void invalidarTodo() {
+        entradas.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarUsuario(UsuarioModificadoEvent evento) {
+        invalidar(evento.username());
+    }
+
+    public int getTamanio() {
+        return entradas.size();
+    }
+
+    public long getAciertos() {
+        return (long) aciertos.count();
+    }
+
+    public long getFallos() {
+        return (long) fallos.count();
+    }
+
+    private void liberarEspacio(long ahora) {
+        entradas.values().removeIf(entrada -> !entrada.vigente(ahora));
+        if (entradas.size() <= maxEntradas) {
+            return;
+        }
+        // Nada venció: se descartan las entradas más próximas a expirar
+        int aDescartar = Math.max(1, maxEntradas * PORCENTAJE_DESALOJO / 100);
+        List<Map.Entry<String, Entrada>> candidatas = new ArrayList<>(entradas.entrySet());
+        candidatas.sort(Comparator.comparingLong(e -> e.getValue().expiraEnNanos()));
+        for (int i = 0; i < aDescartar && i < candidatas.size(); i++) {
+            entradas.remove(candidatas.get(i).getKey(), candidatas.get(i).getValue());
+        }
+    }
+
+    private static UserDetails esperar(CompletableFuture<UserDetails> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw ex;
+        }
+    }
+
+    private static UserDetails copiar(UserDetails usuario) {
+        return User.withUserDetails(usuario).build();
+    }
+
+    private record Entrada(CompletableFuture<UserDetails> usuario, long expiraEnNanos) {
+
+        boolean vigente(long ahora) {
+            return expiraEnNanos - ahora > 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Listener JPA de {@link Usuario}: publica {@link UsuarioModificadoEvent} cada vez que se guarda o
+ * elimina un usuario, para que las caches en memoria descarten sus datos. Hibernate lo instancia a
+ * través del contenedor de beans de Spring, por eso admite inyección.
+ */
+public class UsuarioEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alGuardarUsuario(Usuario usuario) {
+        if (eventPublisher != null && usuario.getUsername() != null) {
+            eventPublisher.publishEvent(new UsuarioModificadoEvent(usuario.getUsername()));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+/**
+ * Evento publicado cuando cambian los datos de seguridad de un usuario (contraseña o roles).
+ *
+ * Los componentes que guardan información derivada del usuario en memoria (por ejemplo
+ * {@link JwtAuthenticationCache}) lo escuchan para descartar sus entradas.
+ */
+public record UsuarioModificadoEvent(String username) {
+}
@@ -1,8 +1,10 @@
 package ar.edu.huergo.clickservice.buscadorservicios.service.security;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,6 +19,7 @@ import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.Servicio
 import ar.edu.huergo.clickservice.buscadorservicios.repository.security.RolRepository;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.security.UsuarioRepository;
 import ar.edu.huergo.clickservice.buscadorservicios.util.PasswordValidator;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -27,11 +30,17 @@ public class UsuarioService {
     private final RolRepository rolRepository;
     private final ProfesionalRepository profesionalRepository;
     private final ServicioRepository servicioRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Usuario> getAllUsuarios() {
         return usuarioRepository.findAll();
     }
 
+    public Usuario getUsuarioById(Long id) {
+        return usuarioRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado"));
+    }
+
     public Usuario registrar(Usuario usuario, String password, String verificacionPassword) {
         // Los tests esperan que se valide null primero
         if (password == null || verificacionPassword == null) {
@@ -107,6 +116,9 @@ public class UsuarioService {
         profesional.setTelefono(registrarProfesionalDTO.getTelefono());
         profesional.setDescripcion(registrarProfesionalDTO.getDescripcion());
         profesional.setZonaTrabajo(registrarProfesionalDTO.getZonaTrabajo());
+        profesional.setLatitud(registrarProfesionalDTO.getLatitud());
+        profesional.setLongitud(registrarProfesionalDTO.getLongitud());
+        profesional.setRadioCoberturaKm(registrarProfesionalDTO.getRadioCoberturaKm());
         profesional.setDisponible(true);
 
         // Asignar servicios
@@ -123,4 +135,49 @@ public class UsuarioService {
 
         return usuarioGuardado;
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public Usuario cambiarPassword(String username, String passwordActual, String nuevaPassword,
+            String verificacionPassword) {
+        if (nuevaPassword == null || !nuevaPassword.equals(verificacionPassword)) {
+            throw new IllegalArgumentException("Las contraseñas no coinciden");
+        }
+
+        Usuario usuario = usuarioRepository.findByUsername(username)
+                .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado"));
+
+        if (passwordActual == null || !passwordEncoder.matches(passwordActual, usuario.getPassword())) {
+            throw new IllegalArgumentException("La contraseña actual es incorrecta");
+        }
+
+        PasswordValidator.validate(nuevaPassword);
+        usuario.setPassword(passwordEncoder.encode(nuevaPassword));
+
+        Usuario usuarioGuardado = usuarioRepository.save(usuario);
+        // Los tokens ya verificados del usuario dejan de ser confiables
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(usuarioGuardado.getUsername()));
+        return usuarioGuardado;
+    }
+
+    @Transactional
+    public Usuario actualizarRoles(Long usuarioId, Set<String> nombresRoles) {
+        if (nombresRoles == null || nombresRoles.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un rol");
+        }
+
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado"));
+
+        Set<Rol> roles = new HashSet<>();
+        for (String nombre : nombresRoles) {
+            roles.add(rolRepository.findByNombre(nombre)
+                    .orElseThrow(() -> new IllegalArgumentException("Rol '" + nombre + "' no encontrado")));
+        }
+        usuario.setRoles(roles);
+
+        Usuario usuarioGuardado = usuarioRepository.save(usuario);
+        // Las autorizaciones cacheadas del usuario quedan desactualizadas
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(usuarioGuardado.getUsername()));
+        return usuarioGuardado;
+    }
+}
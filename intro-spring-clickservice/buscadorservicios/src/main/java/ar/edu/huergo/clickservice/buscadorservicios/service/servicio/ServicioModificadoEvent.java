@@ -0,0 +1,8 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.servicio;
+
+/**
+ * Evento publicado cuando se crea, se elimina o cambian los datos de un servicio (por ejemplo, su
+ * nombre), para que los índices que lo incluyen se actualicen.
+ */
+public record ServicioModificadoEvent(Long servicioId) {
+}
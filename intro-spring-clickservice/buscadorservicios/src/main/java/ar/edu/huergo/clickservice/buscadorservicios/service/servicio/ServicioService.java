@@ -2,6 +2,7 @@ package ar.edu.huergo.clickservice.buscadorservicios.service.servicio;
 
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.ServicioRepository;
@@ -12,6 +13,9 @@ public class ServicioService {
     @Autowired
     private ServicioRepository servicioRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Servicio> obtenerTodosLosServicios() {
         return servicioRepository.findAll();
     }
@@ -22,18 +26,24 @@ public class ServicioService {
     }
 
     public Servicio crearServicio(Servicio servicio) {
-        return servicioRepository.save(servicio);
+        Servicio guardado = servicioRepository.save(servicio);
+        eventPublisher.publishEvent(new ServicioModificadoEvent(guardado.getId()));
+        return guardado;
     }
 
     public Servicio actualizarServicio(Long id, Servicio servicio) throws EntityNotFoundException {
         Servicio servicioExistente = obtenerServicioPorId(id);
         servicioExistente.setNombre(servicio.getNombre());
         servicioExistente.setPrecioHora(servicio.getPrecioHora());
-        return servicioRepository.save(servicioExistente);
+        Servicio guardado = servicioRepository.save(servicioExistente);
+        // El nombre del servicio forma parte del texto indexado de cada profesional que lo ofrece
+        eventPublisher.publishEvent(new ServicioModificadoEvent(guardado.getId()));
+        return guardado;
     }
 
     public void eliminarServicio(Long id) throws EntityNotFoundException {
         Servicio servicio = obtenerServicioPorId(id);
         servicioRepository.delete(servicio);
+        eventPublisher.publishEvent(new ServicioModificadoEvent(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.sugerencia;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.SugerenciaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia.SugerenciaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia.SugerenciasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.ServicioRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.service.profesional.ProfesionalModificadoEvent;
+import ar.edu.huergo.clickservice.buscadorservicios.service.servicio.ServicioModificadoEvent;
+import ar.edu.huergo.clickservice.buscadorservicios.util.ArbolPrefijos;
+import ar.edu.huergo.clickservice.buscadorservicios.util.NormalizadorTexto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sugerencias de autocompletado de servicios, zonas de trabajo y nombres de profesionales, con un
+ * {@link ArbolPrefijos} por tipo. Se responde desde memoria, sin consultar la base.
+ *
+ * Las sugerencias se ordenan por popularidad: los servicios y las zonas por cantidad de
+ * profesionales, y los profesionales por trabajos realizados.
+ *
+ * Se carga completo al iniciar y luego se actualiza después de cada commit con
+ * {@link ProfesionalModificadoEvent} (un profesional y los conteos de sus servicios y su zona) y
+ * {@link ServicioModificadoEvent} (alta, cambio de nombre o baja de un servicio).
+ */
+@Slf4j
+@Service
+public class IndiceSugerencias {
+
+    private final ProfesionalRepository profesionalRepository;
+    private final ServicioRepository servicioRepository;
+    private final int cantidadMaxima;
+
+    private final ArbolPrefijos<SugerenciaDTO> servicios;
+    private final ArbolPrefijos<SugerenciaDTO> zonas;
+    private final ArbolPrefijos<SugerenciaDTO> profesionales;
+
+    private final Map<Long, String> nombrePorServicio = new HashMap<>();
+    private final Map<Long, Integer> profesionalesPorServicio = new HashMap<>();
+    private final Map<String, Zona> zonaPorClave = new HashMap<>();
+    private final Map<Long, DatosProfesional> datosPorProfesional = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long siguienteZona;
+
+    public IndiceSugerencias(ProfesionalRepository profesionalRepository, ServicioRepository servicioRepository,
+            @Value("${sugerencias.cantidad-maxima:10}") int cantidadMaxima) {
+        this.profesionalRepository = profesionalRepository;
+        this.servicioRepository = servicioRepository;
+        this.cantidadMaxima = cantidadMaxima;
+        this.servicios = new ArbolPrefijos<>(cantidadMaxima);
+        this.zonas = new ArbolPrefijos<>(cantidadMaxima);
+        this.profesionales = new ArbolPrefijos<>(cantidadMaxima);
+    }
+
+    @PostConstruct
+    public void inicializar() {
+        cargar(servicioRepository.findAll(), profesionalRepository.findSugerenciasProfesionales());
+        log.debug("Sugerencias cargadas: {} servicios, {} zonas, {} profesionales", servicios.tamanio(),
+                zonas.tamanio(), profesionales.tamanio());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarProfesional(ProfesionalModificadoEvent evento) {
+        Long id = evento.profesionalId();
+        actualizarProfesional(id, profesionalRepository.findSugerenciasByProfesionalId(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void alModificarServicio(ServicioModificadoEvent evento) {
+        Long id = evento.servicioId();
+        actualizarServicio(id, servicioRepository.findById(id).map(Servicio::getNombre).orElse(null));
+    }
+
+    /**
+     * Carga los servicios y los profesionales (una fila por profesional y servicio). Los conteos de
+     * servicios y zonas se calculan completos antes de pasarlos a los árboles.
+     */
+    public void cargar(List<Servicio> listaServicios, List<SugerenciaProfesionalDTO> filas) {
+        Map<Long, List<SugerenciaProfesionalDTO>> porProfesional = new LinkedHashMap<>();
+        for (SugerenciaProfesionalDTO fila : filas) {
+            porProfesional.computeIfAbsent(fila.profesionalId(), id -> new ArrayList<>(2)).add(fila);
+        }
+        lock.writeLock().lock();
+        try {
+            for (Servicio servicio : listaServicios) {
+                nombrePorServicio.put(servicio.getId(), servicio.getNombre());
+            }
+            porProfesional.forEach((id, filasProfesional) -> reemplazar(id, filasProfesional, false));
+            nombrePorServicio.keySet().forEach(this::indexarServicio);
+            zonaPorClave.values().forEach(zona -> zonas.agregar(zona.id, zona.sugerencia, zona.sugerencia.texto(),
+                    zona.cantidad));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza los datos de un profesional. Con una lista vacía se quita.
+     */
+    public void actualizarProfesional(Long profesionalId, List<SugerenciaProfesionalDTO> filas) {
+        lock.writeLock().lock();
+        try {
+            reemplazar(profesionalId, filas, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o renombra un servicio; con nombre null se quita.
+     */
+    public void actualizarServicio(Long servicioId, String nombre) {
+        lock.writeLock().lock();
+        try {
+            if (nombre == null) {
+                nombrePorServicio.remove(servicioId);
+                servicios.eliminar(servicioId);
+            } else {
+                nombrePorServicio.put(servicioId, nombre);
+                indexarServicio(servicioId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code cantidad} servicios, zonas y profesionales con alguna palabra que empieza con
+     * {@code prefijo}, sin distinguir mayúsculas ni tildes.
+     */
+    public SugerenciasDTO sugerir(String prefijo, int cantidad) {
+        return sugerir(prefijo, cantidad, true);
+    }
+
+    /**
+     * Igual que {@link #sugerir(String, int)}; con {@code incluirProfesionales} en false la lista de
+     * profesionales queda vacía (para quien no puede ver el directorio).
+     */
+    public SugerenciasDTO sugerir(String prefijo, int cantidad, boolean incluirProfesionales) {
+        if (prefijo == null || prefijo.isBlank()) {
+            throw new IllegalArgumentException("El texto a completar no puede estar vacío");
+        }
+        if (prefijo.length() > ArbolPrefijos.LARGO_MAXIMO_PREFIJO) {
+            throw new IllegalArgumentException(
+                    "El texto a completar no puede superar " + ArbolPrefijos.LARGO_MAXIMO_PREFIJO + " caracteres");
+        }
+        if (cantidad < 1 || cantidad > cantidadMaxima) {
+            throw new IllegalArgumentException("La cantidad debe estar entre 1 y " + cantidadMaxima);
+        }
+        lock.readLock().lock();
+        try {
+            return new SugerenciasDTO(servicios.buscar(prefijo, cantidad), zonas.buscar(prefijo, cantidad),
+                    incluirProfesionales ? profesionales.buscar(prefijo, cantidad) : List.of());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void reemplazar(Long profesionalId, List<SugerenciaProfesionalDTO> filas, boolean actualizarArboles) {
+        DatosProfesional anteriores = datosPorProfesional.remove(profesionalId);
+        if (anteriores != null) {
+            for (Long servicioId : anteriores.servicios()) {
+                contarServicio(servicioId, -1, actualizarArboles);
+            }
+            contarZona(anteriores.zona(), null, -1, actualizarArboles);
+        }
+        if (filas.isEmpty()) {
+            profesionales.eliminar(profesionalId);
+            return;
+        }
+
+        SugerenciaProfesionalDTO primera = filas.get(0);
+        List<Long> serviciosProfesional = filas.stream()
+                .map(SugerenciaProfesionalDTO::servicioId)
+                .filter(id -> id != null)
+                .distinct()
+                .toList();
+        String zona = NormalizadorTexto.plegarPalabras(primera.zonaTrabajo());
+        datosPorProfesional.put(profesionalId, new DatosProfesional(serviciosProfesional, zona));
+        for (Long servicioId : serviciosProfesional) {
+            contarServicio(servicioId, 1, actualizarArboles);
+        }
+        contarZona(zona, primera.zonaTrabajo(), 1, actualizarArboles);
+
+        String nombre = primera.nombreCompleto();
+        int trabajos = primera.trabajosRealizados() != null ? primera.trabajosRealizados() : 0;
+        profesionales.agregar(profesionalId, new SugerenciaDTO(profesionalId, nombre), nombre, trabajos);
+    }
+
+    private void contarServicio(Long servicioId, int diferencia, boolean actualizarArbol) {
+        int cantidad = profesionalesPorServicio.merge(servicioId, diferencia, Integer::sum);
+        if (cantidad <= 0) {
+            profesionalesPorServicio.remove(servicioId);
+        }
+        if (actualizarArbol) {
+            servicios.actualizarPeso(servicioId, Math.max(cantidad, 0));
+        }
+    }
+
+    private void indexarServicio(Long servicioId) {
+        String nombre = nombrePorServicio.get(servicioId);
+        servicios.agregar(servicioId, new SugerenciaDTO(servicioId, nombre), nombre,
+                profesionalesPorServicio.getOrDefault(servicioId, 0));
+    }
+
+    /**
+     * Suma o resta un profesional a la zona. Una zona nueva toma la etiqueta del primer profesional
+     * que la usa y se quita cuando no le quedan profesionales.
+     */
+    private void contarZona(String clave, String etiqueta, int diferencia, boolean actualizarArbol) {
+        if (clave.isEmpty()) {
+            return;
+        }
+        Zona zona = zonaPorClave.get(clave);
+        if (zona == null) {
+            zona = new Zona(siguienteZona++, new SugerenciaDTO(null, etiqueta.trim()));
+            zonaPorClave.put(clave, zona);
+        }
+        zona.cantidad += diferencia;
+        if (zona.cantidad <= 0) {
+            zonaPorClave.remove(clave);
+            zonas.eliminar(zona.id);
+        } else if (actualizarArbol) {
+            zonas.agregar(zona.id, zona.sugerencia, zona.sugerencia.texto(), zona.cantidad);
+        }
+    }
+
+    private record DatosProfesional(List<Long> servicios, String zona) {
+    }
+
+    private static final class Zona {
+        private final long id;
+        private final SugerenciaDTO sugerencia;
+        private int cantidad;
+
+        Zona(long id, SugerenciaDTO sugerencia) {
+            this.id = id;
+            this.sugerencia = sugerencia;
+        }
+    }
+}
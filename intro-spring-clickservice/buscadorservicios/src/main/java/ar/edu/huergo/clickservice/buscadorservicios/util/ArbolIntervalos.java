@@ -0,0 +1,219 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Árbol de intervalos semiabiertos [inicio, fin) con un id cada uno, para encontrar los que se
+ * superponen con un rango en O(log n + k).
+ *
+ * Es un treap (árbol binario de búsqueda por inicio e id, balanceado con prioridades al azar) en el
+ * que cada nodo guarda además el mayor fin de su subárbol: un subárbol cuyo mayor fin no pasa del
+ * inicio buscado no puede tener superposiciones y no se recorre, y a la derecha de un nodo que empieza
+ * después del fin buscado tampoco. Los intervalos se devuelven ordenados por inicio.
+ *
+ * No es thread-safe: quien lo use debe sincronizar las escrituras con las lecturas.
+ */
+public class ArbolIntervalos<T> {
+
+    private final Map<Long, Nodo<T>> nodoPorId = new HashMap<>();
+    private final SplittableRandom prioridades = new SplittableRandom(0x5EED);
+    private Nodo<T> raiz;
+
+    /**
+     * Agrega el intervalo o lo reemplaza si el id ya estaba.
+     */
+    public void agregar(long id, LocalDateTime inicio, LocalDateTime fin, T valor) {
+        quitar(id);
+        Nodo<T> nodo = new Nodo<>(id, instante(inicio), instante(fin), valor, prioridades.nextInt());
+        nodoPorId.put(id, nodo);
+        raiz = insertar(raiz, nodo);
+    }
+
+    /**
+     * Quita el intervalo. Devuelve false si no estaba.
+     */
+    public boolean quitar(long id) {
+        Nodo<T> nodo = nodoPorId.remove(id);
+        if (nodo == null) {
+            return false;
+        }
+        raiz = eliminar(raiz, nodo.inicio, nodo.id);
+        return true;
+    }
+
+    public T obtener(long id) {
+        Nodo<T> nodo = nodoPorId.get(id);
+        return nodo == null ? null : nodo.valor;
+    }
+
+    /**
+     * Indica si algún intervalo, salvo el de {@code idExcluido} (null para no excluir ninguno), se
+     * superpone con [{@code inicio}, {@code fin}).
+     */
+    public boolean haySuperposicion(LocalDateTime inicio, LocalDateTime fin, Long idExcluido) {
+        return primeraSuperposicion(raiz, instante(inicio), instante(fin), idExcluido);
+    }
+
+    /**
+     * Valores de los intervalos que se superponen con [{@code inicio}, {@code fin}), ordenados por
+     * inicio.
+     */
+    public List<T> superpuestos(LocalDateTime inicio, LocalDateTime fin) {
+        List<T> resultado = new ArrayList<>();
+        recolectar(raiz, instante(inicio), instante(fin), resultado);
+        return resultado;
+    }
+
+    public int tamanio() {
+        return nodoPorId.size();
+    }
+
+    private static long instante(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + fecha.getNano();
+    }
+
+    private static <T> boolean primeraSuperposicion(Nodo<T> nodo, long inicio, long fin, Long idExcluido) {
+        while (nodo != null && nodo.finMaximo > inicio) {
+            if (nodo.inicio < fin && nodo.fin > inicio && (idExcluido == null || nodo.id != idExcluido)) {
+                return true;
+            }
+            // Si la izquierda puede tener una superposición se busca ahí; si no la tiene, a la derecha
+            // sólo vale la pena seguir cuando este nodo empieza antes del fin buscado
+            if (nodo.izquierdo != null && nodo.izquierdo.finMaximo > inicio
+                    && primeraSuperposicion(nodo.izquierdo, inicio, fin, idExcluido)) {
+                return true;
+            }
+            if (nodo.inicio >= fin) {
+                return false;
+            }
+            nodo = nodo.derecho;
+        }
+        return false;
+    }
+
+    private static <T> void recolectar(Nodo<T> nodo, long inicio, long fin, List<T> resultado) {
+        if (nodo == null || nodo.finMaximo <= inicio) {
+            return;
+        }
+        recolectar(nodo.izquierdo, inicio, fin, resultado);
+        if (nodo.inicio >= fin) {
+            return;
+        }
+        if (nodo.fin > inicio) {
+            resultado.add(nodo.valor);
+        }
+        recolectar(nodo.derecho, inicio, fin, resultado);
+    }
+
+    private static <T> Nodo<T> insertar(Nodo<T> actual, Nodo<T> nodo) {
+        if (actual == null) {
+            return nodo;
+        }
+        if (nodo.antesQue(actual.inicio, actual.id)) {
+            actual.izquierdo = insertar(actual.izquierdo, nodo);
+            if (actual.izquierdo.prioridad > actual.prioridad) {
+                return rotarDerecha(actual);
+            }
+        } else {
+            actual.derecho = insertar(actual.derecho, nodo);
+            if (actual.derecho.prioridad > actual.prioridad) {
+                return rotarIzquierda(actual);
+            }
+        }
+        actual.recalcular();
+        return actual;
+    }
+
+    private static <T> Nodo<T> eliminar(Nodo<T> actual, long inicio, long id) {
+        if (actual == null) {
+            return null;
+        }
+        if (actual.inicio == inicio && actual.id == id) {
+            return unir(actual.izquierdo, actual.derecho);
+        }
+        if (inicio < actual.inicio || (inicio == actual.inicio && id < actual.id)) {
+            actual.izquierdo = eliminar(actual.izquierdo, inicio, id);
+        } else {
+            actual.derecho = eliminar(actual.derecho, inicio, id);
+        }
+        actual.recalcular();
+        return actual;
+    }
+
+    /** Une dos subárboles en los que todo lo de {@code izquierdo} va antes que lo de {@code derecho}. */
+    private static <T> Nodo<T> unir(Nodo<T> izquierdo, Nodo<T> derecho) {
+        if (izquierdo == null) {
+            return derecho;
+        }
+        if (derecho == null) {
+            return izquierdo;
+        }
+        if (izquierdo.prioridad > derecho.prioridad) {
+            izquierdo.derecho = unir(izquierdo.derecho, derecho);
+            izquierdo.recalcular();
+            return izquierdo;
+        }
+        derecho.izquierdo = unir(izquierdo, derecho.izquierdo);
+        derecho.recalcular();
+        return derecho;
+    }
+
+    private static <T> Nodo<T> rotarDerecha(Nodo<T> nodo) {
+        Nodo<T> hijo = nodo.izquierdo;
+        nodo.izquierdo = hijo.derecho;
+        hijo.derecho = nodo;
+        nodo.recalcular();
+        hijo.recalcular();
+        return hijo;
+    }
+
+    private static <T> Nodo<T> rotarIzquierda(Nodo<T> nodo) {
+        Nodo<T> hijo = nodo.derecho;
+        nodo.derecho = hijo.izquierdo;
+        hijo.izquierdo = nodo;
+        nodo.recalcular();
+        hijo.recalcular();
+        return hijo;
+    }
+
+    private static final class Nodo<T> {
+        private final long id;
+        private final long inicio;
+        private final long fin;
+        private final T valor;
+        private final int prioridad;
+        private long finMaximo;
+        private Nodo<T> izquierdo;
+        private Nodo<T> derecho;
+
+        Nodo(long id, long inicio, long fin, T valor, int prioridad) {
+            this.id = id;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.valor = valor;
+            this.prioridad = prioridad;
+            this.finMaximo = fin;
+        }
+
+        boolean antesQue(long otroInicio, long otroId) {
+            return inicio < otroInicio || (inicio == otroInicio && id < otroId);
+        }
+
+        void recalcular() {
+            long maximo = fin;
+            if (izquierdo != null && izquierdo.finMaximo > maximo) {
+                maximo = izquierdo.finMaximo;
+            }
+            if (derecho != null && derecho.finMaximo > maximo) {
+                maximo = derecho.finMaximo;
+            }
+            finMaximo = maximo;
+        }
+    }
+}
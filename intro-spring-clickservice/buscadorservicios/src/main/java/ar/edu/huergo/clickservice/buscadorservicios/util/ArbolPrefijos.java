@@ -0,0 +1,377 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árbol de prefijos compacto (radix tree) para autocompletar, con los mejores resultados de cada
+ * prefijo ya calculados.
+ *
+ * Cada elemento se indexa por el comienzo de cada una de sus primeras palabras (plegadas con
+ * {@link NormalizadorTexto}), así "per" encuentra a "Juan Pérez". Las aristas guardan tramos de
+ * texto en lugar de un carácter, de modo que los nodos son del orden de la cantidad de claves, y
+ * cada nodo guarda los {@code maximo} elementos de mayor peso de su subárbol. Buscar es recorrer
+ * el prefijo y copiar esa lista: no depende de cuántos elementos coinciden y no crea más objetos
+ * que la respuesta.
+ *
+ * Agregar, quitar o cambiar el peso de un elemento recalcula las listas de los nodos en el camino
+ * de cada clave hasta la raíz, combinando las listas de los hijos.
+ *
+ * No es thread-safe: quien lo use debe sincronizar las escrituras con las lecturas.
+ */
+public class ArbolPrefijos<T> {
+
+    /** Largo máximo de un prefijo buscado, ya plegado. */
+    public static final int LARGO_MAXIMO_PREFIJO = 100;
+
+    private static final int PALABRAS_INDEXADAS = 5;
+    private static final int[] SIN_ELEMENTOS = new int[0];
+    private static final char[] SIN_CARACTERES = new char[0];
+    private static final ThreadLocal<char[]> PREFIJOS = ThreadLocal
+            .withInitial(() -> new char[LARGO_MAXIMO_PREFIJO]);
+
+    private final int maximo;
+    private final Nodo raiz = new Nodo("", null);
+    private final Map<Long, Integer> elementoPorId = new HashMap<>();
+
+    private Object[] valores = new Object[64];
+    private double[] pesos = new double[64];
+    private String[] textos = new String[64];
+    private String[][] claves = new String[64][];
+    private int[] libres = new int[16];
+    private int cantidadLibres;
+    private int siguienteElemento;
+
+    // Marcas para no repetir un elemento al combinar listas (un elemento puede llegar a un nodo
+    // por más de una clave)
+    private int[] marcas = new int[64];
+    private int marcaActual;
+
+    public ArbolPrefijos(int maximo) {
+        if (maximo < 1) {
+            throw new IllegalArgumentException("El máximo de resultados debe ser mayor a 0");
+        }
+        this.maximo = maximo;
+    }
+
+    /**
+     * Agrega el elemento o lo reemplaza si el id ya estaba. A igual peso se ordena por texto.
+     */
+    public void agregar(long id, T valor, String texto, double peso) {
+        String plegado = NormalizadorTexto.plegarPalabras(texto);
+        Integer existente = elementoPorId.get(id);
+        if (existente != null) {
+            if (plegado.equals(textos[existente])) {
+                valores[existente] = valor;
+                actualizarPeso(id, peso);
+                return;
+            }
+            eliminar(id);
+        }
+        if (plegado.isEmpty()) {
+            return;
+        }
+
+        int elemento = nuevoElemento();
+        valores[elemento] = valor;
+        pesos[elemento] = peso;
+        textos[elemento] = plegado;
+        claves[elemento] = clavesDe(plegado);
+        elementoPorId.put(id, elemento);
+        for (String clave : claves[elemento]) {
+            recalcularDesde(insertar(clave, elemento));
+        }
+    }
+
+    /**
+     * Cambia el peso de un elemento. Devuelve false si no estaba.
+     */
+    public boolean actualizarPeso(long id, double peso) {
+        Integer elemento = elementoPorId.get(id);
+        if (elemento == null) {
+            return false;
+        }
+        if (pesos[elemento] != peso) {
+            pesos[elemento] = peso;
+            for (String clave : claves[elemento]) {
+                recalcularDesde(buscarNodo(clave));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quita un elemento. Devuelve false si no estaba.
+     */
+    public boolean eliminar(long id) {
+        Integer elemento = elementoPorId.remove(id);
+        if (elemento == null) {
+            return false;
+        }
+        for (String clave : claves[elemento]) {
+            recalcularDesde(quitar(buscarNodo(clave), elemento));
+        }
+        valores[elemento] = null;
+        textos[elemento] = null;
+        claves[elemento] = null;
+        if (cantidadLibres == libres.length) {
+            libres = Arrays.copyOf(libres, cantidadLibres * 2);
+        }
+        libres[cantidadLibres++] = elemento;
+        return true;
+    }
+
+    /**
+     * Hasta {@code cantidad} elementos (como mucho el máximo del árbol) con alguna palabra que
+     * empieza con el prefijo, de mayor a menor peso. El prefijo se pliega carácter por carácter
+     * sobre un buffer reutilizable, así la búsqueda sólo crea la lista devuelta.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> buscar(CharSequence prefijo, int cantidad) {
+        char[] plegado = PREFIJOS.get();
+        int largo = NormalizadorTexto.plegarPalabras(prefijo, plegado, true);
+        if (largo <= 0 || cantidad <= 0) {
+            return List.of();
+        }
+
+        Nodo nodo = raiz;
+        int i = 0;
+        while (i < largo) {
+            int posicion = nodo.buscarHijo(plegado[i]);
+            if (posicion < 0) {
+                return List.of();
+            }
+            nodo = nodo.hijos[posicion];
+            String etiqueta = nodo.etiqueta;
+            for (int j = 0; j < etiqueta.length() && i < largo; j++, i++) {
+                if (etiqueta.charAt(j) != plegado[i]) {
+                    return List.of();
+                }
+            }
+        }
+
+        int[] top = nodo.top;
+        Object[] resultado = new Object[Math.min(cantidad, top.length)];
+        for (int k = 0; k < resultado.length; k++) {
+            resultado[k] = valores[top[k]];
+        }
+        return (List<T>) Collections.unmodifiableList(Arrays.asList(resultado));
+    }
+
+    public int tamanio() {
+        return elementoPorId.size();
+    }
+
+    public int getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Claves de un texto plegado: el texto desde el comienzo de cada una de sus primeras palabras.
+     */
+    private static String[] clavesDe(String plegado) {
+        String[] claves = new String[PALABRAS_INDEXADAS];
+        int cantidad = 0;
+        int inicio = 0;
+        while (inicio >= 0 && cantidad < PALABRAS_INDEXADAS) {
+            claves[cantidad++] = plegado.substring(inicio);
+            int espacio = plegado.indexOf(' ', inicio);
+            inicio = espacio < 0 ? -1 : espacio + 1;
+        }
+        return Arrays.copyOf(claves, cantidad);
+    }
+
+    private int nuevoElemento() {
+        if (cantidadLibres > 0) {
+            return libres[--cantidadLibres];
+        }
+        int elemento = siguienteElemento++;
+        if (elemento == valores.length) {
+            int capacidad = elemento * 2;
+            valores = Arrays.copyOf(valores, capacidad);
+            pesos = Arrays.copyOf(pesos, capacidad);
+            textos = Arrays.copyOf(textos, capacidad);
+            claves = Arrays.copyOf(claves, capacidad);
+            marcas = Arrays.copyOf(marcas, capacidad);
+        }
+        return elemento;
+    }
+
+    /**
+     * Agrega la clave al árbol (partiendo una arista si hace falta) y devuelve el nodo donde termina.
+     */
+    private Nodo insertar(String clave, int elemento) {
+        Nodo nodo = raiz;
+        int i = 0;
+        while (i < clave.length()) {
+            int posicion = nodo.buscarHijo(clave.charAt(i));
+            if (posicion < 0) {
+                Nodo hoja = new Nodo(clave.substring(i), nodo);
+                nodo.insertarHijo(-posicion - 1, hoja);
+                nodo = hoja;
+                break;
+            }
+            Nodo hijo = nodo.hijos[posicion];
+            String etiqueta = hijo.etiqueta;
+            int comun = 0;
+            while (comun < etiqueta.length() && i + comun < clave.length()
+                    && etiqueta.charAt(comun) == clave.charAt(i + comun)) {
+                comun++;
+            }
+            if (comun < etiqueta.length()) {
+                Nodo intermedio = new Nodo(etiqueta.substring(0, comun), nodo);
+                nodo.hijos[posicion] = intermedio;
+                hijo.etiqueta = etiqueta.substring(comun);
+                hijo.padre = intermedio;
+                intermedio.insertarHijo(0, hijo);
+                hijo = intermedio;
+            }
+            nodo = hijo;
+            i += comun;
+        }
+        nodo.terminales = Arrays.copyOf(nodo.terminales, nodo.terminales.length + 1);
+        nodo.terminales[nodo.terminales.length - 1] = elemento;
+        return nodo;
+    }
+
+    /**
+     * Quita el elemento de los terminales del nodo, elimina los nodos que quedan vacíos, une los
+     * que quedan con un solo hijo y devuelve el nodo desde el que hay que recalcular.
+     */
+    private Nodo quitar(Nodo nodo, int elemento) {
+        int[] terminales = nodo.terminales;
+        for (int i = 0; i < terminales.length; i++) {
+            if (terminales[i] == elemento) {
+                int[] restantes = new int[terminales.length - 1];
+                System.arraycopy(terminales, 0, restantes, 0, i);
+                System.arraycopy(terminales, i + 1, restantes, i, restantes.length - i);
+                nodo.terminales = restantes;
+                break;
+            }
+        }
+        if (nodo != raiz && nodo.terminales.length == 0 && nodo.cantidadHijos == 0) {
+            Nodo padre = nodo.padre;
+            padre.quitarHijo(nodo);
+            nodo = padre;
+        }
+        if (nodo != raiz && nodo.terminales.length == 0 && nodo.cantidadHijos == 1) {
+            Nodo hijo = nodo.hijos[0];
+            hijo.etiqueta = nodo.etiqueta + hijo.etiqueta;
+            hijo.padre = nodo.padre;
+            nodo.padre.hijos[nodo.padre.buscarHijo(hijo.etiqueta.charAt(0))] = hijo;
+            nodo = hijo.padre;
+        }
+        return nodo;
+    }
+
+    private Nodo buscarNodo(String clave) {
+        Nodo nodo = raiz;
+        int i = 0;
+        while (i < clave.length()) {
+            nodo = nodo.hijos[nodo.buscarHijo(clave.charAt(i))];
+            i += nodo.etiqueta.length();
+        }
+        return nodo;
+    }
+
+    private void recalcularDesde(Nodo nodo) {
+        for (; nodo != null; nodo = nodo.padre) {
+            nodo.top = mejoresDe(nodo);
+        }
+    }
+
+    /**
+     * Los mejores elementos entre los que terminan en el nodo y las listas de sus hijos.
+     */
+    private int[] mejoresDe(Nodo nodo) {
+        int[] mejores = new int[maximo];
+        int cantidad = 0;
+        marcaActual++;
+        for (int elemento : nodo.terminales) {
+            cantidad = ofrecer(mejores, cantidad, elemento);
+        }
+        for (int h = 0; h < nodo.cantidadHijos; h++) {
+            for (int elemento : nodo.hijos[h].top) {
+                cantidad = ofrecer(mejores, cantidad, elemento);
+            }
+        }
+        return cantidad == maximo ? mejores : Arrays.copyOf(mejores, cantidad);
+    }
+
+    /**
+     * Inserta el elemento en la lista ordenada si entra entre los mejores y no estaba.
+     */
+    private int ofrecer(int[] mejores, int cantidad, int elemento) {
+        if (marcas[elemento] == marcaActual) {
+            return cantidad;
+        }
+        marcas[elemento] = marcaActual;
+        if (cantidad == maximo && !antes(elemento, mejores[cantidad - 1])) {
+            return cantidad;
+        }
+        int posicion = cantidad == maximo ? cantidad - 1 : cantidad++;
+        while (posicion > 0 && antes(elemento, mejores[posicion - 1])) {
+            mejores[posicion] = mejores[posicion - 1];
+            posicion--;
+        }
+        mejores[posicion] = elemento;
+        return cantidad;
+    }
+
+    /** Indica si el elemento {@code a} va antes que {@code b}: mayor peso y, a igual peso, texto. */
+    private boolean antes(int a, int b) {
+        if (pesos[a] != pesos[b]) {
+            return pesos[a] > pesos[b];
+        }
+        int porTexto = textos[a].compareTo(textos[b]);
+        return porTexto != 0 ? porTexto < 0 : a < b;
+    }
+
+    /**
+     * Nodo del árbol. {@code etiqueta} es el tramo de texto de la arista que llega desde el padre;
+     * los hijos se guardan ordenados por el primer carácter de su etiqueta.
+     */
+    private static final class Nodo {
+        private static final Nodo[] SIN_HIJOS = new Nodo[0];
+
+        private String etiqueta;
+        private Nodo padre;
+        private char[] primeros = SIN_CARACTERES;
+        private Nodo[] hijos = SIN_HIJOS;
+        private int cantidadHijos;
+        private int[] terminales = SIN_ELEMENTOS;
+        private int[] top = SIN_ELEMENTOS;
+
+        Nodo(String etiqueta, Nodo padre) {
+            this.etiqueta = etiqueta;
+            this.padre = padre;
+        }
+
+        int buscarHijo(char c) {
+            return Arrays.binarySearch(primeros, 0, cantidadHijos, c);
+        }
+
+        void insertarHijo(int posicion, Nodo hijo) {
+            if (cantidadHijos == hijos.length) {
+                int capacidad = Math.max(2, cantidadHijos * 2);
+                primeros = Arrays.copyOf(primeros, capacidad);
+                hijos = Arrays.copyOf(hijos, capacidad);
+            }
+            System.arraycopy(primeros, posicion, primeros, posicion + 1, cantidadHijos - posicion);
+            System.arraycopy(hijos, posicion, hijos, posicion + 1, cantidadHijos - posicion);
+            primeros[posicion] = hijo.etiqueta.charAt(0);
+            hijos[posicion] = hijo;
+            cantidadHijos++;
+        }
+
+        void quitarHijo(Nodo hijo) {
+            int posicion = buscarHijo(hijo.etiqueta.charAt(0));
+            System.arraycopy(primeros, posicion + 1, primeros, posicion, cantidadHijos - posicion - 1);
+            System.arraycopy(hijos, posicion + 1, hijos, posicion, cantidadHijos - posicion - 1);
+            hijos[--cantidadHijos] = null;
+        }
+    }
+}
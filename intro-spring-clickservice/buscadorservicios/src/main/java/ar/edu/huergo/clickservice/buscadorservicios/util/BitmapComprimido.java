@@ -0,0 +1,522 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Conjunto de enteros no negativos comprimido al estilo Roaring.
+ *
+ * Los valores se agrupan por sus 16 bits altos; cada grupo (hasta 65.536 valores) se guarda en un
+ * contenedor que elige su representación según la densidad: un arreglo ordenado de los 16 bits
+ * bajos mientras tenga hasta 4096 valores, o un mapa de 65.536 bits (8 KB) cuando tiene más. Así
+ * un conjunto disperso ocupa unos 2 bytes por valor y uno denso 1 bit por valor, y las
+ * intersecciones y uniones trabajan grupo por grupo combinando arreglos (merge) o palabras de 64
+ * bits (AND/OR + bitCount).
+ *
+ * No es thread-safe: quien lo use debe sincronizar las escrituras con las lecturas.
+ */
+public class BitmapComprimido {
+
+    private static final int MAXIMO_ARREGLO = 4096;
+
+    private char[] claves = new char[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int tamanio;
+
+    /**
+     * Agrega el valor. Devuelve false si ya estaba.
+     */
+    public boolean agregar(int valor) {
+        validar(valor);
+        char clave = (char) (valor >>> 16);
+        int posicion = buscar(clave);
+        if (posicion < 0) {
+            posicion = -posicion - 1;
+            insertar(posicion, clave, new ContenedorArreglo());
+        }
+        Contenedor contenedor = contenedores[posicion];
+        long antes = contenedor.cardinalidad();
+        contenedores[posicion] = contenedor.agregar((char) valor);
+        return contenedores[posicion].cardinalidad() != antes;
+    }
+
+    /**
+     * Quita el valor. Devuelve false si no estaba.
+     */
+    public boolean quitar(int valor) {
+        validar(valor);
+        int posicion = buscar((char) (valor >>> 16));
+        if (posicion < 0) {
+            return false;
+        }
+        Contenedor contenedor = contenedores[posicion];
+        long antes = contenedor.cardinalidad();
+        Contenedor nuevo = contenedor.quitar((char) valor);
+        if (nuevo.cardinalidad() == 0) {
+            eliminar(posicion);
+        } else {
+            contenedores[posicion] = nuevo;
+        }
+        return nuevo.cardinalidad() != antes;
+    }
+
+    public boolean contiene(int valor) {
+        if (valor < 0) {
+            return false;
+        }
+        int posicion = buscar((char) (valor >>> 16));
+        return posicion >= 0 && contenedores[posicion].contiene((char) valor);
+    }
+
+    public long cardinalidad() {
+        long total = 0;
+        for (int i = 0; i < tamanio; i++) {
+            total += contenedores[i].cardinalidad();
+        }
+        return total;
+    }
+
+    public boolean estaVacio() {
+        return tamanio == 0;
+    }
+
+    /**
+     * Recorre los valores en orden ascendente.
+     */
+    public void paraCada(IntConsumer accion) {
+        for (int i = 0; i < tamanio; i++) {
+            contenedores[i].paraCada(claves[i] << 16, accion);
+        }
+    }
+
+    /**
+     * Devuelve hasta {@code cantidad} valores en orden ascendente, salteando los primeros
+     * {@code desde}. Los grupos completos que quedan antes de {@code desde} se saltean sin recorrerlos.
+     */
+    public int[] valores(long desde, int cantidad) {
+        int[] resultado = new int[(int) Math.max(0, Math.min(cantidad, cardinalidad() - desde))];
+        int escritos = 0;
+        long salteados = 0;
+        for (int i = 0; i < tamanio && escritos < resultado.length; i++) {
+            Contenedor contenedor = contenedores[i];
+            long cardinalidad = contenedor.cardinalidad();
+            if (salteados + cardinalidad <= desde) {
+                salteados += cardinalidad;
+                continue;
+            }
+            int base = claves[i] << 16;
+            int[] cursor = {escritos};
+            long[] saltear = {desde - salteados};
+            contenedor.paraCada(base, valor -> {
+                if (saltear[0] > 0) {
+                    saltear[0]--;
+                } else if (cursor[0] < resultado.length) {
+                    resultado[cursor[0]++] = valor;
+                }
+            });
+            salteados = desde;
+            escritos = cursor[0];
+        }
+        return resultado;
+    }
+
+    /**
+     * Intersección de los dos conjuntos.
+     */
+    public static BitmapComprimido y(BitmapComprimido a, BitmapComprimido b) {
+        BitmapComprimido resultado = new BitmapComprimido();
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanio && j < b.tamanio) {
+            if (a.claves[i] < b.claves[j]) {
+                i++;
+            } else if (a.claves[i] > b.claves[j]) {
+                j++;
+            } else {
+                Contenedor interseccion = a.contenedores[i].y(b.contenedores[j]);
+                if (interseccion.cardinalidad() > 0) {
+                    resultado.insertar(resultado.tamanio, a.claves[i], interseccion);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Unión de los dos conjuntos.
+     */
+    public static BitmapComprimido o(BitmapComprimido a, BitmapComprimido b) {
+        BitmapComprimido resultado = new BitmapComprimido();
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanio || j < b.tamanio) {
+            if (j >= b.tamanio || (i < a.tamanio && a.claves[i] < b.claves[j])) {
+                resultado.insertar(resultado.tamanio, a.claves[i], a.contenedores[i].copia());
+                i++;
+            } else if (i >= a.tamanio || a.claves[i] > b.claves[j]) {
+                resultado.insertar(resultado.tamanio, b.claves[j], b.contenedores[j].copia());
+                j++;
+            } else {
+                resultado.insertar(resultado.tamanio, a.claves[i], a.contenedores[i].o(b.contenedores[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cantidad de valores en común, sin construir la intersección.
+     */
+    public static long cardinalidadY(BitmapComprimido a, BitmapComprimido b) {
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.tamanio && j < b.tamanio) {
+            if (a.claves[i] < b.claves[j]) {
+                i++;
+            } else if (a.claves[i] > b.claves[j]) {
+                j++;
+            } else {
+                total += a.contenedores[i].cardinalidadY(b.contenedores[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    private static void validar(int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Sólo se admiten valores no negativos");
+        }
+    }
+
+    private int buscar(char clave) {
+        int desde = 0;
+        int hasta = tamanio - 1;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (claves[medio] < clave) {
+                desde = medio + 1;
+            } else if (claves[medio] > clave) {
+                hasta = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -(desde + 1);
+    }
+
+    private void insertar(int posicion, char clave, Contenedor contenedor) {
+        if (tamanio == claves.length) {
+            claves = Arrays.copyOf(claves, tamanio * 2);
+            contenedores = Arrays.copyOf(contenedores, tamanio * 2);
+        }
+        System.arraycopy(claves, posicion, claves, posicion + 1, tamanio - posicion);
+        System.arraycopy(contenedores, posicion, contenedores, posicion + 1, tamanio - posicion);
+        claves[posicion] = clave;
+        contenedores[posicion] = contenedor;
+        tamanio++;
+    }
+
+    private void eliminar(int posicion) {
+        System.arraycopy(claves, posicion + 1, claves, posicion, tamanio - posicion - 1);
+        System.arraycopy(contenedores, posicion + 1, contenedores, posicion, tamanio - posicion - 1);
+        contenedores[--tamanio] = null;
+    }
+
+    /**
+     * Valores de un grupo (los 16 bits bajos). Las operaciones que cambian la representación
+     * devuelven el contenedor nuevo.
+     */
+    private abstract static sealed class Contenedor permits ContenedorArreglo, ContenedorBits {
+        abstract Contenedor agregar(char valor);
+
+        abstract Contenedor quitar(char valor);
+
+        abstract boolean contiene(char valor);
+
+        abstract int cardinalidad();
+
+        abstract Contenedor y(Contenedor otro);
+
+        abstract Contenedor o(Contenedor otro);
+
+        abstract int cardinalidadY(Contenedor otro);
+
+        abstract void paraCada(int base, IntConsumer accion);
+
+        abstract Contenedor copia();
+    }
+
+    private static final class ContenedorArreglo extends Contenedor {
+        private char[] valores;
+        private int cantidad;
+
+        ContenedorArreglo() {
+            this(new char[4], 0);
+        }
+
+        ContenedorArreglo(char[] valores, int cantidad) {
+            this.valores = valores;
+            this.cantidad = cantidad;
+        }
+
+        @Override
+        Contenedor agregar(char valor) {
+            int posicion = Arrays.binarySearch(valores, 0, cantidad, valor);
+            if (posicion >= 0) {
+                return this;
+            }
+            if (cantidad == MAXIMO_ARREGLO) {
+                return aBits().agregar(valor);
+            }
+            posicion = -posicion - 1;
+            if (cantidad == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAXIMO_ARREGLO, cantidad * 2));
+            }
+            System.arraycopy(valores, posicion, valores, posicion + 1, cantidad - posicion);
+            valores[posicion] = valor;
+            cantidad++;
+            return this;
+        }
+
+        @Override
+        Contenedor quitar(char valor) {
+            int posicion = Arrays.binarySearch(valores, 0, cantidad, valor);
+            if (posicion >= 0) {
+                System.arraycopy(valores, posicion + 1, valores, posicion, cantidad - posicion - 1);
+                cantidad--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contiene(char valor) {
+            return Arrays.binarySearch(valores, 0, cantidad, valor) >= 0;
+        }
+
+        @Override
+        int cardinalidad() {
+            return cantidad;
+        }
+
+        @Override
+        Contenedor y(Contenedor otro) {
+            char[] resultado = new char[Math.min(cantidad, otro.cardinalidad())];
+            int escritos = 0;
+            if (otro instanceof ContenedorArreglo arreglo) {
+                int i = 0;
+                int j = 0;
+                while (i < cantidad && j < arreglo.cantidad) {
+                    if (valores[i] < arreglo.valores[j]) {
+                        i++;
+                    } else if (valores[i] > arreglo.valores[j]) {
+                        j++;
+                    } else {
+                        resultado[escritos++] = valores[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cantidad; i++) {
+                    if (otro.contiene(valores[i])) {
+                        resultado[escritos++] = valores[i];
+                    }
+                }
+            }
+            return new ContenedorArreglo(resultado, escritos);
+        }
+
+        @Override
+        Contenedor o(Contenedor otro) {
+            if (otro instanceof ContenedorBits) {
+                return otro.o(this);
+            }
+            ContenedorArreglo arreglo = (ContenedorArreglo) otro;
+            char[] resultado = new char[cantidad + arreglo.cantidad];
+            int escritos = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cantidad || j < arreglo.cantidad) {
+                if (j >= arreglo.cantidad || (i < cantidad && valores[i] < arreglo.valores[j])) {
+                    resultado[escritos++] = valores[i++];
+                } else if (i >= cantidad || valores[i] > arreglo.valores[j]) {
+                    resultado[escritos++] = arreglo.valores[j++];
+                } else {
+                    resultado[escritos++] = valores[i];
+                    i++;
+                    j++;
+                }
+            }
+            ContenedorArreglo union = new ContenedorArreglo(resultado, escritos);
+            return escritos > MAXIMO_ARREGLO ? union.aBits() : union;
+        }
+
+        @Override
+        int cardinalidadY(Contenedor otro) {
+            int total = 0;
+            if (otro instanceof ContenedorArreglo arreglo) {
+                int i = 0;
+                int j = 0;
+                while (i < cantidad && j < arreglo.cantidad) {
+                    if (valores[i] < arreglo.valores[j]) {
+                        i++;
+                    } else if (valores[i] > arreglo.valores[j]) {
+                        j++;
+                    } else {
+                        total++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cantidad; i++) {
+                    if (otro.contiene(valores[i])) {
+                        total++;
+                    }
+                }
+            }
+            return total;
+        }
+
+        @Override
+        void paraCada(int base, IntConsumer accion) {
+            for (int i = 0; i < cantidad; i++) {
+                accion.accept(base | valores[i]);
+            }
+        }
+
+        @Override
+        Contenedor copia() {
+            return new ContenedorArreglo(Arrays.copyOf(valores, Math.max(cantidad, 1)), cantidad);
+        }
+
+        ContenedorBits aBits() {
+            ContenedorBits bits = new ContenedorBits();
+            for (int i = 0; i < cantidad; i++) {
+                bits.agregar(valores[i]);
+            }
+            return bits;
+        }
+    }
+
+    private static final class ContenedorBits extends Contenedor {
+        private final long[] palabras;
+        private int cantidad;
+
+        ContenedorBits() {
+            this(new long[1024], 0);
+        }
+
+        ContenedorBits(long[] palabras, int cantidad) {
+            this.palabras = palabras;
+            this.cantidad = cantidad;
+        }
+
+        @Override
+        Contenedor agregar(char valor) {
+            long anterior = palabras[valor >>> 6];
+            palabras[valor >>> 6] = anterior | (1L << valor);
+            if (palabras[valor >>> 6] != anterior) {
+                cantidad++;
+            }
+            return this;
+        }
+
+        @Override
+        Contenedor quitar(char valor) {
+            long anterior = palabras[valor >>> 6];
+            palabras[valor >>> 6] = anterior & ~(1L << valor);
+            if (palabras[valor >>> 6] != anterior) {
+                cantidad--;
+            }
+            return cantidad <= MAXIMO_ARREGLO ? aArreglo() : this;
+        }
+
+        @Override
+        boolean contiene(char valor) {
+            return (palabras[valor >>> 6] & (1L << valor)) != 0;
+        }
+
+        @Override
+        int cardinalidad() {
+            return cantidad;
+        }
+
+        @Override
+        Contenedor y(Contenedor otro) {
+            if (otro instanceof ContenedorArreglo) {
+                return otro.y(this);
+            }
+            long[] otras = ((ContenedorBits) otro).palabras;
+            long[] resultado = new long[1024];
+            int total = 0;
+            for (int i = 0; i < 1024; i++) {
+                resultado[i] = palabras[i] & otras[i];
+                total += Long.bitCount(resultado[i]);
+            }
+            ContenedorBits interseccion = new ContenedorBits(resultado, total);
+            return total <= MAXIMO_ARREGLO ? interseccion.aArreglo() : interseccion;
+        }
+
+        @Override
+        Contenedor o(Contenedor otro) {
+            ContenedorBits union = (ContenedorBits) copia();
+            if (otro instanceof ContenedorArreglo arreglo) {
+                for (int i = 0; i < arreglo.cantidad; i++) {
+                    union.agregar(arreglo.valores[i]);
+                }
+                return union;
+            }
+            long[] otras = ((ContenedorBits) otro).palabras;
+            int total = 0;
+            for (int i = 0; i < 1024; i++) {
+                union.palabras[i] |= otras[i];
+                total += Long.bitCount(union.palabras[i]);
+            }
+            union.cantidad = total;
+            return union;
+        }
+
+        @Override
+        int cardinalidadY(Contenedor otro) {
+            if (otro instanceof ContenedorArreglo) {
+                return otro.cardinalidadY(this);
+            }
+            long[] otras = ((ContenedorBits) otro).palabras;
+            int total = 0;
+            for (int i = 0; i < 1024; i++) {
+                total += Long.bitCount(palabras[i] & otras[i]);
+            }
+            return total;
+        }
+
+        @Override
+        void paraCada(int base, IntConsumer accion) {
+            for (int i = 0; i < 1024; i++) {
+                long palabra = palabras[i];
+                while (palabra != 0) {
+                    accion.accept(base | (i << 6) | Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+        }
+
+        @Override
+        Contenedor copia() {
+            return new ContenedorBits(palabras.clone(), cantidad);
+        }
+
+        ContenedorArreglo aArreglo() {
+            char[] valores = new char[Math.max(cantidad, 1)];
+            int[] escritos = {0};
+            paraCada(0, valor -> valores[escritos[0]++] = (char) valor);
+            return new ContenedorArreglo(valores, cantidad);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Buffer circular acotado y sin locks para múltiples productores y consumidores (algoritmo de
+ * Dmitry Vyukov).
+ *
+ * Cada celda tiene un número de secuencia que indica si está libre para el productor de la vuelta
+ * actual o lista para el consumidor. Encolar y desencolar cuestan un CAS en el caso sin
+ * contención y nunca bloquean: si el buffer está lleno {@link #ofrecer(Object)} devuelve false.
+ */
+public class BufferCircular<E> {
+
+    private final int mascara;
+    private final AtomicReferenceArray<E> elementos;
+    private final AtomicLongArray secuencias;
+    private final AtomicLong posicionEncolar = new AtomicLong();
+    private final AtomicLong posicionDesencolar = new AtomicLong();
+
+    /**
+     * @param capacidad cantidad mínima de elementos; se redondea a la siguiente potencia de 2
+     */
+    public BufferCircular(int capacidad) {
+        int tamanio = Integer.highestOneBit(Math.max(2, capacidad) - 1) << 1;
+        this.mascara = tamanio - 1;
+        this.elementos = new AtomicReferenceArray<>(tamanio);
+        this.secuencias = new AtomicLongArray(tamanio);
+        for (int i = 0; i < tamanio; i++) {
+            secuencias.set(i, i);
+        }
+    }
+
+    /**
+     * Intenta encolar el elemento. Devuelve false si el buffer está lleno.
+     */
+    public boolean ofrecer(E elemento) {
+        if (elemento == null) {
+            throw new IllegalArgumentException("El elemento no puede ser null");
+        }
+        long posicion = posicionEncolar.get();
+        while (true) {
+            int indice = (int) posicion & mascara;
+            long diferencia = secuencias.get(indice) - posicion;
+            if (diferencia == 0) {
+                if (posicionEncolar.compareAndSet(posicion, posicion + 1)) {
+                    elementos.set(indice, elemento);
+                    // Publica el elemento para el consumidor
+                    secuencias.set(indice, posicion + 1);
+                    return true;
+                }
+                posicion = posicionEncolar.get();
+            } else if (diferencia < 0) {
+                return false;
+            } else {
+                posicion = posicionEncolar.get();
+            }
+        }
+    }
+
+    /**
+     * Desencola un elemento o devuelve null si el buffer está vacío.
+     */
+    public E tomar() {
+        long posicion = posicionDesencolar.get();
+        while (true) {
+            int indice = (int) posicion & mascara;
+            long diferencia = secuencias.get(indice) - (posicion + 1);
+            if (diferencia == 0) {
+                if (posicionDesencolar.compareAndSet(posicion, posicion + 1)) {
+                    E elemento = elementos.get(indice);
+                    elementos.set(indice, null);
+                    // Libera la celda para el productor de la próxima vuelta
+                    secuencias.set(indice, posicion + mascara + 1);
+                    return elemento;
+                }
+                posicion = posicionDesencolar.get();
+            } else if (diferencia < 0) {
+                return null;
+            } else {
+                posicion = posicionDesencolar.get();
+            }
+        }
+    }
+
+    /**
+     * Mueve hasta {@code maximo} elementos al destino y devuelve cuántos movió.
+     */
+    public int drenar(Collection<? super E> destino, int maximo) {
+        int cantidad = 0;
+        E elemento;
+        while (cantidad < maximo && (elemento = tomar()) != null) {
+            destino.add(elemento);
+            cantidad++;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Cantidad aproximada de elementos encolados (exacta cuando no hay operaciones en curso).
+     */
+    public int tamanio() {
+        long tamanio = posicionEncolar.get() - posicionDesencolar.get();
+        return (int) Math.max(0, Math.min(tamanio, capacidad()));
+    }
+
+    public int capacidad() {
+        return mascara + 1;
+    }
+}
@@ -0,0 +1,79 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concurrente sobre claves String.
+ * Responde "seguro que no está" o "puede estar" usando sólo unas pocas lecturas de bits, sin
+ * reservar memoria por consulta. No permite eliminar claves: para descartar entradas se construye
+ * un filtro nuevo.
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final int cantidadBits;
+    private final int cantidadHashes;
+
+    /**
+     * @param entradasEsperadas cantidad de claves que se espera agregar
+     * @param probabilidadFalsoPositivo tasa de falsos positivos aceptada (por ejemplo 0.01)
+     */
+    public FiltroBloom(int entradasEsperadas, double probabilidadFalsoPositivo) {
+        int n = Math.max(1, entradasEsperadas);
+        double p = Math.min(0.5, Math.max(1e-9, probabilidadFalsoPositivo));
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.cantidadBits = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63L));
+        this.cantidadHashes = Math.max(1, (int) Math.round((double) cantidadBits / n * Math.log(2)));
+        this.bits = new AtomicLongArray((cantidadBits + 63) / 64);
+    }
+
+    public void agregar(String clave) {
+        long hash = hash64(clave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < cantidadHashes; i++) {
+            int indice = indice(h1 + i * h2);
+            long mascara = 1L << indice;
+            int palabra = indice >>> 6;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+                if ((actual & mascara) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    public boolean puedeContener(String clave) {
+        long hash = hash64(clave);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < cantidadHashes; i++) {
+            int indice = indice(h1 + i * h2);
+            if ((bits.get(indice >>> 6) & (1L << indice)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indice(int combinado) {
+        return (combinado & Integer.MAX_VALUE) % cantidadBits;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre los caracteres, con una mezcla final para repartir los bits altos.
+     */
+    private static long hash64(String clave) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < clave.length(); i++) {
+            hash ^= clave.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,237 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Índice espacial en memoria basado en una grilla de celdas de latitud/longitud de tamaño fijo.
+ *
+ * Cada celda guarda sus puntos en arreglos primitivos, de modo que recorrerla no genera objetos.
+ * La búsqueda de los k más cercanos recorre anillos de celdas alrededor del punto consultado y se
+ * detiene cuando la distancia mínima posible del anillo siguiente supera a la del k-ésimo vecino
+ * encontrado, por lo que su costo depende de la densidad local y no del total de puntos.
+ *
+ * No es thread-safe: quien la use debe sincronizar las escrituras con las lecturas.
+ */
+public class GrillaGeografica {
+
+    private static final double RADIO_TIERRA_KM = 6371.0088;
+    private static final double KM_POR_GRADO = Math.PI * RADIO_TIERRA_KM / 180.0;
+    private static final int CAPACIDAD_INICIAL_CELDA = 4;
+
+    private static final Comparator<Vecino> POR_DISTANCIA_DESCENDENTE =
+            Comparator.comparingDouble(Vecino::distanciaKm).reversed();
+
+    private final double tamanioCelda;
+    private final int filas;
+    private final int columnas;
+    private final Map<Long, Celda> celdas = new HashMap<>();
+    private int tamanio;
+
+    /**
+     * Punto encontrado por una búsqueda y su distancia en kilómetros al punto consultado.
+     */
+    public record Vecino(long id, double distanciaKm) {
+    }
+
+    /**
+     * @param tamanioCelda lado de cada celda en grados (por ejemplo 0.05, unos 5,5 km)
+     */
+    public GrillaGeografica(double tamanioCelda) {
+        if (!(tamanioCelda > 0 && tamanioCelda <= 10)) {
+            throw new IllegalArgumentException("El tamaño de celda debe estar entre 0 y 10 grados");
+        }
+        this.tamanioCelda = tamanioCelda;
+        this.filas = (int) Math.ceil(180.0 / tamanioCelda);
+        this.columnas = (int) Math.ceil(360.0 / tamanioCelda);
+    }
+
+    /**
+     * Agrega un punto. Si {@code radioKm} es mayor a 0, el punto sólo se devuelve en búsquedas
+     * hechas dentro de ese radio (por ejemplo, la zona de cobertura de un profesional).
+     */
+    public void insertar(long id, double latitud, double longitud, double radioKm) {
+        long clave = clave(fila(latitud), columna(longitud));
+        celdas.computeIfAbsent(clave, c -> new Celda()).agregar(id, latitud, longitud, radioKm);
+        tamanio++;
+    }
+
+    /**
+     * Quita un punto insertado con las mismas coordenadas. Devuelve false si no estaba.
+     */
+    public boolean eliminar(long id, double latitud, double longitud) {
+        long clave = clave(fila(latitud), columna(longitud));
+        Celda celda = celdas.get(clave);
+        if (celda == null || !celda.quitar(id)) {
+            return false;
+        }
+        if (celda.cantidad == 0) {
+            celdas.remove(clave);
+        }
+        tamanio--;
+        return true;
+    }
+
+    /**
+     * Devuelve hasta {@code k} puntos a no más de {@code distanciaMaximaKm} del punto consultado,
+     * ordenados del más cercano al más lejano.
+     */
+    public List<Vecino> buscarCercanos(double latitud, double longitud, int k, double distanciaMaximaKm) {
+        if (k <= 0 || tamanio == 0) {
+            return List.of();
+        }
+        PriorityQueue<Vecino> mejores = new PriorityQueue<>(k + 1, POR_DISTANCIA_DESCENDENTE);
+        int filaCentro = fila(latitud);
+        int columnaCentro = columna(longitud);
+        double cosLatitud = Math.cos(Math.toRadians(latitud));
+
+        for (int anillo = 0; anillo <= columnas / 2; anillo++) {
+            double cota = cotaInferiorKm(latitud, anillo);
+            if (cota > distanciaMaximaKm) {
+                break;
+            }
+            if (mejores.size() == k && cota > mejores.peek().distanciaKm()) {
+                break;
+            }
+            recorrerAnillo(filaCentro, columnaCentro, anillo, latitud, longitud, cosLatitud, k,
+                    distanciaMaximaKm, mejores);
+        }
+
+        Vecino[] resultado = mejores.toArray(new Vecino[0]);
+        Arrays.sort(resultado, Comparator.comparingDouble(Vecino::distanciaKm));
+        return Arrays.asList(resultado);
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    private void recorrerAnillo(int filaCentro, int columnaCentro, int anillo, double latitud,
+            double longitud, double cosLatitud, int k, double distanciaMaximaKm,
+            PriorityQueue<Vecino> mejores) {
+        for (int df = -anillo; df <= anillo; df++) {
+            int fila = filaCentro + df;
+            if (fila < 0 || fila >= filas) {
+                continue;
+            }
+            boolean bordeVertical = df == -anillo || df == anillo;
+            // En las filas intermedias sólo se visitan las dos columnas del borde del anillo
+            int paso = bordeVertical || anillo == 0 ? 1 : 2 * anillo;
+            for (int dc = -anillo; dc <= anillo; dc += paso) {
+                Celda celda = celdas.get(clave(fila, Math.floorMod(columnaCentro + dc, columnas)));
+                if (celda != null) {
+                    celda.evaluar(latitud, longitud, cosLatitud, k, distanciaMaximaKm, mejores);
+                }
+            }
+        }
+    }
+
+    /**
+     * Distancia mínima posible entre el punto consultado y cualquier celda del anillo indicado. Se
+     * usa el ancho de celda más angosto del anillo (las celdas se angostan hacia los polos).
+     */
+    private double cotaInferiorKm(double latitud, int anillo) {
+        if (anillo <= 1) {
+            return 0;
+        }
+        double latitudExtrema = Math.min(89.999, Math.abs(latitud) + anillo * tamanioCelda);
+        double anchoMinimoKm = tamanioCelda * KM_POR_GRADO * Math.cos(Math.toRadians(latitudExtrema));
+        // Margen para la diferencia entre el arco del paralelo y el círculo máximo
+        return (anillo - 1) * anchoMinimoKm * 0.99;
+    }
+
+    private int fila(double latitud) {
+        return Math.min(filas - 1, (int) Math.floor((latitud + 90.0) / tamanioCelda));
+    }
+
+    private int columna(double longitud) {
+        return Math.floorMod((int) Math.floor((longitud + 180.0) / tamanioCelda), columnas);
+    }
+
+    private static long clave(int fila, int columna) {
+        return ((long) fila << 32) | (columna & 0xffffffffL);
+    }
+
+    /**
+     * Distancia por la fórmula del haversine.
+     */
+    private static double distanciaKm(double lat1, double lon1, double cosLat1, double lat2, double lon2,
+            double cosLat2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double senoLat = Math.sin(dLat / 2);
+        double senoLon = Math.sin(dLon / 2);
+        double a = senoLat * senoLat + cosLat1 * cosLat2 * senoLon * senoLon;
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        return distanciaKm(lat1, lon1, Math.cos(Math.toRadians(lat1)), lat2, lon2,
+                Math.cos(Math.toRadians(lat2)));
+    }
+
+    /**
+     * Puntos de una celda en arreglos paralelos; quitar mueve el último a la posición liberada.
+     */
+    private static final class Celda {
+        private long[] ids = new long[CAPACIDAD_INICIAL_CELDA];
+        private double[] latitudes = new double[CAPACIDAD_INICIAL_CELDA];
+        private double[] longitudes = new double[CAPACIDAD_INICIAL_CELDA];
+        private double[] cosenosLatitud = new double[CAPACIDAD_INICIAL_CELDA];
+        private double[] radios = new double[CAPACIDAD_INICIAL_CELDA];
+        private int cantidad;
+
+        void agregar(long id, double latitud, double longitud, double radioKm) {
+            if (cantidad == ids.length) {
+                int capacidad = ids.length * 2;
+                ids = Arrays.copyOf(ids, capacidad);
+                latitudes = Arrays.copyOf(latitudes, capacidad);
+                longitudes = Arrays.copyOf(longitudes, capacidad);
+                cosenosLatitud = Arrays.copyOf(cosenosLatitud, capacidad);
+                radios = Arrays.copyOf(radios, capacidad);
+            }
+            ids[cantidad] = id;
+            latitudes[cantidad] = latitud;
+            longitudes[cantidad] = longitud;
+            cosenosLatitud[cantidad] = Math.cos(Math.toRadians(latitud));
+            radios[cantidad] = radioKm;
+            cantidad++;
+        }
+
+        boolean quitar(long id) {
+            for (int i = 0; i < cantidad; i++) {
+                if (ids[i] == id) {
+                    int ultimo = --cantidad;
+                    ids[i] = ids[ultimo];
+                    latitudes[i] = latitudes[ultimo];
+                    longitudes[i] = longitudes[ultimo];
+                    cosenosLatitud[i] = cosenosLatitud[ultimo];
+                    radios[i] = radios[ultimo];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void evaluar(double latitud, double longitud, double cosLatitud, int k, double distanciaMaximaKm,
+                PriorityQueue<Vecino> mejores) {
+            for (int i = 0; i < cantidad; i++) {
+                double distancia = distanciaKm(latitud, longitud, cosLatitud, latitudes[i], longitudes[i],
+                        cosenosLatitud[i]);
+                if (distancia > distanciaMaximaKm || (radios[i] > 0 && distancia > radios[i])) {
+                    continue;
+                }
+                if (mejores.size() < k) {
+                    mejores.add(new Vecino(ids[i], distancia));
+                } else if (distancia < mejores.peek().distanciaKm()) {
+                    mejores.poll();
+                    mejores.add(new Vecino(ids[i], distancia));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice invertido en memoria con ranking BM25.
+ *
+ * Cada documento recibe un número interno creciente; reindexar un documento lo marca como borrado
+ * y lo agrega con un número nuevo, así las listas de ocurrencias (postings) quedan siempre
+ * ordenadas y las escrituras sólo agregan al final. Cuando la mitad de las ocurrencias de un
+ * término pertenecen a documentos borrados, esa lista se compacta.
+ *
+ * La búsqueda recorre las listas de los términos consultados en paralelo (documento por
+ * documento), suma el puntaje BM25 de cada término presente y conserva en un heap sólo los mejores
+ * resultados que se necesitan para la página pedida.
+ *
+ * No es thread-safe: quien la use debe sincronizar las escrituras con las lecturas.
+ */
+public class IndiceInvertido {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final int MINIMO_PARA_COMPACTAR = 8;
+
+    /**
+     * Documento encontrado y su puntaje BM25.
+     */
+    public record Resultado(long id, double puntaje) {
+    }
+
+    /**
+     * Resultados de la página pedida y cantidad total de documentos que coinciden.
+     */
+    public record Pagina(List<Resultado> resultados, int total) {
+    }
+
+    private final Map<String, Postings> postingsPorTermino = new HashMap<>();
+    private final Map<Long, Integer> internoPorId = new HashMap<>();
+    private final BitSet borrados = new BitSet();
+
+    private long[] idExterno = new long[CAPACIDAD_INICIAL];
+    private int[] largos = new int[CAPACIDAD_INICIAL];
+    private Postings[][] terminosPorDocumento = new Postings[CAPACIDAD_INICIAL][];
+    private int siguienteInterno;
+    private int documentosVivos;
+    private long largoTotal;
+
+    /**
+     * Indexa (o reindexa) un documento a partir de la frecuencia de cada término. Las frecuencias
+     * pueden venir ponderadas por campo.
+     */
+    public void indexar(long id, Map<String, Integer> frecuencias) {
+        eliminar(id);
+        if (frecuencias.isEmpty()) {
+            return;
+        }
+        int interno = siguienteInterno++;
+        asegurarCapacidad(interno + 1);
+
+        Postings[] terminos = new Postings[frecuencias.size()];
+        int largo = 0;
+        int i = 0;
+        for (Map.Entry<String, Integer> entrada : frecuencias.entrySet()) {
+            Postings postings = postingsPorTermino.computeIfAbsent(entrada.getKey(), Postings::new);
+            postings.agregar(interno, entrada.getValue());
+            terminos[i++] = postings;
+            largo += entrada.getValue();
+        }
+
+        idExterno[interno] = id;
+        largos[interno] = largo;
+        terminosPorDocumento[interno] = terminos;
+        internoPorId.put(id, interno);
+        documentosVivos++;
+        largoTotal += largo;
+    }
+
+    /**
+     * Quita un documento del índice. Devuelve false si no estaba.
+     */
+    public boolean eliminar(long id) {
+        Integer interno = internoPorId.remove(id);
+        if (interno == null) {
+            return false;
+        }
+        borrados.set(interno);
+        for (Postings postings : terminosPorDocumento[interno]) {
+            postings.borrados++;
+            if (postings.frecuenciaDocumental() == 0) {
+                // Ningún documento vivo usa el término
+                postingsPorTermino.remove(postings.termino, postings);
+            } else if (postings.borrados >= MINIMO_PARA_COMPACTAR && postings.borrados * 2 >= postings.cantidad) {
+                postings.compactar(borrados);
+            }
+        }
+        terminosPorDocumento[interno] = null;
+        documentosVivos--;
+        largoTotal -= largos[interno];
+        return true;
+    }
+
+    /**
+     * Busca los documentos que contienen al menos uno de los términos, ordenados por puntaje BM25
+     * (a igual puntaje, por id), y devuelve {@code cantidad} resultados a partir de {@code desde}.
+     */
+    public Pagina buscar(Collection<String> terminos, int desde, int cantidad) {
+        List<Postings> encontradas = new ArrayList<>();
+        for (String termino : new LinkedHashSet<>(terminos)) {
+            Postings postings = postingsPorTermino.get(termino);
+            if (postings != null && postings.frecuenciaDocumental() > 0) {
+                encontradas.add(postings);
+            }
+        }
+        if (encontradas.isEmpty() || cantidad <= 0) {
+            return new Pagina(List.of(), 0);
+        }
+
+        int cantidadListas = encontradas.size();
+        Postings[] listas = encontradas.toArray(new Postings[0]);
+        double[] idfs = new double[cantidadListas];
+        for (int t = 0; t < cantidadListas; t++) {
+            idfs[t] = idf(listas[t].frecuenciaDocumental());
+        }
+        double largoPromedio = (double) largoTotal / documentosVivos;
+        int[] cursores = new int[cantidadListas];
+        HeapResultados mejores = new HeapResultados(desde + cantidad);
+        int total = 0;
+
+        while (true) {
+            // Próximo documento: el menor número interno entre los cursores
+            int documento = Integer.MAX_VALUE;
+            for (int t = 0; t < cantidadListas; t++) {
+                Postings postings = listas[t];
+                if (cursores[t] < postings.cantidad && postings.documentos[cursores[t]] < documento) {
+                    documento = postings.documentos[cursores[t]];
+                }
+            }
+            if (documento == Integer.MAX_VALUE) {
+                break;
+            }
+
+            double normalizacion = K1 * (1 - B + B * largos[documento] / largoPromedio);
+            double puntaje = 0;
+            for (int t = 0; t < cantidadListas; t++) {
+                Postings postings = listas[t];
+                if (cursores[t] < postings.cantidad && postings.documentos[cursores[t]] == documento) {
+                    int frecuencia = postings.frecuencias[cursores[t]];
+                    puntaje += idfs[t] * frecuencia * (K1 + 1) / (frecuencia + normalizacion);
+                    cursores[t]++;
+                }
+            }
+            if (!borrados.get(documento)) {
+                total++;
+                mejores.ofrecer(documento, puntaje, idExterno[documento]);
+            }
+        }
+
+        return new Pagina(mejores.pagina(desde, idExterno), total);
+    }
+
+    public int tamanio() {
+        return documentosVivos;
+    }
+
+    private double idf(int frecuenciaDocumental) {
+        return Math.log(1 + (documentosVivos - frecuenciaDocumental + 0.5) / (frecuenciaDocumental + 0.5));
+    }
+
+    private void asegurarCapacidad(int necesaria) {
+        if (necesaria <= idExterno.length) {
+            return;
+        }
+        int capacidad = Math.max(necesaria, idExterno.length * 2);
+        idExterno = Arrays.copyOf(idExterno, capacidad);
+        largos = Arrays.copyOf(largos, capacidad);
+        terminosPorDocumento = Arrays.copyOf(terminosPorDocumento, capacidad);
+    }
+
+    /**
+     * Lista de ocurrencias de un término, ordenada por número interno de documento.
+     */
+    private static final class Postings {
+        private final String termino;
+        private int[] documentos = new int[2];
+        private int[] frecuencias = new int[2];
+        private int cantidad;
+        private int borrados;
+
+        Postings(String termino) {
+            this.termino = termino;
+        }
+
+        void agregar(int documento, int frecuencia) {
+            if (cantidad == documentos.length) {
+                documentos = Arrays.copyOf(documentos, cantidad * 2);
+                frecuencias = Arrays.copyOf(frecuencias, cantidad * 2);
+            }
+            documentos[cantidad] = documento;
+            frecuencias[cantidad] = frecuencia;
+            cantidad++;
+        }
+
+        int frecuenciaDocumental() {
+            return cantidad - borrados;
+        }
+
+        void compactar(BitSet documentosBorrados) {
+            int destino = 0;
+            for (int i = 0; i < cantidad; i++) {
+                if (!documentosBorrados.get(documentos[i])) {
+                    documentos[destino] = documentos[i];
+                    frecuencias[destino] = frecuencias[i];
+                    destino++;
+                }
+            }
+            cantidad = destino;
+            borrados = 0;
+            int capacidad = Math.max(2, cantidad);
+            if (documentos.length > capacidad * 2) {
+                documentos = Arrays.copyOf(documentos, capacidad);
+                frecuencias = Arrays.copyOf(frecuencias, capacidad);
+            }
+        }
+    }
+
+    /**
+     * Heap de mínimos acotado sobre arreglos primitivos: conserva los {@code capacidad} mejores
+     * documentos vistos (mayor puntaje y, a igual puntaje, menor id).
+     */
+    private static final class HeapResultados {
+        private final int[] documentos;
+        private final double[] puntajes;
+        private final long[] ids;
+        private int tamanio;
+
+        HeapResultados(int capacidad) {
+            documentos = new int[capacidad];
+            puntajes = new double[capacidad];
+            ids = new long[capacidad];
+        }
+
+        void ofrecer(int documento, double puntaje, long id) {
+            if (tamanio < documentos.length) {
+                documentos[tamanio] = documento;
+                puntajes[tamanio] = puntaje;
+                ids[tamanio] = id;
+                subir(tamanio++);
+            } else if (peor(0, puntaje, id)) {
+                documentos[0] = documento;
+                puntajes[0] = puntaje;
+                ids[0] = id;
+                bajar(0);
+            }
+        }
+
+        List<Resultado> pagina(int desde, long[] idExterno) {
+            Integer[] orden = new Integer[tamanio];
+            for (int i = 0; i < tamanio; i++) {
+                orden[i] = i;
+            }
+            Arrays.sort(orden, (a, b) -> puntajes[a] != puntajes[b]
+                    ? Double.compare(puntajes[b], puntajes[a])
+                    : Long.compare(ids[a], ids[b]));
+            List<Resultado> resultado = new ArrayList<>();
+            for (int i = desde; i < tamanio; i++) {
+                resultado.add(new Resultado(idExterno[documentos[orden[i]]], puntajes[orden[i]]));
+            }
+            return resultado;
+        }
+
+        /** Indica si el elemento en la posición dada es peor que (puntaje, id). */
+        private boolean peor(int posicion, double puntaje, long id) {
+            return puntajes[posicion] < puntaje || (puntajes[posicion] == puntaje && ids[posicion] > id);
+        }
+
+        private void subir(int posicion) {
+            while (posicion > 0) {
+                int padre = (posicion - 1) / 2;
+                if (!peor(posicion, puntajes[padre], ids[padre])) {
+                    break;
+                }
+                intercambiar(posicion, padre);
+                posicion = padre;
+            }
+        }
+
+        private void bajar(int posicion) {
+            while (true) {
+                int izquierdo = 2 * posicion + 1;
+                int derecho = izquierdo + 1;
+                int menor = posicion;
+                if (izquierdo < tamanio && peor(izquierdo, puntajes[menor], ids[menor])) {
+                    menor = izquierdo;
+                }
+                if (derecho < tamanio && peor(derecho, puntajes[menor], ids[menor])) {
+                    menor = derecho;
+                }
+                if (menor == posicion) {
+                    return;
+                }
+                intercambiar(posicion, menor);
+                posicion = menor;
+            }
+        }
+
+        private void intercambiar(int a, int b) {
+            int documento = documentos[a];
+            documentos[a] = documentos[b];
+            documentos[b] = documento;
+            double puntaje = puntajes[a];
+            puntajes[a] = puntajes[b];
+            puntajes[b] = puntaje;
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.time.LocalDate;
+
+/**
+ * Máscaras de libre/ocupado por día, de a un bit por cuarto de hora: 96 bits por día guardados en dos
+ * long (los cuartos 0 a 63 en el primero y 64 a 95 en los 32 bits bajos del segundo).
+ *
+ * Los días se guardan en un arreglo denso desde el primer día con una máscara distinta de cero hasta el
+ * último, así que leer la máscara de un día es un acceso por índice; un día fuera del arreglo vale cero.
+ * Con las máscaras, ver si un rango está libre es un AND, y la racha libre más larga o el primer hueco
+ * de N cuartos salen de correr la máscara sobre sí misma con AND y desplazamientos.
+ *
+ * Memoria: 16 bytes por día más el encabezado del arreglo y la holgura de crecimiento (de a 8 días).
+ * 90 días ocupan 96 × 16 = 1.536 bytes más unos 40 de encabezados, así que 100.000 profesionales con
+ * 90 días de agenda son unos 158 MB (144 MB de máscaras propiamente dichas).
+ *
+ * No es thread-safe: quien lo use debe sincronizar las escrituras con las lecturas.
+ */
+public class MascarasDiarias {
+
+    public static final int MINUTOS_POR_CUARTO = 15;
+    public static final int CUARTOS_POR_DIA = 96;
+
+    private static final int HOLGURA_DIAS = 8;
+
+    /** Día (en días desde la época) de la posición 0 del arreglo. */
+    private long primerDia;
+    private long[] palabras = new long[0];
+
+    /**
+     * Reemplaza la máscara del día.
+     */
+    public void asignar(LocalDate dia, long bajos, long altos) {
+        long epochDay = dia.toEpochDay();
+        altos &= rangoAltos(0, CUARTOS_POR_DIA);
+        if ((bajos | altos) == 0 && !contieneDia(epochDay)) {
+            return;
+        }
+        if (palabras.length == 0) {
+            primerDia = epochDay;
+            palabras = new long[2 * HOLGURA_DIAS];
+        } else if (epochDay < primerDia) {
+            redimensionar(epochDay, primerDia + dias());
+        } else if (epochDay >= primerDia + dias()) {
+            redimensionar(primerDia, epochDay + 1);
+        }
+        int posicion = (int) (epochDay - primerDia) * 2;
+        palabras[posicion] = bajos;
+        palabras[posicion + 1] = altos;
+    }
+
+    /**
+     * Descarta las máscaras de los días anteriores a {@code dia}.
+     */
+    public void descartarAntesDe(LocalDate dia) {
+        long epochDay = dia.toEpochDay();
+        if (palabras.length == 0 || epochDay <= primerDia) {
+            return;
+        }
+        if (epochDay >= primerDia + dias()) {
+            palabras = new long[0];
+            return;
+        }
+        redimensionar(epochDay, primerDia + dias());
+    }
+
+    public long bajos(LocalDate dia) {
+        long epochDay = dia.toEpochDay();
+        return contieneDia(epochDay) ? palabras[(int) (epochDay - primerDia) * 2] : 0;
+    }
+
+    public long altos(LocalDate dia) {
+        long epochDay = dia.toEpochDay();
+        return contieneDia(epochDay) ? palabras[(int) (epochDay - primerDia) * 2 + 1] : 0;
+    }
+
+    /**
+     * Indica si los cuartos [{@code desde}, {@code hasta}) del día tienen todos el bit en 1.
+     */
+    public boolean estanTodos(LocalDate dia, int desde, int hasta) {
+        long rangoBajos = rangoBajos(desde, hasta);
+        long rangoAltos = rangoAltos(desde, hasta);
+        return (bajos(dia) & rangoBajos) == rangoBajos && (altos(dia) & rangoAltos) == rangoAltos;
+    }
+
+    /**
+     * Cantidad de cuartos de la racha de bits en 1 más larga del día.
+     */
+    public int rachaMasLarga(LocalDate dia) {
+        long bajos = bajos(dia);
+        long altos = altos(dia);
+        // Cada vuelta acorta todas las rachas en un cuarto: hay tantas vueltas como cuartos tiene la
+        // más larga
+        int racha = 0;
+        while ((bajos | altos) != 0) {
+            bajos &= (bajos >>> 1) | (altos << 63);
+            altos &= altos >>> 1;
+            racha++;
+        }
+        return racha;
+    }
+
+    /**
+     * Primer cuarto desde {@code desde} en que empieza una racha de al menos {@code cuartos} bits en 1
+     * dentro del día, o -1 si no hay.
+     */
+    public int primerInicio(LocalDate dia, int cuartos, int desde) {
+        if (cuartos < 1 || cuartos > CUARTOS_POR_DIA) {
+            return -1;
+        }
+        long bajos = bajos(dia) & rangoBajos(desde, CUARTOS_POR_DIA);
+        long altos = altos(dia) & rangoAltos(desde, CUARTOS_POR_DIA);
+        // Después de cada paso el bit i queda en 1 sólo si los `largo` bits desde i estaban en 1; el
+        // largo se duplica en cada paso, así que son O(log cuartos) pasos
+        for (int largo = 1; largo < cuartos && (bajos | altos) != 0;) {
+            int desplazamiento = Math.min(largo, cuartos - largo);
+            bajos &= (bajos >>> desplazamiento) | (altos << (64 - desplazamiento));
+            altos &= altos >>> desplazamiento;
+            largo += desplazamiento;
+        }
+        if (bajos != 0) {
+            return Long.numberOfTrailingZeros(bajos);
+        }
+        return altos != 0 ? 64 + Long.numberOfTrailingZeros(altos) : -1;
+    }
+
+    /** Cantidad de días que cubre el arreglo, incluida la holgura. */
+    public int dias() {
+        return palabras.length / 2;
+    }
+
+    /**
+     * Bits de los cuartos [{@code desde}, {@code hasta}) que caen en la primera palabra (cuartos 0 a 63).
+     */
+    public static long rangoBajos(int desde, int hasta) {
+        return rango(desde, hasta, 0);
+    }
+
+    /**
+     * Bits de los cuartos [{@code desde}, {@code hasta}) que caen en la segunda palabra (cuartos 64 a 95).
+     */
+    public static long rangoAltos(int desde, int hasta) {
+        return rango(desde, hasta, 64);
+    }
+
+    private static long rango(int desde, int hasta, int base) {
+        int inicio = Math.max(desde, base) - base;
+        int fin = Math.min(Math.min(hasta, CUARTOS_POR_DIA), base + 64) - base;
+        if (fin <= inicio) {
+            return 0;
+        }
+        long hastaFin = fin == 64 ? -1L : (1L << fin) - 1;
+        return hastaFin & ~((1L << inicio) - 1);
+    }
+
+    private boolean contieneDia(long epochDay) {
+        return epochDay >= primerDia && epochDay < primerDia + dias();
+    }
+
+    /**
+     * Pasa a cubrir [{@code desdeDia}, {@code hastaDia}) más la holgura, copiando las máscaras que
+     * siguen dentro.
+     */
+    private void redimensionar(long desdeDia, long hastaDia) {
+        int dias = (int) ((hastaDia - desdeDia + HOLGURA_DIAS - 1) / HOLGURA_DIAS * HOLGURA_DIAS);
+        long[] nuevas = new long[2 * dias];
+        long copiarDesde = Math.max(desdeDia, primerDia);
+        long copiarHasta = Math.min(desdeDia + dias, primerDia + dias());
+        if (copiarHasta > copiarDesde) {
+            System.arraycopy(palabras, (int) (copiarDesde - primerDia) * 2, nuevas, (int) (copiarDesde - desdeDia) * 2,
+                    (int) (copiarHasta - copiarDesde) * 2);
+        }
+        primerDia = desdeDia;
+        palabras = nuevas;
+    }
+}
@@ -0,0 +1,137 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalización de texto en español para búsquedas.
+ *
+ * Pasa el texto a minúsculas, quita tildes y diéresis ("Plomería" y "plomeria" dan el mismo
+ * término; la ñ se pliega a n), lo separa en palabras por cualquier carácter que no sea letra o
+ * dígito y descarta artículos, preposiciones y conjunciones frecuentes.
+ */
+public final class NormalizadorTexto {
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "con", "de", "del", "e", "el", "en", "es", "la", "las", "lo", "los", "mi", "o",
+            "para", "por", "que", "se", "sin", "su", "sus", "u", "un", "una", "y");
+
+    /** Resultado de {@link #plegar(String)} para cada carácter latino (hasta Latin Extended-B). */
+    private static final char[] PLEGADOS = new char[0x250];
+
+    static {
+        for (char c = 0; c < PLEGADOS.length; c++) {
+            String plegado = plegar(String.valueOf(c));
+            PLEGADOS[c] = plegado.length() == 1 ? plegado.charAt(0) : Character.toLowerCase(c);
+        }
+    }
+
+    private NormalizadorTexto() {
+    }
+
+    /**
+     * Devuelve el texto en minúsculas y sin marcas diacríticas.
+     */
+    public static String plegar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder resultado = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                resultado.append(c);
+            }
+        }
+        return resultado.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Devuelve los términos del texto en orden de aparición (con repeticiones).
+     */
+    public static List<String> terminos(String texto) {
+        String plegado = plegar(texto);
+        List<String> terminos = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= plegado.length(); i++) {
+            boolean esParteDePalabra = i < plegado.length() && Character.isLetterOrDigit(plegado.charAt(i));
+            if (esParteDePalabra && inicio < 0) {
+                inicio = i;
+            } else if (!esParteDePalabra && inicio >= 0) {
+                String termino = plegado.substring(inicio, i);
+                if (!PALABRAS_VACIAS.contains(termino)) {
+                    terminos.add(termino);
+                }
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+
+    /**
+     * Pliega un carácter como {@link #plegar(String)} sin crear objetos. Devuelve 0 para las marcas
+     * diacríticas sueltas (texto ya descompuesto), que se descartan.
+     */
+    public static char plegar(char c) {
+        if (c < PLEGADOS.length) {
+            return PLEGADOS[c];
+        }
+        return Character.getType(c) == Character.NON_SPACING_MARK ? 0 : Character.toLowerCase(c);
+    }
+
+    /**
+     * Escribe en {@code destino} el texto plegado, con las palabras separadas por un único espacio
+     * (sin descartar palabras vacías), y devuelve la cantidad de caracteres escritos o -1 si no
+     * entran. Con {@code espacioFinal} se conserva un espacio final si el texto termina en un
+     * separador ("juan " sólo coincide con la palabra completa). No crea objetos, así se puede
+     * usar en cada tecla de un autocompletado.
+     */
+    public static int plegarPalabras(CharSequence texto, char[] destino, boolean espacioFinal) {
+        int largo = 0;
+        boolean separador = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = plegar(texto.charAt(i));
+            if (c == 0) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                separador = true;
+                continue;
+            }
+            if (separador && largo > 0) {
+                if (largo == destino.length) {
+                    return -1;
+                }
+                destino[largo++] = ' ';
+            }
+            separador = false;
+            if (largo == destino.length) {
+                return -1;
+            }
+            destino[largo++] = c;
+        }
+        if (espacioFinal && separador && largo > 0) {
+            if (largo == destino.length) {
+                return -1;
+            }
+            destino[largo++] = ' ';
+        }
+        return largo;
+    }
+
+    /**
+     * Texto plegado con las palabras separadas por un único espacio; ver
+     * {@link #plegarPalabras(CharSequence, char[], boolean)}.
+     */
+    public static String plegarPalabras(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        char[] destino = new char[texto.length()];
+        return new String(destino, 0, plegarPalabras(texto, destino, false));
+    }
+}
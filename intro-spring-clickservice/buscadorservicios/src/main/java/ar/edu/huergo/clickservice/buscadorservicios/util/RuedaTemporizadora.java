@@ -0,0 +1,139 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporizadores con hash (hashed timing wheel): programa vencimientos por clave y
+ * devuelve los vencidos al avanzar el reloj.
+ *
+ * El tiempo se divide en ticks de {@code tickMs} milisegundos y cada tick cae en uno de los
+ * casilleros de la rueda (tick módulo cantidad de casilleros). Cada casillero es una lista doblemente
+ * enlazada, así que programar y cancelar cuestan O(1) sin importar cuántos temporizadores haya, y
+ * avanzar un tick sólo recorre su casillero. Un vencimiento a más de una vuelta de distancia queda en
+ * el mismo casillero y se saltea hasta que llega su tick.
+ *
+ * Un vencimiento nunca se informa antes de tiempo: se redondea hacia arriba al tick siguiente, así
+ * que puede informarse hasta un tick tarde. No es thread-safe: quien lo use debe sincronizar.
+ */
+public class RuedaTemporizadora<K> {
+
+    private final long tickMs;
+    private final int mascara;
+    private final Nodo<K>[] casilleros;
+    private final Map<K, Nodo<K>> nodoPorClave = new HashMap<>();
+
+    /** Primer tick que todavía no se procesó. */
+    private long tickActual;
+
+    /**
+     * @param tickMs duración de cada tick en milisegundos
+     * @param casilleros cantidad mínima de casilleros; se redondea a la siguiente potencia de 2
+     * @param ahoraMs instante inicial del reloj
+     */
+    @SuppressWarnings("unchecked")
+    public RuedaTemporizadora(long tickMs, int casilleros, long ahoraMs) {
+        if (tickMs < 1) {
+            throw new IllegalArgumentException("El tick debe ser de al menos un milisegundo");
+        }
+        int tamanio = Integer.highestOneBit(Math.max(2, casilleros) - 1) << 1;
+        this.tickMs = tickMs;
+        this.mascara = tamanio - 1;
+        this.casilleros = new Nodo[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            Nodo<K> centinela = new Nodo<>(null, 0);
+            centinela.anterior = centinela;
+            centinela.siguiente = centinela;
+            this.casilleros[i] = centinela;
+        }
+        this.tickActual = Math.floorDiv(ahoraMs, tickMs);
+    }
+
+    /**
+     * Programa el vencimiento de la clave, reemplazando el que tuviera.
+     */
+    public void programar(K clave, long venceMs) {
+        cancelar(clave);
+        // Redondeo hacia arriba: el tick t se procesa cuando el reloj llega a t * tickMs
+        long tick = Math.max(Math.floorDiv(venceMs + tickMs - 1, tickMs), tickActual);
+        Nodo<K> nodo = new Nodo<>(clave, tick);
+        enlazar(casilleros[(int) tick & mascara], nodo);
+        nodoPorClave.put(clave, nodo);
+    }
+
+    /**
+     * Cancela el vencimiento de la clave. Devuelve false si no tenía uno programado.
+     */
+    public boolean cancelar(K clave) {
+        Nodo<K> nodo = nodoPorClave.remove(clave);
+        if (nodo == null) {
+            return false;
+        }
+        desenlazar(nodo);
+        return true;
+    }
+
+    public boolean contiene(K clave) {
+        return nodoPorClave.containsKey(clave);
+    }
+
+    /**
+     * Avanza el reloj hasta {@code ahoraMs} y devuelve (y olvida) las claves vencidas. Si pasó más de
+     * una vuelta desde el último avance se recorre cada casillero una sola vez.
+     */
+    public List<K> avanzar(long ahoraMs) {
+        long ultimoTick = Math.floorDiv(ahoraMs, tickMs);
+        if (ultimoTick < tickActual) {
+            return List.of();
+        }
+        List<K> vencidas = new ArrayList<>();
+        long pasos = Math.min(ultimoTick - tickActual + 1, casilleros.length);
+        for (long paso = 0; paso < pasos; paso++) {
+            Nodo<K> centinela = casilleros[(int) (tickActual + paso) & mascara];
+            Nodo<K> nodo = centinela.siguiente;
+            while (nodo != centinela) {
+                Nodo<K> siguiente = nodo.siguiente;
+                if (nodo.tick <= ultimoTick) {
+                    desenlazar(nodo);
+                    nodoPorClave.remove(nodo.clave);
+                    vencidas.add(nodo.clave);
+                }
+                nodo = siguiente;
+            }
+        }
+        tickActual = ultimoTick + 1;
+        return vencidas;
+    }
+
+    public int tamanio() {
+        return nodoPorClave.size();
+    }
+
+    private static <K> void enlazar(Nodo<K> centinela, Nodo<K> nodo) {
+        nodo.anterior = centinela.anterior;
+        nodo.siguiente = centinela;
+        centinela.anterior.siguiente = nodo;
+        centinela.anterior = nodo;
+    }
+
+    private static <K> void desenlazar(Nodo<K> nodo) {
+        nodo.anterior.siguiente = nodo.siguiente;
+        nodo.siguiente.anterior = nodo.anterior;
+        nodo.anterior = null;
+        nodo.siguiente = null;
+    }
+
+    private static final class Nodo<K> {
+        private final K clave;
+        private final long tick;
+        private Nodo<K> anterior;
+        private Nodo<K> siguiente;
+
+        private Nodo(K clave, long tick) {
+            this.clave = clave;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Clase utilitaria para obtener el digesto de un token.
+ * Se usa para indexar tokens (JWT, refresh tokens) sin guardarlos en claro.
+ */
+public class TokenHasher {
+
+    /**
+     * Devuelve el SHA-256 del token codificado en Base64 URL-safe sin padding (43 caracteres).
+     *
+     * @param token el token a digerir
+     * @return el digesto del token
+     */
+    public static String digerir(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package ar.edu.huergo.clickservice.buscadorservicios.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantiene los {@code k} elementos de mayor puntaje de un conjunto cuyos puntajes cambian de a uno.
+ *
+ * Usa dos heaps indexados (cada elemento conoce su posición, así se puede actualizar o quitar sin
+ * recorrer): un heap de mínimos con los {@code k} mejores y un heap de máximos con el resto. Se
+ * mantiene que el peor de los mejores no es peor que el mejor del resto, de modo que cada
+ * actualización cuesta O(log n) y leer el top no requiere ordenar el conjunto completo. El top
+ * ordenado se guarda y sólo se vuelve a ordenar (O(k log k)) después de un cambio.
+ *
+ * A igual puntaje gana el id menor. No es thread-safe para escrituras concurrentes; las lecturas
+ * con {@link #mejores(int)} pueden ser concurrentes entre sí si no hay escrituras en curso.
+ */
+public class TopKIncremental {
+
+    /**
+     * Elemento del top y su puntaje.
+     */
+    public record Entrada(long id, double puntaje) {
+    }
+
+    private final int k;
+    private final HeapIndexado mejores = new HeapIndexado(true);
+    private final HeapIndexado resto = new HeapIndexado(false);
+    private final Map<Long, HeapIndexado> ubicacion = new HashMap<>();
+
+    private volatile Entrada[] ordenados;
+
+    public TopKIncremental(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k debe ser mayor a 0");
+        }
+        this.k = k;
+    }
+
+    /**
+     * Agrega el elemento o cambia su puntaje.
+     */
+    public void actualizar(long id, double puntaje) {
+        HeapIndexado heap = ubicacion.get(id);
+        if (heap != null) {
+            heap.cambiar(id, puntaje);
+        } else {
+            resto.agregar(id, puntaje);
+            ubicacion.put(id, resto);
+        }
+        equilibrar();
+        ordenados = null;
+    }
+
+    /**
+     * Quita el elemento. Devuelve false si no estaba.
+     */
+    public boolean eliminar(long id) {
+        HeapIndexado heap = ubicacion.remove(id);
+        if (heap == null) {
+            return false;
+        }
+        heap.quitar(id);
+        equilibrar();
+        ordenados = null;
+        return true;
+    }
+
+    /**
+     * Los primeros {@code cantidad} elementos (como mucho {@code k}), de mayor a menor puntaje.
+     */
+    public List<Entrada> mejores(int cantidad) {
+        Entrada[] top = ordenados;
+        if (top == null) {
+            top = mejores.entradas();
+            Arrays.sort(top, (a, b) -> a.puntaje() != b.puntaje()
+                    ? Double.compare(b.puntaje(), a.puntaje())
+                    : Long.compare(a.id(), b.id()));
+            ordenados = top;
+        }
+        int hasta = Math.min(Math.max(cantidad, 0), top.length);
+        return Collections.unmodifiableList(Arrays.asList(top)).subList(0, hasta);
+    }
+
+    public int tamanio() {
+        return ubicacion.size();
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Restablece el invariante después de un cambio: el top tiene min(k, n) elementos y su peor
+     * elemento no es peor que el mejor del resto.
+     */
+    private void equilibrar() {
+        while (mejores.tamanio < k && resto.tamanio > 0) {
+            mover(resto, mejores);
+        }
+        while (mejores.tamanio > k) {
+            mover(mejores, resto);
+        }
+        while (resto.tamanio > 0 && mejores.tamanio > 0
+                && mejor(resto.puntajes[0], resto.ids[0], mejores.puntajes[0], mejores.ids[0])) {
+            mover(resto, mejores);
+            mover(mejores, resto);
+        }
+    }
+
+    private void mover(HeapIndexado origen, HeapIndexado destino) {
+        long id = origen.ids[0];
+        double puntaje = origen.puntajes[0];
+        origen.quitar(id);
+        destino.agregar(id, puntaje);
+        ubicacion.put(id, destino);
+    }
+
+    /** Indica si (puntajeA, idA) va antes que (puntajeB, idB) en el ranking. */
+    private static boolean mejor(double puntajeA, long idA, double puntajeB, long idB) {
+        return puntajeA > puntajeB || (puntajeA == puntajeB && idA < idB);
+    }
+
+    /**
+     * Heap binario sobre arreglos primitivos con un mapa id -> posición. Con {@code minimos} la
+     * raíz es el peor elemento del ranking; si no, el mejor.
+     */
+    private static final class HeapIndexado {
+        private final boolean minimos;
+        private final Map<Long, Integer> posiciones = new HashMap<>();
+        private long[] ids = new long[16];
+        private double[] puntajes = new double[16];
+        private int tamanio;
+
+        HeapIndexado(boolean minimos) {
+            this.minimos = minimos;
+        }
+
+        void agregar(long id, double puntaje) {
+            if (tamanio == ids.length) {
+                ids = Arrays.copyOf(ids, tamanio * 2);
+                puntajes = Arrays.copyOf(puntajes, tamanio * 2);
+            }
+            ids[tamanio] = id;
+            puntajes[tamanio] = puntaje;
+            posiciones.put(id, tamanio);
+            subir(tamanio++);
+        }
+
+        void cambiar(long id, double puntaje) {
+            int posicion = posiciones.get(id);
+            puntajes[posicion] = puntaje;
+            bajar(subir(posicion));
+        }
+
+        void quitar(long id) {
+            int posicion = posiciones.remove(id);
+            int ultimo = --tamanio;
+            if (posicion != ultimo) {
+                ids[posicion] = ids[ultimo];
+                puntajes[posicion] = puntajes[ultimo];
+                posiciones.put(ids[posicion], posicion);
+                bajar(subir(posicion));
+            }
+        }
+
+        Entrada[] entradas() {
+            Entrada[] entradas = new Entrada[tamanio];
+            for (int i = 0; i < tamanio; i++) {
+                entradas[i] = new Entrada(ids[i], puntajes[i]);
+            }
+            return entradas;
+        }
+
+        /** Indica si el elemento en {@code a} debe estar más cerca de la raíz que el de {@code b}. */
+        private boolean antes(int a, int b) {
+            boolean aEsMejor = mejor(puntajes[a], ids[a], puntajes[b], ids[b]);
+            return minimos ? !aEsMejor && a != b : aEsMejor;
+        }
+
+        private int subir(int posicion) {
+            while (posicion > 0) {
+                int padre = (posicion - 1) / 2;
+                if (!antes(posicion, padre)) {
+                    break;
+                }
+                intercambiar(posicion, padre);
+                posicion = padre;
+            }
+            return posicion;
+        }
+
+        private void bajar(int posicion) {
+            while (true) {
+                int izquierdo = 2 * posicion + 1;
+                int derecho = izquierdo + 1;
+                int elegido = posicion;
+                if (izquierdo < tamanio && antes(izquierdo, elegido)) {
+                    elegido = izquierdo;
+                }
+                if (derecho < tamanio && antes(derecho, elegido)) {
+                    elegido = derecho;
+                }
+                if (elegido == posicion) {
+                    return;
+                }
+                intercambiar(posicion, elegido);
+                posicion = elegido;
+            }
+        }
+
+        private void intercambiar(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double puntaje = puntajes[a];
+            puntajes[a] = puntajes[b];
+            puntajes[b] = puntaje;
+            posiciones.put(ids[a], a);
+            posiciones.put(ids[b], b);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests de Unidad - HashingPasswordEncoder")
+class HashingPasswordEncoderTest {
+
+    private HashingPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Debería generar y verificar hashes BCrypt a través del pool")
+    void deberiaGenerarYVerificarHashes() {
+        // Given
+        encoder = new HashingPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 2,
+                new SimpleMeterRegistry());
+
+        // When
+        String hash = encoder.encode("ClaveSegura@123");
+
+        // Then
+        assertTrue(encoder.matches("ClaveSegura@123", hash));
+        assertFalse(encoder.matches("OtraClave@123", hash));
+    }
+
+    @Test
+    @DisplayName("Debería pedir re-hash cuando el costo guardado es menor al configurado")
+    void deberiaPedirRehashConCostoMenor() {
+        // Given
+        encoder = new HashingPasswordEncoder(new BCryptPasswordEncoder(6), 1, 1, 2,
+                new SimpleMeterRegistry());
+        String hashCostoBajo = new BCryptPasswordEncoder(4).encode("ClaveSegura@123");
+
+        // Then
+        assertTrue(encoder.upgradeEncoding(hashCostoBajo));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("ClaveSegura@123")));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con HashingSaturadoException cuando la cola está llena")
+    void deberiaRechazarCuandoLaColaEstaLlena() throws Exception {
+        // Given: un delegado que bloquea hasta que se libere el latch
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        encoder = new HashingPasswordEncoder(delegadoBloqueante(iniciado, liberar), 1, 1, 3,
+                new SimpleMeterRegistry());
+
+        CompletableFuture<String> enEjecucion = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> encolado = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        esperarCola(1);
+
+        // When
+        HashingSaturadoException ex = assertThrows(HashingSaturadoException.class,
+                () -> encoder.encode("c"));
+
+        // Then
+        assertEquals(3, ex.getReintentarEnSegundos());
+        assertEquals(1, encoder.getRechazos());
+        liberar.countDown();
+        assertEquals("hash-a", enEjecucion.get(5, TimeUnit.SECONDS));
+        assertEquals("hash-b", encolado.get(5, TimeUnit.SECONDS));
+    }
+
+    private void esperarCola(int tamanio) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (encoder.getTamanioCola() < tamanio && System.currentTimeMillis() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static PasswordEncoder delegadoBloqueante(CountDownLatch iniciado, CountDownLatch liberar) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                iniciado.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash-" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import ar.edu.huergo.clickservice.buscadorservicios.service.security.LimitadorIntentosLogin;
+import jakarta.servlet.FilterChain;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - LimiteLoginWebFilter")
+class LimiteLoginWebFilterTest {
+
+    @Mock
+    private LimitadorIntentosLogin limitadorIntentosLogin;
+
+    private LimiteLoginWebFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new LimiteLoginWebFilter(limitadorIntentosLogin);
+    }
+
+    @Test
+    @DisplayName("Debería redirigir al login con Retry-After cuando el hashing está saturado")
+    void deberiaRedirigirCuandoElHashingEstaSaturado() throws Exception {
+        // Given: la verificación de la contraseña (dentro de UsernamePasswordAuthenticationFilter) no
+        // consigue lugar en el pool de hashing
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/web/login");
+        request.setServletPath("/web/login");
+        request.addParameter("username", "cliente@test.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain cadena = (req, res) -> {
+            throw new HashingSaturadoException(2);
+        };
+
+        // When
+        filtro.doFilter(request, response, cadena);
+
+        // Then
+        assertEquals(302, response.getStatus());
+        assertEquals("/web/login?saturado=true", response.getRedirectedUrl());
+        assertEquals("2", response.getHeader("Retry-After"));
+        verify(limitadorIntentosLogin).verificar("cliente@test.com", "127.0.0.1");
+        verify(limitadorIntentosLogin, never()).registrarExito(anyString());
+    }
+}
@@ -0,0 +1,163 @@
+package ar.edu.huergo.clickservice.buscadorservicios.config.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.session.ConcurrentSessionFilter;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.SugerenciaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.service.sugerencia.IndiceSugerencias;
+import jakarta.servlet.Filter;
+
+/**
+ * Verifica qué cadena de seguridad atiende cada tipo de ruta.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("Tests de Integración - Cadenas de SecurityConfig")
+class SecurityConfigTest {
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
+    @Autowired
+    private SessionRegistry sessionRegistry;
+
+    @Autowired
+    private IndiceSugerencias indiceSugerencias;
+
+    @Test
+    @DisplayName("Las páginas web públicas deberían usar la cadena sin sesión ni autenticación")
+    void paginasPublicasDeberianUsarCadenaPublica() {
+        for (String ruta : List.of("/web", "/web/", "/web/servicios", "/web/acerca")) {
+            List<Filter> filtros = filtrosPara("GET", ruta);
+            assertFalse(filtros.isEmpty(), ruta);
+            assertEquals(0, contar(filtros, UsernamePasswordAuthenticationFilter.class), ruta);
+            assertEquals(0, contar(filtros, JwtAuthenticationFilter.class), ruta);
+            assertEquals(0, contar(filtros, ConcurrentSessionFilter.class), ruta);
+        }
+    }
+
+    @Test
+    @DisplayName("Los archivos estáticos no deberían pasar por ninguna cadena de seguridad")
+    void archivosEstaticosNoDeberianPasarPorNingunaCadena() {
+        for (String ruta : List.of("/css/styles.css", "/styles.css", "/favicon.ico")) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", ruta);
+            assertTrue(filterChainProxy.getFilterChains().stream().noneMatch(cadena -> cadena.matches(request)),
+                    ruta);
+        }
+    }
+
+    @Test
+    @DisplayName("Las rutas web privadas y el login deberían usar la cadena con sesión")
+    void rutasWebDeberianUsarCadenaConSesion() {
+        for (String[] request : new String[][] {{"GET", "/web/dashboard"}, {"GET", "/web/login"},
+                {"POST", "/web/login"}, {"POST", "/web/servicios"}}) {
+            List<Filter> filtros = filtrosPara(request[0], request[1]);
+            assertEquals(1, contar(filtros, UsernamePasswordAuthenticationFilter.class), request[1]);
+            assertEquals(1, contar(filtros, ConcurrentSessionFilter.class), request[1]);
+            assertEquals(0, contar(filtros, JwtAuthenticationFilter.class), request[1]);
+        }
+    }
+
+    @Test
+    @DisplayName("La API y Actuator deberían usar la cadena JWT sin sesiones")
+    void apiDeberiaUsarCadenaJwt() {
+        for (String ruta : List.of("/api/servicios", "/api/auth/login", "/api/sugerencias", "/actuator/health")) {
+            List<Filter> filtros = filtrosPara("GET", ruta);
+            assertEquals(1, contar(filtros, JwtAuthenticationFilter.class), ruta);
+            assertEquals(0, contar(filtros, UsernamePasswordAuthenticationFilter.class), ruta);
+            assertEquals(0, contar(filtros, ConcurrentSessionFilter.class), ruta);
+        }
+    }
+
+    @Test
+    @DisplayName("Un archivo estático no debería crear sesión")
+    void archivoEstaticoNoDeberiaCrearSesion() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/css/styles.css"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertNull(resultado.getRequest().getSession(false));
+        assertNull(resultado.getResponse().getCookie("SESSION"));
+    }
+
+    @Test
+    @DisplayName("El login web debería guardar la sesión en JDBC y respetar una sesión por usuario")
+    void loginWebDeberiaUsarSesionesCompartidas() throws Exception {
+        // Given / When: dos logins del mismo usuario
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/web/login")
+                    .param("username", "cliente@clickservice.edu.ar")
+                    .param("password", "ClienteSuperSegura@123"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/web/dashboard"));
+        }
+
+        // Then: las sesiones están en el repositorio JDBC y sólo la última sigue activa
+        assertEquals(2, sessionRepository.findByPrincipalName("cliente@clickservice.edu.ar").size());
+        assertEquals(1, sessionRegistry.getAllSessions("cliente@clickservice.edu.ar", false).size());
+    }
+
+    @Test
+    @DisplayName("Las sugerencias sin autenticación no deberían incluir nombres de profesionales")
+    void sugerenciasAnonimasNoDeberianIncluirProfesionales() throws Exception {
+        indiceSugerencias.actualizarProfesional(-1L,
+                List.of(new SugerenciaProfesionalDTO(-1L, "Zacarías Quiroga", "Zárate", 3, null)));
+        try {
+            mockMvc.perform(get("/api/sugerencias").param("q", "za"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.zonas[0].texto").value("Zárate"))
+                .andExpect(jsonPath("$.profesionales").isEmpty());
+
+            mockMvc.perform(get("/api/sugerencias").param("q", "za").with(user("cliente").roles("CLIENTE")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.profesionales[0].texto").value("Zacarías Quiroga"));
+        } finally {
+            indiceSugerencias.actualizarProfesional(-1L, List.of());
+        }
+    }
+
+    private List<Filter> filtrosPara(String metodo, String ruta) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, ruta);
+        return filterChainProxy.getFilterChains().stream()
+                .filter(cadena -> cadena.matches(request))
+                .findFirst()
+                .map(SecurityFilterChain::getFilters)
+                .orElse(List.of());
+    }
+
+    private static long contar(List<Filter> filtros, Class<? extends Filter> tipo) {
+        return filtros.stream().filter(tipo::isInstance).count();
+    }
+}
@@ -1,10 +1,12 @@
 package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,9 +14,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.AgendaSlotDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio;
 
 @DataJpaTest
 class AgendaSlotRepositoryTest {
@@ -100,8 +105,147 @@ class AgendaSlotRepositoryTest {
             .isTrue();
     }
 
+    @Test
+    @DisplayName("Debería proyectar sólo los slots disponibles que no terminaron")
+    void deberiaProyectarFranjasLibres() {
+        var franjas = agendaSlotRepository.findFranjasLibresDesde(LocalDateTime.of(2024, 10, 1, 12, 0));
+
+        assertThat(franjas)
+            .as("El slot del 1/10 ya terminó y el del 2/10 no está disponible")
+            .singleElement()
+            .satisfies(franja -> assertThat(franja.fechaInicio()).isEqualTo(LocalDateTime.of(2024, 10, 3, 14, 0)));
+        assertThat(agendaSlotRepository.findFranjaLibreById(slotDisponible.getId()))
+            .hasValueSatisfying(franja -> assertThat(franja.profesionalId()).isEqualTo(profesional.getId()));
+        assertThat(agendaSlotRepository.findFranjaLibreById(slotNoDisponible.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería asignar ids de secuencia antes del insert y proyectar las franjas libres por ids")
+    void deberiaAsignarIdsDeSecuenciaYProyectarFranjasPorIds() {
+        List<AgendaSlot> nuevos = List.of(
+            nuevoAgendaSlot(LocalDateTime.of(2030, 1, 1, 9, 0), true),
+            nuevoAgendaSlot(LocalDateTime.of(2030, 1, 1, 11, 0), true),
+            nuevoAgendaSlot(LocalDateTime.of(2030, 1, 1, 13, 0), false));
+
+        List<AgendaSlot> guardados = agendaSlotRepository.saveAll(nuevos);
+
+        assertThat(guardados)
+            .as("Con la secuencia el id se conoce al persistir, sin esperar al insert")
+            .extracting(AgendaSlot::getId)
+            .doesNotContainNull()
+            .doesNotHaveDuplicates();
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> ids = guardados.stream().map(AgendaSlot::getId).toList();
+        assertThat(agendaSlotRepository.findFranjasLibresByIdIn(ids))
+            .as("El bloque no disponible queda afuera")
+            .extracting(franja -> franja.agendaSlotId())
+            .containsExactlyInAnyOrder(ids.get(0), ids.get(1));
+    }
+
+    @Test
+    @DisplayName("Debería proyectar todos los slots, libres y ocupados")
+    void deberiaProyectarBloques() {
+        var bloques = agendaSlotRepository.findBloques();
+
+        assertThat(bloques).hasSize(3);
+        assertThat(agendaSlotRepository.findBloqueById(slotNoDisponible.getId()))
+            .hasValueSatisfying(bloque -> {
+                assertThat(bloque.profesionalId()).isEqualTo(profesional.getId());
+                assertThat(bloque.fechaInicio()).isEqualTo(LocalDateTime.of(2024, 10, 2, 9, 0));
+                assertThat(bloque.disponible()).isFalse();
+            });
+        assertThat(agendaSlotRepository.findBloqueById(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería proyectar el calendario del profesional por fecha de inicio, con límites opcionales")
+    void deberiaProyectarCalendarioPorRango() {
+        AgendaSlot libre = agendaSlotRepository.findById(slotDisponible.getId()).orElseThrow();
+        SolicitudServicio solicitud = persistirSolicitud(libre.getProfesional().getUsuario());
+        agendaSlotRepository.reservar(libre.getId(), libre.getVersion(), solicitud);
+
+        try (var calendario = agendaSlotRepository.streamCalendario(profesional.getId(), null, null)) {
+            assertThat(calendario.toList())
+                .as("Sin límites trae todos los bloques del profesional ordenados por inicio")
+                .extracting(AgendaSlotDTO::getId, AgendaSlotDTO::getDisponible, AgendaSlotDTO::getSolicitudServicioId)
+                .containsExactly(
+                    tuple(slotDisponible.getId(), false, solicitud.getId()),
+                    tuple(slotNoDisponible.getId(), false, null));
+        }
+        try (var calendario = agendaSlotRepository.streamCalendario(profesional.getId(),
+                LocalDateTime.of(2024, 10, 1, 10, 0), LocalDateTime.of(2024, 10, 3, 0, 0))) {
+            assertThat(calendario.toList())
+                .as("Con rango trae los bloques que empiezan dentro")
+                .singleElement()
+                .satisfies(slot -> {
+                    assertThat(slot.getId()).isEqualTo(slotNoDisponible.getId());
+                    assertThat(slot.getProfesionalId()).isEqualTo(profesional.getId());
+                    assertThat(slot.getFechaFin()).isEqualTo(LocalDateTime.of(2024, 10, 2, 11, 0));
+                });
+        }
+        try (var calendario = agendaSlotRepository.streamCalendario(profesional.getId(), null,
+                LocalDateTime.of(2024, 10, 2, 9, 0))) {
+            assertThat(calendario.map(AgendaSlotDTO::getId).toList()).containsExactly(slotDisponible.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería reservar y liberar sólo con la versión vigente")
+    void deberiaReservarSoloConLaVersionVigente() {
+        AgendaSlot leido = agendaSlotRepository.findById(slotDisponible.getId()).orElseThrow();
+        SolicitudServicio solicitud = persistirSolicitud(leido.getProfesional().getUsuario());
+
+        assertThat(agendaSlotRepository.reservar(leido.getId(), leido.getVersion(), solicitud))
+            .as("La primera reserva con la versión leída se aplica")
+            .isEqualTo(1);
+        assertThat(agendaSlotRepository.reservar(leido.getId(), leido.getVersion(), solicitud))
+            .as("Con la versión vieja ya no se aplica")
+            .isZero();
+
+        AgendaSlot reservado = agendaSlotRepository.findById(leido.getId()).orElseThrow();
+        assertThat(reservado.getDisponible()).isFalse();
+        assertThat(reservado.getVersion()).isEqualTo(leido.getVersion() + 1);
+        assertThat(reservado.getSolicitudServicio().getId()).isEqualTo(solicitud.getId());
+        assertThat(agendaSlotRepository.reservar(leido.getId(), reservado.getVersion(), solicitud))
+            .as("Un bloque ocupado no se reserva aunque la versión coincida")
+            .isZero();
+
+        assertThat(agendaSlotRepository.liberar(leido.getId(), leido.getVersion())).isZero();
+        assertThat(agendaSlotRepository.liberar(leido.getId(), reservado.getVersion())).isEqualTo(1);
+        assertThat(agendaSlotRepository.findById(leido.getId()).orElseThrow())
+            .satisfies(liberado -> {
+                assertThat(liberado.getDisponible()).isTrue();
+                assertThat(liberado.getSolicitudServicio()).isNull();
+            });
+    }
+
     // ===== Helpers =====
 
+    private SolicitudServicio persistirSolicitud(Usuario cliente) {
+        Servicio servicio = entityManager.persist(new Servicio(null, "Cerrajería", 2000.0));
+        SolicitudServicio solicitud = new SolicitudServicio();
+        solicitud.setServicio(servicio);
+        solicitud.setCliente(cliente);
+        solicitud.setDescripcionProblema("La cerradura de la puerta no abre");
+        solicitud.setDireccionServicio("Calle Falsa 123, CABA");
+        solicitud.setFechaSolicitada(LocalDate.now().plusDays(7));
+        solicitud.setFranjaHoraria("Mañana");
+        solicitud.setPresupuestoMaximo(5000.0);
+        entityManager.persistAndFlush(solicitud);
+        return solicitud;
+    }
+
+    private AgendaSlot nuevoAgendaSlot(LocalDateTime inicio, boolean disponible) {
+        AgendaSlot slot = new AgendaSlot();
+        slot.setProfesional(profesional);
+        slot.setFechaInicio(inicio);
+        slot.setFechaFin(inicio.plusHours(2));
+        slot.setDisponible(disponible);
+        return slot;
+    }
+
     private AgendaSlot persistirAgendaSlot(
         Profesional profesional,
         LocalDateTime inicio,
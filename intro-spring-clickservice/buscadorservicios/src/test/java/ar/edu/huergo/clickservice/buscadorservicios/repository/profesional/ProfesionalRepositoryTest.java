@@ -2,20 +2,35 @@ package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.DisplayName;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroDirectorioDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.OrdenDirectorio;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ProfesionalDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Reseña;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Rol;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.mapper.profesional.ProfesionalMapper;
+import ar.edu.huergo.clickservice.buscadorservicios.mapper.security.UsuarioMapper;
+import ar.edu.huergo.clickservice.buscadorservicios.mapper.servicio.ServicioMapper;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ProfesionalMapper.class, UsuarioMapper.class, ServicioMapper.class})
 class ProfesionalRepositoryTest {
 
     @Autowired
@@ -24,6 +39,9 @@ class ProfesionalRepositoryTest {
     @Autowired
     private TestEntityManager entityManager;
 
+    @Autowired
+    private ProfesionalMapper profesionalMapper;
+
     @Test
     @DisplayName("Debe encontrarse el profesional por id de usuario y no para un usuario inexistente")
     void deberiaEncontrarProfesionalPorUsuario() {
@@ -94,8 +112,318 @@ class ProfesionalRepositoryTest {
             .containsExactly(profesionalDisponible.getId());
     }
 
+    @Test
+    @DisplayName("Debe devolver una ubicación por servicio sólo de profesionales disponibles con coordenadas")
+    void deberiaDevolverUbicacionesDisponibles() {
+        // Arrange
+        Servicio electricidad = persistirServicio(7L, "Electricidad", 1800.0);
+        Profesional conUbicacion = persistirProfesional(7L, true, electricidad);
+        conUbicacion.setLatitud(-34.6);
+        conUbicacion.setLongitud(-58.4);
+        conUbicacion.setRadioCoberturaKm(10.0);
+        Profesional noDisponible = persistirProfesional(8L, false, electricidad);
+        noDisponible.setLatitud(-34.6);
+        noDisponible.setLongitud(-58.4);
+        persistirProfesional(9L, true, electricidad);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        var ubicaciones = profesionalRepository.findUbicacionesDisponibles();
+
+        // Assert
+        assertThat(ubicaciones)
+            .as("Solo deben indexarse profesionales disponibles con latitud y longitud")
+            .singleElement()
+            .satisfies(u -> {
+                assertThat(u.profesionalId()).isEqualTo(conUbicacion.getId());
+                assertThat(u.servicioId()).isEqualTo(electricidad.getId());
+                assertThat(u.radioCoberturaKm()).isEqualTo(10.0);
+            });
+        assertThat(profesionalRepository.findUbicacionesDisponiblesByProfesionalId(noDisponible.getId()))
+            .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe devolver todos los servicios de los profesionales que ofrecen un servicio")
+    void deberiaDevolverTextosPorServicio() {
+        // Arrange
+        Servicio gas = persistirServicio(10L, "Gas", 1800.0);
+        Servicio pintura = persistirServicio(11L, "Pintura", 1500.0);
+        Profesional gasista = persistirProfesional(10L, true, gas);
+        gasista.getServicios().add(pintura);
+        persistirProfesional(11L, true, pintura);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        var textos = profesionalRepository.findTextosByServicioId(gas.getId());
+
+        // Assert
+        assertThat(textos)
+            .as("Debe incluir cada servicio del profesional que ofrece gas y a nadie más")
+            .hasSize(2)
+            .allMatch(t -> t.profesionalId().equals(gasista.getId()))
+            .extracting(t -> t.servicio())
+            .containsExactlyInAnyOrder("Gas", "Pintura");
+    }
+
+    @Test
+    @DisplayName("Debe recorrer el directorio filtrado por cursor sin repetir ni saltear profesionales")
+    void deberiaRecorrerDirectorioPorCursor() {
+        // Arrange
+        Servicio gas = persistirServicio(12L, "Gas", 1800.0);
+        Servicio pintura = persistirServicio(13L, "Pintura", 1500.0);
+        double[] calificaciones = {4.8, 3.0, 4.5, 4.5, 4.9, 2.0, 4.5};
+        Long[] ids = new Long[calificaciones.length];
+        for (int i = 0; i < calificaciones.length; i++) {
+            Profesional p = persistirProfesional(20L + i, i != 4, i == 5 ? pintura : gas);
+            p.setCalificacionPromedio(calificaciones[i]);
+            p.setZonaTrabajo(i % 2 == 0 ? "Palermo, CABA" : "Quilmes");
+            ids[i] = p.getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+        // Disponibles, de gas, calificación >= 4 y en Palermo: índices 0, 2 y 6 (el 4 no está disponible)
+        FiltroDirectorioDTO filtro = new FiltroDirectorioDTO(Set.of(gas.getId()), 4.0, null, true, "palermo");
+
+        // Act: páginas de a 2 siguiendo la posición del último
+        List<Long> recorridos = new ArrayList<>();
+        DirectorioProfesionalesRepository.PosicionDirectorio posicion = null;
+        List<Long> pagina;
+        do {
+            pagina = profesionalRepository.buscarIdsDirectorio(filtro, OrdenDirectorio.CALIFICACION, posicion, 2);
+            recorridos.addAll(pagina);
+            if (!pagina.isEmpty()) {
+                Profesional ultimo = profesionalRepository.findById(pagina.get(pagina.size() - 1)).orElseThrow();
+                posicion = new DirectorioProfesionalesRepository.PosicionDirectorio(
+                        ultimo.getCalificacionPromedio(), ultimo.getId());
+            }
+        } while (pagina.size() == 2);
+
+        // Assert: 4.8 primero y, a igual calificación (4.5), el id mayor antes
+        assertThat(recorridos)
+            .as("Debe devolver cada profesional que cumple el filtro una sola vez y en orden")
+            .containsExactly(ids[0], ids[6], ids[2]);
+    }
+
+    @Test
+    @DisplayName("El plan de la consulta del directorio debe recorrer en orden un índice compuesto")
+    void deberiaUsarIndicesCompuestosEnElDirectorio() {
+        var posicion = new DirectorioProfesionalesRepository.PosicionDirectorio(4.5, 100L);
+        var posicionTrabajos = new DirectorioProfesionalesRepository.PosicionDirectorio(30, 100L);
+
+        assertThat(planDirectorio(new FiltroDirectorioDTO(null, null, null, true, null),
+                OrdenDirectorio.CALIFICACION, posicion))
+            .containsIgnoringCase("IX_PROFESIONALES_DISPONIBLE_CALIFICACION")
+            .containsIgnoringCase("index sorted");
+        assertThat(planDirectorio(new FiltroDirectorioDTO(Set.of(1L, 2L), 4.0, 10, null, "palermo"),
+                OrdenDirectorio.CALIFICACION, posicion))
+            .containsIgnoringCase("IX_PROFESIONALES_CALIFICACION")
+            .containsIgnoringCase("index sorted");
+        assertThat(planDirectorio(new FiltroDirectorioDTO(Set.of(1L), null, 5, false, null),
+                OrdenDirectorio.EXPERIENCIA, posicionTrabajos))
+            .containsIgnoringCase("IX_PROFESIONALES_DISPONIBLE_TRABAJOS")
+            .containsIgnoringCase("index sorted");
+        assertThat(planDirectorio(new FiltroDirectorioDTO(null, null, 5, null, null),
+                OrdenDirectorio.EXPERIENCIA, null))
+            .containsIgnoringCase("IX_PROFESIONALES_TRABAJOS")
+            .containsIgnoringCase("index sorted");
+    }
+
+    @Test
+    @DisplayName("Mapear un listado a DTO debe usar las mismas sentencias SQL sin importar su tamaño")
+    void deberiaListarConCantidadConstanteDeSentencias() {
+        // Arrange: cada profesional con dos servicios y un usuario con rol
+        Rol rol = new Rol("PROFESIONAL");
+        entityManager.persist(rol);
+        Servicio gas = persistirServicio(14L, "Gas", 1800.0);
+        Servicio pintura = persistirServicio(15L, "Pintura", 1500.0);
+        for (long i = 0; i < 12; i++) {
+            Profesional p = persistirProfesional(40L + i, true, gas);
+            p.getServicios().add(pintura);
+            p.getUsuario().getRoles().add(rol);
+        }
+        entityManager.flush();
+        FiltroDirectorioDTO sinFiltros = new FiltroDirectorioDTO(null, null, null, null, null);
+
+        // Act: una página del directorio (ids + carga por id) con 2 y con 12 profesionales
+        long sentenciasPaginaChica = contarSentencias(() -> profesionalMapper.toDTOList(profesionalRepository
+                .findByIdIn(profesionalRepository.buscarIdsDirectorio(sinFiltros, OrdenDirectorio.CALIFICACION, null, 2))));
+        long sentenciasPaginaGrande = contarSentencias(() -> profesionalMapper.toDTOList(profesionalRepository
+                .findByIdIn(profesionalRepository.buscarIdsDirectorio(sinFiltros, OrdenDirectorio.CALIFICACION, null, 12))));
+
+        // Assert
+        assertThat(sentenciasPaginaGrande)
+            .as("La cantidad de sentencias no debe crecer con el tamaño de la página")
+            .isEqualTo(sentenciasPaginaChica)
+            .isEqualTo(2);
+        assertThat(contarSentencias(() -> profesionalMapper.toDTOList(profesionalRepository.findAll())))
+            .as("El listado completo debe resolverse en una sola sentencia")
+            .isEqualTo(1);
+        assertThat(contarSentencias(() -> profesionalMapper.toDTOList(
+                profesionalRepository.findByServiciosIdAndDisponibleTrue(gas.getId()))))
+            .isEqualTo(1);
+
+        entityManager.clear();
+        List<ProfesionalDTO> porServicio = profesionalMapper.toDTOList(
+                profesionalRepository.findByServiciosIdAndDisponibleTrue(gas.getId()));
+        assertThat(porServicio)
+            .as("Filtrar por un servicio no debe recortar la colección de servicios del profesional")
+            .hasSize(12)
+            .allSatisfy(dto -> {
+                assertThat(dto.getServiciosIds()).containsExactlyInAnyOrder(gas.getId(), pintura.getId());
+                assertThat(dto.getUsuario().roles()).containsExactly("PROFESIONAL");
+            });
+    }
+
+    @Test
+    @DisplayName("Debe resumir las reseñas de cada profesional disponible por servicio para el ranking")
+    void deberiaDevolverMetricasDeRanking() {
+        // Arrange
+        Servicio gas = persistirServicio(16L, "Gas", 1800.0);
+        Servicio pintura = persistirServicio(17L, "Pintura", 1500.0);
+        Profesional conReseñas = persistirProfesional(60L, true, gas);
+        conReseñas.getServicios().add(pintura);
+        conReseñas.setTrabajosRealizados(25);
+        Usuario cliente = persistirUsuario(61L);
+        LocalDateTime ultima = LocalDateTime.of(2026, 2, 10, 9, 0);
+        persistirReseña(1L, 4, LocalDateTime.of(2026, 1, 5, 9, 0), cliente, conReseñas);
+        persistirReseña(2L, 5, ultima, cliente, conReseñas);
+        Profesional sinReseñas = persistirProfesional(62L, true, gas);
+        persistirProfesional(63L, false, gas);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        var metricas = profesionalRepository.findMetricasRanking();
+
+        // Assert
+        assertThat(metricas)
+            .as("Una fila por servicio de cada profesional disponible, sin duplicar reseñas")
+            .hasSize(3)
+            .filteredOn(m -> m.profesionalId().equals(conReseñas.getId()))
+            .hasSize(2)
+            .allSatisfy(m -> {
+                assertThat(m.trabajosRealizados()).isEqualTo(25);
+                assertThat(m.cantidadReseñas()).isEqualTo(2L);
+                assertThat(m.promedioReseñas()).isEqualTo(4.5);
+                assertThat(m.ultimaReseña()).isEqualTo(ultima);
+            });
+        assertThat(profesionalRepository.findMetricasRankingByProfesionalId(sinReseñas.getId()))
+            .singleElement()
+            .satisfies(m -> {
+                assertThat(m.cantidadReseñas()).isZero();
+                assertThat(m.promedioReseñas()).isNull();
+            });
+    }
+
+    @Test
+    @DisplayName("Debe devolver los valores de faceta de todos los profesionales, con o sin servicios")
+    void deberiaDevolverFacetas() {
+        // Arrange
+        Servicio gas = persistirServicio(20L, "Gas", 1800.0);
+        Servicio pintura = persistirServicio(21L, "Pintura", 1500.0);
+        Profesional gasista = persistirProfesional(20L, false, gas);
+        gasista.getServicios().add(pintura);
+        gasista.setCalificacionPromedio(4.2);
+        Profesional sinServicios = persistirProfesional(21L, true, pintura);
+        sinServicios.getServicios().clear();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        var facetas = profesionalRepository.findFacetasProfesionales();
+
+        // Assert
+        assertThat(facetas)
+            .filteredOn(f -> f.profesionalId().equals(gasista.getId()))
+            .hasSize(2)
+            .allSatisfy(f -> {
+                assertThat(f.calificacionPromedio()).isEqualTo(4.2);
+                assertThat(f.disponible()).isFalse();
+                assertThat(f.zonaTrabajo()).isEqualTo("Zona 20");
+            })
+            .extracting(f -> f.servicioId())
+            .containsExactlyInAnyOrder(gas.getId(), pintura.getId());
+        assertThat(profesionalRepository.findFacetasByProfesionalId(sinServicios.getId()))
+            .as("Un profesional sin servicios también tiene facetas de zona, calificación y disponibilidad")
+            .singleElement()
+            .satisfies(f -> assertThat(f.servicioId()).isNull());
+    }
+
+    @Test
+    @DisplayName("Debe devolver nombre, zona, trabajos y servicios para las sugerencias")
+    void deberiaDevolverDatosDeSugerencias() {
+        // Arrange
+        Servicio gas = persistirServicio(22L, "Gas", 1800.0);
+        Profesional gasista = persistirProfesional(22L, true, gas);
+        gasista.setTrabajosRealizados(12);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        var sugerencias = profesionalRepository.findSugerenciasByProfesionalId(gasista.getId());
+
+        // Assert
+        assertThat(sugerencias)
+            .singleElement()
+            .satisfies(s -> {
+                assertThat(s.nombreCompleto()).isEqualTo("Profesional 22");
+                assertThat(s.zonaTrabajo()).isEqualTo("Zona 22");
+                assertThat(s.trabajosRealizados()).isEqualTo(12);
+                assertThat(s.servicioId()).isEqualTo(gas.getId());
+            });
+        assertThat(profesionalRepository.findSugerenciasProfesionales())
+            .anyMatch(s -> s.profesionalId().equals(gasista.getId()));
+    }
+
+    @Test
+    @DisplayName("Debe devolver los servicios sólo de profesionales disponibles para el índice de disponibilidad")
+    void deberiaDevolverServiciosDeDisponibles() {
+        // Arrange
+        Servicio cerrajeria = persistirServicio(23L, "Cerrajería", 2100.0);
+        Profesional disponible = persistirProfesional(23L, true, cerrajeria);
+        Profesional noDisponible = persistirProfesional(24L, false, cerrajeria);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act & Assert
+        assertThat(profesionalRepository.findServiciosDeDisponiblesByProfesionalId(disponible.getId()))
+            .singleElement()
+            .satisfies(s -> assertThat(s.servicioId()).isEqualTo(cerrajeria.getId()));
+        assertThat(profesionalRepository.findServiciosDeDisponiblesByProfesionalId(noDisponible.getId())).isEmpty();
+        assertThat(profesionalRepository.findServiciosDeDisponibles())
+            .anyMatch(s -> s.profesionalId().equals(disponible.getId()))
+            .noneMatch(s -> s.profesionalId().equals(noDisponible.getId()));
+    }
+
     // ===== Helpers =====
 
+    private void persistirReseña(Long ordenId, int rating, LocalDateTime fecha, Usuario usuario,
+            Profesional profesional) {
+        Reseña reseña = new Reseña(null, ordenId, rating, "Muy buen trabajo, recomendable", fecha, usuario,
+                profesional);
+        entityManager.persist(reseña);
+    }
+
+    private long contarSentencias(Runnable consulta) {
+        entityManager.clear();
+        Statistics estadisticas = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        consulta.run();
+        return estadisticas.getPrepareStatementCount();
+    }
+
+    private String planDirectorio(FiltroDirectorioDTO filtro, OrdenDirectorio orden,
+            DirectorioProfesionalesRepository.PosicionDirectorio posicion) {
+        var consulta = DirectorioProfesionalesRepositoryImpl.construirConsulta(filtro, orden, posicion, 21);
+        var query = entityManager.getEntityManager().createNativeQuery("explain " + consulta.sql());
+        consulta.parametros().forEach(query::setParameter);
+        return String.valueOf(query.getSingleResult());
+    }
+
     private Servicio persistirServicio(Long indice, String nombre, Double precio) {
         Servicio s = new Servicio(null, nombre, precio);
         entityManager.persist(s);
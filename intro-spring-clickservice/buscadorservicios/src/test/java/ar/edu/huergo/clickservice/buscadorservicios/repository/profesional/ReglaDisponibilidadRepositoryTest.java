@@ -0,0 +1,131 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Feriado;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.ReglaDisponibilidad;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
+
+@DataJpaTest
+class ReglaDisponibilidadRepositoryTest {
+
+    @Autowired
+    private ReglaDisponibilidadRepository reglaDisponibilidadRepository;
+
+    @Autowired
+    private FeriadoRepository feriadoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Profesional profesional;
+    private ReglaDisponibilidad reglaConExcepciones;
+    private ReglaDisponibilidad reglaSinExcepciones;
+
+    @BeforeEach
+    void setUp() {
+        profesional = persistirProfesional("reglas@example.com", "20123456");
+        Profesional otroProfesional = persistirProfesional("otro@example.com", "30123456");
+
+        reglaConExcepciones = persistirRegla(profesional, LocalTime.of(9, 0), LocalTime.of(13, 0),
+            Set.of(LocalDate.of(2030, 3, 11), LocalDate.of(2030, 3, 18)));
+        reglaSinExcepciones = persistirRegla(profesional, LocalTime.of(14, 0), LocalTime.of(18, 0), Set.of());
+        persistirRegla(otroProfesional, LocalTime.of(9, 0), LocalTime.of(13, 0), Set.of(LocalDate.of(2030, 3, 11)));
+
+        entityManager.persist(new Feriado(null, LocalDate.of(2030, 5, 25), "Revolución de Mayo"));
+        entityManager.persist(new Feriado(null, LocalDate.of(2030, 3, 24), "Día de la Memoria"));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería traer las reglas del profesional con sus excepciones, sin repetirlas")
+    void deberiaBuscarReglasConExcepcionesPorProfesional() {
+        List<ReglaDisponibilidad> reglas = reglaDisponibilidadRepository
+            .findConExcepcionesByProfesionalId(profesional.getId());
+
+        assertThat(reglas)
+            .as("El join con las excepciones no debe duplicar reglas")
+            .extracting(ReglaDisponibilidad::getId)
+            .containsExactly(reglaConExcepciones.getId(), reglaSinExcepciones.getId());
+        assertThat(reglas.get(0).getExcepciones()).hasSize(2);
+        assertThat(reglas.get(1).getExcepciones()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería traer todas las reglas y una por id con sus excepciones")
+    void deberiaBuscarTodasLasReglasConExcepciones() {
+        assertThat(reglaDisponibilidadRepository.findAllConExcepciones()).hasSize(3);
+        assertThat(reglaDisponibilidadRepository.findConExcepcionesById(reglaConExcepciones.getId()))
+            .hasValueSatisfying(regla -> assertThat(regla.getExcepciones())
+                .containsExactlyInAnyOrder(LocalDate.of(2030, 3, 11), LocalDate.of(2030, 3, 18)));
+        assertThat(reglaDisponibilidadRepository.findConExcepcionesById(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debería listar los feriados por fecha y detectar fechas repetidas")
+    void deberiaListarFeriadosPorFecha() {
+        assertThat(feriadoRepository.findAllByOrderByFechaAsc())
+            .extracting(Feriado::getFecha)
+            .containsExactly(LocalDate.of(2030, 3, 24), LocalDate.of(2030, 5, 25));
+        assertThat(feriadoRepository.existsByFecha(LocalDate.of(2030, 3, 24))).isTrue();
+        assertThat(feriadoRepository.existsByFecha(LocalDate.of(2030, 3, 25))).isFalse();
+    }
+
+    // ===== Helpers =====
+
+    private ReglaDisponibilidad persistirRegla(Profesional profesional, LocalTime inicio, LocalTime fin,
+        Set<LocalDate> excepciones) {
+        ReglaDisponibilidad regla = new ReglaDisponibilidad();
+        regla.setProfesional(profesional);
+        regla.setDiasSemana(1);
+        regla.setHoraInicio(inicio);
+        regla.setHoraFin(fin);
+        regla.setVigenteDesde(LocalDate.of(2030, 3, 4));
+        regla.setRespetaFeriados(true);
+        regla.setExcepciones(new HashSet<>(excepciones));
+
+        entityManager.persist(regla);
+        return regla;
+    }
+
+    private Profesional persistirProfesional(String username, String dni) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre " + username);
+        usuario.setApellido("Apellido " + username);
+        usuario.setDni(dni);
+        usuario.setTelefono("+54 9 11 4000-" + dni.substring(0, 4));
+        usuario.setCalle("Calle Falsa");
+        usuario.setAltura(123);
+        usuario.setUsername(username);
+        usuario.setPassword("contraseña_segura_de_mas_de_16");
+
+        entityManager.persist(usuario);
+
+        Profesional profesional = new Profesional();
+        profesional.setUsuario(usuario);
+        profesional.setNombreCompleto("Profesional " + username);
+        profesional.setTelefono("+54 9 11 5000-" + dni.substring(0, 4));
+        profesional.setDescripcion("Profesional con amplia experiencia");
+        profesional.setDisponible(true);
+        profesional.setZonaTrabajo("Zona Centro");
+        profesional.setServicios(new HashSet<>());
+
+        entityManager.persist(profesional);
+        return profesional;
+    }
+}
@@ -0,0 +1,135 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.profesional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.RetencionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.RetencionAgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
+
+@DataJpaTest
+class RetencionAgendaSlotRepositoryTest {
+
+    private static final Instant AHORA = Instant.parse("2030-01-01T12:00:00Z");
+
+    @Autowired
+    private RetencionAgendaSlotRepository retencionRepository;
+
+    @Autowired
+    private AgendaSlotRepository agendaSlotRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private AgendaSlot retenido;
+    private AgendaSlot vencido;
+    private AgendaSlot libre;
+
+    @BeforeEach
+    void setUp() {
+        Profesional profesional = persistirProfesional("retenciones@example.com", "20123456");
+        retenido = persistirAgendaSlot(profesional, LocalDateTime.of(2030, 1, 2, 9, 0));
+        vencido = persistirAgendaSlot(profesional, LocalDateTime.of(2030, 1, 2, 11, 0));
+        libre = persistirAgendaSlot(profesional, LocalDateTime.of(2030, 1, 2, 14, 0));
+
+        entityManager.persist(new RetencionAgendaSlot(null, retenido, "cliente@example.com", AHORA.plusSeconds(600)));
+        entityManager.persist(new RetencionAgendaSlot(null, vencido, "cliente@example.com", AHORA.minusSeconds(1)));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería informar los bloques retenidos como ocupados")
+    void deberiaInformarBloquesRetenidosComoOcupados() {
+        assertThat(agendaSlotRepository.findFranjasLibresDesde(LocalDateTime.of(2030, 1, 1, 0, 0)))
+            .as("Una retención, vencida o no, saca al bloque de las franjas libres hasta que se borra")
+            .singleElement()
+            .satisfies(franja -> assertThat(franja.agendaSlotId()).isEqualTo(libre.getId()));
+        assertThat(agendaSlotRepository.findFranjaLibreById(retenido.getId())).isEmpty();
+        assertThat(agendaSlotRepository.findBloqueById(retenido.getId()))
+            .hasValueSatisfying(bloque -> assertThat(bloque.disponible()).isFalse());
+        assertThat(agendaSlotRepository.findBloqueById(libre.getId()))
+            .hasValueSatisfying(bloque -> assertThat(bloque.disponible()).isTrue());
+
+        AgendaSlot entidad = agendaSlotRepository.findById(retenido.getId()).orElseThrow();
+        assertThat(entidad.getDisponible())
+            .as("La retención no cambia el campo disponible del bloque")
+            .isTrue();
+    }
+
+    @Test
+    @DisplayName("Debería contar sólo las retenciones vigentes del cliente")
+    void deberiaContarRetencionesVigentes() {
+        assertThat(retencionRepository.countByUsernameAndExpiraEnAfter("cliente@example.com", AHORA)).isEqualTo(1);
+        assertThat(retencionRepository.countByUsernameAndExpiraEnAfter("otro@example.com", AHORA)).isZero();
+        assertThat(retencionRepository.findByAgendaSlotId(retenido.getId()))
+            .hasValueSatisfying(r -> assertThat(r.getExpiraEn()).isEqualTo(AHORA.plusSeconds(600)));
+        assertThat(retencionRepository.findVencimientos())
+            .containsExactlyInAnyOrder(
+                new RetencionAgendaSlotDTO(retenido.getId(), AHORA.plusSeconds(600)),
+                new RetencionAgendaSlotDTO(vencido.getId(), AHORA.minusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("Debería borrar una retención sólo si sigue vencida")
+    void deberiaBorrarSoloRetencionesVencidas() {
+        assertThat(retencionRepository.eliminarVencida(retenido.getId(), AHORA))
+            .as("La retención todavía no venció")
+            .isZero();
+        assertThat(retencionRepository.eliminarVencida(vencido.getId(), AHORA)).isEqualTo(1);
+        assertThat(retencionRepository.eliminarVencidas(AHORA.plusSeconds(600))).isEqualTo(1);
+        assertThat(retencionRepository.count()).isZero();
+        assertThat(agendaSlotRepository.findFranjaLibreById(retenido.getId())).isPresent();
+    }
+
+    // ===== Helpers =====
+
+    private AgendaSlot persistirAgendaSlot(Profesional profesional, LocalDateTime inicio) {
+        AgendaSlot slot = new AgendaSlot();
+        slot.setProfesional(profesional);
+        slot.setFechaInicio(inicio);
+        slot.setFechaFin(inicio.plusHours(2));
+        slot.setDisponible(true);
+
+        entityManager.persist(slot);
+        return slot;
+    }
+
+    private Profesional persistirProfesional(String username, String dni) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre " + username);
+        usuario.setApellido("Apellido " + username);
+        usuario.setDni(dni);
+        usuario.setTelefono("+54 9 11 4000-" + dni.substring(0, 4));
+        usuario.setCalle("Calle Falsa");
+        usuario.setAltura(123);
+        usuario.setUsername(username);
+        usuario.setPassword("contraseña_segura_de_mas_de_16");
+
+        entityManager.persist(usuario);
+
+        Profesional profesional = new Profesional();
+        profesional.setUsuario(usuario);
+        profesional.setNombreCompleto("Profesional " + username);
+        profesional.setTelefono("+54 9 11 5000-" + dni.substring(0, 4));
+        profesional.setDescripcion("Profesional con amplia experiencia");
+        profesional.setDisponible(true);
+        profesional.setZonaTrabajo("Zona Centro");
+        profesional.setServicios(new HashSet<>());
+
+        entityManager.persist(profesional);
+        return profesional;
+    }
+}
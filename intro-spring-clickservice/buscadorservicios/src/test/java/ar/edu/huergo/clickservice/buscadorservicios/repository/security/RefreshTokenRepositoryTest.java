@@ -0,0 +1,70 @@
+package ar.edu.huergo.clickservice.buscadorservicios.repository.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.RefreshToken;
+
+@DataJpaTest
+class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private RefreshToken vigente;
+
+    @BeforeEach
+    void setUp() {
+        vigente = entityManager.persist(new RefreshToken("hash-vigente", "familia-1",
+                "cliente@test.com", Instant.now().plusSeconds(3600)));
+        entityManager.persist(new RefreshToken("hash-hermano", "familia-1",
+                "cliente@test.com", Instant.now().plusSeconds(3600)));
+        entityManager.persist(new RefreshToken("hash-vencido", "familia-2",
+                "cliente@test.com", Instant.now().minusSeconds(60)));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debería marcar un token como usado una única vez")
+    void deberiaMarcarUsadoUnaSolaVez() {
+        assertThat(refreshTokenRepository.marcarUsado(vigente.getId())).isEqualTo(1);
+        assertThat(refreshTokenRepository.marcarUsado(vigente.getId()))
+            .as("Una segunda rotación concurrente no debe poder usar el mismo token")
+            .isZero();
+    }
+
+    @Test
+    @DisplayName("Debería revocar todos los tokens de la familia")
+    void deberiaRevocarFamilia() {
+        int revocados = refreshTokenRepository.revocarFamilia("familia-1");
+        entityManager.clear();
+
+        assertThat(revocados).isEqualTo(2);
+        assertThat(refreshTokenRepository.findByTokenHash("hash-hermano"))
+            .get()
+            .extracting(RefreshToken::isRevocado)
+            .isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Debería eliminar sólo los tokens vencidos")
+    void deberiaEliminarVencidos() {
+        int eliminados = refreshTokenRepository.eliminarVencidos(Instant.now());
+
+        assertThat(eliminados).isEqualTo(1);
+        assertThat(refreshTokenRepository.findByTokenHash("hash-vencido")).isEmpty();
+        assertThat(refreshTokenRepository.findByTokenHash("hash-vigente")).isPresent();
+    }
+}
@@ -265,4 +265,17 @@ class JwtTokenServiceTest {
         assertEquals("usuario.especial+test@dominio-test.com", usernameExtraido);
         assertTrue(jwtTokenService.esTokenValido(token, usuarioEspecial));
     }
+
+    @Test
+    @DisplayName("Debería extraer los roles del claim firmado")
+    void deberiaExtraerRolesDelClaim() {
+        // Given
+        String token = jwtTokenService.generarToken(userDetails, List.of("ROLE_CLIENTE", "ROLE_USER"));
+
+        // When
+        List<String> roles = jwtTokenService.extraerRoles(jwtTokenService.extraerClaims(token));
+
+        // Then
+        assertEquals(List.of("ROLE_CLIENTE", "ROLE_USER"), roles);
+    }
 }
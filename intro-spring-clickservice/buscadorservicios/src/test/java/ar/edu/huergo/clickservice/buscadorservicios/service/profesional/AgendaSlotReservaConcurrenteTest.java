@@ -0,0 +1,313 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio.EstadoSolicitud;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.UsuarioRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.ServicioRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.SolicitudServicioRepository;
+
+/**
+ * Reservas simultáneas contra la base real: muchos hilos compiten por pocos bloques y ningún bloque
+ * puede quedar reservado dos veces, ni una solicitud tomar dos bloques, ni un cliente retener más
+ * bloques que el límite. También verifica, por HTTP, que nadie más que los participantes pueda
+ * reservar o cancelar.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AgendaSlotReservaConcurrenteTest {
+
+    private static final int HILOS = 64;
+    private static final int PROFESIONALES = 4;
+    private static final int BLOQUES_POR_PROFESIONAL = 10;
+    private static final int RESERVAS = 400;
+
+    // Cada ejecución usa datos propios porque el contexto (y la base) se comparte entre clases de test
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    private AgendaSlotService agendaSlotService;
+
+    @Autowired
+    private RetencionAgendaService retencionAgendaService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AgendaSlotRepository agendaSlotRepository;
+
+    @Autowired
+    private ProfesionalRepository profesionalRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ServicioRepository servicioRepository;
+
+    @Autowired
+    private SolicitudServicioRepository solicitudServicioRepository;
+
+    private Servicio servicio;
+    private Usuario cliente;
+    private List<Long> bloques;
+    private int n;
+
+    @BeforeEach
+    void setUp() {
+        n = SECUENCIA.incrementAndGet();
+        servicio = servicioRepository.save(new Servicio(null, "Reservas concurrentes " + n, 1000.0));
+        cliente = usuarioRepository.save(usuario("cliente" + n + "@reservas.com", 70000000 + n * 100));
+        bloques = new ArrayList<>();
+        LocalDateTime primerBloque = LocalDate.now().plusDays(2).atTime(8, 0);
+        for (int p = 1; p <= PROFESIONALES; p++) {
+            Profesional profesional = profesionalRepository.save(profesional(usuarioRepository.save(
+                    usuario("profesional" + n + "-" + p + "@reservas.com", 70000000 + n * 100 + p))));
+            for (int b = 0; b < BLOQUES_POR_PROFESIONAL; b++) {
+                AgendaSlot bloque = new AgendaSlot();
+                bloque.setProfesional(profesional);
+                bloque.setFechaInicio(primerBloque.plusHours(b));
+                bloque.setFechaFin(primerBloque.plusHours(b).plusMinutes(50));
+                bloques.add(agendaSlotService.crearAgendaSlot(bloque).getId());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Ningún bloque debería quedar reservado dos veces con muchos hilos compitiendo")
+    void ningunBloqueDeberiaReservarseDosVeces() throws Exception {
+        // Given: una solicitud pendiente por intento y un bloque al azar para cada una
+        List<Long> solicitudes = new ArrayList<>(RESERVAS);
+        for (int i = 0; i < RESERVAS; i++) {
+            solicitudes.add(solicitudServicioRepository.save(solicitud()).getId());
+        }
+        SplittableRandom random = new SplittableRandom(21);
+        Map<Long, Set<Long>> reservasPorBloque = new ConcurrentHashMap<>();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        // When
+        List<Future<?>> intentos = new ArrayList<>();
+        for (Long solicitudId : solicitudes) {
+            Long bloqueId = bloques.get(random.nextInt(bloques.size()));
+            intentos.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    agendaSlotService.reservarAgendaSlot(bloqueId, solicitudId, cliente.getUsername(), false);
+                    reservasPorBloque.computeIfAbsent(bloqueId, k -> ConcurrentHashMap.newKeySet()).add(solicitudId);
+                } catch (AgendaSlotNoDisponibleException ex) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> intento : intentos) {
+            // Cualquier otra excepción hace fallar el test acá
+            intento.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then: a lo sumo una reserva por bloque, y la base coincide con lo que vieron los hilos
+        int exitosas = reservasPorBloque.values().stream().mapToInt(Set::size).sum();
+        assertEquals(RESERVAS, exitosas + rechazadas.get());
+        reservasPorBloque.forEach((bloqueId, reservas) -> assertEquals(1, reservas.size(), "bloque " + bloqueId));
+
+        Set<Long> solicitudesEnBloques = new HashSet<>();
+        for (Long bloqueId : bloques) {
+            AgendaSlot bloque = agendaSlotRepository.findById(bloqueId).orElseThrow();
+            Set<Long> reservas = reservasPorBloque.getOrDefault(bloqueId, Set.of());
+            assertEquals(reservas.isEmpty(), bloque.getDisponible(), "bloque " + bloqueId);
+            if (!reservas.isEmpty()) {
+                assertEquals(reservas.iterator().next(), bloque.getSolicitudServicio().getId());
+                assertTrue(solicitudesEnBloques.add(bloque.getSolicitudServicio().getId()));
+            }
+        }
+        long asignadas = solicitudServicioRepository.findAllById(solicitudes).stream()
+                .filter(s -> s.getEstado() == EstadoSolicitud.ASIGNADA)
+                .count();
+        assertEquals(exitosas, asignadas);
+    }
+
+    @Test
+    @DisplayName("Una solicitud debería quedarse con un solo bloque aunque pida varios a la vez")
+    void unaSolicitudDeberiaTomarUnSoloBloque() throws Exception {
+        // Given
+        Long solicitudId = solicitudServicioRepository.save(solicitud()).getId();
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        // When: cada hilo intenta un bloque distinto con la misma solicitud
+        List<Future<?>> intentos = new ArrayList<>();
+        for (Long bloqueId : bloques) {
+            intentos.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    agendaSlotService.reservarAgendaSlot(bloqueId, solicitudId, cliente.getUsername(), false);
+                    exitosas.incrementAndGet();
+                } catch (IllegalArgumentException ex) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> intento : intentos) {
+            intento.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(1, exitosas.get());
+        assertEquals(bloques.size() - 1, rechazadas.get());
+        long ocupados = agendaSlotRepository.findAllById(bloques).stream()
+                .filter(bloque -> !bloque.getDisponible())
+                .count();
+        assertEquals(1, ocupados);
+    }
+
+    @Test
+    @DisplayName("Un cliente no debería superar el límite de retenciones aunque pida muchos bloques a la vez")
+    void unClienteNoDeberiaSuperarLimiteDeRetenciones() throws Exception {
+        // Given
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+        // When: cada hilo retiene un bloque distinto para el mismo cliente
+        List<Future<?>> intentos = new ArrayList<>();
+        for (Long bloqueId : bloques) {
+            intentos.add(executor.submit(() -> {
+                largada.await();
+                try {
+                    retencionAgendaService.retener(bloqueId, cliente.getUsername());
+                    exitosas.incrementAndGet();
+                } catch (IllegalArgumentException ex) {
+                    rechazadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> intento : intentos) {
+            intento.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(RetencionAgendaService.RETENCIONES_MAXIMAS_POR_USUARIO, exitosas.get());
+        assertEquals(bloques.size() - exitosas.get(), rechazadas.get());
+    }
+
+    @Test
+    @DisplayName("Otro usuario no debería poder reservar ni cancelar la reserva de una solicitud ajena")
+    void otroUsuarioNoDeberiaReservarNiCancelar() throws Exception {
+        // Given: el primer bloque es del primer profesional
+        Long solicitudId = solicitudServicioRepository.save(solicitud()).getId();
+        Long bloqueId = bloques.get(0);
+        String reserva = "/api/agenda-slots/" + bloqueId + "/reserva";
+        String cuerpo = "{\"solicitudServicioId\": " + solicitudId + "}";
+
+        // When & Then: reservar sólo puede el cliente de la solicitud
+        mockMvc.perform(post(reserva).contentType(MediaType.APPLICATION_JSON).content(cuerpo)
+                .with(user("intruso" + n + "@reservas.com").roles("CLIENTE")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post(reserva).contentType(MediaType.APPLICATION_JSON).content(cuerpo)
+                .with(user(cliente.getUsername()).roles("CLIENTE")))
+            .andExpect(status().isOk());
+
+        // Cancelar: ni otro cliente ni otro profesional, sí el profesional del bloque
+        mockMvc.perform(delete(reserva).with(user("intruso" + n + "@reservas.com").roles("CLIENTE")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete(reserva).with(user("profesional" + n + "-2@reservas.com").roles("PROFESIONAL")))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete(reserva).with(user("profesional" + n + "-1@reservas.com").roles("PROFESIONAL")))
+            .andExpect(status().isOk());
+
+        assertTrue(agendaSlotRepository.findById(bloqueId).orElseThrow().getDisponible());
+        assertEquals(EstadoSolicitud.PENDIENTE,
+                solicitudServicioRepository.findById(solicitudId).orElseThrow().getEstado());
+    }
+
+    private SolicitudServicio solicitud() {
+        SolicitudServicio solicitud = new SolicitudServicio();
+        solicitud.setServicio(servicio);
+        solicitud.setCliente(cliente);
+        solicitud.setDescripcionProblema("Se necesita el servicio en el horario reservado");
+        solicitud.setDireccionServicio("Avenida Siempre Viva 742");
+        solicitud.setFechaSolicitada(LocalDate.now().plusDays(2));
+        solicitud.setFranjaHoraria("Mañana");
+        solicitud.setPresupuestoMaximo(10000.0);
+        return solicitud;
+    }
+
+    private Profesional profesional(Usuario usuario) {
+        Profesional profesional = new Profesional();
+        profesional.setUsuario(usuario);
+        profesional.setNombreCompleto("Profesional " + usuario.getUsername());
+        profesional.setTelefono("+54 9 11 5000-" + usuario.getDni().substring(4));
+        profesional.setDescripcion("Profesional con amplia experiencia");
+        profesional.setDisponible(true);
+        profesional.setZonaTrabajo("Zona Centro");
+        profesional.setServicios(new HashSet<>(Set.of(servicio)));
+        return profesional;
+    }
+
+    private static Usuario usuario(String username, int dni) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre");
+        usuario.setApellido("Apellido");
+        usuario.setDni(String.valueOf(dni));
+        usuario.setTelefono("+54 9 11 4000-" + String.valueOf(dni).substring(4));
+        usuario.setCalle("Calle Falsa");
+        usuario.setAltura(123);
+        usuario.setUsername(username);
+        usuario.setPassword("contraseña_segura_de_mas_de_16");
+        return usuario;
+    }
+}
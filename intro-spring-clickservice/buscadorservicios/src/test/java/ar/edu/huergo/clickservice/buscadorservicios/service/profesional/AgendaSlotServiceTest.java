@@ -2,15 +2,29 @@ package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,11 +33,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.AgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ResultadoImportacionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ResumenDiaAgendaDTO;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.SolicitudServicio.EstadoSolicitud;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.SolicitudServicioRepository;
 import jakarta.persistence.EntityNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +63,24 @@ class AgendaSlotServiceTest {
     @Mock
     private ProfesionalRepository profesionalRepository;
 
+    @Mock
+    private IndiceDisponibilidad indiceDisponibilidad;
+
+    @Mock
+    private IndiceAgendas indiceAgendas;
+
+    @Mock
+    private SolicitudServicioRepository solicitudServicioRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private RetencionAgendaService retencionAgendaService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AgendaSlotService agendaSlotService;
 
@@ -45,12 +91,14 @@ class AgendaSlotServiceTest {
     void setUp() {
         profesional = new Profesional();
         profesional.setId(1L);
+        profesional.setUsuario(new Usuario("profesional@test.com", "secreta"));
         agendaSlot = new AgendaSlot();
         agendaSlot.setId(10L);
         agendaSlot.setProfesional(profesional);
         agendaSlot.setFechaInicio(LocalDateTime.now().plusDays(1));
         agendaSlot.setFechaFin(agendaSlot.getFechaInicio().plusHours(2));
         agendaSlot.setDisponible(Boolean.TRUE);
+        agendaSlot.setVersion(3L);
     }
 
     @Test
@@ -83,6 +131,82 @@ class AgendaSlotServiceTest {
         assertEquals(profesional.getId(), resultado.getProfesional().getId());
         verify(profesionalRepository, times(1)).findById(1L);
         verify(agendaSlotRepository, times(1)).save(agendaSlot);
+        verify(indiceAgendas).actualizarBloque(10L, new BloqueAgendaDTO(10L, 1L, agendaSlot.getFechaInicio(),
+                agendaSlot.getFechaFin(), Boolean.TRUE));
+        verify(eventPublisher).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un agenda slot que se superpone con otro del profesional")
+    void deberiaRechazarAgendaSlotSuperpuesto() {
+        // Given
+        when(profesionalRepository.findById(1L)).thenReturn(Optional.of(profesional));
+        when(indiceAgendas.haySuperposicion(1L, agendaSlot.getFechaInicio(), agendaSlot.getFechaFin(), null))
+                .thenReturn(true);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.crearAgendaSlot(agendaSlot));
+        verify(agendaSlotRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería importar los bloques válidos e informar el error de cada uno de los demás")
+    void deberiaImportarBloquesValidosEInformarErrores() {
+        // Given
+        LocalDateTime manana = LocalDate.now().plusDays(1).atTime(9, 0);
+        Profesional inexistente = new Profesional();
+        inexistente.setId(99L);
+        List<AgendaSlot> agendaSlots = List.of(
+                nuevoAgendaSlot(profesional, manana.plusHours(4), manana.plusHours(6)),
+                nuevoAgendaSlot(profesional, manana, manana.plusHours(2)),
+                nuevoAgendaSlot(profesional, manana.plusHours(1), manana.plusHours(3)),
+                nuevoAgendaSlot(inexistente, manana, manana.plusHours(1)),
+                nuevoAgendaSlot(profesional, manana.plusHours(8), manana.plusHours(7)),
+                nuevoAgendaSlot(profesional, manana.plusHours(10), manana.plusHours(11)));
+        when(profesionalRepository.findAllById(Set.of(1L, 99L))).thenReturn(List.of(profesional));
+        // Sólo el último choca con la agenda existente
+        when(indiceAgendas.haySuperposicion(eq(1L), any(), any(), any()))
+                .thenAnswer(invocacion -> manana.plusHours(10).equals(invocacion.getArgument(1)));
+        ejecutarTransacciones();
+        AtomicLong ids = new AtomicLong(100);
+        when(agendaSlotRepository.saveAll(any())).thenAnswer(invocacion -> {
+            List<AgendaSlot> guardados = invocacion.getArgument(0);
+            guardados.forEach(guardado -> guardado.setId(ids.incrementAndGet()));
+            return guardados;
+        });
+
+        // When
+        List<ResultadoImportacionAgendaSlotDTO> resultados = agendaSlotService.importarAgendaSlots(agendaSlots);
+
+        // Then
+        // Dentro de la importación queda el bloque que empieza antes
+        assertEquals(List.of(
+                new ResultadoImportacionAgendaSlotDTO(0, 102L, null),
+                new ResultadoImportacionAgendaSlotDTO(1, 101L, null),
+                new ResultadoImportacionAgendaSlotDTO(2, null, "El horario se superpone con otro bloque de la importación"),
+                new ResultadoImportacionAgendaSlotDTO(3, null, "Profesional no encontrado"),
+                new ResultadoImportacionAgendaSlotDTO(4, null, "La fecha de fin debe ser posterior a la fecha de inicio"),
+                new ResultadoImportacionAgendaSlotDTO(5, null,
+                        "El horario se superpone con otro bloque de la agenda del profesional")),
+                resultados);
+        verify(agendaSlotRepository, times(1)).saveAll(List.of(agendaSlots.get(1), agendaSlots.get(0)));
+        verify(indiceAgendas).actualizarBloque(101L, new BloqueAgendaDTO(101L, 1L, manana, manana.plusHours(2),
+                Boolean.TRUE));
+        verify(indiceAgendas).actualizarBloque(102L, new BloqueAgendaDTO(102L, 1L, manana.plusHours(4),
+                manana.plusHours(6), Boolean.TRUE));
+        verify(eventPublisher).publishEvent(new AgendaSlotsImportadosEvent(List.of(101L, 102L)));
+        verify(eventPublisher, never()).publishEvent(any(AgendaSlotModificadoEvent.class));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una importación vacía o demasiado grande")
+    void deberiaRechazarImportacionVaciaODemasiadoGrande() {
+        List<AgendaSlot> demasiados = Collections.nCopies(AgendaSlotService.IMPORTACION_MAXIMA + 1, agendaSlot);
+
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.importarAgendaSlots(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.importarAgendaSlots(demasiados));
+        verify(agendaSlotRepository, never()).saveAll(any());
     }
 
     @Test
@@ -109,6 +233,8 @@ class AgendaSlotServiceTest {
         assertEquals(2L, resultado.getProfesional().getId());
         assertEquals(Boolean.FALSE, resultado.getDisponible());
         verify(agendaSlotRepository, times(1)).save(agendaSlot);
+        // El propio bloque no cuenta como superposición
+        verify(indiceAgendas).haySuperposicion(2L, cambios.getFechaInicio(), cambios.getFechaFin(), 10L);
     }
 
     @Test
@@ -120,4 +246,411 @@ class AgendaSlotServiceTest {
         // When & Then
         assertThrows(EntityNotFoundException.class, () -> agendaSlotService.crearAgendaSlot(agendaSlot));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debería publicar evento al eliminar un agenda slot")
+    void deberiaPublicarEventoAlEliminarAgendaSlot() {
+        // Given
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+
+        // When
+        agendaSlotService.eliminarAgendaSlot(10L);
+
+        // Then
+        verify(retencionAgendaService).descartar(10L);
+        verify(agendaSlotRepository).delete(agendaSlot);
+        verify(eventPublisher).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar eliminar un bloque reservado")
+    void deberiaRechazarEliminarBloqueReservado() {
+        agendaSlot.setSolicitudServicio(solicitudPendiente());
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.eliminarAgendaSlot(10L));
+        verify(agendaSlotRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar mover un bloque reservado a otro profesional u horario")
+    void deberiaRechazarMoverBloqueReservado() {
+        // Given
+        agendaSlot.setSolicitudServicio(solicitudPendiente());
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        Profesional otroProfesional = new Profesional();
+        otroProfesional.setId(2L);
+
+        AgendaSlot otroProfesionalMismoHorario = new AgendaSlot();
+        otroProfesionalMismoHorario.setProfesional(otroProfesional);
+        otroProfesionalMismoHorario.setFechaInicio(agendaSlot.getFechaInicio());
+        otroProfesionalMismoHorario.setFechaFin(agendaSlot.getFechaFin());
+
+        AgendaSlot mismoProfesionalOtroHorario = new AgendaSlot();
+        mismoProfesionalOtroHorario.setProfesional(profesional);
+        mismoProfesionalOtroHorario.setFechaInicio(agendaSlot.getFechaInicio().plusHours(1));
+        mismoProfesionalOtroHorario.setFechaFin(agendaSlot.getFechaFin().plusHours(1));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> agendaSlotService.actualizarAgendaSlot(10L, otroProfesionalMismoHorario));
+        assertThrows(IllegalArgumentException.class,
+                () -> agendaSlotService.actualizarAgendaSlot(10L, mismoProfesionalOtroHorario));
+        assertEquals(1L, agendaSlot.getProfesional().getId());
+        verify(profesionalRepository, never()).findById(any());
+        verify(agendaSlotRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería reservar el bloque para la solicitud con la versión leída")
+    void deberiaReservarBloqueConLaVersionLeida() {
+        // Given
+        SolicitudServicio solicitud = solicitudPendiente();
+        ejecutarTransacciones();
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(solicitud));
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(indiceDisponibilidad.ofrecenServicio(5L, List.of(1L))).thenReturn(List.of(1L));
+        when(agendaSlotRepository.reservar(10L, 3L, solicitud)).thenReturn(1);
+        when(solicitudServicioRepository.cambiarEstado(30L, EstadoSolicitud.PENDIENTE, EstadoSolicitud.ASIGNADA))
+                .thenReturn(1);
+
+        // When
+        AgendaSlot resultado = agendaSlotService.reservarAgendaSlot(10L, 30L, "cliente@test.com", false);
+
+        // Then
+        assertEquals(Boolean.FALSE, resultado.getDisponible());
+        assertEquals(solicitud, resultado.getSolicitudServicio());
+        assertEquals(4L, resultado.getVersion());
+        assertEquals(EstadoSolicitud.ASIGNADA, solicitud.getEstado());
+        verify(retencionAgendaService).consumir(10L, "cliente@test.com");
+        verify(indiceAgendas).actualizarBloque(10L, new BloqueAgendaDTO(10L, 1L, agendaSlot.getFechaInicio(),
+                agendaSlot.getFechaFin(), false));
+        verify(eventPublisher).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería volver a leer el bloque si cambió de versión y rechazarlo si ya está reservado")
+    void deberiaReintentarSiCambioLaVersion() {
+        // Given: entre la lectura y la escritura otra instancia reservó el bloque
+        SolicitudServicio solicitud = solicitudPendiente();
+        AgendaSlot reservadoPorOtro = new AgendaSlot(10L, profesional, agendaSlot.getFechaInicio(),
+                agendaSlot.getFechaFin(), Boolean.FALSE, new SolicitudServicio(), 4L);
+        ejecutarTransacciones();
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(solicitud));
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot))
+                .thenReturn(Optional.of(reservadoPorOtro));
+        when(indiceDisponibilidad.ofrecenServicio(5L, List.of(1L))).thenReturn(List.of(1L));
+        when(solicitudServicioRepository.cambiarEstado(30L, EstadoSolicitud.PENDIENTE, EstadoSolicitud.ASIGNADA))
+                .thenReturn(1);
+        when(agendaSlotRepository.reservar(10L, 3L, solicitud)).thenReturn(0);
+
+        // When & Then
+        AgendaSlotNoDisponibleException ex = assertThrows(AgendaSlotNoDisponibleException.class,
+                () -> agendaSlotService.reservarAgendaSlot(10L, 30L, "cliente@test.com", false));
+        assertEquals("El bloque ya está reservado", ex.getMessage());
+        verify(agendaSlotRepository, times(2)).findById(10L);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería rendirse después de los reintentos si el bloque sigue cambiando de versión")
+    void deberiaRendirseDespuesDeLosReintentos() {
+        SolicitudServicio solicitud = solicitudPendiente();
+        ejecutarTransacciones();
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(solicitud));
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(indiceDisponibilidad.ofrecenServicio(5L, List.of(1L))).thenReturn(List.of(1L));
+        when(solicitudServicioRepository.cambiarEstado(30L, EstadoSolicitud.PENDIENTE, EstadoSolicitud.ASIGNADA))
+                .thenReturn(1);
+        when(agendaSlotRepository.reservar(10L, 3L, solicitud)).thenReturn(0);
+
+        assertThrows(AgendaSlotNoDisponibleException.class,
+                () -> agendaSlotService.reservarAgendaSlot(10L, 30L, "cliente@test.com", false));
+        verify(agendaSlotRepository, times(AgendaSlotService.INTENTOS_RESERVA)).reservar(10L, 3L, solicitud);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la reserva si el bloque está retenido por otro cliente")
+    void deberiaRechazarReservaDeBloqueRetenidoPorOtroCliente() {
+        SolicitudServicio solicitud = solicitudPendiente();
+        ejecutarTransacciones();
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(solicitud));
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(indiceDisponibilidad.ofrecenServicio(5L, List.of(1L))).thenReturn(List.of(1L));
+        doThrow(new AgendaSlotNoDisponibleException("El bloque está retenido por otro cliente"))
+                .when(retencionAgendaService).consumir(10L, "cliente@test.com");
+
+        assertThrows(AgendaSlotNoDisponibleException.class,
+                () -> agendaSlotService.reservarAgendaSlot(10L, 30L, "cliente@test.com", false));
+        verify(solicitudServicioRepository, never()).cambiarEstado(any(), any(), any());
+        verify(agendaSlotRepository, never()).reservar(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar reservas de solicitudes no pendientes o de servicios que el profesional no ofrece")
+    void deberiaValidarReserva() {
+        SolicitudServicio asignada = solicitudPendiente();
+        asignada.setEstado(EstadoSolicitud.ASIGNADA);
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(asignada));
+        assertThrows(IllegalArgumentException.class,
+                () -> agendaSlotService.reservarAgendaSlot(10L, 30L, "cliente@test.com", false));
+
+        SolicitudServicio pendiente = solicitudPendiente();
+        pendiente.setId(31L);
+        when(solicitudServicioRepository.findById(31L)).thenReturn(Optional.of(pendiente));
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(indiceDisponibilidad.ofrecenServicio(5L, List.of(1L))).thenReturn(List.of());
+        assertThrows(IllegalArgumentException.class,
+                () -> agendaSlotService.reservarAgendaSlot(10L, 31L, "cliente@test.com", false));
+
+        when(solicitudServicioRepository.findById(32L)).thenReturn(Optional.empty());
+        assertThrows(EntityNotFoundException.class,
+                () -> agendaSlotService.reservarAgendaSlot(10L, 32L, "cliente@test.com", false));
+        verify(agendaSlotRepository, never()).reservar(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la reserva pedida por alguien que no es el cliente de la solicitud")
+    void deberiaRechazarReservaDeOtroUsuario() {
+        // Given
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(solicitudPendiente()));
+
+        // When & Then
+        assertThrows(AccessDeniedException.class,
+                () -> agendaSlotService.reservarAgendaSlot(10L, 30L, "intruso@test.com", false));
+        verify(agendaSlotRepository, never()).findById(any());
+        verify(retencionAgendaService, never()).consumir(any(), any());
+    }
+
+    @Test
+    @DisplayName("Sólo el cliente, el profesional del bloque o un administrador deberían poder cancelar la reserva")
+    void deberiaRechazarCancelacionDeOtroUsuario() {
+        // Given
+        SolicitudServicio solicitud = solicitudPendiente();
+        agendaSlot.setDisponible(Boolean.FALSE);
+        agendaSlot.setSolicitudServicio(solicitud);
+        ejecutarTransacciones();
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(solicitud));
+        when(agendaSlotRepository.liberar(eq(10L), any())).thenReturn(1);
+        when(solicitudServicioRepository.cambiarEstado(30L, EstadoSolicitud.ASIGNADA, EstadoSolicitud.PENDIENTE))
+                .thenReturn(1);
+
+        // When & Then
+        assertThrows(AccessDeniedException.class,
+                () -> agendaSlotService.cancelarReserva(10L, "intruso@test.com", false));
+        verify(agendaSlotRepository, never()).liberar(any(), any());
+
+        agendaSlotService.cancelarReserva(10L, "profesional@test.com", false);
+        agendaSlot.setSolicitudServicio(solicitud);
+        agendaSlotService.cancelarReserva(10L, "admin@test.com", true);
+        verify(agendaSlotRepository, times(2)).liberar(eq(10L), any());
+    }
+
+    @Test
+    @DisplayName("Debería cancelar la reserva y devolver la solicitud a pendiente")
+    void deberiaCancelarReserva() {
+        // Given
+        SolicitudServicio solicitud = solicitudPendiente();
+        agendaSlot.setDisponible(Boolean.FALSE);
+        agendaSlot.setSolicitudServicio(solicitud);
+        ejecutarTransacciones();
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(solicitudServicioRepository.findById(30L)).thenReturn(Optional.of(solicitud));
+        when(agendaSlotRepository.liberar(10L, 3L)).thenReturn(1);
+        when(solicitudServicioRepository.cambiarEstado(30L, EstadoSolicitud.ASIGNADA, EstadoSolicitud.PENDIENTE))
+                .thenReturn(1);
+
+        // When
+        AgendaSlot resultado = agendaSlotService.cancelarReserva(10L, "cliente@test.com", false);
+
+        // Then
+        assertEquals(Boolean.TRUE, resultado.getDisponible());
+        assertNull(resultado.getSolicitudServicio());
+        verify(eventPublisher).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería pasar el calendario del profesional al consumidor y cerrar el stream")
+    void deberiaRecorrerCalendario() {
+        // Given
+        LocalDateTime desde = LocalDate.now().plusDays(1).atStartOfDay();
+        LocalDateTime hasta = desde.plusDays(7);
+        AtomicBoolean cerrado = new AtomicBoolean();
+        AgendaSlotDTO slot = new AgendaSlotDTO(10L, 1L, desde.plusHours(9), desde.plusHours(11), true, null);
+        when(profesionalRepository.existsById(1L)).thenReturn(true);
+        when(agendaSlotRepository.streamCalendario(1L, desde, hasta))
+                .thenReturn(Stream.of(slot).onClose(() -> cerrado.set(true)));
+        List<AgendaSlotDTO> recibidos = new ArrayList<>();
+
+        // When
+        agendaSlotService.recorrerCalendario(1L, desde, hasta, slots -> slots.forEach(recibidos::add));
+
+        // Then
+        assertEquals(List.of(slot), recibidos);
+        assertTrue(cerrado.get());
+    }
+
+    @Test
+    @DisplayName("Debería validar el calendario antes de llamar al consumidor")
+    void deberiaValidarCalendarioAntesDeRecorrerlo() {
+        LocalDateTime desde = LocalDate.now().plusDays(1).atStartOfDay();
+        List<AgendaSlotDTO> recibidos = new ArrayList<>();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> agendaSlotService.recorrerCalendario(1L, desde, desde, slots -> slots.forEach(recibidos::add)));
+        assertThrows(EntityNotFoundException.class,
+                () -> agendaSlotService.recorrerCalendario(2L, null, null, slots -> slots.forEach(recibidos::add)));
+        verify(agendaSlotRepository, never()).streamCalendario(any(), any(), any());
+        assertTrue(recibidos.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería resumir el día con las máscaras del índice de agendas")
+    void deberiaResumirDiaConLasMascaras() {
+        // Given
+        LocalDate fecha = LocalDate.now().plusDays(3);
+        when(profesionalRepository.existsById(1L)).thenReturn(true);
+        when(indiceAgendas.mayorHuecoLibre(1L, fecha)).thenReturn(Duration.ofHours(3));
+        when(indiceAgendas.primerInicioLibre(1L, fecha, LocalTime.MIDNIGHT, Duration.ofMinutes(120)))
+                .thenReturn(Optional.of(fecha.atTime(15, 0)));
+
+        // When
+        ResumenDiaAgendaDTO entra = agendaSlotService.obtenerResumenDia(1L, fecha, 120);
+        ResumenDiaAgendaDTO noEntra = agendaSlotService.obtenerResumenDia(1L, fecha, 240);
+
+        // Then: si el hueco más largo no alcanza no se busca el inicio
+        assertEquals(new ResumenDiaAgendaDTO(fecha, 180, fecha.atTime(15, 0)), entra);
+        assertEquals(new ResumenDiaAgendaDTO(fecha, 180, null), noEntra);
+        verify(indiceAgendas, times(1)).primerInicioLibre(any(), any(), any(), any());
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.obtenerResumenDia(1L, fecha, 0));
+        assertThrows(EntityNotFoundException.class, () -> agendaSlotService.obtenerResumenDia(2L, fecha, null));
+    }
+
+    @Test
+    @DisplayName("Debería buscar disponibilidad en el índice y devolver los profesionales en su orden")
+    void deberiaBuscarDisponibilidadEnElIndice() {
+        // Given
+        Profesional otro = new Profesional();
+        otro.setId(2L);
+        LocalDate fecha = LocalDate.now().plusDays(3);
+        when(indiceDisponibilidad.buscar(eq(5L), eq(fecha.atTime(14, 0)), eq(fecha.atTime(18, 0)),
+                eq(Duration.ofMinutes(90)), eq(10), any(LocalDateTime.class))).thenReturn(List.of(
+                        new IndiceDisponibilidad.ProfesionalLibre(2L, 20L, fecha.atTime(14, 0), fecha.atTime(17, 0)),
+                        new IndiceDisponibilidad.ProfesionalLibre(1L, 10L, fecha.atTime(15, 0), fecha.atTime(18, 0))));
+        when(profesionalRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(profesional, otro));
+
+        // When
+        List<AgendaSlotService.ProfesionalDisponible> resultado = agendaSlotService.buscarDisponibilidad(5L,
+                fecha, LocalTime.of(14, 0), LocalTime.of(18, 0), 90, 10);
+
+        // Then
+        assertEquals(List.of(2L, 1L), resultado.stream().map(d -> d.profesional().getId()).toList());
+        assertEquals(fecha.atTime(15, 0), resultado.get(1).libreDesde());
+        verify(agendaSlotRepository, times(0)).findByProfesionalIdAndDisponibleTrue(any());
+    }
+
+    @Test
+    @DisplayName("Debería sumar los huecos de las reglas semanales y quedarse con el primero de cada profesional")
+    void deberiaSumarHuecosDeReglasSemanales() {
+        // Given: el profesional 1 tiene un bloque a las 15 y una regla que lo deja libre desde las 14
+        Profesional otro = new Profesional();
+        otro.setId(3L);
+        LocalDate fecha = LocalDate.now().plusDays(3);
+        when(indiceDisponibilidad.buscar(eq(5L), any(), any(), any(), eq(10), any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        new IndiceDisponibilidad.ProfesionalLibre(1L, 10L, fecha.atTime(15, 0), fecha.atTime(18, 0))));
+        when(indiceAgendas.profesionalesConReglas()).thenReturn(Set.of(1L, 3L, 4L));
+        when(indiceDisponibilidad.ofrecenServicio(5L, Set.of(1L, 3L, 4L))).thenReturn(List.of(1L, 3L));
+        when(indiceAgendas.primerHuecoLibre(1L, fecha.atTime(14, 0), fecha.atTime(18, 0), Duration.ofMinutes(60)))
+                .thenReturn(Optional.of(
+                        new IndiceDisponibilidad.ProfesionalLibre(1L, null, fecha.atTime(14, 0), fecha.atTime(15, 0))));
+        when(indiceAgendas.primerHuecoLibre(3L, fecha.atTime(14, 0), fecha.atTime(18, 0), Duration.ofMinutes(60)))
+                .thenReturn(Optional.of(
+                        new IndiceDisponibilidad.ProfesionalLibre(3L, null, fecha.atTime(16, 0), fecha.atTime(18, 0))));
+        when(profesionalRepository.findByIdIn(List.of(1L, 3L))).thenReturn(List.of(profesional, otro));
+
+        // When
+        List<AgendaSlotService.ProfesionalDisponible> resultado = agendaSlotService.buscarDisponibilidad(5L,
+                fecha, LocalTime.of(14, 0), LocalTime.of(18, 0), 60, 10);
+
+        // Then
+        assertEquals(List.of(1L, 3L), resultado.stream().map(d -> d.profesional().getId()).toList());
+        assertEquals(fecha.atTime(14, 0), resultado.get(0).libreDesde());
+        assertNull(resultado.get(0).agendaSlotId());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar búsquedas de disponibilidad con ventana o cantidad inválidas")
+    void deberiaValidarBusquedaDeDisponibilidad() {
+        LocalDate fecha = LocalDate.now();
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.buscarDisponibilidad(null, fecha,
+                null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.buscarDisponibilidad(5L, fecha,
+                LocalTime.of(18, 0), LocalTime.of(14, 0), null, 10));
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.buscarDisponibilidad(5L, fecha,
+                null, null, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.buscarDisponibilidad(5L, fecha,
+                null, null, null, AgendaSlotService.CANTIDAD_DISPONIBLES_MAXIMA + 1));
+    }
+
+    @Test
+    @DisplayName("Debería devolver los conflictos del índice sin el bloque excluido")
+    void deberiaDevolverConflictosSinElExcluido() {
+        // Given
+        LocalDateTime desde = LocalDateTime.of(2030, 5, 6, 9, 0);
+        LocalDateTime hasta = desde.plusHours(4);
+        when(profesionalRepository.existsById(1L)).thenReturn(true);
+        when(indiceAgendas.superpuestos(1L, desde, hasta)).thenReturn(List.of(
+                new BloqueAgendaDTO(10L, 1L, desde, desde.plusHours(1), true),
+                new BloqueAgendaDTO(11L, 1L, desde.plusHours(2), desde.plusHours(3), false)));
+
+        // When
+        List<BloqueAgendaDTO> conflictos = agendaSlotService.obtenerConflictos(1L, desde, hasta, 10L);
+
+        // Then
+        assertEquals(List.of(11L), conflictos.stream().map(BloqueAgendaDTO::agendaSlotId).toList());
+    }
+
+    @Test
+    @DisplayName("Debería validar el rango y el profesional de las consultas de agenda")
+    void deberiaValidarConsultasDeAgenda() {
+        LocalDateTime desde = LocalDateTime.of(2030, 5, 6, 9, 0);
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.obtenerLibreOcupado(1L, desde,
+                desde));
+        assertThrows(IllegalArgumentException.class, () -> agendaSlotService.obtenerLibreOcupado(1L, desde,
+                desde.plusDays(AgendaSlotService.RANGO_CONSULTA_MAXIMO_DIAS + 1)));
+        when(profesionalRepository.existsById(99L)).thenReturn(false);
+        assertThrows(EntityNotFoundException.class, () -> agendaSlotService.obtenerConflictos(99L, desde,
+                desde.plusHours(1), null));
+    }
+
+    private SolicitudServicio solicitudPendiente() {
+        Servicio servicio = new Servicio();
+        servicio.setId(5L);
+        SolicitudServicio solicitud = new SolicitudServicio();
+        solicitud.setId(30L);
+        solicitud.setServicio(servicio);
+        solicitud.setEstado(EstadoSolicitud.PENDIENTE);
+        solicitud.setCliente(new Usuario("cliente@test.com", "secreta"));
+        return solicitud;
+    }
+
+    private AgendaSlot nuevoAgendaSlot(Profesional profesional, LocalDateTime inicio, LocalDateTime fin) {
+        Profesional referencia = new Profesional();
+        referencia.setId(profesional.getId());
+        AgendaSlot nuevo = new AgendaSlot();
+        nuevo.setProfesional(referencia);
+        nuevo.setFechaInicio(inicio);
+        nuevo.setFechaFin(fin);
+        return nuevo;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ejecutarTransacciones() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocacion -> invocacion.getArgument(0, TransactionCallback.class).doInTransaction(new SimpleTransactionStatus()));
+    }
+}
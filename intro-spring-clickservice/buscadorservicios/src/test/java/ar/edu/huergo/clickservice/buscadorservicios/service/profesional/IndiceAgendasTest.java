@@ -0,0 +1,264 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.BloqueAgendaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TramoAgendaDTO;
+
+@DisplayName("Tests de Unidad - IndiceAgendas")
+class IndiceAgendasTest {
+
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 4);
+
+    private IndiceAgendas indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceAgendas(null, null, null);
+        indice.cargar(List.of(
+                bloque(100L, 1L, DIA.atTime(9, 0), DIA.atTime(11, 0), true),
+                bloque(101L, 1L, DIA.atTime(11, 0), DIA.atTime(12, 0), false),
+                bloque(102L, 1L, DIA.atTime(15, 0), DIA.atTime(18, 0), true),
+                bloque(200L, 2L, DIA.atTime(10, 0), DIA.atTime(13, 0), true)));
+    }
+
+    @Test
+    @DisplayName("Debería detectar superposiciones sólo con bloques del mismo profesional")
+    void deberiaDetectarSuperposiciones() {
+        assertTrue(indice.haySuperposicion(1L, DIA.atTime(10, 30), DIA.atTime(11, 30), null));
+        // Los bordes no se superponen: un bloque puede empezar justo cuando termina otro
+        assertFalse(indice.haySuperposicion(1L, DIA.atTime(12, 0), DIA.atTime(15, 0), null));
+        assertFalse(indice.haySuperposicion(3L, DIA.atTime(10, 0), DIA.atTime(11, 0), null));
+        // Al mover un bloque no cuenta consigo mismo
+        assertFalse(indice.haySuperposicion(1L, DIA.atTime(16, 0), DIA.atTime(19, 0), 102L));
+        assertTrue(indice.haySuperposicion(1L, DIA.atTime(16, 0), DIA.atTime(19, 0), 100L));
+
+        assertEquals(List.of(100L, 101L), indice.superpuestos(1L, DIA.atTime(10, 0), DIA.atTime(15, 0)).stream()
+                .map(BloqueAgendaDTO::agendaSlotId).toList());
+    }
+
+    @Test
+    @DisplayName("Debería mover un bloque de profesional y quitarlo al eliminarlo")
+    void deberiaActualizarBloques() {
+        // When: el bloque 100 pasa al profesional 2 por la tarde y se elimina el 101
+        indice.actualizarBloque(100L, bloque(100L, 2L, DIA.atTime(14, 0), DIA.atTime(16, 0), true));
+        indice.actualizarBloque(101L, null);
+
+        // Then
+        assertFalse(indice.haySuperposicion(1L, DIA.atTime(8, 0), DIA.atTime(13, 0), null));
+        assertEquals(List.of(200L, 100L), indice.superpuestos(2L, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay())
+                .stream().map(BloqueAgendaDTO::agendaSlotId).toList());
+        assertEquals(3, indice.getTamanio());
+    }
+
+    @Test
+    @DisplayName("Debería dividir el rango en tramos libres, ocupados y sin agenda")
+    void deberiaCalcularLibreOcupado() {
+        List<TramoAgendaDTO> tramos = indice.libreOcupado(1L, DIA.atTime(8, 0), DIA.atTime(16, 0));
+
+        assertEquals(List.of(
+                new TramoAgendaDTO(DIA.atTime(8, 0), DIA.atTime(9, 0), TramoAgendaDTO.Estado.SIN_AGENDA),
+                new TramoAgendaDTO(DIA.atTime(9, 0), DIA.atTime(11, 0), TramoAgendaDTO.Estado.LIBRE),
+                new TramoAgendaDTO(DIA.atTime(11, 0), DIA.atTime(12, 0), TramoAgendaDTO.Estado.OCUPADO),
+                new TramoAgendaDTO(DIA.atTime(12, 0), DIA.atTime(15, 0), TramoAgendaDTO.Estado.SIN_AGENDA),
+                new TramoAgendaDTO(DIA.atTime(15, 0), DIA.atTime(16, 0), TramoAgendaDTO.Estado.LIBRE)), tramos);
+
+        // Un bloque ocupado superpuesto (cargado antes del control) prevalece sobre el libre
+        indice.actualizarBloque(103L, bloque(103L, 1L, DIA.atTime(16, 0), DIA.atTime(17, 0), false));
+        assertEquals(List.of(
+                new TramoAgendaDTO(DIA.atTime(15, 0), DIA.atTime(16, 0), TramoAgendaDTO.Estado.LIBRE),
+                new TramoAgendaDTO(DIA.atTime(16, 0), DIA.atTime(17, 0), TramoAgendaDTO.Estado.OCUPADO),
+                new TramoAgendaDTO(DIA.atTime(17, 0), DIA.atTime(18, 0), TramoAgendaDTO.Estado.LIBRE)),
+                indice.libreOcupado(1L, DIA.atTime(15, 0), DIA.atTime(18, 0)));
+        assertEquals(List.of(new TramoAgendaDTO(DIA.atTime(8, 0), DIA.atTime(9, 0),
+                TramoAgendaDTO.Estado.SIN_AGENDA)), indice.libreOcupado(3L, DIA.atTime(8, 0), DIA.atTime(9, 0)));
+    }
+
+    @Test
+    @DisplayName("Debería sumar las ventanas de las reglas y dejar que los bloques las reemplacen")
+    void deberiaCombinarReglasYBloques() {
+        // Given: lunes y miércoles de 8 a 13, salvo el miércoles DIA + 2 y el feriado del lunes siguiente
+        indice.actualizarRegla(1L, new ReglaSemanal(1L, 1L, ReglaSemanal.bit(DayOfWeek.MONDAY)
+                | ReglaSemanal.bit(DayOfWeek.WEDNESDAY), LocalTime.of(8, 0), LocalTime.of(13, 0), DIA, null, true,
+                Set.of(DIA.plusDays(2))));
+        indice.actualizarFeriados(Set.of(DIA.plusDays(7)));
+
+        // Then: el bloque ocupado de 11 a 12 tapa la regla; el libre de 9 a 11 se une con ella
+        assertEquals(List.of(
+                new TramoAgendaDTO(DIA.atTime(7, 0), DIA.atTime(8, 0), TramoAgendaDTO.Estado.SIN_AGENDA),
+                new TramoAgendaDTO(DIA.atTime(8, 0), DIA.atTime(11, 0), TramoAgendaDTO.Estado.LIBRE),
+                new TramoAgendaDTO(DIA.atTime(11, 0), DIA.atTime(12, 0), TramoAgendaDTO.Estado.OCUPADO),
+                new TramoAgendaDTO(DIA.atTime(12, 0), DIA.atTime(13, 0), TramoAgendaDTO.Estado.LIBRE),
+                new TramoAgendaDTO(DIA.atTime(13, 0), DIA.atTime(14, 0), TramoAgendaDTO.Estado.SIN_AGENDA)),
+                indice.libreOcupado(1L, DIA.atTime(7, 0), DIA.atTime(14, 0)));
+
+        // En las dos semanas siguientes la regla sólo aplica el miércoles DIA + 9 y el lunes DIA + 14
+        List<LocalDate> diasConRegla = indice.libreOcupado(1L, DIA.plusDays(1).atStartOfDay(),
+                DIA.plusDays(15).atStartOfDay()).stream()
+                .filter(t -> t.estado() == TramoAgendaDTO.Estado.LIBRE)
+                .map(t -> t.desde().toLocalDate())
+                .toList();
+        assertEquals(List.of(DIA.plusDays(9), DIA.plusDays(14)), diasConRegla);
+        assertEquals(Set.of(1L), indice.profesionalesConReglas());
+
+        // When: la regla pasa al profesional 2 y cruza la medianoche
+        indice.actualizarRegla(1L, new ReglaSemanal(1L, 2L, ReglaSemanal.bit(DayOfWeek.SUNDAY), LocalTime.of(22, 0),
+                LocalTime.of(2, 0), DIA, null, true, Set.of()));
+
+        // Then
+        assertEquals(List.of(
+                new TramoAgendaDTO(DIA.plusDays(7).atTime(0, 0), DIA.plusDays(7).atTime(2, 0),
+                        TramoAgendaDTO.Estado.LIBRE),
+                new TramoAgendaDTO(DIA.plusDays(7).atTime(2, 0), DIA.plusDays(7).atTime(6, 0),
+                        TramoAgendaDTO.Estado.SIN_AGENDA)),
+                indice.libreOcupado(2L, DIA.plusDays(7).atStartOfDay(), DIA.plusDays(7).atTime(6, 0)));
+        assertEquals(Set.of(2L), indice.profesionalesConReglas());
+        indice.actualizarRegla(1L, null);
+        assertEquals(Set.of(), indice.profesionalesConReglas());
+    }
+
+    @Test
+    @DisplayName("Debería encontrar el primer hueco libre que alcanza para la duración pedida")
+    void deberiaEncontrarPrimerHuecoLibre() {
+        // Given
+        indice.actualizarRegla(1L, new ReglaSemanal(1L, 1L, ReglaSemanal.bit(DayOfWeek.MONDAY), LocalTime.of(8, 0),
+                LocalTime.of(13, 0), DIA, null, true, Set.of()));
+
+        // When
+        Optional<IndiceDisponibilidad.ProfesionalLibre> cualquiera = indice.primerHuecoLibre(1L,
+                DIA.atTime(10, 30), DIA.atTime(14, 0), Duration.ZERO);
+        Optional<IndiceDisponibilidad.ProfesionalLibre> unaHora = indice.primerHuecoLibre(1L,
+                DIA.atTime(10, 30), DIA.atTime(14, 0), Duration.ofHours(1));
+
+        // Then: de 10:30 a 11 el hueco es del bloque 100; de 12 a 13 sólo de la regla
+        assertEquals(new IndiceDisponibilidad.ProfesionalLibre(1L, 100L, DIA.atTime(10, 30), DIA.atTime(11, 0)),
+                cualquiera.orElseThrow());
+        assertEquals(new IndiceDisponibilidad.ProfesionalLibre(1L, null, DIA.atTime(12, 0), DIA.atTime(13, 0)),
+                unaHora.orElseThrow());
+        assertTrue(indice.primerHuecoLibre(1L, DIA.atTime(10, 30), DIA.atTime(14, 0), Duration.ofHours(2))
+                .isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería responder libre, hueco más largo y primer inicio con las máscaras del día")
+    void deberiaResponderConMascarasDiarias() {
+        assertTrue(indice.estaLibre(1L, DIA.atTime(9, 0), DIA.atTime(11, 0)));
+        assertTrue(indice.estaLibre(1L, DIA.atTime(15, 20), DIA.atTime(16, 40)));
+        assertFalse(indice.estaLibre(1L, DIA.atTime(10, 30), DIA.atTime(11, 15)));
+        assertFalse(indice.estaLibre(1L, DIA.atTime(12, 0), DIA.atTime(13, 0)));
+        assertFalse(indice.estaLibre(3L, DIA.atTime(9, 0), DIA.atTime(10, 0)));
+
+        assertEquals(Duration.ofHours(3), indice.mayorHuecoLibre(1L, DIA));
+        assertEquals(Duration.ZERO, indice.mayorHuecoLibre(1L, DIA.plusDays(1)));
+        assertEquals(Optional.of(DIA.atTime(15, 0)),
+                indice.primerInicioLibre(1L, DIA, LocalTime.MIDNIGHT, Duration.ofMinutes(150)));
+        // Desde 9:10 el primer cuarto posible es 9:15, y una hora y cinco minutos ocupa cinco cuartos
+        assertEquals(Optional.of(DIA.atTime(9, 15)),
+                indice.primerInicioLibre(1L, DIA, LocalTime.of(9, 10), Duration.ofMinutes(65)));
+        assertEquals(Optional.of(DIA.atTime(15, 0)),
+                indice.primerInicioLibre(1L, DIA, LocalTime.of(9, 10), Duration.ofMinutes(110)));
+        assertTrue(indice.primerInicioLibre(1L, DIA, LocalTime.MIDNIGHT, Duration.ofMinutes(181)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería mantener las máscaras al mover, ocupar y quitar bloques")
+    void deberiaMantenerMascarasAlModificarBloques() {
+        // When: el bloque 102 pasa a cruzar la medianoche y uno fuera de los cuartos de hora se agrega
+        indice.actualizarBloque(102L, bloque(102L, 1L, DIA.atTime(22, 0), DIA.plusDays(1).atTime(2, 0), true));
+        indice.actualizarBloque(103L, bloque(103L, 1L, DIA.atTime(13, 10), DIA.atTime(14, 50), true));
+
+        // Then: lo libre se redondea hacia adentro
+        assertFalse(indice.estaLibre(1L, DIA.atTime(15, 0), DIA.atTime(16, 0)));
+        assertTrue(indice.estaLibre(1L, DIA.atTime(23, 0), DIA.plusDays(1).atTime(1, 0)));
+        assertTrue(indice.estaLibre(1L, DIA.atTime(13, 15), DIA.atTime(14, 45)));
+        assertFalse(indice.estaLibre(1L, DIA.atTime(13, 10), DIA.atTime(14, 45)));
+        assertEquals(Duration.ofHours(2), indice.mayorHuecoLibre(1L, DIA.plusDays(1)));
+
+        // When: se ocupa la primera hora del 100 con un bloque superpuesto y se quita el 103
+        indice.actualizarBloque(104L, bloque(104L, 1L, DIA.atTime(8, 50), DIA.atTime(9, 55), false));
+        indice.actualizarBloque(103L, null);
+
+        // Then: lo ocupado se redondea hacia afuera
+        assertEquals(Optional.of(DIA.atTime(10, 0)),
+                indice.primerInicioLibre(1L, DIA, LocalTime.MIDNIGHT, Duration.ofMinutes(30)));
+        assertFalse(indice.estaLibre(1L, DIA.atTime(13, 15), DIA.atTime(14, 45)));
+        assertEquals(Duration.ofHours(2), indice.mayorHuecoLibre(1L, DIA));
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con un recorrido completo después de muchos cambios")
+    void deberiaCoincidirConRecorridoCompleto() {
+        // Given
+        indice = new IndiceAgendas(null, null, null);
+        Random random = new Random(23);
+        Map<Long, BloqueAgendaDTO> bloques = new HashMap<>();
+        for (int paso = 0; paso < 20_000; paso++) {
+            long slotId = 1 + random.nextInt(1500);
+            if (random.nextInt(4) == 0) {
+                indice.actualizarBloque(slotId, null);
+                bloques.remove(slotId);
+            } else {
+                LocalDateTime inicio = DIA.atStartOfDay().plusMinutes(15L * random.nextInt(4 * 24 * 7));
+                BloqueAgendaDTO bloque = bloque(slotId, 1L + random.nextInt(5), inicio,
+                        inicio.plusMinutes(15L * (1 + random.nextInt(40))), random.nextBoolean());
+                indice.actualizarBloque(slotId, bloque);
+                bloques.put(slotId, bloque);
+            }
+        }
+
+        for (int consulta = 0; consulta < 500; consulta++) {
+            // When
+            long profesionalId = 1 + random.nextInt(5);
+            LocalDateTime desde = DIA.atStartOfDay().plusMinutes(15L * random.nextInt(4 * 24 * 7));
+            LocalDateTime hasta = desde.plusMinutes(15L * (1 + random.nextInt(60)));
+            Long excluido = random.nextBoolean() ? null : 1L + random.nextInt(1500);
+
+            // Then
+            List<BloqueAgendaDTO> esperados = bloques.values().stream()
+                    .filter(b -> b.profesionalId() == profesionalId)
+                    .filter(b -> b.fechaInicio().isBefore(hasta) && b.fechaFin().isAfter(desde))
+                    .sorted(Comparator.comparing(BloqueAgendaDTO::fechaInicio)
+                            .thenComparing(BloqueAgendaDTO::agendaSlotId))
+                    .toList();
+            assertEquals(esperados, indice.superpuestos(profesionalId, desde, hasta));
+            assertEquals(esperados.stream().anyMatch(b -> !b.agendaSlotId().equals(excluido)),
+                    indice.haySuperposicion(profesionalId, desde, hasta, excluido));
+            // Sin reglas y con bloques en cuartos de hora, las máscaras dicen lo mismo que el barrido
+            assertEquals(indice.libreOcupado(profesionalId, desde, hasta).stream()
+                    .allMatch(tramo -> tramo.estado() == TramoAgendaDTO.Estado.LIBRE),
+                    indice.estaLibre(profesionalId, desde, hasta));
+            LocalDate dia = desde.toLocalDate();
+            assertEquals(indice.libreOcupado(profesionalId, dia.atStartOfDay(), dia.plusDays(1).atStartOfDay())
+                    .stream()
+                    .filter(tramo -> tramo.estado() == TramoAgendaDTO.Estado.LIBRE)
+                    .map(tramo -> Duration.between(tramo.desde(), tramo.hasta()))
+                    .max(Comparator.naturalOrder())
+                    .orElse(Duration.ZERO), indice.mayorHuecoLibre(profesionalId, dia));
+        }
+        assertEquals(bloques.size(), indice.getTamanio());
+    }
+
+    private static BloqueAgendaDTO bloque(Long slotId, Long profesionalId, LocalDateTime inicio,
+            LocalDateTime fin, boolean disponible) {
+        return new BloqueAgendaDTO(slotId, profesionalId, inicio, fin, disponible);
+    }
+}
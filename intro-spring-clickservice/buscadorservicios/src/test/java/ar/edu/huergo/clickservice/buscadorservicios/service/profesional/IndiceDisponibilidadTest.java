@@ -0,0 +1,207 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FranjaLibreDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ServicioProfesionalDTO;
+
+@DisplayName("Tests de Unidad - IndiceDisponibilidad")
+class IndiceDisponibilidadTest {
+
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 4);
+    private static final LocalDateTime AHORA = DIA.minusDays(1).atTime(12, 0);
+
+    private IndiceDisponibilidad indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceDisponibilidad(null, null);
+        indice.cargar(
+                List.of(new ServicioProfesionalDTO(1L, 10L), new ServicioProfesionalDTO(2L, 10L),
+                        new ServicioProfesionalDTO(2L, 20L), new ServicioProfesionalDTO(3L, 20L)),
+                List.of(
+                        franja(100L, 1L, DIA.atTime(15, 0), DIA.atTime(19, 0)),
+                        franja(101L, 1L, DIA.atTime(9, 0), DIA.atTime(11, 0)),
+                        franja(200L, 2L, DIA.atTime(13, 0), DIA.atTime(14, 30)),
+                        franja(201L, 2L, DIA.atTime(16, 0), DIA.atTime(17, 0)),
+                        // Cruza la medianoche: aparece también el día siguiente
+                        franja(300L, 3L, DIA.atTime(22, 0), DIA.plusDays(1).atTime(2, 0))));
+    }
+
+    @Test
+    @DisplayName("Debería devolver un hueco por profesional ordenado por el primer horario libre")
+    void deberiaOrdenarPorPrimerHorarioLibre() {
+        // When: servicio 10, el día entre 14 y 18
+        List<IndiceDisponibilidad.ProfesionalLibre> libres = indice.buscar(10L, DIA.atTime(14, 0),
+                DIA.atTime(18, 0), Duration.ZERO, 10, AHORA);
+
+        // Then: el profesional 2 está libre desde las 14 (bloque que empezó a las 13), el 1 desde las 15
+        assertEquals(List.of(new IndiceDisponibilidad.ProfesionalLibre(2L, 200L, DIA.atTime(14, 0),
+                DIA.atTime(14, 30)), new IndiceDisponibilidad.ProfesionalLibre(1L, 100L, DIA.atTime(15, 0),
+                        DIA.atTime(19, 0))), libres);
+
+        // When: pidiendo al menos una hora, el hueco de 14 a 14:30 no alcanza y se usa el de 16 a 17
+        List<IndiceDisponibilidad.ProfesionalLibre> largos = indice.buscar(10L, DIA.atTime(14, 0),
+                DIA.atTime(18, 0), Duration.ofHours(1), 10, AHORA);
+
+        // Then
+        assertEquals(List.of(100L, 201L), largos.stream().map(IndiceDisponibilidad.ProfesionalLibre::agendaSlotId)
+                .toList());
+        assertEquals(1, indice.buscar(10L, DIA.atTime(14, 0), DIA.atTime(18, 0), Duration.ZERO, 1, AHORA).size());
+    }
+
+    @Test
+    @DisplayName("Debería encontrar bloques que cruzan la medianoche y no contar el tiempo pasado")
+    void deberiaManejarMedianocheYTiempoPasado() {
+        // When
+        List<IndiceDisponibilidad.ProfesionalLibre> madrugada = indice.buscar(20L, DIA.plusDays(1).atStartOfDay(),
+                DIA.plusDays(1).atTime(6, 0), Duration.ZERO, 10, AHORA);
+        List<IndiceDisponibilidad.ProfesionalLibre> despuesDeLasDiez = indice.buscar(10L, DIA.atStartOfDay(),
+                DIA.plusDays(1).atStartOfDay(), Duration.ZERO, 10, DIA.atTime(10, 0));
+
+        // Then
+        assertEquals(List.of(300L), madrugada.stream().map(IndiceDisponibilidad.ProfesionalLibre::agendaSlotId)
+                .toList());
+        assertEquals(DIA.plusDays(1).atStartOfDay(), madrugada.get(0).desde());
+        assertEquals(DIA.atTime(10, 0), despuesDeLasDiez.get(0).desde());
+        assertEquals(List.of(1L, 2L), despuesDeLasDiez.stream()
+                .map(IndiceDisponibilidad.ProfesionalLibre::profesionalId).toList());
+    }
+
+    @Test
+    @DisplayName("Debería actualizar los resultados con cambios de bloques y de servicios")
+    void deberiaActualizarConCambios() {
+        // When: el profesional 2 deja de ofrecer el servicio 10 y el bloque 100 pasa a la mañana
+        indice.actualizarProfesional(2L, List.of(20L));
+        indice.actualizarFranja(100L, franja(100L, 1L, DIA.atTime(7, 0), DIA.atTime(8, 0)));
+
+        // Then
+        assertEquals(List.of(), indice.buscar(10L, DIA.atTime(14, 0), DIA.atTime(18, 0), Duration.ZERO, 10,
+                AHORA));
+        assertEquals(List.of(2L, 3L), indice.buscar(20L, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay(),
+                Duration.ZERO, 10, AHORA).stream().map(IndiceDisponibilidad.ProfesionalLibre::profesionalId).toList());
+
+        // When: el profesional 3 deja de estar disponible y se elimina un bloque del 2
+        indice.actualizarProfesional(3L, List.of());
+        indice.actualizarFranja(200L, null);
+
+        // Then
+        assertEquals(List.of(201L), indice.buscar(20L, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay(),
+                Duration.ZERO, 10, AHORA).stream().map(IndiceDisponibilidad.ProfesionalLibre::agendaSlotId).toList());
+        assertEquals(4, indice.getTamanio());
+    }
+
+    @Test
+    @DisplayName("Debería informar el próximo día con bloques libres de cada servicio")
+    void deberiaInformarProximaFecha() {
+        assertEquals(Map.of(10L, DIA, 20L, DIA), indice.proximasFechas(AHORA));
+        // A las 20 del día ya sólo queda el bloque de la noche del profesional 3 para el servicio 20
+        assertNull(indice.proximaFecha(10L, DIA.atTime(20, 0)));
+        assertEquals(DIA.plusDays(1), indice.proximaFecha(20L, DIA.plusDays(1).atTime(1, 0)));
+
+        // Al quitar los bloques terminados se vacía el servicio 10
+        indice.quitarTerminadas(DIA.atTime(20, 0));
+        assertEquals(Map.of(20L, DIA), indice.proximasFechas(DIA.atTime(20, 0)));
+        assertEquals(1, indice.getTamanio());
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con un recorrido completo después de muchos cambios")
+    void deberiaCoincidirConRecorridoCompleto() {
+        // Given
+        indice = new IndiceDisponibilidad(null, null);
+        indice.cargar(List.of(), List.of());
+        Random random = new Random(17);
+        Map<Long, FranjaLibreDTO> franjas = new HashMap<>();
+        Map<Long, List<Long>> servicios = new HashMap<>();
+        for (int paso = 0; paso < 20_000; paso++) {
+            int operacion = random.nextInt(10);
+            if (operacion < 2) {
+                long profesionalId = 1 + random.nextInt(60);
+                List<Long> lista = new ArrayList<>(new HashSet<>(List.of(1L + random.nextInt(4),
+                        1L + random.nextInt(4))));
+                if (random.nextInt(5) == 0) {
+                    lista = List.of();
+                }
+                indice.actualizarProfesional(profesionalId, lista);
+                servicios.put(profesionalId, lista);
+            } else if (operacion < 4) {
+                long slotId = 1 + random.nextInt(2000);
+                indice.actualizarFranja(slotId, null);
+                franjas.remove(slotId);
+            } else {
+                long slotId = 1 + random.nextInt(2000);
+                LocalDateTime inicio = DIA.atStartOfDay().plusMinutes(15L * random.nextInt(4 * 24 * 3));
+                FranjaLibreDTO franja = franja(slotId, 1L + random.nextInt(60), inicio,
+                        inicio.plusMinutes(15L * (1 + random.nextInt(40))));
+                indice.actualizarFranja(slotId, franja);
+                franjas.put(slotId, franja);
+            }
+        }
+
+        for (int consulta = 0; consulta < 200; consulta++) {
+            // When
+            long servicioId = 1 + random.nextInt(4);
+            LocalDate dia = DIA.plusDays(random.nextInt(4));
+            LocalDateTime desde = dia.atStartOfDay().plusMinutes(15L * random.nextInt(80));
+            // La ventana termina como mucho a la medianoche siguiente, como las que arma el servicio
+            LocalDateTime finDelDia = dia.plusDays(1).atStartOfDay();
+            LocalDateTime hasta = desde.plusMinutes(15L * (1 + random.nextInt(16)));
+            if (random.nextBoolean() || hasta.isAfter(finDelDia)) {
+                hasta = finDelDia;
+            }
+            Duration duracion = Duration.ofMinutes(15L * random.nextInt(6));
+            LocalDateTime ahora = random.nextBoolean() ? AHORA : desde.plusMinutes(30);
+            List<IndiceDisponibilidad.ProfesionalLibre> libres = indice.buscar(servicioId, desde, hasta, duracion,
+                    10, ahora);
+
+            // Then: el primer hueco de cada profesional que ofrece el servicio, ordenado por horario
+            LocalDateTime inicio = desde.isAfter(ahora) ? desde : ahora;
+            Map<Long, LocalDateTime> primeroPorProfesional = new HashMap<>();
+            for (FranjaLibreDTO franja : franjas.values()) {
+                if (!servicios.getOrDefault(franja.profesionalId(), List.of()).contains(servicioId)) {
+                    continue;
+                }
+                LocalDateTime libreDesde = franja.fechaInicio().isAfter(inicio) ? franja.fechaInicio() : inicio;
+                LocalDateTime libreHasta = franja.fechaFin().isBefore(hasta) ? franja.fechaFin() : hasta;
+                if (libreHasta.isAfter(libreDesde)
+                        && Duration.between(libreDesde, libreHasta).compareTo(duracion) >= 0) {
+                    primeroPorProfesional.merge(franja.profesionalId(), libreDesde,
+                            (a, b) -> a.isBefore(b) ? a : b);
+                }
+            }
+            List<LocalDateTime> esperados = primeroPorProfesional.values().stream()
+                    .sorted(Comparator.naturalOrder())
+                    .limit(10)
+                    .toList();
+            assertEquals(esperados, libres.stream().map(IndiceDisponibilidad.ProfesionalLibre::desde).toList());
+            Set<Long> profesionales = new HashSet<>();
+            for (IndiceDisponibilidad.ProfesionalLibre libre : libres) {
+                assertEquals(true, profesionales.add(libre.profesionalId()));
+                assertEquals(primeroPorProfesional.get(libre.profesionalId()), libre.desde());
+            }
+        }
+        assertEquals(franjas.size(), indice.getTamanio());
+    }
+
+    private static FranjaLibreDTO franja(Long slotId, Long profesionalId, LocalDateTime inicio, LocalDateTime fin) {
+        return new FranjaLibreDTO(slotId, profesionalId, inicio, fin);
+    }
+}
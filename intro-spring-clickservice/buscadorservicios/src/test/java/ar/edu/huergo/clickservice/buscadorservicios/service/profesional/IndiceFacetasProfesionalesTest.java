@@ -0,0 +1,223 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ConteoFacetaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FacetaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroFacetasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ModoServicios;
+
+@DisplayName("Tests de Unidad - IndiceFacetasProfesionales")
+class IndiceFacetasProfesionalesTest {
+
+    private static final FiltroFacetasDTO SIN_FILTROS = new FiltroFacetasDTO(null, ModoServicios.ALGUNO, null,
+            null, null);
+
+    private IndiceFacetasProfesionales indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceFacetasProfesionales(null);
+        indice.indexar(List.of(
+                new FacetaProfesionalDTO(1L, 4.5, true, "Palermo", 1L),
+                new FacetaProfesionalDTO(1L, 4.5, true, "Palermo", 2L),
+                new FacetaProfesionalDTO(2L, 3.2, true, "palermo ", 1L),
+                new FacetaProfesionalDTO(3L, 5.0, false, "Belgrano", 2L),
+                new FacetaProfesionalDTO(4L, 1.0, true, "Belgrano", 3L),
+                new FacetaProfesionalDTO(5L, 0.0, true, null, null)));
+    }
+
+    @Test
+    @DisplayName("Debería combinar servicios con Y o con O según el modo")
+    void deberiaCombinarServicios() {
+        // When
+        IndiceFacetasProfesionales.Resultado todos = indice.buscar(
+                new FiltroFacetasDTO(Set.of(1L, 2L), ModoServicios.TODOS, null, null, null), 0, 10);
+        IndiceFacetasProfesionales.Resultado alguno = indice.buscar(
+                new FiltroFacetasDTO(Set.of(1L, 2L), ModoServicios.ALGUNO, null, null, null), 0, 10);
+
+        // Then
+        assertEquals(1, todos.total());
+        assertEquals(List.of(1L), todos.ids());
+        assertEquals(3, alguno.total());
+        assertEquals(List.of(1L, 2L, 3L), alguno.ids());
+    }
+
+    @Test
+    @DisplayName("Debería contar cada faceta con los filtros de las demás y no con el propio")
+    void deberiaContarCadaFacetaSinSuPropioFiltro() {
+        // When: filtro por Palermo y disponibles
+        IndiceFacetasProfesionales.Resultado resultado = indice.buscar(
+                new FiltroFacetasDTO(null, ModoServicios.ALGUNO, Set.of("PALERMO"), null, true), 0, 10);
+
+        // Then: las zonas se cuentan sólo con el filtro de disponibilidad (Belgrano sigue apareciendo)
+        assertEquals(2, resultado.total());
+        assertEquals(List.of(new ConteoFacetaDTO("palermo", "Palermo", 2), new ConteoFacetaDTO("belgrano",
+                "Belgrano", 1)), resultado.zonas());
+        // y la disponibilidad sólo con el filtro de zona
+        assertEquals(List.of(new ConteoFacetaDTO("true", "Disponible", 2),
+                new ConteoFacetaDTO("false", "No disponible", 0)), resultado.disponibilidad());
+        assertEquals(Map.of(1L, 2L, 2L, 1L), resultado.servicios());
+        assertEquals(List.of(1L, 1L, 0L, 0L, 0L),
+                resultado.calificaciones().stream().map(ConteoFacetaDTO::cantidad).toList());
+    }
+
+    @Test
+    @DisplayName("Debería mover al profesional entre facetas al reindexarlo y quitarlo al eliminarlo")
+    void deberiaActualizarLasFacetasAlReindexar() {
+        // When
+        indice.indexar(List.of(new FacetaProfesionalDTO(4L, 4.0, false, "Caballito", 1L)));
+        indice.eliminar(3L);
+
+        // Then
+        IndiceFacetasProfesionales.Resultado resultado = indice.buscar(SIN_FILTROS, 0, 10);
+        assertEquals(4, resultado.total());
+        assertEquals(List.of("palermo", "caballito"),
+                resultado.zonas().stream().map(ConteoFacetaDTO::valor).toList());
+        assertEquals(Map.of(1L, 3L, 2L, 1L), resultado.servicios());
+        assertEquals(List.of(4L), indice.buscar(
+                new FiltroFacetasDTO(null, null, Set.of("Caballito"), Set.of(4), false), 0, 10).ids());
+        assertThrows(IllegalArgumentException.class,
+                () -> indice.buscar(new FiltroFacetasDTO(null, null, null, Set.of(5), null), 0, 10));
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con un recorrido completo después de muchos cambios")
+    void deberiaCoincidirConRecorridoCompleto() {
+        // Given: suficientes profesionales para usar contenedores densos y dispersos en los bitmaps
+        indice = new IndiceFacetasProfesionales(null);
+        Random random = new Random(11);
+        Map<Long, List<FacetaProfesionalDTO>> modelo = new HashMap<>();
+        List<FacetaProfesionalDTO> carga = new ArrayList<>();
+        for (long id = 1; id <= 80_000; id++) {
+            List<FacetaProfesionalDTO> filas = filasAleatorias(id, random);
+            modelo.put(id, filas);
+            carga.addAll(filas);
+        }
+        indice.indexar(carga);
+        for (int paso = 0; paso < 20_000; paso++) {
+            long id = 1 + random.nextInt(80_000);
+            if (random.nextInt(4) == 0) {
+                indice.eliminar(id);
+                modelo.remove(id);
+            } else {
+                List<FacetaProfesionalDTO> filas = filasAleatorias(id, random);
+                indice.indexar(filas);
+                modelo.put(id, filas);
+            }
+        }
+
+        for (int consulta = 0; consulta < 30; consulta++) {
+            // When
+            FiltroFacetasDTO filtro = new FiltroFacetasDTO(
+                    random.nextBoolean() ? null : new HashSet<>(List.of(1L + random.nextInt(6), 1L + random.nextInt(6))),
+                    random.nextBoolean() ? ModoServicios.TODOS : ModoServicios.ALGUNO,
+                    random.nextBoolean() ? null : Set.of("Zona " + random.nextInt(12)),
+                    random.nextBoolean() ? null : new HashSet<>(List.of(random.nextInt(5), random.nextInt(5))),
+                    random.nextInt(3) == 0 ? null : random.nextBoolean());
+            IndiceFacetasProfesionales.Resultado resultado = indice.buscar(filtro, 0, 100_000);
+
+            // Then
+            Set<Long> esperados = filtrar(modelo, filtro, null);
+            assertEquals(esperados.size(), resultado.total());
+            assertEquals(esperados, new HashSet<>(resultado.ids()));
+
+            Set<Long> baseServicios = filtrar(modelo, filtro, filtro.modoServicios() == ModoServicios.TODOS
+                    ? null : "servicios");
+            for (long servicioId = 1; servicioId <= 6; servicioId++) {
+                long esperado = contar(modelo, baseServicios, servicioId, f -> true);
+                assertEquals(esperado, resultado.servicios().getOrDefault(servicioId, 0L));
+            }
+            Set<Long> baseZonas = filtrar(modelo, filtro, "zonas");
+            for (ConteoFacetaDTO zona : resultado.zonas()) {
+                assertEquals(contar(modelo, baseZonas, null,
+                        f -> IndiceFacetasProfesionales.claveZona(f.zonaTrabajo()).equals(zona.valor())),
+                        zona.cantidad());
+            }
+            Set<Long> baseRangos = filtrar(modelo, filtro, "rangos");
+            for (ConteoFacetaDTO rango : resultado.calificaciones()) {
+                assertEquals(contar(modelo, baseRangos, null, f -> String.valueOf(
+                        IndiceFacetasProfesionales.rangoCalificacion(f.calificacionPromedio())).equals(rango.valor())),
+                        rango.cantidad());
+            }
+            Set<Long> baseDisponibilidad = filtrar(modelo, filtro, "disponible");
+            for (ConteoFacetaDTO disponibilidad : resultado.disponibilidad()) {
+                assertEquals(contar(modelo, baseDisponibilidad, null,
+                        f -> String.valueOf(f.disponible()).equals(disponibilidad.valor())),
+                        disponibilidad.cantidad());
+            }
+        }
+        assertEquals(modelo.size(), indice.getTamanio());
+    }
+
+    private static List<FacetaProfesionalDTO> filasAleatorias(long id, Random random) {
+        double calificacion = random.nextInt(11) / 2.0;
+        boolean disponible = random.nextInt(10) < 7;
+        String zona = "Zona " + random.nextInt(12);
+        List<FacetaProfesionalDTO> filas = new ArrayList<>();
+        // Servicio 1 muy frecuente (bitmaps densos), servicio 6 raro (arreglos)
+        int[] porcentajes = {90, 40, 20, 10, 5, 1};
+        for (int i = 0; i < porcentajes.length; i++) {
+            if (random.nextInt(100) < porcentajes[i]) {
+                filas.add(new FacetaProfesionalDTO(id, calificacion, disponible, zona, (long) i + 1));
+            }
+        }
+        if (filas.isEmpty()) {
+            filas.add(new FacetaProfesionalDTO(id, calificacion, disponible, zona, null));
+        }
+        return filas;
+    }
+
+    /**
+     * Ids del modelo que cumplen el filtro, ignorando la faceta {@code excluida}.
+     */
+    private static Set<Long> filtrar(Map<Long, List<FacetaProfesionalDTO>> modelo, FiltroFacetasDTO filtro,
+            String excluida) {
+        return modelo.entrySet().stream()
+                .filter(entrada -> {
+                    List<FacetaProfesionalDTO> filas = entrada.getValue();
+                    FacetaProfesionalDTO primera = filas.get(0);
+                    Set<Long> servicios = filas.stream().map(FacetaProfesionalDTO::servicioId)
+                            .collect(Collectors.toSet());
+                    boolean cumpleServicios = filtro.serviciosIds() == null || "servicios".equals(excluida)
+                            || (filtro.modoServicios() == ModoServicios.TODOS
+                                    ? servicios.containsAll(filtro.serviciosIds())
+                                    : filtro.serviciosIds().stream().anyMatch(servicios::contains));
+                    boolean cumpleZona = filtro.zonas() == null || "zonas".equals(excluida)
+                            || filtro.zonas().contains(primera.zonaTrabajo());
+                    boolean cumpleRango = filtro.rangosCalificacion() == null || "rangos".equals(excluida)
+                            || filtro.rangosCalificacion().contains(
+                                    IndiceFacetasProfesionales.rangoCalificacion(primera.calificacionPromedio()));
+                    boolean cumpleDisponible = filtro.disponible() == null || "disponible".equals(excluida)
+                            || filtro.disponible().equals(primera.disponible());
+                    return cumpleServicios && cumpleZona && cumpleRango && cumpleDisponible;
+                })
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private static long contar(Map<Long, List<FacetaProfesionalDTO>> modelo, Set<Long> base, Long servicioId,
+            Predicate<FacetaProfesionalDTO> condicion) {
+        return base.stream()
+                .map(modelo::get)
+                .filter(filas -> servicioId == null
+                        || filas.stream().anyMatch(f -> servicioId.equals(f.servicioId())))
+                .filter(filas -> condicion.test(filas.get(0)))
+                .count();
+    }
+}
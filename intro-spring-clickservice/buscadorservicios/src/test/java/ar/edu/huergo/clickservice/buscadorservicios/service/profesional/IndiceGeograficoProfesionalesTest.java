@@ -0,0 +1,96 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.UbicacionProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.util.GrillaGeografica;
+import ar.edu.huergo.clickservice.buscadorservicios.util.GrillaGeografica.Vecino;
+
+@DisplayName("Tests de Unidad - IndiceGeograficoProfesionales")
+class IndiceGeograficoProfesionalesTest {
+
+    private static final double LAT_OBELISCO = -34.6037;
+    private static final double LON_OBELISCO = -58.3816;
+
+    private IndiceGeograficoProfesionales indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceGeograficoProfesionales(null, 0.05);
+    }
+
+    @Test
+    @DisplayName("Debería devolver los mismos k vecinos que una búsqueda exhaustiva")
+    void deberiaCoincidirConBusquedaExhaustiva() {
+        // Given
+        Random random = new Random(42);
+        List<UbicacionProfesionalDTO> filas = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) {
+            double lat = LAT_OBELISCO + (random.nextDouble() - 0.5) * 2;
+            double lon = LON_OBELISCO + (random.nextDouble() - 0.5) * 2;
+            filas.add(new UbicacionProfesionalDTO(id, lat, lon, null, 1 + id % 3));
+        }
+        indice.cargar(filas);
+
+        // When
+        List<Vecino> resultado = indice.buscarCercanos(1L, LAT_OBELISCO, LON_OBELISCO, 10, 100);
+
+        // Then
+        List<Long> esperados = filas.stream()
+                .filter(f -> f.servicioId() == 1L)
+                .sorted(Comparator.comparingDouble(f -> GrillaGeografica.distanciaKm(LAT_OBELISCO,
+                        LON_OBELISCO, f.latitud(), f.longitud())))
+                .limit(10)
+                .map(UbicacionProfesionalDTO::profesionalId)
+                .toList();
+        assertEquals(esperados, resultado.stream().map(Vecino::id).toList());
+    }
+
+    @Test
+    @DisplayName("Debería respetar el radio de búsqueda y el radio de cobertura del profesional")
+    void deberiaRespetarRadios() {
+        // Given: a unos 11 km del Obelisco, uno sin límite y otro que cubre sólo 5 km
+        indice.cargar(List.of(
+                new UbicacionProfesionalDTO(1L, LAT_OBELISCO + 0.1, LON_OBELISCO, null, 1L),
+                new UbicacionProfesionalDTO(2L, LAT_OBELISCO + 0.1, LON_OBELISCO, 5.0, 1L)));
+
+        // When
+        List<Vecino> dentroDe20Km = indice.buscarCercanos(1L, LAT_OBELISCO, LON_OBELISCO, 10, 20);
+        List<Vecino> dentroDe5Km = indice.buscarCercanos(1L, LAT_OBELISCO, LON_OBELISCO, 10, 5);
+
+        // Then
+        assertEquals(List.of(1L), dentroDe20Km.stream().map(Vecino::id).toList());
+        assertTrue(dentroDe5Km.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería mover al profesional al actualizarlo y quitarlo cuando deja de estar disponible")
+    void deberiaActualizarYQuitarProfesional() {
+        // Given
+        indice.cargar(List.of(new UbicacionProfesionalDTO(1L, LAT_OBELISCO, LON_OBELISCO, null, 1L)));
+
+        // When: se muda a Córdoba y pasa a ofrecer el servicio 2
+        indice.actualizar(1L, List.of(new UbicacionProfesionalDTO(1L, -31.4201, -64.1888, null, 2L)));
+
+        // Then
+        assertTrue(indice.buscarCercanos(1L, LAT_OBELISCO, LON_OBELISCO, 5, 50).isEmpty());
+        assertEquals(1, indice.buscarCercanos(2L, -31.42, -64.19, 5, 50).size());
+
+        // When: deja de estar disponible
+        indice.actualizar(1L, List.of());
+
+        // Then
+        assertEquals(0, indice.getTamanio());
+        assertTrue(indice.buscarCercanos(2L, -31.42, -64.19, 5, 50).isEmpty());
+    }
+}
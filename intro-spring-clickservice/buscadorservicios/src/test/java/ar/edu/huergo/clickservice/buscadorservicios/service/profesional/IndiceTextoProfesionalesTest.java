@@ -0,0 +1,89 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.TextoProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.util.IndiceInvertido;
+
+@DisplayName("Tests de Unidad - IndiceTextoProfesionales")
+class IndiceTextoProfesionalesTest {
+
+    private IndiceTextoProfesionales indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceTextoProfesionales(null);
+        indice.indexar(List.of(
+                new TextoProfesionalDTO(1L, "Juan Pérez", "Arreglos de cañerías", "Palermo", "Plomería"),
+                new TextoProfesionalDTO(1L, "Juan Pérez", "Arreglos de cañerías", "Palermo", "Gas"),
+                new TextoProfesionalDTO(2L, "Ana Gómez", "Instalaciones eléctricas y plomería básica",
+                        "Belgrano", "Electricidad"),
+                new TextoProfesionalDTO(3L, "Carlos Ruiz", "Jardines y parques", "Palermo", "Jardinería")));
+    }
+
+    @Test
+    @DisplayName("Debería encontrar sin importar tildes ni mayúsculas")
+    void deberiaIgnorarTildesYMayusculas() {
+        // When
+        IndiceInvertido.Pagina resultado = indice.buscar("PLOMERIA", 0, 10);
+
+        // Then
+        assertEquals(2, resultado.total());
+        assertEquals(List.of(1L, 2L), ids(resultado));
+    }
+
+    @Test
+    @DisplayName("Debería rankear primero a quien coincide con más términos")
+    void deberiaRankearPorRelevancia() {
+        // When
+        IndiceInvertido.Pagina resultado = indice.buscar("jardinería en Palermo", 0, 10);
+
+        // Then
+        assertEquals(2, resultado.total());
+        assertEquals(3L, ids(resultado).get(0));
+    }
+
+    @Test
+    @DisplayName("Debería paginar los resultados manteniendo el total")
+    void deberiaPaginar() {
+        // When
+        IndiceInvertido.Pagina primera = indice.buscar("palermo plomeria", 0, 2);
+        IndiceInvertido.Pagina segunda = indice.buscar("palermo plomeria", 2, 2);
+
+        // Then
+        assertEquals(3, primera.total());
+        assertEquals(2, primera.resultados().size());
+        assertEquals(1, segunda.resultados().size());
+        assertTrue(ids(primera).stream().noneMatch(ids(segunda)::contains));
+    }
+
+    @Test
+    @DisplayName("Debería reflejar actualizaciones y bajas de profesionales")
+    void deberiaActualizarIncrementalmente() {
+        // When: Juan deja de ofrecer plomería y Ana se da de baja
+        indice.indexar(List.of(new TextoProfesionalDTO(1L, "Juan Pérez", "Gasista matriculado", "Palermo", "Gas")));
+        indice.eliminar(2L);
+
+        // Then
+        assertEquals(0, indice.buscar("plomería", 0, 10).total());
+        assertEquals(List.of(1L), ids(indice.buscar("gasista", 0, 10)));
+        assertEquals(2, indice.getTamanio());
+    }
+
+    @Test
+    @DisplayName("No debería devolver nada para consultas con sólo palabras vacías")
+    void noDeberiaBuscarPalabrasVacias() {
+        assertEquals(0, indice.buscar("de la y", 0, 10).total());
+    }
+
+    private static List<Long> ids(IndiceInvertido.Pagina pagina) {
+        return pagina.resultados().stream().map(IndiceInvertido.Resultado::id).toList();
+    }
+}
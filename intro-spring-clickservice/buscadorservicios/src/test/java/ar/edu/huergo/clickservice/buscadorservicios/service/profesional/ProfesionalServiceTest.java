@@ -2,12 +2,17 @@ package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -18,11 +23,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ConteoFacetaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroDirectorioDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.FiltroFacetasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.ModoServicios;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.OrdenDirectorio;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.DirectorioProfesionalesRepository.PosicionDirectorio;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.ServicioRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.GrillaGeografica.Vecino;
+import ar.edu.huergo.clickservice.buscadorservicios.util.IndiceInvertido;
+import ar.edu.huergo.clickservice.buscadorservicios.util.TopKIncremental;
 import jakarta.persistence.EntityNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +51,21 @@ class ProfesionalServiceTest {
     @Mock
     private ServicioRepository servicioRepository;
 
+    @Mock
+    private IndiceGeograficoProfesionales indiceGeograficoProfesionales;
+
+    @Mock
+    private IndiceTextoProfesionales indiceTextoProfesionales;
+
+    @Mock
+    private RankingProfesionales rankingProfesionales;
+
+    @Mock
+    private IndiceFacetasProfesionales indiceFacetasProfesionales;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProfesionalService profesionalService;
 
@@ -81,6 +113,167 @@ class ProfesionalServiceTest {
         assertEquals(1, resultado.getServicios().size());
         verify(servicioRepository, times(1)).findAllById(Set.of(2L));
         verify(profesionalRepository, times(1)).save(profesional);
+        verify(eventPublisher).publishEvent(new ProfesionalModificadoEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Debería devolver los profesionales cercanos en el orden del índice geográfico")
+    void deberiaDevolverProfesionalesCercanosOrdenados() {
+        // Given
+        ReflectionTestUtils.setField(profesionalService, "radioBusquedaPorDefectoKm", 50.0);
+        ReflectionTestUtils.setField(profesionalService, "radioBusquedaMaximoKm", 500.0);
+        Profesional lejano = new Profesional();
+        lejano.setId(2L);
+        when(indiceGeograficoProfesionales.buscarCercanos(3L, -34.6, -58.4, 5, 50.0))
+                .thenReturn(List.of(new Vecino(1L, 1.5), new Vecino(2L, 7.0)));
+        when(profesionalRepository.findByIdIn(List.of(1L, 2L))).thenReturn(List.of(lejano, profesional));
+
+        // When
+        List<ProfesionalService.ProfesionalCercano> resultado =
+                profesionalService.obtenerProfesionalesCercanos(3L, -34.6, -58.4, 5, null);
+
+        // Then
+        assertEquals(2, resultado.size());
+        assertEquals(1L, resultado.get(0).profesional().getId());
+        assertEquals(1.5, resultado.get(0).distanciaKm());
+        assertEquals(2L, resultado.get(1).profesional().getId());
+    }
+
+    @Test
+    @DisplayName("Debería devolver la página de búsqueda en el orden de relevancia del índice")
+    void deberiaBuscarProfesionalesPorTexto() {
+        // Given
+        Profesional otro = new Profesional();
+        otro.setId(2L);
+        when(indiceTextoProfesionales.buscar("plomero", 10, 10)).thenReturn(new IndiceInvertido.Pagina(
+                List.of(new IndiceInvertido.Resultado(2L, 3.1), new IndiceInvertido.Resultado(1L, 1.2)), 12));
+        when(profesionalRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(profesional, otro));
+
+        // When
+        Page<Profesional> resultado = profesionalService.buscarProfesionales("plomero", 1, 10);
+
+        // Then
+        assertEquals(List.of(2L, 1L), resultado.getContent().stream().map(Profesional::getId).toList());
+        assertEquals(12, resultado.getTotalElements());
+        assertEquals(1, resultado.getNumber());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar búsquedas de texto más allá de los resultados navegables")
+    void deberiaRechazarPaginaDemasiadoProfunda() {
+        assertThrows(IllegalArgumentException.class,
+                () -> profesionalService.buscarProfesionales("plomero", 50, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> profesionalService.buscarProfesionales("  ", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Debería devolver un cursor que continúa después del último profesional de la página")
+    void deberiaPaginarElDirectorioPorCursor() {
+        // Given
+        FiltroDirectorioDTO filtro = new FiltroDirectorioDTO(Set.of(3L), 4.0, null, true, null);
+        profesional.setCalificacionPromedio(4.5);
+        Profesional otro = new Profesional();
+        otro.setId(7L);
+        otro.setCalificacionPromedio(4.2);
+        when(profesionalRepository.buscarIdsDirectorio(eq(filtro), eq(OrdenDirectorio.CALIFICACION), isNull(), eq(3)))
+                .thenReturn(List.of(1L, 7L, 9L));
+        when(profesionalRepository.findByIdIn(List.of(1L, 7L))).thenReturn(List.of(otro, profesional));
+
+        // When
+        ProfesionalService.PaginaDirectorio pagina =
+                profesionalService.obtenerDirectorio(filtro, OrdenDirectorio.CALIFICACION, null, 2);
+
+        // Then
+        assertEquals(List.of(1L, 7L), pagina.profesionales().stream().map(Profesional::getId).toList());
+        assertNotNull(pagina.siguienteCursor());
+
+        // Given (segunda página)
+        when(profesionalRepository.buscarIdsDirectorio(filtro, OrdenDirectorio.CALIFICACION,
+                new PosicionDirectorio(4.2, 7L), 3)).thenReturn(List.of());
+
+        // When
+        ProfesionalService.PaginaDirectorio siguiente = profesionalService.obtenerDirectorio(filtro,
+                OrdenDirectorio.CALIFICACION, pagina.siguienteCursor(), 2);
+
+        // Then
+        assertEquals(0, siguiente.profesionales().size());
+        assertNull(siguiente.siguienteCursor());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar cursores inválidos o de otro orden")
+    void deberiaRechazarCursorInvalido() {
+        // Given
+        FiltroDirectorioDTO filtro = new FiltroDirectorioDTO(null, null, null, null, null);
+        profesional.setTrabajosRealizados(12);
+        when(profesionalRepository.buscarIdsDirectorio(any(), eq(OrdenDirectorio.EXPERIENCIA), isNull(), eq(2)))
+                .thenReturn(List.of(1L, 2L));
+        when(profesionalRepository.findByIdIn(List.of(1L))).thenReturn(List.of(profesional));
+        String cursorExperiencia = profesionalService
+                .obtenerDirectorio(filtro, OrdenDirectorio.EXPERIENCIA, null, 1).siguienteCursor();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> profesionalService.obtenerDirectorio(filtro,
+                OrdenDirectorio.CALIFICACION, cursorExperiencia, 10));
+        assertThrows(IllegalArgumentException.class, () -> profesionalService.obtenerDirectorio(filtro,
+                OrdenDirectorio.CALIFICACION, "no-es-un-cursor!", 10));
+        assertThrows(IllegalArgumentException.class, () -> profesionalService.obtenerDirectorio(filtro,
+                OrdenDirectorio.CALIFICACION, null, 500));
+    }
+
+    @Test
+    @DisplayName("Debería devolver el ranking del servicio en el orden del top y rechazar cantidades fuera de rango")
+    void deberiaDevolverElRankingDelServicio() {
+        // Given
+        Profesional segundo = new Profesional();
+        segundo.setId(2L);
+        when(rankingProfesionales.getK()).thenReturn(100);
+        when(rankingProfesionales.mejores(3L, 2)).thenReturn(List.of(
+                new TopKIncremental.Entrada(2L, 0.9), new TopKIncremental.Entrada(1L, 0.7)));
+        when(profesionalRepository.findByIdIn(List.of(2L, 1L))).thenReturn(List.of(profesional, segundo));
+
+        // When
+        List<ProfesionalService.ProfesionalRankeado> resultado = profesionalService.obtenerRanking(3L, 2);
+
+        // Then
+        assertEquals(List.of(2L, 1L), resultado.stream().map(r -> r.profesional().getId()).toList());
+        assertEquals(0.9, resultado.get(0).puntaje());
+        assertThrows(IllegalArgumentException.class, () -> profesionalService.obtenerRanking(3L, 101));
+    }
+
+    @Test
+    @DisplayName("Debería devolver la página de facetas con los nombres de los servicios ordenados por cantidad")
+    void deberiaDevolverFacetasConNombresDeServicios() {
+        // Given
+        FiltroFacetasDTO filtro = new FiltroFacetasDTO(Set.of(3L), ModoServicios.ALGUNO, null, null, null);
+        Servicio plomeria = new Servicio(3L, "Plomería", 1000.0);
+        Servicio gas = new Servicio(4L, "Gas", 1500.0);
+        when(indiceFacetasProfesionales.buscar(filtro, 20, 10)).thenReturn(new IndiceFacetasProfesionales.Resultado(
+                21, List.of(1L), Map.of(3L, 21L, 4L, 30L), List.of(), List.of(), List.of()));
+        when(profesionalRepository.findByIdIn(List.of(1L))).thenReturn(List.of(profesional));
+        when(servicioRepository.findAllById(Set.of(3L, 4L))).thenReturn(List.of(plomeria, gas));
+
+        // When
+        ProfesionalService.ResultadoFacetas resultado = profesionalService.obtenerFacetas(filtro, 2, 10);
+
+        // Then
+        assertEquals(21, resultado.profesionales().getTotalElements());
+        assertEquals(List.of(profesional), resultado.profesionales().getContent());
+        assertEquals(List.of(new ConteoFacetaDTO("4", "Gas", 30), new ConteoFacetaDTO("3", "Plomería", 21)),
+                resultado.servicios());
+        assertThrows(IllegalArgumentException.class, () -> profesionalService.obtenerFacetas(filtro, 0, 101));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una búsqueda por cercanía con radio mayor al máximo")
+    void deberiaRechazarRadioMayorAlMaximo() {
+        // Given
+        ReflectionTestUtils.setField(profesionalService, "radioBusquedaMaximoKm", 500.0);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> profesionalService.obtenerProfesionalesCercanos(3L, -34.6, -58.4, 5, 900.0));
     }
 
     @Test
@@ -0,0 +1,116 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.MetricasRankingDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.util.TopKIncremental;
+
+@DisplayName("Tests de Unidad - RankingProfesionales")
+class RankingProfesionalesTest {
+
+    private static final LocalDateTime AHORA = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private RankingProfesionales ranking;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new RankingProfesionales(null, 10, 0.6, 0.25, 0.15, 90);
+        ranking.recalcular(AHORA);
+    }
+
+    @Test
+    @DisplayName("Debería mantener el mismo top que un ordenamiento completo ante cambios incrementales")
+    void deberiaCoincidirConOrdenamientoCompleto() {
+        // Given: el mismo historial de cambios en un ranking con k mayor a la cantidad de profesionales,
+        // cuyo top es simplemente todos los profesionales ordenados
+        RankingProfesionales completo = new RankingProfesionales(null, 1000, 0.6, 0.25, 0.15, 90);
+        completo.recalcular(AHORA);
+        Random random = new Random(7);
+        for (int paso = 0; paso < 5000; paso++) {
+            long id = 1 + random.nextInt(300);
+            List<MetricasRankingDTO> filas = random.nextInt(5) == 0 ? List.of()
+                    : List.of(fila(id, 1 + random.nextInt(2), random.nextInt(300), random.nextInt(40),
+                            1 + random.nextDouble() * 4, AHORA.minusDays(random.nextInt(400))));
+            ranking.actualizar(id, filas);
+            completo.actualizar(id, filas);
+            if (paso % 500 == 0) {
+                ranking.recalcular(AHORA.plusDays(paso / 100));
+                completo.recalcular(AHORA.plusDays(paso / 100));
+            }
+        }
+
+        // When
+        List<TopKIncremental.Entrada> top = ranking.mejores(1L, 10);
+
+        // Then
+        assertEquals(10, top.size());
+        assertEquals(completo.mejores(1L, 10), top);
+    }
+
+    @Test
+    @DisplayName("Debería preferir muchas reseñas buenas a una sola reseña perfecta")
+    void deberiaConsiderarLaCantidadDeReseñas() {
+        // Given
+        ranking.actualizar(1L, List.of(fila(1L, 1L, 10, 1, 5.0, AHORA)));
+        ranking.actualizar(2L, List.of(fila(2L, 1L, 10, 30, 4.6, AHORA)));
+
+        // When
+        List<TopKIncremental.Entrada> top = ranking.mejores(1L, 2);
+
+        // Then
+        assertEquals(List.of(2L, 1L), top.stream().map(TopKIncremental.Entrada::id).toList());
+    }
+
+    @Test
+    @DisplayName("Debería bajar en el ranking a quien no recibe reseñas hace tiempo al recalcular")
+    void deberiaAplicarRecenciaAlRecalcular() {
+        // Given: iguales salvo la fecha de la última reseña
+        ranking.actualizar(1L, List.of(fila(1L, 1L, 50, 10, 4.5, AHORA.minusDays(300))));
+        ranking.actualizar(2L, List.of(fila(2L, 1L, 50, 10, 4.5, AHORA.minusDays(1))));
+        double antes = ranking.mejores(1L, 2).get(0).puntaje();
+
+        // When
+        ranking.recalcular(AHORA.plusDays(180));
+
+        // Then
+        List<TopKIncremental.Entrada> top = ranking.mejores(1L, 2);
+        assertEquals(2L, top.get(0).id());
+        assertTrue(top.get(0).puntaje() < antes);
+    }
+
+    @Test
+    @DisplayName("Debería sacar al profesional de los servicios que dejó de ofrecer o al dejar de estar disponible")
+    void deberiaQuitarAlProfesionalDeServiciosQueNoOfrece() {
+        // Given
+        ranking.actualizar(1L, List.of(fila(1L, 1L, 10, 3, 4.0, AHORA), fila(1L, 2L, 10, 3, 4.0, AHORA)));
+
+        // When: deja el servicio 1
+        ranking.actualizar(1L, List.of(fila(1L, 2L, 10, 3, 4.0, AHORA)));
+
+        // Then
+        assertTrue(ranking.mejores(1L, 10).isEmpty());
+        assertEquals(1L, ranking.mejores(2L, 10).get(0).id());
+
+        // When: deja de estar disponible (la consulta no devuelve filas)
+        ranking.actualizar(1L, List.of());
+
+        // Then
+        assertTrue(ranking.mejores(2L, 10).isEmpty());
+        assertEquals(0, ranking.getTamanio());
+    }
+
+    private static MetricasRankingDTO fila(long profesionalId, long servicioId, int trabajos, long reseñas,
+            double promedio, LocalDateTime ultima) {
+        return new MetricasRankingDTO(profesionalId, servicioId, trabajos, reseñas,
+                reseñas == 0 ? null : promedio, reseñas == 0 ? null : ultima);
+    }
+}
@@ -0,0 +1,176 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Feriado;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.ReglaDisponibilidad;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.FeriadoRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ProfesionalRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.ReglaDisponibilidadRepository;
+import jakarta.persistence.EntityNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class ReglaDisponibilidadServiceTest {
+
+    private static final LocalDate DESDE = LocalDate.of(2030, 3, 4);
+
+    @Mock
+    private ReglaDisponibilidadRepository reglaDisponibilidadRepository;
+
+    @Mock
+    private FeriadoRepository feriadoRepository;
+
+    @Mock
+    private ProfesionalRepository profesionalRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReglaDisponibilidadService reglaDisponibilidadService;
+
+    private Profesional profesional;
+
+    @BeforeEach
+    void setUp() {
+        profesional = new Profesional();
+        profesional.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Debería crear la regla y avisar al índice de agendas")
+    void deberiaCrearReglaYPublicarEvento() {
+        // Given
+        ReglaDisponibilidad regla = regla(null, 0b0010101, LocalTime.of(9, 0), LocalTime.of(13, 0));
+        ReglaDisponibilidad existente = regla(7L, 0b0010101, LocalTime.of(14, 0), LocalTime.of(18, 0));
+        when(profesionalRepository.findById(1L)).thenReturn(Optional.of(profesional));
+        when(reglaDisponibilidadRepository.findConExcepcionesByProfesionalId(1L)).thenReturn(List.of(existente));
+        when(reglaDisponibilidadRepository.save(regla)).thenAnswer(invocacion -> {
+            regla.setId(8L);
+            return regla;
+        });
+
+        // When
+        ReglaDisponibilidad resultado = reglaDisponibilidadService.crearRegla(regla);
+
+        // Then
+        assertEquals(8L, resultado.getId());
+        verify(eventPublisher).publishEvent(new ReglaDisponibilidadModificadaEvent(8L));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una regla que se superpone con otra del profesional")
+    void deberiaRechazarReglaSuperpuesta() {
+        // Given: la existente es del domingo a la noche hasta las 10 del lunes
+        ReglaDisponibilidad regla = regla(null, 1, LocalTime.of(9, 0), LocalTime.of(13, 0));
+        ReglaDisponibilidad existente = regla(7L, 64, LocalTime.of(22, 0), LocalTime.of(10, 0));
+        when(profesionalRepository.findById(1L)).thenReturn(Optional.of(profesional));
+        when(reglaDisponibilidadRepository.findConExcepcionesByProfesionalId(1L)).thenReturn(List.of(existente));
+
+        // When & Then
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> reglaDisponibilidadService.crearRegla(regla));
+        assertEquals("La regla se superpone con otra regla del profesional", ex.getMessage());
+        verify(reglaDisponibilidadRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería permitir modificar una regla sin compararla consigo misma")
+    void deberiaActualizarReglaSinCompararlaConsigoMisma() {
+        // Given
+        ReglaDisponibilidad existente = regla(7L, 1, LocalTime.of(9, 0), LocalTime.of(13, 0));
+        ReglaDisponibilidad cambios = regla(null, 1, LocalTime.of(10, 0), LocalTime.of(14, 0));
+        when(reglaDisponibilidadRepository.findConExcepcionesById(7L)).thenReturn(Optional.of(existente));
+        when(profesionalRepository.findById(1L)).thenReturn(Optional.of(profesional));
+        when(reglaDisponibilidadRepository.findConExcepcionesByProfesionalId(1L)).thenReturn(List.of(existente));
+        when(reglaDisponibilidadRepository.save(existente)).thenReturn(existente);
+
+        // When
+        ReglaDisponibilidad resultado = reglaDisponibilidadService.actualizarRegla(7L, cambios);
+
+        // Then
+        assertEquals(LocalTime.of(10, 0), resultado.getHoraInicio());
+        verify(eventPublisher).publishEvent(new ReglaDisponibilidadModificadaEvent(7L));
+    }
+
+    @Test
+    @DisplayName("Debería validar días, horario y vigencia de la regla")
+    void deberiaValidarRegla() {
+        when(profesionalRepository.findById(1L)).thenReturn(Optional.of(profesional));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> reglaDisponibilidadService.crearRegla(regla(null, 0, LocalTime.of(9, 0), LocalTime.of(13, 0))));
+        assertThrows(IllegalArgumentException.class,
+                () -> reglaDisponibilidadService.crearRegla(regla(null, 1, LocalTime.of(9, 0), LocalTime.of(9, 0))));
+        ReglaDisponibilidad vencida = regla(null, 1, LocalTime.of(9, 0), LocalTime.of(13, 0));
+        vencida.setVigenteHasta(DESDE.minusDays(1));
+        assertThrows(IllegalArgumentException.class, () -> reglaDisponibilidadService.crearRegla(vencida));
+        verify(reglaDisponibilidadRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Debería lanzar EntityNotFoundException si la regla no existe")
+    void deberiaLanzarExcepcionSiLaReglaNoExiste() {
+        when(reglaDisponibilidadRepository.findConExcepcionesById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> reglaDisponibilidadService.eliminarRegla(99L));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar dos feriados en la misma fecha")
+    void deberiaRechazarFeriadoDuplicado() {
+        Feriado feriado = new Feriado(null, DESDE, "Carnaval");
+        when(feriadoRepository.existsByFecha(DESDE)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> reglaDisponibilidadService.crearFeriado(feriado));
+        verify(feriadoRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería avisar al índice de agendas al crear un feriado")
+    void deberiaPublicarEventoAlCrearFeriado() {
+        Feriado feriado = new Feriado(null, DESDE, "Carnaval");
+        when(feriadoRepository.existsByFecha(DESDE)).thenReturn(false);
+        when(feriadoRepository.save(feriado)).thenReturn(feriado);
+
+        reglaDisponibilidadService.crearFeriado(feriado);
+
+        verify(eventPublisher).publishEvent(new FeriadosModificadosEvent());
+    }
+
+    private ReglaDisponibilidad regla(Long id, int dias, LocalTime inicio, LocalTime fin) {
+        ReglaDisponibilidad regla = new ReglaDisponibilidad();
+        regla.setId(id);
+        regla.setProfesional(profesional);
+        regla.setDiasSemana(dias);
+        regla.setHoraInicio(inicio);
+        regla.setHoraFin(fin);
+        regla.setVigenteDesde(DESDE);
+        regla.setRespetaFeriados(true);
+        regla.setExcepciones(new HashSet<>());
+        return regla;
+    }
+}
@@ -0,0 +1,125 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests de Unidad - ReglaSemanal")
+class ReglaSemanalTest {
+
+    // Lunes
+    private static final LocalDate DIA = LocalDate.of(2030, 3, 4);
+
+    @Test
+    @DisplayName("Debería expandir sólo las ventanas del rango, incluida la que cruza la medianoche")
+    void deberiaExpandirSoloElRango() {
+        // Given: viernes de 22 a 2, sin fecha de fin
+        ReglaSemanal regla = regla(ReglaSemanal.bit(DayOfWeek.FRIDAY), LocalTime.of(22, 0), LocalTime.of(2, 0),
+                DIA, null, Set.of());
+
+        // When: desde el sábado a la 1, hasta el sábado siguiente
+        List<ReglaSemanal.Ventana> ventanas = lista(regla.ventanas(DIA.plusDays(5).atTime(1, 0),
+                DIA.plusDays(12).atStartOfDay(), Set.of()));
+
+        // Then: la del viernes DIA + 4 todavía no terminó y la del viernes DIA + 11 empieza antes del fin
+        assertEquals(List.of(
+                new ReglaSemanal.Ventana(DIA.plusDays(4).atTime(22, 0), DIA.plusDays(5).atTime(2, 0)),
+                new ReglaSemanal.Ventana(DIA.plusDays(11).atTime(22, 0), DIA.plusDays(12).atTime(2, 0))), ventanas);
+
+        // Una regla sin fin consultada muchos años después no recorre la serie completa
+        LocalDateTime lejos = DIA.plusYears(5000).atStartOfDay();
+        assertEquals(1, lista(regla.ventanas(lejos, lejos.plusDays(7), Set.of())).size());
+    }
+
+    @Test
+    @DisplayName("Debería saltear excepciones, feriados y días fuera de vigencia")
+    void deberiaSaltearExcepcionesYFeriados() {
+        ReglaSemanal regla = regla(0x7F, LocalTime.of(9, 0), LocalTime.of(10, 0), DIA.plusDays(1),
+                DIA.plusDays(6), Set.of(DIA.plusDays(3)));
+
+        List<LocalDate> dias = lista(regla.ventanas(DIA.atStartOfDay(), DIA.plusDays(10).atStartOfDay(),
+                Set.of(DIA.plusDays(5)))).stream()
+                .map(v -> v.desde().toLocalDate())
+                .toList();
+
+        assertEquals(List.of(DIA.plusDays(1), DIA.plusDays(2), DIA.plusDays(4), DIA.plusDays(6)), dias);
+        ReglaSemanal sinFeriados = new ReglaSemanal(1L, 1L, 0x7F, LocalTime.of(9, 0), LocalTime.of(10, 0),
+                DIA, null, false, Set.of());
+        assertTrue(sinFeriados.aplica(DIA.plusDays(5), Set.of(DIA.plusDays(5))));
+    }
+
+    @Test
+    @DisplayName("Debería detectar superposiciones entre reglas por la semana y por la vigencia")
+    void deberiaDetectarSuperposiciones() {
+        ReglaSemanal lunesManana = regla(ReglaSemanal.bit(DayOfWeek.MONDAY), LocalTime.of(8, 0),
+                LocalTime.of(12, 0), DIA, null, Set.of());
+        ReglaSemanal lunesTarde = regla(ReglaSemanal.bit(DayOfWeek.MONDAY), LocalTime.of(12, 0),
+                LocalTime.of(18, 0), DIA, null, Set.of());
+        ReglaSemanal domingoNoche = regla(ReglaSemanal.bit(DayOfWeek.SUNDAY), LocalTime.of(23, 0),
+                LocalTime.of(9, 0), DIA, null, Set.of());
+        ReglaSemanal lunesAnterior = regla(ReglaSemanal.bit(DayOfWeek.MONDAY), LocalTime.of(8, 0),
+                LocalTime.of(12, 0), DIA.minusWeeks(4), DIA.minusDays(1), Set.of());
+
+        assertFalse(lunesManana.seSuperponeCon(lunesTarde));
+        // La noche del domingo sigue hasta las 9 del lunes
+        assertTrue(domingoNoche.seSuperponeCon(lunesManana));
+        assertTrue(lunesManana.seSuperponeCon(domingoNoche));
+        // Mismo horario, pero una termina antes de que empiece la otra
+        assertFalse(lunesAnterior.seSuperponeCon(lunesManana));
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con expandir ambas reglas completas")
+    void deberiaCoincidirConExpansionCompleta() {
+        Random random = new Random(31);
+        for (int caso = 0; caso < 2_000; caso++) {
+            ReglaSemanal una = reglaAlAzar(random);
+            ReglaSemanal otra = reglaAlAzar(random);
+
+            boolean esperado = false;
+            LocalDateTime desde = DIA.minusDays(2).atStartOfDay();
+            LocalDateTime hasta = DIA.plusDays(80).atStartOfDay();
+            List<ReglaSemanal.Ventana> ventanasOtra = lista(otra.ventanas(desde, hasta, Set.of()));
+            for (Iterator<ReglaSemanal.Ventana> it = una.ventanas(desde, hasta, Set.of()); it.hasNext() && !esperado;) {
+                ReglaSemanal.Ventana v = it.next();
+                esperado = ventanasOtra.stream()
+                        .anyMatch(w -> w.desde().isBefore(v.hasta()) && v.desde().isBefore(w.hasta()));
+            }
+
+            assertEquals(esperado, una.seSuperponeCon(otra), una + " / " + otra);
+        }
+    }
+
+    private static ReglaSemanal reglaAlAzar(Random random) {
+        LocalTime inicio = LocalTime.of(random.nextInt(24), 30 * random.nextInt(2));
+        LocalTime fin = inicio.plusMinutes(30L * (1 + random.nextInt(30)));
+        LocalDate vigenteDesde = DIA.plusDays(random.nextInt(30));
+        LocalDate vigenteHasta = vigenteDesde.plusDays(random.nextInt(random.nextBoolean() ? 6 : 40));
+        return regla(1 + random.nextInt(127), inicio, fin, vigenteDesde, vigenteHasta, new HashSet<>());
+    }
+
+    private static ReglaSemanal regla(int dias, LocalTime inicio, LocalTime fin, LocalDate vigenteDesde,
+            LocalDate vigenteHasta, Set<LocalDate> excepciones) {
+        return new ReglaSemanal(1L, 1L, dias, inicio, fin, vigenteDesde, vigenteHasta, true, excepciones);
+    }
+
+    private static <T> List<T> lista(Iterator<T> iterador) {
+        List<T> lista = new ArrayList<>();
+        iterador.forEachRemaining(lista::add);
+        return lista;
+    }
+}
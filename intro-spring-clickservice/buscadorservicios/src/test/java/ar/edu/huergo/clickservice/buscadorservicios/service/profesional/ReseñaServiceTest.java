@@ -18,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Profesional;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.Reseña;
@@ -39,6 +40,9 @@ class ReseñaServiceTest {
     @Mock
     private ProfesionalRepository profesionalRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReseñaService reseñaService;
 
@@ -93,6 +97,7 @@ class ReseñaServiceTest {
         assertNotNull(resultado.getUsuario());
         assertNotNull(resultado.getProfesional());
         verify(reseñaRepository, times(1)).save(reseña);
+        verify(eventPublisher).publishEvent(new ReseñaModificadaEvent(5L));
     }
 
     @Test
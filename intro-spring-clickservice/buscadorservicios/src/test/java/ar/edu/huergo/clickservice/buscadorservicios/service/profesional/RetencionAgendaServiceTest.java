@@ -0,0 +1,302 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.profesional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.RetencionAgendaSlotDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.AgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.profesional.RetencionAgendaSlot;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.AgendaSlotRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.profesional.RetencionAgendaSlotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class RetencionAgendaServiceTest {
+
+    private static final Instant INICIO = Instant.parse("2030-01-01T12:00:00Z");
+    private static final Duration DURACION = Duration.ofMinutes(10);
+
+    @Mock
+    private RetencionAgendaSlotRepository retencionRepository;
+
+    @Mock
+    private AgendaSlotRepository agendaSlotRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong reloj = new AtomicLong(INICIO.toEpochMilli());
+    private SimpleMeterRegistry meterRegistry;
+    private RetencionAgendaService retencionAgendaService;
+    private AgendaSlot agendaSlot;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retencionAgendaService = new RetencionAgendaService(retencionRepository, agendaSlotRepository,
+                transactionTemplate, eventPublisher, meterRegistry, DURACION, 1000, reloj::get);
+        agendaSlot = new AgendaSlot();
+        agendaSlot.setId(10L);
+        agendaSlot.setFechaInicio(LocalDateTime.now().plusDays(1));
+        agendaSlot.setFechaFin(agendaSlot.getFechaInicio().plusHours(2));
+        agendaSlot.setDisponible(Boolean.TRUE);
+        agendaSlot.setVersion(3L);
+        ejecutarTransacciones();
+    }
+
+    @Test
+    @DisplayName("Debería retener el bloque durante la duración configurada")
+    void deberiaRetenerBloque() {
+        // Given
+        prepararRetencion(Optional.empty());
+
+        // When
+        RetencionAgendaSlot retencion = retencionAgendaService.retener(10L, "cliente@test.com");
+
+        // Then
+        assertEquals("cliente@test.com", retencion.getUsername());
+        assertEquals(INICIO.plus(DURACION), retencion.getExpiraEn());
+        assertEquals(1, retencionAgendaService.getCantidadActivas());
+        assertEquals(1.0, contador("creadas"));
+        verify(agendaSlotRepository).incrementarVersionSiDisponible(10L, 3L);
+        verify(eventPublisher).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería renovar la retención propia sin contarla como nueva")
+    void deberiaRenovarRetencionPropia() {
+        // Given
+        RetencionAgendaSlot existente = new RetencionAgendaSlot(1L, agendaSlot, "cliente@test.com",
+                INICIO.plusSeconds(60));
+        prepararRetencion(Optional.of(existente));
+
+        // When
+        RetencionAgendaSlot retencion = retencionAgendaService.retener(10L, "cliente@test.com");
+
+        // Then
+        assertEquals(1L, retencion.getId());
+        assertEquals(INICIO.plus(DURACION), retencion.getExpiraEn());
+        assertEquals(0.0, contador("creadas"));
+        verify(retencionRepository, never()).countByUsernameAndExpiraEnAfter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar retener un bloque retenido por otro cliente o ya reservado")
+    void deberiaRechazarBloqueRetenidoPorOtroCliente() {
+        RetencionAgendaSlot ajena = new RetencionAgendaSlot(1L, agendaSlot, "otro@test.com", INICIO.plusSeconds(60));
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(retencionRepository.findByAgendaSlotId(10L)).thenReturn(Optional.of(ajena));
+
+        assertThrows(AgendaSlotNoDisponibleException.class,
+                () -> retencionAgendaService.retener(10L, "cliente@test.com"));
+
+        agendaSlot.setDisponible(Boolean.FALSE);
+        assertThrows(AgendaSlotNoDisponibleException.class,
+                () -> retencionAgendaService.retener(10L, "cliente@test.com"));
+        verify(retencionRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Debería tomar la retención vencida de otro cliente y contarla como vencida")
+    void deberiaReemplazarRetencionVencida() {
+        RetencionAgendaSlot vencida = new RetencionAgendaSlot(1L, agendaSlot, "otro@test.com", INICIO);
+        prepararRetencion(Optional.of(vencida));
+
+        RetencionAgendaSlot retencion = retencionAgendaService.retener(10L, "cliente@test.com");
+
+        assertEquals("cliente@test.com", retencion.getUsername());
+        assertEquals(1.0, contador("creadas"));
+        assertEquals(1.0, contador("vencidas"));
+    }
+
+    @Test
+    @DisplayName("Debería limitar las retenciones vigentes de un mismo cliente")
+    void deberiaLimitarRetencionesPorCliente() {
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(retencionRepository.findByAgendaSlotId(10L)).thenReturn(Optional.empty());
+        when(retencionRepository.countByUsernameAndExpiraEnAfter("cliente@test.com", INICIO))
+                .thenReturn((long) RetencionAgendaService.RETENCIONES_MAXIMAS_POR_USUARIO);
+
+        assertThrows(IllegalArgumentException.class, () -> retencionAgendaService.retener(10L, "cliente@test.com"));
+        verify(agendaSlotRepository, never()).incrementarVersionSiDisponible(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar la retención si el bloque cambió de versión")
+    void deberiaRechazarSiCambioLaVersion() {
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(retencionRepository.findByAgendaSlotId(10L)).thenReturn(Optional.empty());
+        when(agendaSlotRepository.incrementarVersionSiDisponible(10L, 3L)).thenReturn(0);
+
+        assertThrows(AgendaSlotNoDisponibleException.class,
+                () -> retencionAgendaService.retener(10L, "cliente@test.com"));
+        verify(retencionRepository, never()).save(any());
+        assertEquals(0, retencionAgendaService.getCantidadActivas());
+    }
+
+    @Test
+    @DisplayName("Debería borrar la retención al vencer y publicar el cambio del bloque")
+    void deberiaVencerRetencion() {
+        // Given
+        prepararRetencion(Optional.empty());
+        retencionAgendaService.retener(10L, "cliente@test.com");
+
+        // When: un milisegundo antes del vencimiento no vence
+        reloj.set(INICIO.plus(DURACION).toEpochMilli() - 1);
+        retencionAgendaService.procesarVencimientos();
+
+        // Then
+        verify(retencionRepository, never()).eliminarVencida(any(), any());
+        assertEquals(1, retencionAgendaService.getCantidadActivas());
+
+        // When
+        reloj.set(INICIO.plus(DURACION).toEpochMilli());
+        when(retencionRepository.eliminarVencida(10L, INICIO.plus(DURACION))).thenReturn(1);
+        retencionAgendaService.procesarVencimientos();
+
+        // Then
+        assertEquals(0, retencionAgendaService.getCantidadActivas());
+        assertEquals(1.0, contador("vencidas"));
+        assertEquals(1.0, meterRegistry.get("agenda.retenciones.tasa-vencimiento").gauge().value());
+        verify(eventPublisher, times(2)).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería no contar como vencida una retención renovada justo antes de procesarla")
+    void deberiaIgnorarVencimientoDeRetencionRenovada() {
+        prepararRetencion(Optional.empty());
+        retencionAgendaService.retener(10L, "cliente@test.com");
+
+        // Otra instancia renovó la retención en la base: el borrado condicional no encuentra la fila
+        reloj.set(INICIO.plus(DURACION).toEpochMilli());
+        when(retencionRepository.eliminarVencida(10L, INICIO.plus(DURACION))).thenReturn(0);
+        retencionAgendaService.procesarVencimientos();
+
+        assertEquals(0.0, contador("vencidas"));
+        verify(eventPublisher, times(1)).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería liberar sólo la retención del mismo cliente")
+    void deberiaLiberarRetencionPropia() {
+        RetencionAgendaSlot retencion = new RetencionAgendaSlot(1L, agendaSlot, "cliente@test.com",
+                INICIO.plus(DURACION));
+        when(retencionRepository.findByAgendaSlotId(10L)).thenReturn(Optional.of(retencion));
+
+        assertThrows(EntityNotFoundException.class, () -> retencionAgendaService.liberar(10L, "otro@test.com"));
+        retencionAgendaService.liberar(10L, "cliente@test.com");
+
+        verify(retencionRepository).delete(retencion);
+        assertEquals(1.0, contador("liberadas"));
+        verify(eventPublisher).publishEvent(new AgendaSlotModificadoEvent(10L));
+    }
+
+    @Test
+    @DisplayName("Debería consumir la retención propia al reservar y contarla como convertida")
+    void deberiaConsumirRetencionPropia() {
+        // Given
+        prepararRetencion(Optional.empty());
+        retencionAgendaService.retener(10L, "cliente@test.com");
+        RetencionAgendaSlot retencion = new RetencionAgendaSlot(1L, agendaSlot, "cliente@test.com",
+                INICIO.plus(DURACION));
+        when(retencionRepository.findByAgendaSlotId(10L)).thenReturn(Optional.of(retencion));
+
+        // When
+        retencionAgendaService.consumir(10L, "cliente@test.com");
+
+        // Then
+        verify(retencionRepository).eliminarPorAgendaSlotId(10L);
+        assertEquals(0, retencionAgendaService.getCantidadActivas());
+        assertEquals(1.0, contador("convertidas"));
+        assertEquals(1.0, meterRegistry.get("agenda.retenciones.tasa-conversion").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Debería impedir reservar un bloque retenido por otro cliente mientras no venza")
+    void deberiaImpedirConsumirRetencionAjena() {
+        RetencionAgendaSlot ajena = new RetencionAgendaSlot(1L, agendaSlot, "otro@test.com", INICIO.plusSeconds(1));
+        when(retencionRepository.findByAgendaSlotId(10L)).thenReturn(Optional.of(ajena));
+
+        assertThrows(AgendaSlotNoDisponibleException.class,
+                () -> retencionAgendaService.consumir(10L, "cliente@test.com"));
+        verify(retencionRepository, never()).eliminarPorAgendaSlotId(any());
+
+        reloj.addAndGet(1000);
+        retencionAgendaService.consumir(10L, "cliente@test.com");
+        verify(retencionRepository).eliminarPorAgendaSlotId(10L);
+        assertEquals(1.0, contador("vencidas"));
+    }
+
+    @Test
+    @DisplayName("Debería borrar las retenciones vencidas al iniciar y programar las vigentes")
+    void deberiaProgramarRetencionesAlIniciar() {
+        when(retencionRepository.findVencimientos()).thenReturn(List.of(
+                new RetencionAgendaSlotDTO(10L, INICIO.plusSeconds(30)),
+                new RetencionAgendaSlotDTO(11L, INICIO.plusSeconds(90))));
+
+        retencionAgendaService.inicializar();
+
+        verify(retencionRepository).eliminarVencidas(INICIO);
+        assertEquals(2, retencionAgendaService.getCantidadActivas());
+        assertEquals(2.0, meterRegistry.get("agenda.retenciones.activas").gauge().value());
+
+        reloj.set(INICIO.plusSeconds(30).toEpochMilli());
+        when(retencionRepository.eliminarVencida(10L, INICIO.plusSeconds(30))).thenReturn(1);
+        retencionAgendaService.procesarVencimientos();
+        assertEquals(1, retencionAgendaService.getCantidadActivas());
+    }
+
+    private void prepararRetencion(Optional<RetencionAgendaSlot> existente) {
+        when(agendaSlotRepository.findById(10L)).thenReturn(Optional.of(agendaSlot));
+        when(retencionRepository.findByAgendaSlotId(10L)).thenReturn(existente);
+        lenient().when(retencionRepository.countByUsernameAndExpiraEnAfter(any(), any())).thenReturn(0L);
+        when(agendaSlotRepository.incrementarVersionSiDisponible(10L, 3L)).thenReturn(1);
+        when(agendaSlotRepository.getReferenceById(10L)).thenReturn(agendaSlot);
+        when(retencionRepository.save(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("agenda.retenciones").tag("resultado", resultado).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ejecutarTransacciones() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocacion -> invocacion.getArgument(0, TransactionCallback.class).doInTransaction(new SimpleTransactionStatus()));
+        lenient().doAnswer(invocacion -> {
+            invocacion.getArgument(0, Consumer.class).accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+}
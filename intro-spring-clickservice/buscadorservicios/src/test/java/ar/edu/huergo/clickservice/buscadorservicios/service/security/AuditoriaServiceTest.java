@@ -0,0 +1,151 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TipoEventoAuditoria;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.EventoAuditoriaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - AuditoriaService")
+class AuditoriaServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EventoAuditoriaRepository eventoAuditoriaRepository;
+
+    @Test
+    @DisplayName("Debería insertar los eventos encolados en lotes del tamaño configurado")
+    void deberiaInsertarEnLotes() {
+        // Given
+        AuditoriaService servicio = servicio(16, "drop", 2);
+        for (int i = 0; i < 5; i++) {
+            servicio.registrar(TipoEventoAuditoria.LOGIN_EXITOSO, "cliente@test.com", "10.0.0.1",
+                    "/api/auth/login", null);
+        }
+
+        // When
+        int escritos = servicio.escribirPendientes();
+
+        // Then
+        assertEquals(5, escritos);
+        assertEquals(0, servicio.getPendientes());
+        ArgumentCaptor<Integer> tamanios = ArgumentCaptor.forClass(Integer.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), ArgumentMatchers.<Collection<Object>>any(),
+                tamanios.capture(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+        assertEquals(java.util.List.of(2, 2, 1), tamanios.getAllValues());
+    }
+
+    @Test
+    @DisplayName("Con la política drop debería descartar y contar los eventos cuando el buffer está lleno")
+    void deberiaDescartarConBufferLleno() {
+        // Given
+        AuditoriaService servicio = servicio(2, "drop", 10);
+        servicio.registrar(TipoEventoAuditoria.LOGIN_FALLIDO, "a@test.com", null, null, null);
+        servicio.registrar(TipoEventoAuditoria.LOGIN_FALLIDO, "b@test.com", null, null, null);
+
+        // When
+        boolean aceptado = servicio.registrar(TipoEventoAuditoria.LOGIN_FALLIDO, "c@test.com", null, null, null);
+
+        // Then
+        assertFalse(aceptado);
+        assertEquals(1, servicio.getDescartados());
+        assertEquals(2, servicio.getPendientes());
+    }
+
+    @Test
+    @DisplayName("Con la política block debería esperar el tiempo máximo y luego descartar")
+    void deberiaEsperarYDescartarConPoliticaBlock() {
+        // Given
+        AuditoriaService servicio = servicio(2, "block", 10);
+        servicio.registrar(TipoEventoAuditoria.ACCESO_DENEGADO, null, null, null, null);
+        servicio.registrar(TipoEventoAuditoria.ACCESO_DENEGADO, null, null, null, null);
+
+        // When
+        long inicio = System.nanoTime();
+        boolean aceptado = servicio.registrar(TipoEventoAuditoria.ACCESO_DENEGADO, null, null, null, null);
+        long esperaMillis = (System.nanoTime() - inicio) / 1_000_000;
+
+        // Then
+        assertFalse(aceptado);
+        assertTrue(esperaMillis >= 20);
+        assertEquals(1, servicio.getDescartados());
+    }
+
+    @Test
+    @DisplayName("No debería perder el hilo escritor si falla la inserción del lote")
+    void deberiaContarErroresDeInsercion() {
+        // Given
+        AuditoriaService servicio = servicio(8, "drop", 10);
+        when(jdbcTemplate.batchUpdate(anyString(), ArgumentMatchers.<Collection<Object>>any(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any()))
+                .thenThrow(new org.springframework.dao.DataAccessResourceFailureException("sin conexión"));
+        servicio.registrar(TipoEventoAuditoria.LOGOUT, "cliente@test.com", null, null, null);
+
+        // When
+        int escritos = servicio.escribirPendientes();
+
+        // Then
+        assertEquals(0, escritos);
+        assertEquals(0, servicio.getPendientes());
+    }
+
+    @Test
+    @DisplayName("Debería consultar las últimas 24 horas limitando el tamaño de página")
+    void deberiaConsultarConRangoPorDefecto() {
+        // Given
+        AuditoriaService servicio = servicio(8, "drop", 10);
+        Instant hasta = Instant.parse("2025-01-02T00:00:00Z");
+
+        // When
+        servicio.consultar(null, hasta, null, 0, 10_000);
+
+        // Then
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(eventoAuditoriaRepository).findByFechaGreaterThanEqualAndFechaLessThan(
+                eq(Instant.parse("2025-01-01T00:00:00Z")), eq(hasta), pageable.capture());
+        assertEquals(AuditoriaService.TAMANIO_PAGINA_MAXIMO, pageable.getValue().getPageSize());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un rango de fechas invertido")
+    void deberiaRechazarRangoInvertido() {
+        // Given
+        AuditoriaService servicio = servicio(8, "drop", 10);
+        Instant ahora = Instant.now();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> servicio.consultar(ahora, ahora.minusSeconds(60), null, 0, 10));
+    }
+
+    private AuditoriaService servicio(int capacidad, String politica, int tamanioLote) {
+        return new AuditoriaService(jdbcTemplate, eventoAuditoriaRepository, true, capacidad, politica,
+                20, tamanioLote, 200, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,124 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests de Unidad - JwtAuthenticationCache")
+class JwtAuthenticationCacheTest {
+
+    private static final Date EMITIDO = new Date();
+
+    private JwtAuthenticationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new JwtAuthenticationCache(true, 3, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Debería devolver la autenticación guardada con su jti y emisión y contar aciertos y fallos")
+    void deberiaDevolverAutenticacionGuardada() {
+        // Given
+        Authentication autenticacion = autenticacion("cliente@test.com");
+        cache.guardar("token-1", autenticacion, "jti-1", EMITIDO, enSegundos(60));
+
+        // When
+        JwtAuthenticationCache.TokenVerificado resultado = cache.obtener("token-1");
+        JwtAuthenticationCache.TokenVerificado inexistente = cache.obtener("token-2");
+
+        // Then
+        assertSame(autenticacion, resultado.autenticacion());
+        assertEquals("jti-1", resultado.jti());
+        assertEquals(EMITIDO, resultado.emitidoEn());
+        assertNull(inexistente);
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    @DisplayName("Debería descartar la entrada cuando el token expiró")
+    void deberiaDescartarEntradaExpirada() throws InterruptedException {
+        // Given
+        cache.guardar("token-1", autenticacion("cliente@test.com"), "jti-1", EMITIDO,
+                new Date(System.currentTimeMillis() + 20));
+
+        // When
+        Thread.sleep(40);
+
+        // Then
+        assertNull(cache.obtener("token-1"));
+        assertEquals(0, cache.getTamanio());
+    }
+
+    @Test
+    @DisplayName("Debería invalidar sólo las entradas del usuario indicado")
+    void deberiaInvalidarPorUsuario() {
+        // Given
+        cache.guardar("token-1", autenticacion("cliente@test.com"), "jti-1", EMITIDO, enSegundos(60));
+        cache.guardar("token-2", autenticacion("cliente@test.com"), "jti-2", EMITIDO, enSegundos(60));
+        cache.guardar("token-3", autenticacion("admin@test.com"), "jti-3", EMITIDO, enSegundos(60));
+
+        // When
+        cache.alModificarUsuario(new UsuarioModificadoEvent("cliente@test.com"));
+
+        // Then
+        assertNull(cache.obtener("token-1"));
+        assertNull(cache.obtener("token-2"));
+        assertNotNull(cache.obtener("token-3"));
+    }
+
+    @Test
+    @DisplayName("Debería respetar la capacidad máxima desalojando lo que vence antes")
+    void deberiaRespetarCapacidadMaxima() {
+        // Given
+        cache.guardar("token-1", autenticacion("a@test.com"), "jti-1", EMITIDO, enSegundos(10));
+        cache.guardar("token-2", autenticacion("b@test.com"), "jti-2", EMITIDO, enSegundos(20));
+        cache.guardar("token-3", autenticacion("c@test.com"), "jti-3", EMITIDO, enSegundos(30));
+
+        // When
+        cache.guardar("token-4", autenticacion("d@test.com"), "jti-4", EMITIDO, enSegundos(40));
+
+        // Then
+        assertTrue(cache.getTamanio() <= 3);
+        assertNull(cache.obtener("token-1"));
+        assertNotNull(cache.obtener("token-4"));
+    }
+
+    @Test
+    @DisplayName("No debería guardar nada cuando la cache está deshabilitada")
+    void noDeberiaGuardarConCacheDeshabilitada() {
+        // Given
+        JwtAuthenticationCache deshabilitada = new JwtAuthenticationCache(false, 10, new SimpleMeterRegistry());
+
+        // When
+        deshabilitada.guardar("token-1", autenticacion("cliente@test.com"), "jti-1", EMITIDO, enSegundos(60));
+
+        // Then
+        assertNull(deshabilitada.obtener("token-1"));
+        assertEquals(0, deshabilitada.getTamanio());
+    }
+
+    private static Authentication autenticacion(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+    }
+
+    private static Date enSegundos(int segundos) {
+        return new Date(System.currentTimeMillis() + segundos * 1000L);
+    }
+}
@@ -0,0 +1,125 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests de Unidad - LimitadorIntentosLogin")
+class LimitadorIntentosLoginTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private LimitadorIntentosLogin limitador;
+
+    @BeforeEach
+    void setUp() {
+        // 3 intentos por usuario (1 por minuto), 10 por IP (10 por minuto)
+        limitador = new LimitadorIntentosLogin(true, 3, 1, 10, 10, 6400, new SimpleMeterRegistry(),
+                reloj::get);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar al superar los intentos del usuario e indicar cuándo reintentar")
+    void deberiaRechazarAlSuperarLimiteDeUsuario() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limitador.verificar("cliente@test.com", "10.0.0.1");
+        }
+
+        // When
+        IntentosLoginExcedidosException ex = assertThrows(IntentosLoginExcedidosException.class,
+                () -> limitador.verificar("CLIENTE@test.com", "10.0.0.2"));
+
+        // Then
+        assertEquals(60, ex.getReintentarEnSegundos());
+        assertDoesNotThrow(() -> limitador.verificar("otro@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar al superar los intentos de la IP aunque cambie el usuario")
+    void deberiaRechazarAlSuperarLimiteDeIp() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            limitador.verificar("usuario" + i + "@test.com", "10.0.0.1");
+        }
+
+        // Then
+        assertThrows(IntentosLoginExcedidosException.class,
+                () -> limitador.verificar("nuevo@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Debería recuperar intentos con el paso del tiempo")
+    void deberiaRecuperarIntentosConElTiempo() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limitador.verificar("cliente@test.com", "10.0.0.1");
+        }
+
+        // When
+        reloj.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        // Then
+        assertDoesNotThrow(() -> limitador.verificar("cliente@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Un login exitoso debería restablecer los intentos del usuario")
+    void deberiaRestablecerTrasLoginExitoso() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            limitador.verificar("cliente@test.com", "10.0.0.1");
+        }
+
+        // When
+        limitador.registrarExito("cliente@test.com");
+
+        // Then
+        assertDoesNotThrow(() -> limitador.verificar("cliente@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Debería descartar cubetas llenas para mantener la memoria acotada")
+    void deberiaDescartarCubetasLlenas() {
+        // Given: 100 entradas por franja como máximo
+        for (int i = 0; i < 20000; i++) {
+            limitador.verificar("usuario" + i + "@test.com", "10.0." + (i / 256) + "." + (i % 256));
+            reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        }
+
+        // Then
+        assertTrue(limitador.getCantidadEntradas() <= 6400);
+    }
+
+    @Test
+    @DisplayName("Con las franjas llenas una clave nueva debería seguir limitada")
+    void deberiaLimitarClaveNuevaConFranjasLlenas() {
+        // Given: 4 entradas por franja, todas ocupadas por cubetas a medio usar (el reloj no avanza,
+        // así que ninguna vuelve a llenarse y no hay nada que purgar)
+        limitador = new LimitadorIntentosLogin(true, 3, 1, 100000, 1, 256, new SimpleMeterRegistry(),
+                reloj::get);
+        for (int i = 0; i < 5000; i++) {
+            limitador.verificar("spray" + i + "@test.com", "10.0.0.1");
+        }
+        assertEquals(256, limitador.getCantidadEntradas());
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            limitador.verificar("victima@test.com", "10.0.0.1");
+        }
+
+        // Then
+        assertThrows(IntentosLoginExcedidosException.class,
+                () -> limitador.verificar("victima@test.com", "10.0.0.1"));
+        assertEquals(256, limitador.getCantidadEntradas());
+    }
+}
@@ -0,0 +1,113 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.RefreshToken;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.RefreshTokenRepository;
+import ar.edu.huergo.clickservice.buscadorservicios.util.TokenHasher;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - RefreshTokenService")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(refreshTokenService, "expirationMillis", 60000L);
+    }
+
+    @Test
+    @DisplayName("Debería guardar sólo el hash del refresh token emitido")
+    void deberiaGuardarSoloElHash() {
+        // When
+        String token = refreshTokenService.emitir("cliente@test.com");
+
+        // Then
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(TokenHasher.digerir(token), captor.getValue().getTokenHash());
+        assertNotEquals(token, captor.getValue().getTokenHash());
+        assertEquals("cliente@test.com", captor.getValue().getUsername());
+    }
+
+    @Test
+    @DisplayName("Debería rotar el token manteniendo la familia")
+    void deberiaRotarManteniendoLaFamilia() {
+        // Given
+        RefreshToken actual = tokenGuardado("token-actual", false);
+        when(refreshTokenRepository.findByTokenHash(TokenHasher.digerir("token-actual")))
+                .thenReturn(Optional.of(actual));
+        when(refreshTokenRepository.marcarUsado(actual.getId())).thenReturn(1);
+
+        // When
+        RefreshTokenService.Rotacion rotacion = refreshTokenService.rotar("token-actual");
+
+        // Then
+        assertEquals("cliente@test.com", rotacion.username());
+        assertNotEquals("token-actual", rotacion.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("familia-1", captor.getValue().getFamilia());
+        verify(refreshTokenRepository, never()).revocarFamilia(anyString());
+    }
+
+    @Test
+    @DisplayName("Debería revocar la familia cuando se reutiliza un token ya usado")
+    void deberiaRevocarFamiliaAnteReuso() {
+        // Given
+        RefreshToken usado = tokenGuardado("token-usado", true);
+        when(refreshTokenRepository.findByTokenHash(TokenHasher.digerir("token-usado")))
+                .thenReturn(Optional.of(usado));
+
+        // When
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotar("token-usado"));
+
+        // Then
+        verify(refreshTokenRepository).revocarFamilia("familia-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un refresh token desconocido")
+    void deberiaRechazarTokenDesconocido() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        // Then
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotar("inexistente"));
+    }
+
+    private static RefreshToken tokenGuardado(String token, boolean usado) {
+        RefreshToken refreshToken = new RefreshToken(TokenHasher.digerir(token), "familia-1",
+                "cliente@test.com", Instant.now().plusSeconds(60));
+        refreshToken.setId(1L);
+        refreshToken.setUsado(usado);
+        return refreshToken;
+    }
+}
@@ -0,0 +1,107 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ar.edu.huergo.clickservice.buscadorservicios.entity.security.TokenRevocado;
+import ar.edu.huergo.clickservice.buscadorservicios.repository.security.TokenRevocadoRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests de Unidad - RevocacionTokenService")
+class RevocacionTokenServiceTest {
+
+    @Mock
+    private TokenRevocadoRepository tokenRevocadoRepository;
+
+    @Mock
+    private JwtAuthenticationCache jwtAuthenticationCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    private RevocacionTokenService revocacionTokenService;
+
+    @BeforeEach
+    void setUp() {
+        revocacionTokenService = new RevocacionTokenService(tokenRevocadoRepository,
+                jwtAuthenticationCache, refreshTokenService, 60000, 100);
+    }
+
+    @Test
+    @DisplayName("Debería considerar revocado sólo el jti indicado e invalidar la cache del usuario")
+    void deberiaRevocarJti() {
+        // When
+        revocacionTokenService.revocarToken("jti-1", "cliente@test.com", enSegundos(60));
+
+        // Then
+        assertTrue(revocacionTokenService.estaRevocado("jti-1", "cliente@test.com", new Date()));
+        assertFalse(revocacionTokenService.estaRevocado("jti-2", "cliente@test.com", new Date()));
+        verify(tokenRevocadoRepository).save(any(TokenRevocado.class));
+        verify(jwtAuthenticationCache).invalidarUsuario("cliente@test.com");
+    }
+
+    @Test
+    @DisplayName("Debería revocar los tokens del usuario emitidos antes del corte y sus refresh tokens")
+    void deberiaRevocarTokensAnterioresAlCorte() throws InterruptedException {
+        // Given
+        Date emitidoAntes = new Date(System.currentTimeMillis() - 1000);
+
+        // When
+        revocacionTokenService.revocarUsuario("cliente@test.com");
+        Thread.sleep(5);
+
+        // Then
+        assertTrue(revocacionTokenService.estaRevocado("jti-1", "cliente@test.com", emitidoAntes));
+        assertFalse(revocacionTokenService.estaRevocado("jti-2", "cliente@test.com", new Date()));
+        assertFalse(revocacionTokenService.estaRevocado("jti-3", "otro@test.com", emitidoAntes));
+        verify(refreshTokenService).revocarUsuario("cliente@test.com");
+    }
+
+    @Test
+    @DisplayName("No debería revocar un token emitido en el mismo segundo después del corte")
+    void noDeberiaRevocarTokenDelMismoSegundo() {
+        // When
+        revocacionTokenService.revocarUsuario("cliente@test.com");
+        // El iat de un token emitido ahora, con la precisión del claim (segundos enteros)
+        long segundoActual = System.currentTimeMillis() / 1000 * 1000;
+
+        // Then
+        assertFalse(revocacionTokenService.estaRevocado("jti-1", "cliente@test.com", new Date(segundoActual)));
+        assertTrue(revocacionTokenService.estaRevocado("jti-2", "cliente@test.com",
+                new Date(segundoActual - 1000)));
+    }
+
+    @Test
+    @DisplayName("Debería cargar desde la base las revocaciones hechas por otra instancia")
+    void deberiaCargarRevocacionesDeLaBase() {
+        // Given
+        when(tokenRevocadoRepository.findByExpiraEnAfter(any())).thenReturn(List.of(
+                new TokenRevocado("jti-remoto", "admin@test.com", Instant.now(), Instant.now().plusSeconds(60))));
+
+        // When
+        revocacionTokenService.purgarYRecargar();
+
+        // Then
+        assertTrue(revocacionTokenService.estaRevocado("jti-remoto", "admin@test.com", new Date()));
+        verify(tokenRevocadoRepository).eliminarVencidos(any());
+        verify(jwtAuthenticationCache).invalidarUsuario("admin@test.com");
+    }
+
+    private static Date enSegundos(int segundos) {
+        return new Date(System.currentTimeMillis() + segundos * 1000L);
+    }
+}
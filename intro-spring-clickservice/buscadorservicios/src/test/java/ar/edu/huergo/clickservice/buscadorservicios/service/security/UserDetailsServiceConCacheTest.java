@@ -0,0 +1,141 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests de Unidad - UserDetailsServiceConCache")
+class UserDetailsServiceConCacheTest {
+
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    private final UserDetailsService delegado = username -> {
+        cargas.incrementAndGet();
+        if (username.startsWith("inexistente")) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+        return User.withUsername(username).password("hash").roles("CLIENTE").build();
+    };
+
+    @Test
+    @DisplayName("Debería cargar una sola vez y contar aciertos y fallos")
+    void deberiaCargarUnaSolaVez() {
+        // Given
+        UserDetailsServiceConCache cache = crearCache(60000);
+
+        // When
+        cache.loadUserByUsername("cliente@test.com");
+        cache.loadUserByUsername("cliente@test.com");
+
+        // Then
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    @DisplayName("Debería entregar copias para que borrar credenciales no afecte la cache")
+    void deberiaEntregarCopias() {
+        // Given
+        UserDetailsServiceConCache cache = crearCache(60000);
+        UserDetails primero = cache.loadUserByUsername("cliente@test.com");
+
+        // When
+        ((CredentialsContainer) primero).eraseCredentials();
+        UserDetails segundo = cache.loadUserByUsername("cliente@test.com");
+
+        // Then
+        assertEquals("hash", segundo.getPassword());
+    }
+
+    @Test
+    @DisplayName("Debería volver a cargar al invalidar el usuario o al vencer el TTL")
+    void deberiaRecargarAlInvalidarOVencer() throws InterruptedException {
+        // Given
+        UserDetailsServiceConCache cache = crearCache(20);
+        cache.loadUserByUsername("cliente@test.com");
+
+        // When
+        cache.alModificarUsuario(new UsuarioModificadoEvent("cliente@test.com"));
+        cache.loadUserByUsername("cliente@test.com");
+        Thread.sleep(40);
+        cache.loadUserByUsername("cliente@test.com");
+
+        // Then
+        assertEquals(3, cargas.get());
+    }
+
+    @Test
+    @DisplayName("No debería guardar usuarios inexistentes")
+    void noDeberiaGuardarInexistentes() {
+        // Given
+        UserDetailsServiceConCache cache = crearCache(60000);
+
+        // When
+        assertThrows(UsernameNotFoundException.class, () -> cache.loadUserByUsername("inexistente@test.com"));
+        assertThrows(UsernameNotFoundException.class, () -> cache.loadUserByUsername("inexistente@test.com"));
+
+        // Then
+        assertEquals(2, cargas.get());
+        assertEquals(0, cache.getTamanio());
+    }
+
+    @Test
+    @DisplayName("Debería agrupar las cargas concurrentes del mismo usuario")
+    void deberiaAgruparCargasConcurrentes() throws Exception {
+        // Given: un delegado lento que sólo termina cuando se libera el latch
+        CountDownLatch liberar = new CountDownLatch(1);
+        UserDetailsService lento = username -> {
+            cargas.incrementAndGet();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return User.withUsername(username).password("hash").roles("CLIENTE").build();
+        };
+        UserDetailsServiceConCache cache =
+                new UserDetailsServiceConCache(lento, true, 60000, 100, new SimpleMeterRegistry());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<UserDetails>> resultados = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            resultados.add(executor.submit(() -> cache.loadUserByUsername("cliente@test.com")));
+        }
+        Thread.sleep(50);
+        liberar.countDown();
+
+        // Then
+        for (Future<UserDetails> resultado : resultados) {
+            assertNotNull(resultado.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, cargas.get());
+    }
+
+    private UserDetailsServiceConCache crearCache(long ttlMillis) {
+        return new UserDetailsServiceConCache(delegado, true, ttlMillis, 100, new SimpleMeterRegistry());
+    }
+}
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.when;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Rol;
 import ar.edu.huergo.clickservice.buscadorservicios.entity.security.Usuario;
@@ -45,6 +47,9 @@ class UsuarioServiceTest {
     @Mock
     private RolRepository rolRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -203,4 +208,38 @@ class UsuarioServiceTest {
 
         assertEquals("Las contraseñas no pueden ser null", excepcion.getMessage());
     }
+
+    @Test
+    @DisplayName("Debería actualizar roles y publicar el evento de invalidación")
+    void deberiaActualizarRolesYPublicarEvento() {
+        // Given
+        Rol rolAdmin = new Rol(2L, "ADMIN");
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuarioEjemplo));
+        when(rolRepository.findByNombre("ADMIN")).thenReturn(Optional.of(rolAdmin));
+        when(usuarioRepository.save(usuarioEjemplo)).thenReturn(usuarioEjemplo);
+
+        // When
+        Usuario resultado = usuarioService.actualizarRoles(1L, Set.of("ADMIN"));
+
+        // Then
+        assertEquals(Set.of(rolAdmin), resultado.getRoles());
+        verify(eventPublisher, times(1)).publishEvent(new UsuarioModificadoEvent("usuario@test.com"));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar el cambio de contraseña si la actual es incorrecta")
+    void deberiaRechazarCambioDePasswordConPasswordActualIncorrecta() {
+        // Given
+        String nueva = "NuevaPasswordSegura@123";
+        when(usuarioRepository.findByUsername("usuario@test.com")).thenReturn(Optional.of(usuarioEjemplo));
+        when(passwordEncoder.matches("incorrecta", "password123")).thenReturn(false);
+
+        // When & Then
+        IllegalArgumentException excepcion = assertThrows(IllegalArgumentException.class,
+                () -> usuarioService.cambiarPassword("usuario@test.com", "incorrecta", nueva, nueva));
+
+        assertEquals("La contraseña actual es incorrecta", excepcion.getMessage());
+        verify(usuarioRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 }
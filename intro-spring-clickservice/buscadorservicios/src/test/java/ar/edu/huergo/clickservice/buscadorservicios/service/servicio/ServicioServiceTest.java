@@ -17,6 +17,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
 import ar.edu.huergo.clickservice.buscadorservicios.repository.servicio.ServicioRepository;
@@ -28,6 +29,9 @@ class ServicioServiceTest {
     @Mock
     private ServicioRepository servicioRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ServicioService servicioService;
 
@@ -84,4 +88,17 @@ class ServicioServiceTest {
         assertEquals("Carpintería", resultado.get(2).getNombre());
         verify(servicioRepository, times(1)).findAll();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debería publicar el evento de servicio modificado al crear un servicio")
+    void deberiaPublicarEventoAlCrearServicio() {
+        // Given
+        when(servicioRepository.save(servicioEjemplo)).thenReturn(servicioEjemplo);
+
+        // When
+        servicioService.crearServicio(servicioEjemplo);
+
+        // Then
+        verify(eventPublisher).publishEvent(new ServicioModificadoEvent(1L));
+    }
+}
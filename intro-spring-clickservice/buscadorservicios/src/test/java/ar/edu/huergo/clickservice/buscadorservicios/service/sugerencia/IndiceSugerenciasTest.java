@@ -0,0 +1,150 @@
+package ar.edu.huergo.clickservice.buscadorservicios.service.sugerencia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ar.edu.huergo.clickservice.buscadorservicios.dto.profesional.SugerenciaProfesionalDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia.SugerenciaDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.dto.sugerencia.SugerenciasDTO;
+import ar.edu.huergo.clickservice.buscadorservicios.entity.servicio.Servicio;
+import ar.edu.huergo.clickservice.buscadorservicios.util.NormalizadorTexto;
+
+@DisplayName("Tests de Unidad - IndiceSugerencias")
+class IndiceSugerenciasTest {
+
+    private IndiceSugerencias indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceSugerencias(null, null, 10);
+        indice.cargar(
+                List.of(new Servicio(1L, "Plomería", 1000.0), new Servicio(2L, "Pintura", 900.0),
+                        new Servicio(3L, "Reparación de electrodomésticos", 1200.0)),
+                List.of(
+                        new SugerenciaProfesionalDTO(1L, "Juan Pérez", "Palermo", 40, 1L),
+                        new SugerenciaProfesionalDTO(2L, "Pedro Gómez", "Palermo", 120, 1L),
+                        new SugerenciaProfesionalDTO(2L, "Pedro Gómez", "Palermo", 120, 2L),
+                        new SugerenciaProfesionalDTO(3L, "Ana Paz", "Parque Patricios", 5, 1L)));
+    }
+
+    @Test
+    @DisplayName("Debería sugerir por el comienzo de cualquier palabra sin importar tildes ni mayúsculas")
+    void deberiaSugerirPorComienzoDePalabra() {
+        // When
+        SugerenciasDTO sugerencias = indice.sugerir("ELECTRO", 5);
+        SugerenciasDTO porApellido = indice.sugerir("perez", 5);
+
+        // Then
+        assertEquals(List.of(new SugerenciaDTO(3L, "Reparación de electrodomésticos")), sugerencias.servicios());
+        assertEquals(List.of(new SugerenciaDTO(1L, "Juan Pérez")), porApellido.profesionales());
+        assertTrue(indice.sugerir("lomeria", 5).servicios().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Debería ordenar cada tipo por popularidad")
+    void deberiaOrdenarPorPopularidad() {
+        // When
+        SugerenciasDTO sugerencias = indice.sugerir("p", 10);
+
+        // Then: servicios y zonas por cantidad de profesionales, profesionales por trabajos
+        assertEquals(List.of("Plomería", "Pintura"), textos(sugerencias.servicios()));
+        assertEquals(List.of("Palermo", "Parque Patricios"), textos(sugerencias.zonas()));
+        assertEquals(List.of("Pedro Gómez", "Juan Pérez", "Ana Paz"), textos(sugerencias.profesionales()));
+        assertEquals(1, indice.sugerir("p", 1).profesionales().size());
+    }
+
+    @Test
+    @DisplayName("Debería actualizar conteos, zonas y nombres con cada cambio")
+    void deberiaActualizarConCadaCambio() {
+        // When: Juan se pasa a pintura y a otra zona, Ana se da de baja y se renombra un servicio
+        indice.actualizarProfesional(1L, List.of(new SugerenciaProfesionalDTO(1L, "Juan Pérez", "Belgrano", 40, 2L)));
+        indice.actualizarProfesional(3L, List.of());
+        indice.actualizarServicio(1L, "Plomería y gas");
+
+        // Then
+        assertEquals(List.of("Pintura", "Plomería y gas"), textos(indice.sugerir("p", 10).servicios()));
+        assertEquals(List.of("Plomería y gas"), textos(indice.sugerir("gas", 10).servicios()));
+        assertEquals(List.of("Palermo"), textos(indice.sugerir("pa", 10).zonas()));
+        assertEquals(List.of("Belgrano"), textos(indice.sugerir("bel", 10).zonas()));
+        assertTrue(indice.sugerir("ana", 10).profesionales().isEmpty());
+
+        // When: se elimina el servicio
+        indice.actualizarServicio(2L, null);
+
+        // Then
+        assertEquals(List.of("Plomería y gas"), textos(indice.sugerir("p", 10).servicios()));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar textos vacíos o demasiado largos y cantidades fuera de rango")
+    void deberiaValidarLaConsulta() {
+        assertThrows(IllegalArgumentException.class, () -> indice.sugerir(" ", 5));
+        assertThrows(IllegalArgumentException.class, () -> indice.sugerir("a".repeat(101), 5));
+        assertThrows(IllegalArgumentException.class, () -> indice.sugerir("pa", 11));
+    }
+
+    @Test
+    @DisplayName("Debería coincidir con un recorrido completo después de muchos cambios")
+    void deberiaCoincidirConRecorridoCompleto() {
+        // Given: nombres con prefijos compartidos para forzar divisiones y uniones de nodos
+        indice = new IndiceSugerencias(null, null, 10);
+        indice.cargar(List.of(), List.of());
+        String[] nombres = {"Ana", "Anabel", "Andrés", "Angel", "Ángela", "Juan", "Juana", "Julián", "Pedro",
+                "Pablo", "Paz", "Pérez", "Gómez", "Gomes", "González", "Gonzalo"};
+        Random random = new Random(13);
+        Map<Long, SugerenciaProfesionalDTO> modelo = new HashMap<>();
+        for (int paso = 0; paso < 5000; paso++) {
+            long id = 1 + random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                indice.actualizarProfesional(id, List.of());
+                modelo.remove(id);
+            } else {
+                String nombre = nombres[random.nextInt(nombres.length)] + " " + nombres[random.nextInt(nombres.length)];
+                SugerenciaProfesionalDTO fila = new SugerenciaProfesionalDTO(id, nombre, null, random.nextInt(50),
+                        null);
+                indice.actualizarProfesional(id, List.of(fila));
+                modelo.put(id, fila);
+            }
+        }
+
+        for (String prefijo : List.of("a", "an", "ana", "ange", "ANGEL", "j", "jua", "juana", "p", "pe", "go",
+                "gonz", "gomez", "ana g", "juan p", "x")) {
+            // When
+            List<SugerenciaDTO> sugeridos = indice.sugerir(prefijo, 10).profesionales();
+
+            // Then: los 10 de más trabajos entre los que tienen una palabra que empieza con el prefijo
+            String plegado = NormalizadorTexto.plegarPalabras(prefijo);
+            List<SugerenciaDTO> esperados = new ArrayList<>(modelo.values().stream()
+                    .filter(f -> {
+                        String nombre = NormalizadorTexto.plegarPalabras(f.nombreCompleto());
+                        return nombre.startsWith(plegado) || nombre.contains(" " + plegado);
+                    })
+                    .sorted(Comparator.comparing(SugerenciaProfesionalDTO::trabajosRealizados).reversed()
+                            .thenComparing(f -> NormalizadorTexto.plegarPalabras(f.nombreCompleto())))
+                    .map(f -> new SugerenciaDTO(f.profesionalId(), f.nombreCompleto()))
+                    .limit(10)
+                    .toList());
+            assertEquals(esperados.size(), sugeridos.size(), prefijo);
+            for (int i = 0; i < sugeridos.size(); i++) {
+                // A igual trabajos y nombre el orden entre ids puede variar: se compara lo visible
+                assertEquals(esperados.get(i).texto(), sugeridos.get(i).texto(), prefijo);
+            }
+        }
+    }
+
+    private static List<String> textos(List<SugerenciaDTO> sugerencias) {
+        return sugerencias.stream().map(SugerenciaDTO::texto).toList();
+    }
+}